@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.shape.Box;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic scenes shared by the benchmarks, so that results
+ * are comparable between runs and releases.
+ */
+public final class BenchScenes {
+
+    /**
+     * Seed of every random number generator used to build scenes.
+     */
+    public static final long SEED = 0x6A4D45L;
+
+    private BenchScenes() {
+    }
+
+    /**
+     * Creates a random number generator with the fixed seed.
+     *
+     * @return a new generator
+     */
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Builds a balanced scene graph of approximately the given number of
+     * spatials. Every inner Node has {@code branching} children, the leaves
+     * are Geometries sharing a single Box mesh, and all spatials have random
+     * local transforms within a 1000 unit cube.
+     *
+     * @param spatialCount the number of spatials, including the root
+     * @param branching the number of children of each Node
+     * @return the root of the scene
+     */
+    public static Node createScene(int spatialCount, int branching) {
+        Random random = random();
+        Mesh mesh = new Box(0.5f, 0.5f, 0.5f);
+        Node root = new Node("root");
+        Node[] level = {root};
+        int created = 1;
+        while (created < spatialCount) {
+            int capacity = level.length * branching;
+            boolean leaves = created + capacity >= spatialCount;
+            Node[] next = new Node[leaves ? 0 : capacity];
+            int n = 0;
+            for (Node parent : level) {
+                for (int i = 0; i < branching && created < spatialCount; i++, created++) {
+                    if (leaves) {
+                        Geometry geom = new Geometry("geom" + created, mesh);
+                        randomize(geom.getLocalTranslation(), random, 10f);
+                        parent.attachChild(geom);
+                    } else {
+                        Node node = new Node("node" + created);
+                        randomize(node.getLocalTranslation(), random, 100f);
+                        node.setLocalRotation(randomRotation(random));
+                        parent.attachChild(node);
+                        next[n++] = node;
+                    }
+                }
+            }
+            level = next;
+        }
+        root.updateGeometricState();
+        return root;
+    }
+
+    /**
+     * Creates a random rotation.
+     *
+     * @param random the generator to use
+     * @return a new unit quaternion
+     */
+    public static Quaternion randomRotation(Random random) {
+        return new Quaternion().fromAngles(random.nextFloat() * FastMath.TWO_PI,
+                random.nextFloat() * FastMath.TWO_PI, random.nextFloat() * FastMath.TWO_PI);
+    }
+
+    /**
+     * Creates a random axis-aligned box within a 1000 unit cube.
+     *
+     * @param random the generator to use
+     * @return a new box
+     */
+    public static BoundingBox randomBox(Random random) {
+        Vector3f center = randomize(new Vector3f(), random, 500f);
+        return new BoundingBox(center, 1f + random.nextFloat() * 10f,
+                1f + random.nextFloat() * 10f, 1f + random.nextFloat() * 10f);
+    }
+
+    private static Vector3f randomize(Vector3f store, Random random, float extent) {
+        return store.set((random.nextFloat() * 2f - 1f) * extent,
+                (random.nextFloat() * 2f - 1f) * extent,
+                (random.nextFloat() * 2f - 1f) * extent);
+    }
+}
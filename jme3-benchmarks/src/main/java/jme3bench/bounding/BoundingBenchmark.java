@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench.bounding;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.math.Matrix4f;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import jme3bench.BenchScenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Bounding volume transforms, merges and frustum tests, as performed for
+ * every spatial when world bounds are refreshed and the scene is culled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundingBenchmark {
+
+    private static final int VOLUMES = 1024;
+
+    private final BoundingBox[] boxes = new BoundingBox[VOLUMES];
+    private final BoundingSphere[] spheres = new BoundingSphere[VOLUMES];
+    private final Transform transform = new Transform();
+    private final Matrix4f matrix = new Matrix4f();
+    private final BoundingBox boxStore = new BoundingBox();
+    private final BoundingSphere sphereStore = new BoundingSphere();
+    private Camera cam;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchScenes.random();
+        for (int i = 0; i < VOLUMES; i++) {
+            boxes[i] = BenchScenes.randomBox(random);
+            spheres[i] = new BoundingSphere(1f + random.nextFloat() * 10f, boxes[i].getCenter().clone());
+        }
+        transform.setTranslation(10, -5, 3);
+        transform.setRotation(BenchScenes.randomRotation(random));
+        transform.setScale(1.5f, 2f, 0.5f);
+        transform.toTransformMatrix(matrix);
+
+        cam = new Camera(1280, 720);
+        cam.setFrustumPerspective(45f, 1280f / 720f, 1f, 1000f);
+        cam.setLocation(new Vector3f(0, 0, 600));
+        cam.lookAt(Vector3f.ZERO, Vector3f.UNIT_Y);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUMES)
+    public BoundingVolume boxTransform() {
+        BoundingVolume result = null;
+        for (BoundingBox box : boxes) {
+            result = box.transform(transform, boxStore);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUMES)
+    public BoundingVolume boxTransformMatrix() {
+        BoundingVolume result = null;
+        for (BoundingBox box : boxes) {
+            result = box.transform(matrix, boxStore);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUMES)
+    public BoundingVolume sphereTransform() {
+        BoundingVolume result = null;
+        for (BoundingSphere sphere : spheres) {
+            result = sphere.transform(transform, sphereStore);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUMES)
+    public BoundingVolume boxMerge() {
+        boxStore.setCenter(0, 0, 0);
+        boxStore.setXExtent(0);
+        boxStore.setYExtent(0);
+        boxStore.setZExtent(0);
+        for (BoundingBox box : boxes) {
+            boxStore.mergeLocal(box);
+        }
+        return boxStore;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUMES)
+    public void cameraContains(Blackhole blackhole) {
+        for (BoundingBox box : boxes) {
+            cam.setPlaneState(0);
+            blackhole.consume(cam.contains(box));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench.collision;
+
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Sphere;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import jme3bench.BenchScenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ray picking against a mesh, which goes through
+ * {@code BIHTree.collideWith}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final int RAYS = 256;
+
+    /**
+     * The number of samples along each axis of the sphere, the mesh has
+     * about twice the square of this in triangles.
+     */
+    @Param({"32", "128"})
+    public int samples;
+
+    private Geometry geometry;
+    private final Ray[] rays = new Ray[RAYS];
+    private final CollisionResults results = new CollisionResults();
+
+    @Setup
+    public void setUp() {
+        Mesh mesh = new Sphere(samples, samples, 10f);
+        geometry = new Geometry("sphere", mesh);
+        geometry.setLocalRotation(BenchScenes.randomRotation(BenchScenes.random()));
+        geometry.updateGeometricState();
+        mesh.createCollisionData();
+
+        // half of the rays hit the sphere
+        Random random = BenchScenes.random();
+        for (int i = 0; i < RAYS; i++) {
+            Vector3f origin = new Vector3f(0, 0, 50);
+            Vector3f target = new Vector3f((random.nextFloat() * 2f - 1f) * 14f,
+                    (random.nextFloat() * 2f - 1f) * 14f, 0);
+            rays[i] = new Ray(origin, target.subtractLocal(origin).normalizeLocal());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public int rayAllHits() {
+        int hits = 0;
+        for (Ray ray : rays) {
+            results.clear();
+            hits += geometry.collideWith(ray, results);
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public float rayClosestHit() {
+        float distance = 0;
+        for (Ray ray : rays) {
+            results.clear();
+            if (geometry.collideWith(ray, results) > 0) {
+                distance += results.getClosestCollision().getDistance();
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,630 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench.network;
+
+import com.jme3.network.AbstractMessage;
+import com.jme3.network.Client;
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Message;
+import com.jme3.network.Network;
+import com.jme3.network.Server;
+import com.jme3.network.base.DefaultClient;
+import com.jme3.network.base.DefaultServer;
+import com.jme3.network.base.RudpConnectorFactory;
+import com.jme3.network.base.StripedExecutor;
+import com.jme3.network.kernel.rudp.LossSimulator;
+import com.jme3.network.kernel.rudp.RudpConnector;
+import com.jme3.network.kernel.rudp.RudpKernel;
+import com.jme3.network.kernel.udp.UdpConnector;
+import com.jme3.network.kernel.udp.UdpKernel;
+import com.jme3.network.serializing.Serializable;
+import com.jme3.network.serializing.Serializer;
+import com.jme3.network.service.rmi.RmiClientService;
+import com.jme3.network.service.rmi.RmiHostedService;
+import com.jme3.network.service.rpc.RpcClientService;
+import com.jme3.network.service.rpc.RpcHostedService;
+import com.jme3.network.stats.LatencyHistogram;
+import com.jme3.network.stats.NetworkStats;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jme3bench.BenchScenes;
+
+/**
+ * A load test of SpiderMonkey over loopback. It starts a
+ * {@link DefaultServer} and a number of simulated clients in the same JVM,
+ * drives a configurable mix of traffic for a fixed time and reports the
+ * throughput, the latency percentiles and the allocation rate.
+ * <p>
+ * The traffic consists of:
+ * <ul>
+ * <li>messages sent by each client to the server and echoed back to it,
+ * part of them over the unreliable channel,</li>
+ * <li>messages broadcast by the server to every client,</li>
+ * <li>synchronous RMI calls from each client to an object shared by the
+ * server.</li>
+ * </ul>
+ * Since both ends run in the same process, broadcast latencies are one-way
+ * and echo latencies are round trips. Only the messages and calls sent
+ * during the measured time are counted, and their latencies are exact, not
+ * bucketed.
+ * <p>
+ * With {@code --rudp=true} the reliable channel runs over {@link RudpKernel}
+ * instead of TCP, and {@code --loss}, {@code --delay} and {@code --jitter}
+ * pass its datagrams through a {@link LossSimulator} in both directions.
+ * <p>
+ * Run with {@code gradlew :jme3-benchmarks:networkLoadTest}, passing options
+ * with {@code -Pargs="--clients=64 --rate=500"}. {@code --help} lists the
+ * options.
+ */
+public final class NetworkLoadTest {
+
+    private static final String GAME_NAME = "NetworkLoadTest";
+    private static final int VERSION = 1;
+
+    /**
+     * The interval of the traffic driver, in milliseconds.
+     */
+    private static final int TICK = 5;
+
+    /**
+     * A message sent by a client and echoed by the server, or broadcast by
+     * the server.
+     */
+    @Serializable
+    public static class LoadMessage extends AbstractMessage {
+
+        private long sent;
+        private boolean broadcast;
+        private byte[] payload;
+
+        public LoadMessage() {
+        }
+
+        public LoadMessage(long sent, boolean broadcast, byte[] payload, boolean reliable) {
+            this.sent = sent;
+            this.broadcast = broadcast;
+            this.payload = payload;
+            setReliable(reliable);
+        }
+    }
+
+    /**
+     * The object shared by the server for the RMI calls.
+     */
+    public interface EchoService {
+
+        long echo(long value);
+    }
+
+    private static class Echo implements EchoService {
+
+        @Override
+        public long echo(long value) {
+            return value;
+        }
+    }
+
+    /**
+     * Exact latency samples in nanoseconds, recorded from any thread.
+     */
+    private static final class Samples {
+
+        private static final int MAX_SAMPLES = 1 << 24;
+
+        private long[] values = new long[1024];
+        private int size;
+        private int dropped;
+
+        synchronized void record(long nanos) {
+            if (size == values.length) {
+                if (size == MAX_SAMPLES) {
+                    dropped++;
+                    return;
+                }
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized int size() {
+            return size + dropped;
+        }
+
+        synchronized String summary() {
+            if (size == 0) {
+                return "no samples";
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long value : sorted) {
+                total += value;
+            }
+            return String.format(Locale.ROOT,
+                    "avg %8.1f  p50 %8.1f  p90 %8.1f  p99 %8.1f  p99.9 %8.1f  max %8.1f us (%d samples)",
+                    total / 1000.0 / size, micros(sorted, 50), micros(sorted, 90),
+                    micros(sorted, 99), micros(sorted, 99.9), sorted[size - 1] / 1000.0, size);
+        }
+
+        private static double micros(long[] sorted, double percentile) {
+            int rank = (int) Math.ceil(sorted.length * percentile / 100) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank))] / 1000.0;
+        }
+    }
+
+    /**
+     * The options of a run, parsed from {@code --name=value} arguments.
+     */
+    static final class Options {
+
+        int clients = 16;
+        int warmup = 3;
+        int duration = 10;
+        double rate = 200;
+        int size = 64;
+        double unreliable = 0.5;
+        double broadcast = 20;
+        double rmi = 20;
+        int port = 6150;
+        boolean udp = true;
+        boolean rudp = false;
+        double loss = 0;
+        int delay = 0;
+        int jitter = 0;
+        int dispatchThreads = 0;
+
+        static void usage() {
+            System.out.println("Options, with their defaults:");
+            System.out.println("  --clients=16        number of simulated clients");
+            System.out.println("  --warmup=3          warm-up time in seconds, not measured");
+            System.out.println("  --duration=10       measured time in seconds");
+            System.out.println("  --rate=200          echoed messages sent per client per second");
+            System.out.println("  --size=64           payload size of the messages in bytes");
+            System.out.println("  --unreliable=0.5    fraction of the echoed messages sent unreliably");
+            System.out.println("  --broadcast=20      messages broadcast by the server per second");
+            System.out.println("  --rmi=20            synchronous RMI calls per client per second");
+            System.out.println("  --port=6150         TCP and UDP port of the server, UDP uses port + 1 with --rudp");
+            System.out.println("  --udp=true          false sends the unreliable messages over the reliable channel");
+            System.out.println("  --rudp=false        true runs the reliable channel over reliable UDP instead of TCP");
+            System.out.println("  --loss=0            with --rudp, fraction of the reliable datagrams dropped");
+            System.out.println("  --delay=0           with --rudp, one-way delay of the reliable datagrams in ms");
+            System.out.println("  --jitter=0          with --rudp, random extra delay of up to this many ms");
+            System.out.println("  --dispatchThreads=0 server dispatch threads, 0 dispatches on the kernel threads");
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    return null;
+                }
+                int split = arg.indexOf('=');
+                if (!arg.startsWith("--") || split < 0) {
+                    throw new IllegalArgumentException("Expected --name=value: " + arg);
+                }
+                String name = arg.substring(2, split);
+                String value = arg.substring(split + 1);
+                switch (name) {
+                    case "clients": options.clients = Integer.parseInt(value); break;
+                    case "warmup": options.warmup = Integer.parseInt(value); break;
+                    case "duration": options.duration = Integer.parseInt(value); break;
+                    case "rate": options.rate = Double.parseDouble(value); break;
+                    case "size": options.size = Integer.parseInt(value); break;
+                    case "unreliable": options.unreliable = Double.parseDouble(value); break;
+                    case "broadcast": options.broadcast = Double.parseDouble(value); break;
+                    case "rmi": options.rmi = Double.parseDouble(value); break;
+                    case "port": options.port = Integer.parseInt(value); break;
+                    case "udp": options.udp = Boolean.parseBoolean(value); break;
+                    case "rudp": options.rudp = Boolean.parseBoolean(value); break;
+                    case "loss": options.loss = Double.parseDouble(value); break;
+                    case "delay": options.delay = Integer.parseInt(value); break;
+                    case "jitter": options.jitter = Integer.parseInt(value); break;
+                    case "dispatchThreads": options.dispatchThreads = Integer.parseInt(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (options.clients <= 0 || options.duration <= 0 || options.warmup < 0
+                    || options.size < 0 || options.unreliable < 0 || options.unreliable > 1
+                    || options.loss < 0 || options.loss >= 1 || options.delay < 0 || options.jitter < 0) {
+                throw new IllegalArgumentException("Option out of range");
+            }
+            if (!options.rudp && (options.loss > 0 || options.delay > 0 || options.jitter > 0)) {
+                throw new IllegalArgumentException("--loss, --delay and --jitter require --rudp=true");
+            }
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d clients, %d s (+%d s warm-up), %.0f msg/s per client of %d bytes (%.0f%% unreliable%s),"
+                    + " %.0f broadcasts/s, %.0f RMI calls/s per client, %s, %s",
+                    clients, duration, warmup, rate, size, unreliable * 100, udp ? "" : " over the reliable channel",
+                    broadcast, rmi,
+                    dispatchThreads > 0 ? dispatchThreads + " dispatch threads" : "kernel thread dispatch",
+                    rudp ? String.format(Locale.ROOT, "reliable UDP with %.1f%% loss, %d+%d ms delay",
+                            loss * 100, delay, jitter) : "TCP");
+        }
+    }
+
+    private final Options options;
+    private final byte[] payload;
+    private final Samples echoLatency = new Samples();
+    private final Samples broadcastLatency = new Samples();
+    private final Samples rmiLatency = new Samples();
+    private final AtomicLong echoesSent = new AtomicLong();
+    private final AtomicLong broadcastsSent = new AtomicLong();
+    private final AtomicLong rmiBacklog = new AtomicLong();
+    private final AtomicLong rmiSkipped = new AtomicLong();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final Random random = BenchScenes.random();
+
+    private Server server;
+    private LossSimulator serverLoss;
+    private LossSimulator clientLoss;
+    private final List<Client> clients = new ArrayList<>();
+    private final List<EchoService> echoServices = new ArrayList<>();
+    private ExecutorService rmiCallers;
+    private volatile boolean driving;
+    private volatile long windowStart = Long.MAX_VALUE;
+    private volatile long windowEnd = Long.MAX_VALUE;
+
+    private NetworkLoadTest(Options options) {
+        this.options = options;
+        this.payload = new byte[options.size];
+        BenchScenes.random().nextBytes(payload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            Options.usage();
+            System.exit(1);
+            return;
+        }
+        if (options == null) {
+            Options.usage();
+            return;
+        }
+        // The connection chatter would drown the report
+        Logger.getLogger("com.jme3.network").setLevel(Level.WARNING);
+
+        NetworkLoadTest test = new NetworkLoadTest(options);
+        try {
+            test.start();
+            test.run();
+        } finally {
+            test.stop();
+        }
+    }
+
+    private void start() throws Exception {
+        Serializer.registerClass(LoadMessage.class);
+
+        if (options.rudp) {
+            serverLoss = lossSimulator();
+            clientLoss = lossSimulator();
+            RudpKernel reliable = new RudpKernel(options.port);
+            reliable.setLossSimulator(serverLoss);
+            server = new DefaultServer(GAME_NAME, VERSION, reliable,
+                    options.udp ? new UdpKernel(options.port + 1) : null);
+        } else {
+            server = Network.createServer(GAME_NAME, VERSION, options.port, options.udp ? options.port : -1);
+        }
+        if (options.dispatchThreads > 0) {
+            ((DefaultServer) server).setDispatchExecutor(
+                    StripedExecutor.createThreadPool(options.dispatchThreads, "LoadTestDispatch"));
+        }
+        server.getServices().addServices(new RpcHostedService(), new RmiHostedService());
+        server.getServices().getService(RmiHostedService.class).shareGlobal(new Echo(), EchoService.class);
+        server.addMessageListener((HostedConnection source, Message m) -> {
+            LoadMessage message = (LoadMessage) m;
+            if (!message.broadcast) {
+                source.send(message);
+            }
+        }, LoadMessage.class);
+        server.start();
+
+        int udpPort = options.udp ? options.port : -1;
+        for (int i = 0; i < options.clients; i++) {
+            Client client = options.rudp ? connectRudp()
+                    : Network.connectToServer(GAME_NAME, VERSION, "localhost", options.port, udpPort);
+            client.getServices().addServices(new RpcClientService(), new RmiClientService());
+            client.addMessageListener((Client source, Message m) -> {
+                LoadMessage message = (LoadMessage) m;
+                if (isMeasured(message.sent)) {
+                    long latency = System.nanoTime() - message.sent;
+                    (message.broadcast ? broadcastLatency : echoLatency).record(latency);
+                }
+            }, LoadMessage.class);
+            client.start();
+            clients.add(client);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (Client client : clients) {
+            EchoService echo = null;
+            while (echo == null) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out waiting for the clients to connect");
+                }
+                if (client.isStarted()) {
+                    echo = client.getServices().getService(RmiClientService.class).getRemoteObject(EchoService.class);
+                }
+                if (echo == null) {
+                    Thread.sleep(10);
+                }
+            }
+            echoServices.add(echo);
+        }
+        rmiCallers = Executors.newFixedThreadPool(options.clients);
+    }
+
+    private LossSimulator lossSimulator() {
+        LossSimulator simulator = new LossSimulator(options.loss, 0, BenchScenes.random());
+        simulator.setDelay(options.delay, options.jitter, TimeUnit.MILLISECONDS);
+        return simulator;
+    }
+
+    private Client connectRudp() throws Exception {
+        InetAddress host = InetAddress.getByName("localhost");
+        RudpConnector reliable = new RudpConnector(host, options.port);
+        reliable.setLossSimulator(clientLoss);
+        UdpConnector fast = options.udp ? new UdpConnector(host, options.port + 1) : null;
+        return new DefaultClient(GAME_NAME, VERSION, reliable, fast, new RudpConnectorFactory(host, clientLoss));
+    }
+
+    private void run() throws Exception {
+        System.out.println("NetworkLoadTest: " + options);
+
+        Thread driver = new Thread(this::drive, "LoadTestDriver");
+        driving = true;
+        driver.start();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmup));
+
+        // Start measuring
+        NetworkStats stats = server.getNetworkStats();
+        stats.reset();
+        long allocatedStart = allocatedBytes();
+        long gcCountStart = gcCount();
+        long gcTimeStart = gcTime();
+        windowStart = System.nanoTime();
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.duration));
+
+        windowEnd = System.nanoTime();
+        double seconds = (windowEnd - windowStart) / 1e9;
+        long allocated = allocatedBytes() - allocatedStart;
+        long gcCount = gcCount() - gcCountStart;
+        long gcTime = gcTime() - gcTimeStart;
+        long sent = stats.getTotal().getMessagesSent();
+        long sentBytes = stats.getTotal().getBytesSent();
+        long received = stats.getTotal().getMessagesReceived();
+        long receivedBytes = stats.getTotal().getBytesReceived();
+        driving = false;
+        driver.join();
+
+        // Give the messages and calls in flight time to arrive, the ones
+        // still missing after that count as lost
+        Thread.sleep(TimeUnit.SECONDS.toMillis(2));
+        long echoes = echoesSent.get();
+        long broadcasts = broadcastsSent.get() * clients.size();
+
+        System.out.printf(Locale.ROOT, "Server traffic: sent %.0f msg/s, %.1f KB/s; received %.0f msg/s, %.1f KB/s%n",
+                sent / seconds, sentBytes / seconds / 1024, received / seconds, receivedBytes / seconds / 1024);
+        System.out.printf(Locale.ROOT, "Echoes:     %d sent, %d lost%n", echoes, echoes - echoLatency.size());
+        System.out.printf(Locale.ROOT, "Broadcasts: %d sent, %d lost%n", broadcasts, broadcasts - broadcastLatency.size());
+        System.out.println("Echo round trip:    " + echoLatency.summary());
+        System.out.println("Broadcast one-way:  " + broadcastLatency.summary());
+        System.out.println("RMI call:           " + rmiLatency.summary());
+        if (rmiSkipped.get() > 0) {
+            System.out.println("RMI calls skipped because earlier calls had not returned: " + rmiSkipped.get());
+        }
+        System.out.println("Server encode:        " + histogram(stats.getEncodeTime()));
+        System.out.println("Server decode:        " + histogram(stats.getDecodeTime()));
+        System.out.println("Server outbound wait: " + histogram(stats.getOutboundWait()));
+        if (allocated >= 0) {
+            System.out.printf(Locale.ROOT, "Allocation: %.1f MB/s%n", allocated / seconds / (1024 * 1024));
+        } else {
+            System.out.println("Allocation: not supported by this JVM");
+        }
+        System.out.printf(Locale.ROOT, "GC: %d collections, %d ms%n", gcCount, gcTime);
+        if (serverLoss != null && options.loss > 0) {
+            System.out.printf(Locale.ROOT, "Simulated loss: %d of %d datagrams dropped%n",
+                    serverLoss.getDroppedCount() + clientLoss.getDroppedCount(),
+                    serverLoss.getDroppedCount() + clientLoss.getDroppedCount()
+                    + serverLoss.getSentCount() + clientLoss.getSentCount());
+        }
+        if (errors.get() > 0) {
+            System.out.println("Errors: " + errors.get());
+        }
+    }
+
+    private boolean isMeasured(long sent) {
+        return sent >= windowStart && sent < windowEnd;
+    }
+
+    /**
+     * Sends the traffic at the configured rates until {@code driving} is
+     * cleared. Each tick sends what is due since the start, so the rates hold
+     * even when ticks are late.
+     */
+    private void drive() {
+        long start = System.nanoTime();
+        long echoes = 0;
+        long broadcasts = 0;
+        long rmiCalls = 0;
+        while (driving) {
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long echoesDue = (long) (elapsed * options.rate);
+            for (; echoes < echoesDue; echoes++) {
+                boolean reliable = random.nextDouble() >= options.unreliable;
+                for (Client client : clients) {
+                    long now = System.nanoTime();
+                    client.send(new LoadMessage(now, false, payload, reliable));
+                    if (isMeasured(now)) {
+                        echoesSent.incrementAndGet();
+                    }
+                }
+            }
+
+            long broadcastsDue = (long) (elapsed * options.broadcast);
+            for (; broadcasts < broadcastsDue; broadcasts++) {
+                long now = System.nanoTime();
+                server.broadcast(new LoadMessage(now, true, payload, true));
+                if (isMeasured(now)) {
+                    broadcastsSent.incrementAndGet();
+                }
+            }
+
+            long rmiDue = (long) (elapsed * options.rmi);
+            for (; rmiCalls < rmiDue; rmiCalls++) {
+                for (EchoService echo : echoServices) {
+                    // Skip the call if the previous ones have not returned,
+                    // which keeps a slow server from queuing up calls forever
+                    if (rmiBacklog.get() > clients.size() * 4) {
+                        if (isMeasured(System.nanoTime())) {
+                            rmiSkipped.incrementAndGet();
+                        }
+                        continue;
+                    }
+                    rmiBacklog.incrementAndGet();
+                    rmiCallers.execute(() -> call(echo));
+                }
+            }
+
+            try {
+                Thread.sleep(TICK);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void call(EchoService echo) {
+        try {
+            long sent = System.nanoTime();
+            if (echo.echo(sent) != sent) {
+                errors.incrementAndGet();
+            }
+            if (isMeasured(sent)) {
+                rmiLatency.record(System.nanoTime() - sent);
+            }
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+        } finally {
+            rmiBacklog.decrementAndGet();
+        }
+    }
+
+    private void stop() {
+        driving = false;
+        if (rmiCallers != null) {
+            rmiCallers.shutdownNow();
+        }
+        for (Client client : clients) {
+            if (client.isStarted()) {
+                client.close();
+            }
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        if (serverLoss != null) {
+            serverLoss.close();
+            clientLoss.close();
+        }
+    }
+
+    private static String histogram(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "avg %.1f us, max %.1f us",
+                histogram.getAverage(TimeUnit.NANOSECONDS) / 1000.0,
+                histogram.getMax(TimeUnit.NANOSECONDS) / 1000.0);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the live threads, or -1 if the
+     * JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
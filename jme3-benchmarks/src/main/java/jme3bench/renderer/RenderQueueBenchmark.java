@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench.renderer;
+
+import com.jme3.asset.AssetConfig;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.material.Material;
+import com.jme3.material.TechniqueDef;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.renderer.queue.RenderQueue.Bucket;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.system.NullRenderer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jme3bench.BenchScenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorting of the opaque and transparent buckets of a {@link RenderQueue}.
+ * The queue is flushed through a {@link NullRenderer} with a render filter
+ * that rejects every geometry, so only queueing and sorting are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderQueueBenchmark {
+
+    private static final String[] MAT_DEFS = {
+        "Common/MatDefs/Misc/Unshaded.j3md",
+        "Common/MatDefs/Light/Lighting.j3md",
+        "Common/MatDefs/Misc/ShowNormals.j3md"
+    };
+
+    @Param({"10000"})
+    public int geometryCount;
+
+    @Param({"false", "true"})
+    public boolean keySorting;
+
+    private final List<Geometry> geometries = new ArrayList<>();
+    private final RenderQueue queue = new RenderQueue();
+    private RenderManager renderManager;
+    private Camera cam;
+
+    @Setup
+    public void setUp() {
+        renderManager = new RenderManager(new NullRenderer());
+        renderManager.setPassDrawBufferTargetIdToShaders(false);
+        renderManager.setRenderFilter(geom -> false);
+        queue.setKeySorting(keySorting);
+
+        Logger.getLogger(AssetConfig.class.getName()).setLevel(Level.OFF);
+        AssetManager assetManager = new DesktopAssetManager(true);
+        Material[] materials = new Material[MAT_DEFS.length * 4];
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = new Material(assetManager, MAT_DEFS[i % MAT_DEFS.length]);
+            materials[i].selectTechnique(TechniqueDef.DEFAULT_TECHNIQUE_NAME, renderManager);
+        }
+
+        // with ten children per node, about a tenth of the spatials are nodes
+        Node scene = BenchScenes.createScene(geometryCount + geometryCount / 9, 10);
+        Random random = BenchScenes.random();
+        scene.depthFirstTraversal(spatial -> {
+            if (spatial instanceof Geometry) {
+                Geometry geom = (Geometry) spatial;
+                geom.setMaterial(materials[random.nextInt(materials.length)]);
+                geometries.add(geom);
+            }
+        });
+        scene.updateGeometricState();
+
+        cam = new Camera(1280, 720);
+        cam.setFrustumPerspective(45f, 1280f / 720f, 1f, 2000f);
+        cam.setLocation(new Vector3f(0, 0, 1200));
+        cam.lookAt(Vector3f.ZERO, Vector3f.UNIT_Y);
+    }
+
+    private void render(Bucket bucket) {
+        for (int i = 0; i < geometries.size(); i++) {
+            queue.addToQueue(geometries.get(i), bucket);
+        }
+        queue.renderQueue(bucket, renderManager, cam);
+    }
+
+    @Benchmark
+    public RenderQueue sortOpaque() {
+        render(Bucket.Opaque);
+        return queue;
+    }
+
+    @Benchmark
+    public RenderQueue sortTransparent() {
+        render(Bucket.Transparent);
+        return queue;
+    }
+}
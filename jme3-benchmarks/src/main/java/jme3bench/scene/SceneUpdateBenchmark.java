@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3bench.scene;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.concurrent.TimeUnit;
+import jme3bench.BenchScenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Node.updateGeometricState} on synthetic scenes, either after
+ * moving the root, which refreshes every world transform and bound, or after
+ * moving a single leaf, which only refreshes its bound and those of its
+ * ancestors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SceneUpdateBenchmark {
+
+    @Param({"10000", "100000"})
+    public int spatialCount;
+
+    @Param({"10"})
+    public int branching;
+
+    private Node root;
+    private Spatial leaf;
+    private final Quaternion rotation = new Quaternion();
+    private float angle;
+
+    @Setup
+    public void setUp() {
+        root = BenchScenes.createScene(spatialCount, branching);
+        Spatial spatial = root;
+        while (spatial instanceof Node) {
+            spatial = ((Node) spatial).getChild(0);
+        }
+        leaf = spatial;
+    }
+
+    private Quaternion nextRotation() {
+        angle = (angle + 0.01f) % FastMath.TWO_PI;
+        return rotation.fromAngles(0, angle, 0);
+    }
+
+    @Benchmark
+    public Node updateAfterRootMove() {
+        root.setLocalRotation(nextRotation());
+        root.updateGeometricState();
+        return root;
+    }
+
+    @Benchmark
+    public Node updateAfterLeafMove() {
+        leaf.setLocalRotation(nextRotation());
+        root.updateGeometricState();
+        return root;
+    }
+
+    @Benchmark
+    public Node updateUnchanged() {
+        root.updateGeometricState();
+        return root;
+    }
+}
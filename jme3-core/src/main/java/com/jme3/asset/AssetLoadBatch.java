@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.asset;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <code>AssetLoadBatch</code> tracks a group of assets that are loaded
+ * concurrently by {@link AssetManager#loadAssets(java.util.Collection, AssetLoadBatch.Listener)}.
+ * <p>
+ * The batch reports how many of its assets have finished loading and
+ * completes {@link #getCompletion() its future} once every asset has either
+ * loaded or failed. A failed asset does not cancel the rest of the batch.
+ */
+public class AssetLoadBatch {
+
+    private static final Logger logger = Logger.getLogger(AssetLoadBatch.class.getName());
+
+    /**
+     * Receives notifications as the assets of a batch finish loading.
+     * Methods are invoked on the thread that completed the load, which is
+     * usually a loading thread and not the render thread.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked after an asset of the batch has been loaded.
+         *
+         * @param batch the batch the asset belongs to
+         * @param key the key of the loaded asset
+         * @param asset the loaded asset
+         */
+        public void assetLoaded(AssetLoadBatch batch, AssetKey<?> key, Object asset);
+
+        /**
+         * Invoked after an asset of the batch failed to load.
+         *
+         * @param batch the batch the asset belongs to
+         * @param key the key of the asset
+         * @param cause the exception thrown while loading
+         */
+        public void assetFailed(AssetLoadBatch batch, AssetKey<?> key, Throwable cause);
+    }
+
+    private final Set<AssetKey<?>> keys;
+    private final Listener listener;
+    private final Map<AssetKey<?>, CompletableFuture<?>> futures;
+    private final CompletableFuture<AssetLoadBatch> completion = new CompletableFuture<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Creates a batch for the specified keys. Duplicate keys are loaded once.
+     *
+     * @param keys the keys of the assets (not null)
+     * @param listener the listener to notify, or null for none
+     */
+    public AssetLoadBatch(Collection<? extends AssetKey<?>> keys, Listener listener) {
+        this.keys = Collections.unmodifiableSet(new LinkedHashSet<>(keys));
+        this.listener = listener;
+        this.futures = new LinkedHashMap<>(this.keys.size() * 2);
+        if (this.keys.isEmpty()) {
+            completion.complete(this);
+        }
+    }
+
+    /**
+     * Registers the pending load of one of the keys of this batch.
+     *
+     * @param key a key of this batch
+     * @param future the pending load
+     */
+    public void track(AssetKey<?> key, CompletableFuture<?> future) {
+        if (!keys.contains(key)) {
+            throw new IllegalArgumentException("Key " + key + " is not part of this batch");
+        }
+        synchronized (futures) {
+            if (futures.putIfAbsent(key, future) != null) {
+                throw new IllegalStateException("Key " + key + " is already tracked");
+            }
+        }
+        future.whenComplete((asset, t) -> onComplete(key, asset, t));
+    }
+
+    private void onComplete(AssetKey<?> key, Object asset, Throwable t) {
+        if (t != null) {
+            failed.incrementAndGet();
+        }
+        if (listener != null) {
+            try {
+                if (t == null) {
+                    listener.assetLoaded(this, key, asset);
+                } else {
+                    listener.assetFailed(this, key, unwrap(t));
+                }
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, "Exception in batch listener for " + key, ex);
+            }
+        }
+        if (completed.incrementAndGet() == keys.size()) {
+            completion.complete(this);
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            return t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * Returns the distinct keys of this batch, in request order.
+     *
+     * @return an unmodifiable set
+     */
+    public Set<AssetKey<?>> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the pending load of the specified key.
+     *
+     * @param <T> the type of the asset
+     * @param key a key of this batch
+     * @return the future, or null if the key is not (yet) tracked
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getFuture(AssetKey<T> key) {
+        synchronized (futures) {
+            return (CompletableFuture<T>) futures.get(key);
+        }
+    }
+
+    /**
+     * Returns the loaded asset for the specified key, waiting for its load
+     * to finish if necessary.
+     *
+     * @param <T> the type of the asset
+     * @param key a key of this batch
+     * @return the asset
+     * @throws IllegalArgumentException if the key is not tracked by this batch
+     * @throws AssetLoadException or another runtime exception if the load failed
+     */
+    public <T> T getAsset(AssetKey<T> key) {
+        CompletableFuture<T> future = getFuture(key);
+        if (future == null) {
+            throw new IllegalArgumentException("Key " + key + " is not part of this batch");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new AssetLoadException("Failed to load " + key, cause);
+        }
+    }
+
+    /**
+     * Returns a future that completes with this batch once all of its
+     * assets have finished loading, successfully or not.
+     *
+     * @return the future (not null)
+     */
+    public CompletableFuture<AssetLoadBatch> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Returns the number of distinct assets in this batch.
+     *
+     * @return the count (&ge;0)
+     */
+    public int getTotalCount() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the number of assets that have finished loading, including
+     * failed ones.
+     *
+     * @return the count (&ge;0)
+     */
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of assets that failed to load.
+     *
+     * @return the count (&ge;0)
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the fraction of assets that have finished loading.
+     *
+     * @return the progress, between 0 and 1 inclusive
+     */
+    public float getProgress() {
+        int total = keys.size();
+        return total == 0 ? 1f : completed.get() / (float) total;
+    }
+
+    /**
+     * Tests whether all assets of this batch have finished loading.
+     *
+     * @return true if done, otherwise false
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+}
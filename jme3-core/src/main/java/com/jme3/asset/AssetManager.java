@@ -47,8 +47,10 @@ import com.jme3.texture.plugins.TGALoader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <code>AssetManager</code> provides an interface for managing the data assets
@@ -261,6 +263,51 @@ public interface AssetManager {
      */
     public Object loadAsset(String name);
 
+    /**
+     * Loads an asset in the background. The asset is located and loaded
+     * as by {@link #loadAsset(com.jme3.asset.AssetKey) }, but on a loading
+     * thread. Concurrent requests for the same cacheable key share a single
+     * load.
+     * <p>
+     * The default implementation loads the asset on the calling thread and
+     * returns a completed future.
+     *
+     * @param <T> The object type that will be loaded from the AssetKey instance.
+     * @param key The AssetKey
+     * @return A future that completes with the loaded asset, or
+     * exceptionally with the {@link AssetNotFoundException} or
+     * {@link AssetLoadException} thrown while loading it.
+     */
+    public default <T> CompletableFuture<T> loadAssetAsync(AssetKey<T> key) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            result.complete(loadAsset(key));
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Loads a group of assets concurrently and reports their progress
+     * through the returned {@link AssetLoadBatch}.
+     *
+     * @param keys The keys of the assets to load.
+     * @param listener A listener notified as each asset finishes loading,
+     * or null for none.
+     * @return The batch tracking the loads.
+     *
+     * @see #loadAssetAsync(com.jme3.asset.AssetKey)
+     */
+    public default AssetLoadBatch loadAssets(Collection<? extends AssetKey<?>> keys,
+                                             AssetLoadBatch.Listener listener) {
+        AssetLoadBatch batch = new AssetLoadBatch(keys, listener);
+        for (AssetKey<?> key : batch.getKeys()) {
+            batch.track(key, loadAssetAsync(key));
+        }
+        return batch;
+    }
+
     /**
      * Loads texture file, supported types are BMP, JPG, PNG, GIF,
      * TGA, DDS, PFM, and HDR.
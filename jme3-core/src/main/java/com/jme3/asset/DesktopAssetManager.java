@@ -53,6 +53,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -70,6 +71,8 @@ public class DesktopAssetManager implements AssetManager {
 
     private final ImplHandler handler = new ImplHandler(this);
 
+    private volatile ThreadingManager threadingManager;
+
     final private CopyOnWriteArrayList<AssetEventListener> eventListeners =
             new CopyOnWriteArrayList<>();
 
@@ -245,6 +248,20 @@ public class DesktopAssetManager implements AssetManager {
         }
     }
 
+    /**
+     * Returns the cache instance used for keys whose
+     * {@link AssetKey#getCacheType() } is the specified class, creating it if
+     * necessary. This allows configuring caches such as
+     * {@link com.jme3.asset.cache.BoundedAssetCache}.
+     *
+     * @param <T> the type of cache
+     * @param cacheClass the class of the cache
+     * @return the cache instance, or null if cacheClass is null
+     */
+    public <T extends AssetCache> T getCache(Class<T> cacheClass) {
+        return handler.getCache(cacheClass);
+    }
+
     @Override
     public void clearCache() {
         handler.clearCache();
@@ -404,6 +421,30 @@ public class DesktopAssetManager implements AssetManager {
         return loadAsset(new AssetKey<>(name));
     }
 
+    /**
+     * Returns the manager of the loading threads, creating it on first use.
+     *
+     * @return the pre-existing or new instance
+     */
+    protected ThreadingManager getThreadingManager() {
+        ThreadingManager result = threadingManager;
+        if (result == null) {
+            synchronized (this) {
+                result = threadingManager;
+                if (result == null) {
+                    result = new ThreadingManager(this);
+                    threadingManager = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> loadAssetAsync(AssetKey<T> key) {
+        return getThreadingManager().loadAssetAsync(key);
+    }
+
     @Override
     public Texture loadTexture(TextureKey key) {
         return loadAsset(key);
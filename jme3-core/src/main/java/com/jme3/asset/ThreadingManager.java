@@ -38,16 +38,24 @@ import java.util.concurrent.*;
  * within the Content Manager system. A pool of threads and a task queue
  * is used to load resource data and perform I/O while the application's
  * render thread is active.
+ * <p>
+ * Loads run on a work-stealing pool, so an {@link AssetLoader} executing on
+ * a loading thread may itself request and wait for its dependencies without
+ * starving the pool. Concurrent requests for the same cacheable
+ * {@link AssetKey} are coalesced into a single load.
  */
 public class ThreadingManager {
 
     protected final ExecutorService executor =
-            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
-                    new LoadingThreadFactory());
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                    new LoadingWorkerThreadFactory(), null, false);
 
     protected final AssetManager owner;
     protected int nextThreadId = 0;
 
+    private final ConcurrentHashMap<AssetKey<?>, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+
     public ThreadingManager(AssetManager owner) {
         this.owner = owner;
     }
@@ -62,6 +70,24 @@ public class ThreadingManager {
         }
     }
 
+    /**
+     * Creates the threads of the loading pool, named and prioritized like
+     * those of {@link LoadingThreadFactory}.
+     */
+    protected class LoadingWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread t = new ForkJoinWorkerThread(pool) {
+            };
+            synchronized (this) {
+                t.setName("jME3-threadpool-" + (nextThreadId++));
+            }
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }
+    }
+
     protected class LoadingTask<T> implements Callable<T> {
 
         private final AssetKey<T> assetKey;
@@ -80,6 +106,64 @@ public class ThreadingManager {
         return executor.submit(new LoadingTask<>(assetKey));
     }
 
+    /**
+     * Loads an asset on the loading pool.
+     * <p>
+     * If a load of an equal, cacheable key is already in progress, no new
+     * load is started and the returned future completes together with the
+     * pending one. Callers joining a pending load of a
+     * {@link CloneableSmartAsset} receive their own clone.
+     *
+     * @param <T> the type of the asset
+     * @param assetKey the key of the asset to load (not null)
+     * @return a future that completes with the loaded asset or with the
+     * exception thrown while loading it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> loadAssetAsync(AssetKey<T> assetKey) {
+        if (assetKey == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+
+        if (assetKey.getCacheType() == null) {
+            // Without a cache every request yields a distinct instance,
+            // so there is nothing to share.
+            return CompletableFuture.supplyAsync(() -> owner.loadAsset(assetKey), executor);
+        }
+
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> pending = inFlight.putIfAbsent(assetKey, created);
+        if (pending == null) {
+            executor.execute(() -> {
+                try {
+                    created.complete(owner.loadAsset(assetKey));
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(assetKey, created);
+                }
+            });
+            return (CompletableFuture<T>) created.thenApply(asset -> asset);
+        }
+
+        return (CompletableFuture<T>) pending.thenApply(asset -> {
+            if (asset instanceof CloneableSmartAsset) {
+                // The original is in the cache now, this yields a new clone.
+                return owner.loadAsset(assetKey);
+            }
+            return asset;
+        });
+    }
+
+    /**
+     * Returns the number of distinct cacheable keys currently being loaded.
+     *
+     * @return the count (&ge;0)
+     */
+    public int getPendingCount() {
+        return inFlight.size();
+    }
+
     public static boolean isLoadingThread() {
         return Thread.currentThread().getName().startsWith("jME3-threadpool");
     }
@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.asset.cache;
+
+import com.jme3.asset.AssetKey;
+import com.jme3.material.Material;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <code>BoundedAssetCache</code> is an asset cache that holds assets
+ * strongly, up to a memory budget. Each asset is weighed with an approximate
+ * byte cost (for example the data of an {@link Image} or the vertex buffers
+ * of a {@link Mesh}), and when the total exceeds the budget, assets are
+ * evicted according to the {@link EvictionPolicy}.
+ * <p>
+ * To use it, override {@link AssetKey#getCacheType() } in the key of the
+ * assets to bound, e.g. a subclass of {@link com.jme3.asset.TextureKey}.
+ * The cache instance that the asset manager uses can be configured through
+ * {@link com.jme3.asset.DesktopAssetManager#getCache(java.lang.Class) }.
+ * <p>
+ * Cloneable smart assets keep their clone semantics: the cache stores the
+ * original and the asset manager hands out clones of it. Note that an
+ * evicted original is only reclaimed once its clones are no longer used,
+ * and requesting it again loads a new copy.
+ */
+public class BoundedAssetCache implements AssetCache {
+
+    private static final Logger logger = Logger.getLogger(BoundedAssetCache.class.getName());
+
+    /**
+     * The default memory budget: 256 MiB.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+
+    /**
+     * Cost assumed for assets whose size cannot be estimated.
+     */
+    public static final long DEFAULT_ASSET_SIZE = 1024;
+
+    /**
+     * Determines which asset is evicted when the cache is over budget.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evict the least recently used asset first.
+         */
+        LRU,
+        /**
+         * Evict the least frequently used asset first; ties are broken
+         * by recency.
+         */
+        LFU
+    }
+
+    /**
+     * Estimates the memory cost of assets stored in the cache.
+     */
+    public interface SizeEstimator {
+        /**
+         * Estimates the number of bytes held by an asset.
+         *
+         * @param key the key of the asset
+         * @param asset the asset to weigh (not null)
+         * @return the estimated size in bytes (&ge;0)
+         */
+        public long estimateSize(AssetKey<?> key, Object asset);
+    }
+
+    private static final class Entry {
+
+        final Object asset;
+        final long size;
+        long useCount;
+
+        Entry(Object asset, long size) {
+            this.asset = asset;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Entries in access order, the least recently used first.
+     */
+    private final LinkedHashMap<AssetKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryBudget;
+    private EvictionPolicy policy;
+    private volatile SizeEstimator sizeEstimator = BoundedAssetCache::estimateAssetSize;
+    private long currentSize;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long rejectionCount;
+
+    /**
+     * Creates a cache with the {@link #DEFAULT_MEMORY_BUDGET default budget}
+     * and LRU eviction.
+     */
+    public BoundedAssetCache() {
+        this(DEFAULT_MEMORY_BUDGET, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Creates a cache with the specified budget and eviction policy.
+     *
+     * @param memoryBudget the maximum total size in bytes (&gt;0)
+     * @param policy the eviction policy (not null)
+     */
+    public BoundedAssetCache(long memoryBudget, EvictionPolicy policy) {
+        setMemoryBudget(memoryBudget);
+        setEvictionPolicy(policy);
+    }
+
+    /**
+     * Alters the memory budget. If the cached assets exceed the new budget,
+     * assets are evicted immediately.
+     *
+     * @param memoryBudget the maximum total size in bytes (&gt;0)
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget must be positive");
+        }
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    /**
+     * Returns the memory budget.
+     *
+     * @return the maximum total size in bytes
+     */
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Alters the eviction policy.
+     *
+     * @param policy the desired policy (not null)
+     */
+    public synchronized void setEvictionPolicy(EvictionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy cannot be null");
+        }
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return the policy
+     */
+    public synchronized EvictionPolicy getEvictionPolicy() {
+        return policy;
+    }
+
+    /**
+     * Replaces the estimator used to weigh assets added from now on.
+     *
+     * @param sizeEstimator the desired estimator, or null for the default
+     * {@link #estimateAssetSize(com.jme3.asset.AssetKey, java.lang.Object) }
+     */
+    public void setSizeEstimator(SizeEstimator sizeEstimator) {
+        this.sizeEstimator = sizeEstimator == null
+                ? BoundedAssetCache::estimateAssetSize : sizeEstimator;
+    }
+
+    @Override
+    public <T> void addToCache(AssetKey<T> key, T obj) {
+        // Weighing may traverse a whole scene graph, keep it outside the lock.
+        long size = Math.max(0, sizeEstimator.estimateSize(key, obj));
+        synchronized (this) {
+            Entry old = entries.remove(key);
+            if (old != null) {
+                currentSize -= old.size;
+            }
+            if (size > memoryBudget) {
+                // Would evict everything else and still not fit.
+                rejectionCount++;
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.log(Level.FINE, "BoundedAssetCache: {0} ({1} bytes) exceeds the budget",
+                            new Object[]{key, size});
+                }
+                return;
+            }
+            entries.put(key, new Entry(obj, size));
+            currentSize += size;
+            evict();
+        }
+    }
+
+    private void evict() {
+        int evicted = 0;
+        while (currentSize > memoryBudget && !entries.isEmpty()) {
+            Iterator<Map.Entry<AssetKey, Entry>> it = entries.entrySet().iterator();
+            Map.Entry<AssetKey, Entry> victim = it.next();
+            if (policy == EvictionPolicy.LFU) {
+                while (it.hasNext()) {
+                    Map.Entry<AssetKey, Entry> e = it.next();
+                    if (e.getValue().useCount < victim.getValue().useCount) {
+                        victim = e;
+                    }
+                }
+            }
+            entries.remove(victim.getKey());
+            currentSize -= victim.getValue().size;
+            evicted++;
+        }
+        if (evicted > 0) {
+            evictionCount += evicted;
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "BoundedAssetCache: {0} assets were evicted.", evicted);
+            }
+        }
+    }
+
+    @Override
+    public <T> void registerAssetClone(AssetKey<T> key, T clone) {
+    }
+
+    @Override
+    public void notifyNoAssetClone() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getFromCache(AssetKey<T> key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        entry.useCount++;
+        return (T) entry.asset;
+    }
+
+    @Override
+    public synchronized boolean deleteFromCache(AssetKey key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        currentSize -= entry.size;
+        return true;
+    }
+
+    @Override
+    public synchronized void clearCache() {
+        entries.clear();
+        currentSize = 0;
+    }
+
+    /**
+     * Returns the estimated size of all cached assets.
+     *
+     * @return the total in bytes (&ge;0)
+     */
+    public synchronized long getCurrentSize() {
+        return currentSize;
+    }
+
+    /**
+     * Returns the number of cached assets.
+     *
+     * @return the count (&ge;0)
+     */
+    public synchronized int getAssetCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found their asset.
+     *
+     * @return the count (&ge;0)
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find their asset.
+     *
+     * @return the count (&ge;0)
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of assets evicted to stay within the budget.
+     *
+     * @return the count (&ge;0)
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of assets that were not cached because they alone
+     * exceed the budget.
+     *
+     * @return the count (&ge;0)
+     */
+    public synchronized long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * Resets the hit, miss, eviction, and rejection counters.
+     */
+    public synchronized void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+        rejectionCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "[assets=" + entries.size()
+                + ", size=" + currentSize + "/" + memoryBudget
+                + ", hits=" + hitCount + ", misses=" + missCount
+                + ", evictions=" + evictionCount + "]";
+    }
+
+    /**
+     * The default size estimator. Weighs the image data of textures and
+     * images, and the vertex data of meshes and of the geometries in a
+     * scene graph. Other assets cost {@link #DEFAULT_ASSET_SIZE}.
+     *
+     * @param key the key of the asset (unused)
+     * @param asset the asset to weigh (not null)
+     * @return the estimated size in bytes (&ge;0)
+     */
+    public static long estimateAssetSize(AssetKey<?> key, Object asset) {
+        if (asset instanceof Texture) {
+            Image image = ((Texture) asset).getImage();
+            return image == null ? DEFAULT_ASSET_SIZE : estimateImageSize(image);
+        } else if (asset instanceof Image) {
+            return estimateImageSize((Image) asset);
+        } else if (asset instanceof Mesh) {
+            return estimateMeshSize((Mesh) asset);
+        } else if (asset instanceof Spatial) {
+            Set<Mesh> meshes = Collections.newSetFromMap(new IdentityHashMap<>());
+            ((Spatial) asset).depthFirstTraversal(spatial -> {
+                if (spatial instanceof Geometry) {
+                    meshes.add(((Geometry) spatial).getMesh());
+                }
+            });
+            long size = DEFAULT_ASSET_SIZE;
+            for (Mesh mesh : meshes) {
+                size += estimateMeshSize(mesh);
+            }
+            return size;
+        } else if (asset instanceof Material) {
+            // Textures referenced by the material are cached separately.
+            return DEFAULT_ASSET_SIZE;
+        } else if (asset instanceof CharSequence) {
+            return 2L * ((CharSequence) asset).length();
+        }
+        return DEFAULT_ASSET_SIZE;
+    }
+
+    private static long estimateImageSize(Image image) {
+        long size = 0;
+        for (ByteBuffer data : image.getData()) {
+            if (data != null) {
+                size += data.capacity();
+            }
+        }
+        if (size == 0 && image.getFormat() != null) {
+            // Data already released, estimate from the dimensions.
+            size = (long) image.getWidth() * image.getHeight()
+                    * Math.max(1, image.getDepth()) * image.getFormat().getBitsPerPixel() / 8;
+        }
+        return size;
+    }
+
+    private static long estimateMeshSize(Mesh mesh) {
+        long size = 0;
+        for (VertexBuffer vb : mesh.getBufferList().getArray()) {
+            Buffer data = vb.getData();
+            if (data != null) {
+                size += (long) data.capacity() * vb.getFormat().getComponentSize();
+            }
+        }
+        return size;
+    }
+}
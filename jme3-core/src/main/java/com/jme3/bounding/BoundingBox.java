@@ -42,6 +42,7 @@ import com.jme3.export.OutputCapsule;
 import com.jme3.math.*;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.Spatial;
+import com.jme3.util.TempPool;
 import com.jme3.util.TempVars;
 import java.io.IOException;
 import java.nio.FloatBuffer;
@@ -247,58 +248,17 @@ public class BoundingBox extends BoundingVolume {
             return;
         }
 
-        TempVars vars = TempVars.get();
-
-        float[] tmpArray = vars.skinPositions;
-
-        float minX = Float.POSITIVE_INFINITY,
-                minY = Float.POSITIVE_INFINITY,
-                minZ = Float.POSITIVE_INFINITY;
-        float maxX = Float.NEGATIVE_INFINITY,
-                maxY = Float.NEGATIVE_INFINITY,
-                maxZ = Float.NEGATIVE_INFINITY;
-
-        int iterations = (int) FastMath.ceil(points.limit() / ((float) tmpArray.length));
-        for (int i = iterations - 1; i >= 0; i--) {
-            int bufLength = Math.min(tmpArray.length, points.remaining());
-            points.get(tmpArray, 0, bufLength);
-
-            for (int j = 0; j < bufLength; j += 3) {
-                vars.vect1.x = tmpArray[j];
-                vars.vect1.y = tmpArray[j + 1];
-                vars.vect1.z = tmpArray[j + 2];
-
-                if (vars.vect1.x < minX) {
-                    minX = vars.vect1.x;
-                }
-                if (vars.vect1.x > maxX) {
-                    maxX = vars.vect1.x;
-                }
+        try (TempPool pool = TempPool.open()) {
+            Vector3f min = pool.vector3f();
+            Vector3f max = pool.vector3f();
+            BatchMath.computeBounds(points, 0, points.limit() / 3, min, max);
 
-                if (vars.vect1.y < minY) {
-                    minY = vars.vect1.y;
-                }
-                if (vars.vect1.y > maxY) {
-                    maxY = vars.vect1.y;
-                }
+            center.set(min).addLocal(max).multLocal(0.5f);
 
-                if (vars.vect1.z < minZ) {
-                    minZ = vars.vect1.z;
-                }
-                if (vars.vect1.z > maxZ) {
-                    maxZ = vars.vect1.z;
-                }
-            }
+            xExtent = max.x - center.x;
+            yExtent = max.y - center.y;
+            zExtent = max.z - center.z;
         }
-
-        vars.release();
-
-        center.set(minX + maxX, minY + maxY, minZ + maxZ);
-        center.multLocal(0.5f);
-
-        xExtent = maxX - center.x;
-        yExtent = maxY - center.y;
-        zExtent = maxZ - center.z;
     }
 
     /**
@@ -324,24 +284,22 @@ public class BoundingBox extends BoundingVolume {
         trans.getRotation().mult(box.center, box.center);
         box.center.addLocal(trans.getTranslation());
 
-        TempVars vars = TempVars.get();
-
-        Matrix3f transMatrix = vars.tempMat3;
-        transMatrix.set(trans.getRotation());
-        // Make the rotation matrix all positive to get the maximum x/y/z extent
-        transMatrix.absoluteLocal();
-
-        Vector3f scale = trans.getScale();
-        vars.vect1.set(xExtent * FastMath.abs(scale.x),
-                yExtent * FastMath.abs(scale.y),
-                zExtent * FastMath.abs(scale.z));
-        transMatrix.mult(vars.vect1, vars.vect2);
-        // Assign the biggest rotations after scales.
-        box.xExtent = FastMath.abs(vars.vect2.getX());
-        box.yExtent = FastMath.abs(vars.vect2.getY());
-        box.zExtent = FastMath.abs(vars.vect2.getZ());
-
-        vars.release();
+        try (TempPool pool = TempPool.open()) {
+            Matrix3f transMatrix = pool.matrix3f();
+            transMatrix.set(trans.getRotation());
+            // Make the rotation matrix all positive to get the maximum x/y/z extent
+            transMatrix.absoluteLocal();
+
+            Vector3f scale = trans.getScale();
+            Vector3f extent = pool.vector3f().set(xExtent * FastMath.abs(scale.x),
+                    yExtent * FastMath.abs(scale.y),
+                    zExtent * FastMath.abs(scale.z));
+            transMatrix.mult(extent, extent);
+            // Assign the biggest rotations after scales.
+            box.xExtent = FastMath.abs(extent.getX());
+            box.yExtent = FastMath.abs(extent.getY());
+            box.zExtent = FastMath.abs(extent.getZ());
+        }
 
         return box;
     }
@@ -354,26 +312,25 @@ public class BoundingBox extends BoundingVolume {
         } else {
             box = (BoundingBox) store;
         }
-        TempVars vars = TempVars.get();
 
         float w = trans.multProj(center, box.center);
         box.center.divideLocal(w);
 
-        Matrix3f transMatrix = vars.tempMat3;
-        trans.toRotationMatrix(transMatrix);
+        try (TempPool pool = TempPool.open()) {
+            Matrix3f transMatrix = pool.matrix3f();
+            trans.toRotationMatrix(transMatrix);
 
-        // Make the rotation matrix all positive to get the maximum x/y/z extent
-        transMatrix.absoluteLocal();
+            // Make the rotation matrix all positive to get the maximum x/y/z extent
+            transMatrix.absoluteLocal();
 
-        vars.vect1.set(xExtent, yExtent, zExtent);
-        transMatrix.mult(vars.vect1, vars.vect1);
+            Vector3f extent = pool.vector3f().set(xExtent, yExtent, zExtent);
+            transMatrix.mult(extent, extent);
 
-        // Assign the biggest rotations after scales.
-        box.xExtent = FastMath.abs(vars.vect1.getX());
-        box.yExtent = FastMath.abs(vars.vect1.getY());
-        box.zExtent = FastMath.abs(vars.vect1.getZ());
-
-        vars.release();
+            // Assign the biggest rotations after scales.
+            box.xExtent = FastMath.abs(extent.getX());
+            box.yExtent = FastMath.abs(extent.getY());
+            box.zExtent = FastMath.abs(extent.getZ());
+        }
 
         return box;
     }
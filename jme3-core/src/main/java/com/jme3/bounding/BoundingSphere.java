@@ -40,6 +40,7 @@ import com.jme3.export.JmeImporter;
 import com.jme3.math.*;
 import com.jme3.scene.Spatial;
 import com.jme3.util.BufferUtils;
+import com.jme3.util.TempPool;
 import com.jme3.util.TempVars;
 import java.io.IOException;
 import java.nio.FloatBuffer;
@@ -411,10 +412,12 @@ public class BoundingSphere extends BoundingVolume {
         }
 
         trans.mult(center, sphere.center);
-        Vector3f axes = new Vector3f(1, 1, 1);
-        trans.mult(axes, axes);
-        float ax = getMaxAxis(axes);
-        sphere.radius = FastMath.abs(ax * radius) + RADIUS_EPSILON - 1f;
+        try (TempPool pool = TempPool.open()) {
+            Vector3f axes = pool.vector3f().set(1, 1, 1);
+            trans.mult(axes, axes);
+            float ax = getMaxAxis(axes);
+            sphere.radius = FastMath.abs(ax * radius) + RADIUS_EPSILON - 1f;
+        }
         return sphere;
     }
 
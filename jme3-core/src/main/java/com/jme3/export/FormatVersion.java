@@ -50,6 +50,14 @@ public final class FormatVersion {
      */
     public static final int VERSION = 3;
 
+    /**
+     * Version number of the chunked binary layout, written by
+     * {@code BinaryExporter} when chunking is enabled. Objects are encoded
+     * as in {@link #VERSION}, but grouped into indexed chunks that can be
+     * compressed and loaded independently.
+     */
+    public static final int CHUNKED_VERSION = 4;
+
     /**
      * Signature of the format: currently, "JME3" as ASCII.
      */
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.math;
+
+import java.nio.FloatBuffer;
+
+/**
+ * <code>BatchMath</code> applies vector operations to ranges of packed 3-D
+ * vectors (x, y, z, x, y, z, ...) held in float arrays or FloatBuffers,
+ * such as the position and normal buffers of a mesh. The loops work on
+ * primitives only, which the JIT compiler can unroll and vectorize, instead
+ * of copying every element into a Vector3f.
+ * <p>
+ * Array offsets are in floats, buffer indices and counts in vectors. Unless
+ * noted otherwise, the source and destination may be the same range, but must
+ * not otherwise overlap. Buffer positions and limits are not modified.
+ */
+public final class BatchMath {
+
+    /**
+     * Number of floats copied at a time from buffers that are not backed by
+     * an accessible array.
+     */
+    private static final int CHUNK_SIZE = 3 * 256;
+
+    private static final ThreadLocal<float[]> chunkLocal = new ThreadLocal<float[]>() {
+        @Override
+        protected float[] initialValue() {
+            return new float[CHUNK_SIZE];
+        }
+    };
+
+    private BatchMath() {
+    }
+
+    /**
+     * Transforms points by a matrix, including its translation, like
+     * {@link Matrix4f#mult(Vector3f, Vector3f) }.
+     *
+     * @param mat the transform matrix (not null, unaffected)
+     * @param src the source points (not null, unaffected unless it is dst)
+     * @param srcOffset the offset of the first source point
+     * @param dst storage for the results (not null)
+     * @param dstOffset the offset of the first result
+     * @param count the number of points
+     */
+    public static void transformPoints(Matrix4f mat, float[] src, int srcOffset,
+            float[] dst, int dstOffset, int count) {
+        float m00 = mat.m00, m01 = mat.m01, m02 = mat.m02, m03 = mat.m03;
+        float m10 = mat.m10, m11 = mat.m11, m12 = mat.m12, m13 = mat.m13;
+        float m20 = mat.m20, m21 = mat.m21, m22 = mat.m22, m23 = mat.m23;
+        int end = srcOffset + count * 3;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3) {
+            float x = src[i], y = src[i + 1], z = src[i + 2];
+            dst[j] = m00 * x + m01 * y + m02 * z + m03;
+            dst[j + 1] = m10 * x + m11 * y + m12 * z + m13;
+            dst[j + 2] = m20 * x + m21 * y + m22 * z + m23;
+        }
+    }
+
+    /**
+     * Transforms points by a matrix, including its translation, like
+     * {@link Matrix4f#mult(Vector3f, Vector3f) }.
+     *
+     * @param mat the transform matrix (not null, unaffected)
+     * @param src the source points (not null, unaffected unless it is dst)
+     * @param srcIndex the index of the first source point
+     * @param dst storage for the results (not null)
+     * @param dstIndex the index of the first result
+     * @param count the number of points
+     */
+    public static void transformPoints(Matrix4f mat, FloatBuffer src, int srcIndex,
+            FloatBuffer dst, int dstIndex, int count) {
+        transform(mat, true, src, srcIndex, dst, dstIndex, count);
+    }
+
+    /**
+     * Transforms directions or normals by the rotation and scale of a matrix,
+     * ignoring its translation, like
+     * {@link Matrix4f#multNormal(Vector3f, Vector3f) }. The results are not
+     * normalized.
+     *
+     * @param mat the transform matrix (not null, unaffected)
+     * @param src the source vectors (not null, unaffected unless it is dst)
+     * @param srcOffset the offset of the first source vector
+     * @param dst storage for the results (not null)
+     * @param dstOffset the offset of the first result
+     * @param count the number of vectors
+     */
+    public static void transformDirections(Matrix4f mat, float[] src, int srcOffset,
+            float[] dst, int dstOffset, int count) {
+        float m00 = mat.m00, m01 = mat.m01, m02 = mat.m02;
+        float m10 = mat.m10, m11 = mat.m11, m12 = mat.m12;
+        float m20 = mat.m20, m21 = mat.m21, m22 = mat.m22;
+        int end = srcOffset + count * 3;
+        for (int i = srcOffset, j = dstOffset; i < end; i += 3, j += 3) {
+            float x = src[i], y = src[i + 1], z = src[i + 2];
+            dst[j] = m00 * x + m01 * y + m02 * z;
+            dst[j + 1] = m10 * x + m11 * y + m12 * z;
+            dst[j + 2] = m20 * x + m21 * y + m22 * z;
+        }
+    }
+
+    /**
+     * Transforms directions or normals by the rotation and scale of a matrix,
+     * ignoring its translation, like
+     * {@link Matrix4f#multNormal(Vector3f, Vector3f) }. The results are not
+     * normalized.
+     *
+     * @param mat the transform matrix (not null, unaffected)
+     * @param src the source vectors (not null, unaffected unless it is dst)
+     * @param srcIndex the index of the first source vector
+     * @param dst storage for the results (not null)
+     * @param dstIndex the index of the first result
+     * @param count the number of vectors
+     */
+    public static void transformDirections(Matrix4f mat, FloatBuffer src, int srcIndex,
+            FloatBuffer dst, int dstIndex, int count) {
+        transform(mat, false, src, srcIndex, dst, dstIndex, count);
+    }
+
+    private static void transform(Matrix4f mat, boolean points, FloatBuffer src, int srcIndex,
+            FloatBuffer dst, int dstIndex, int count) {
+        checkRange(src, srcIndex, count);
+        checkRange(dst, dstIndex, count);
+        if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+            int srcOffset = src.arrayOffset() + srcIndex * 3;
+            int dstOffset = dst.arrayOffset() + dstIndex * 3;
+            if (points) {
+                transformPoints(mat, src.array(), srcOffset, dst.array(), dstOffset, count);
+            } else {
+                transformDirections(mat, src.array(), srcOffset, dst.array(), dstOffset, count);
+            }
+            return;
+        }
+
+        float[] chunk = chunkLocal.get();
+        FloatBuffer in = src.duplicate();
+        FloatBuffer out = dst.duplicate();
+        in.clear().position(srcIndex * 3);
+        out.clear().position(dstIndex * 3);
+        int remaining = count * 3;
+        while (remaining > 0) {
+            int n = Math.min(remaining, CHUNK_SIZE);
+            in.get(chunk, 0, n);
+            if (points) {
+                transformPoints(mat, chunk, 0, chunk, 0, n / 3);
+            } else {
+                transformDirections(mat, chunk, 0, chunk, 0, n / 3);
+            }
+            out.put(chunk, 0, n);
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Normalizes vectors in place, like {@link Vector3f#normalizeLocal() }.
+     * Vectors of length zero are left unchanged.
+     *
+     * @param data the vectors (not null, modified)
+     * @param offset the offset of the first vector
+     * @param count the number of vectors
+     */
+    public static void normalize(float[] data, int offset, int count) {
+        int end = offset + count * 3;
+        for (int i = offset; i < end; i += 3) {
+            float x = data[i], y = data[i + 1], z = data[i + 2];
+            float lengthSquared = x * x + y * y + z * z;
+            if (lengthSquared != 1f && lengthSquared != 0f) {
+                float invLength = 1f / (float) Math.sqrt(lengthSquared);
+                data[i] = x * invLength;
+                data[i + 1] = y * invLength;
+                data[i + 2] = z * invLength;
+            }
+        }
+    }
+
+    /**
+     * Normalizes vectors in place, like {@link Vector3f#normalizeLocal() }.
+     * Vectors of length zero are left unchanged.
+     *
+     * @param data the vectors (not null, modified)
+     * @param index the index of the first vector
+     * @param count the number of vectors
+     */
+    public static void normalize(FloatBuffer data, int index, int count) {
+        checkRange(data, index, count);
+        if (data.hasArray()) {
+            normalize(data.array(), data.arrayOffset() + index * 3, count);
+            return;
+        }
+
+        float[] chunk = chunkLocal.get();
+        FloatBuffer in = data.duplicate();
+        FloatBuffer out = data.duplicate();
+        in.clear().position(index * 3);
+        out.clear().position(index * 3);
+        int remaining = count * 3;
+        while (remaining > 0) {
+            int n = Math.min(remaining, CHUNK_SIZE);
+            in.get(chunk, 0, n);
+            normalize(chunk, 0, n / 3);
+            out.put(chunk, 0, n);
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Computes the minimum and maximum of each component of the vectors. If
+     * count is zero, min is set to positive and max to negative infinity.
+     *
+     * @param data the vectors (not null, unaffected)
+     * @param offset the offset of the first vector
+     * @param count the number of vectors
+     * @param min storage for the minimum (not null, modified)
+     * @param max storage for the maximum (not null, modified)
+     */
+    public static void computeBounds(float[] data, int offset, int count, Vector3f min, Vector3f max) {
+        min.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        max.set(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+        accumulateBounds(data, offset, count, min, max);
+    }
+
+    /**
+     * Computes the minimum and maximum of each component of the vectors. If
+     * count is zero, min is set to positive and max to negative infinity.
+     *
+     * @param data the vectors (not null, unaffected)
+     * @param index the index of the first vector
+     * @param count the number of vectors
+     * @param min storage for the minimum (not null, modified)
+     * @param max storage for the maximum (not null, modified)
+     */
+    public static void computeBounds(FloatBuffer data, int index, int count, Vector3f min, Vector3f max) {
+        checkRange(data, index, count);
+        if (data.hasArray()) {
+            computeBounds(data.array(), data.arrayOffset() + index * 3, count, min, max);
+            return;
+        }
+
+        min.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        max.set(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+        float[] chunk = chunkLocal.get();
+        FloatBuffer in = data.duplicate();
+        in.clear().position(index * 3);
+        int remaining = count * 3;
+        while (remaining > 0) {
+            int n = Math.min(remaining, CHUNK_SIZE);
+            in.get(chunk, 0, n);
+            accumulateBounds(chunk, 0, n / 3, min, max);
+            remaining -= n;
+        }
+    }
+
+    private static void accumulateBounds(float[] data, int offset, int count, Vector3f min, Vector3f max) {
+        float minX = min.x, minY = min.y, minZ = min.z;
+        float maxX = max.x, maxY = max.y, maxZ = max.z;
+        int end = offset + count * 3;
+        for (int i = offset; i < end; i += 3) {
+            float x = data[i], y = data[i + 1], z = data[i + 2];
+            if (x < minX) {
+                minX = x;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+            if (z < minZ) {
+                minZ = z;
+            }
+            if (z > maxZ) {
+                maxZ = z;
+            }
+        }
+        min.set(minX, minY, minZ);
+        max.set(maxX, maxY, maxZ);
+    }
+
+    private static void checkRange(FloatBuffer buffer, int index, int count) {
+        if (index < 0 || count < 0 || (index + count) * 3 > buffer.capacity()) {
+            throw new IndexOutOfBoundsException("Vectors " + index + " to " + (index + count)
+                    + " exceed the buffer capacity of " + buffer.capacity() + " floats");
+        }
+    }
+}
@@ -45,6 +45,7 @@ import com.jme3.math.Quaternion;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.math.Vector4f;
+import com.jme3.util.TempPool;
 import com.jme3.util.TempVars;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -1496,16 +1497,18 @@ public class Camera implements Savable, Cloneable {
             store = new Vector3f();
         }
 
-        Matrix4f inverseMat = new Matrix4f(viewProjectionMatrix);
-        inverseMat.invertLocal();
+        try (TempPool pool = TempPool.open()) {
+            Matrix4f inverseMat = pool.matrix4f().set(viewProjectionMatrix);
+            inverseMat.invertLocal();
 
-        store.set(
-                (screenPosition.x / getWidth() - viewPortLeft) / (viewPortRight - viewPortLeft) * 2 - 1,
-                (screenPosition.y / getHeight() - viewPortBottom) / (viewPortTop - viewPortBottom) * 2 - 1,
-                projectionZPos * 2 - 1);
+            store.set(
+                    (screenPosition.x / getWidth() - viewPortLeft) / (viewPortRight - viewPortLeft) * 2 - 1,
+                    (screenPosition.y / getHeight() - viewPortBottom) / (viewPortTop - viewPortBottom) * 2 - 1,
+                    projectionZPos * 2 - 1);
 
-        float w = inverseMat.multProj(store, store);
-        store.multLocal(1f / w);
+            float w = inverseMat.multProj(store, store);
+            store.multLocal(1f / w);
+        }
 
         return store;
     }
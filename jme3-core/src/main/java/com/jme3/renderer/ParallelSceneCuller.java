@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer;
+
+import com.jme3.renderer.queue.GeometryList;
+import com.jme3.renderer.queue.NullComparator;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.renderer.queue.RenderQueue.Bucket;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Flattens a scene graph into a {@link RenderQueue} by culling large
+ * {@link Node} subtrees on a {@link ForkJoinPool}.
+ *
+ * <p>Whenever a visible node has at least <code>threshold</code> children,
+ * the children are split into contiguous ranges which are culled by separate
+ * tasks. Every task uses its own clone of the camera (so the frustum plane
+ * state is never shared between threads) and fills its own per-bucket
+ * {@link GeometryList} shards. When all tasks completed, the shards are
+ * appended to the viewport's queue in traversal order, so the resulting
+ * queue is identical to the one produced by the sequential traversal.
+ *
+ * <p>Worker threads only read the scene graph. The
+ * {@link Spatial#runControlRender(RenderManager, ViewPort) control render}
+ * callbacks of visible spatials are recorded during culling and invoked on
+ * the calling thread, in traversal order, before the geometries are merged.
+ *
+ * @see RenderManager#setParallelCulling(boolean)
+ */
+final class ParallelSceneCuller {
+
+    private static final Bucket[] BUCKETS = Bucket.values();
+    private static final NullComparator SHARD_COMPARATOR = new NullComparator();
+
+    private final RenderManager renderManager;
+
+    ParallelSceneCuller(RenderManager renderManager) {
+        this.renderManager = renderManager;
+    }
+
+    /**
+     * Culls the given scene and adds the visible geometries to the queue
+     * of the viewport.
+     *
+     * @param scene the scene to flatten (not null)
+     * @param vp the viewport providing the camera and the queue (not null)
+     * @param pool the pool to run the culling tasks on (not null)
+     * @param threshold the minimum number of children for a node to be
+     *     split across tasks (&ge;2)
+     */
+    void cull(Spatial scene, ViewPort vp, ForkJoinPool pool, int threshold) {
+        List<Spatial> roots = new ArrayList<>(1);
+        roots.add(scene);
+        CullTask root = new CullTask(vp.getCamera(), 0, roots, 0, 1, threshold, pool.getParallelism());
+        pool.invoke(root);
+
+        RenderQueue queue = vp.getQueue();
+        root.runControls(renderManager, vp);
+        root.mergeInto(queue);
+    }
+
+    /**
+     * Geometries and controlled spatials found by a task between two forks,
+     * in traversal order.
+     */
+    private static final class Shard {
+
+        private final GeometryList[] lists = new GeometryList[BUCKETS.length];
+        private ArrayList<Spatial> controlled;
+
+        void addGeometry(Geometry geom, Bucket bucket) {
+            int index = bucket.ordinal();
+            GeometryList list = lists[index];
+            if (list == null) {
+                list = new GeometryList(SHARD_COMPARATOR);
+                lists[index] = list;
+            }
+            list.add(geom);
+        }
+
+        void addControlled(Spatial spatial) {
+            if (controlled == null) {
+                controlled = new ArrayList<>();
+            }
+            controlled.add(spatial);
+        }
+
+        void runControls(RenderManager rm, ViewPort vp) {
+            if (controlled != null) {
+                for (int i = 0; i < controlled.size(); i++) {
+                    controlled.get(i).runControlRender(rm, vp);
+                }
+            }
+        }
+
+        void mergeInto(RenderQueue queue) {
+            for (int i = 0; i < lists.length; i++) {
+                if (lists[i] != null) {
+                    queue.addToQueue(lists[i], BUCKETS[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Culls a contiguous range of sibling spatials.
+     *
+     * <p>The results are kept as an ordered list of segments, each of which
+     * is either a {@link Shard} or a forked sub-task, so that merging only
+     * needs to walk the segments in order.
+     */
+    private static final class CullTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Camera sourceCam;
+        private final int planeState;
+        private final List<Spatial> spatials;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final int parallelism;
+        private final ArrayList<Object> segments = new ArrayList<>();
+        private Camera cam;
+        private Shard current;
+
+        CullTask(Camera sourceCam, int planeState, List<Spatial> spatials,
+                int from, int to, int threshold, int parallelism) {
+            this.sourceCam = sourceCam;
+            this.planeState = planeState;
+            this.spatials = spatials;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            // the source camera is only read, each task culls with its own copy
+            cam = sourceCam.clone();
+            for (int i = from; i < to; i++) {
+                cam.setPlaneState(planeState);
+                cullSubScene(spatials.get(i));
+            }
+        }
+
+        private Shard currentShard() {
+            if (current == null) {
+                current = new Shard();
+                segments.add(current);
+            }
+            return current;
+        }
+
+        /**
+         * Mirrors the sequential traversal of the RenderManager.
+         */
+        private void cullSubScene(Spatial scene) {
+            if (!scene.checkCulling(cam)) {
+                return;
+            }
+
+            if (scene.getNumControls() > 0) {
+                currentShard().addControlled(scene);
+            }
+            if (scene instanceof Node) {
+                List<Spatial> children = ((Node) scene).getChildren();
+                int camState = cam.getPlaneState();
+                if (children.size() >= threshold) {
+                    forkChildren(children, camState);
+                } else {
+                    for (int i = 0; i < children.size(); i++) {
+                        cam.setPlaneState(camState);
+                        cullSubScene(children.get(i));
+                    }
+                }
+            } else if (scene instanceof Geometry) {
+                Geometry gm = (Geometry) scene;
+                if (gm.getMaterial() == null) {
+                    throw new IllegalStateException("No material is set for Geometry: " + gm.getName());
+                }
+
+                currentShard().addGeometry(gm, scene.getQueueBucket());
+            }
+        }
+
+        private void forkChildren(List<Spatial> children, int camState) {
+            int count = children.size();
+            int numTasks = Math.max(2, Math.min(parallelism * 2, count / 2));
+            int rangeSize = (count + numTasks - 1) / numTasks;
+
+            // whatever this task culls after the fork goes into a new shard
+            current = null;
+            List<CullTask> tasks = new ArrayList<>(numTasks);
+            for (int start = 0; start < count; start += rangeSize) {
+                int end = Math.min(start + rangeSize, count);
+                CullTask task = new CullTask(sourceCam, camState, children, start, end,
+                        threshold, parallelism);
+                tasks.add(task);
+                segments.add(task);
+            }
+            invokeAll(tasks);
+        }
+
+        void runControls(RenderManager rm, ViewPort vp) {
+            for (int i = 0; i < segments.size(); i++) {
+                Object segment = segments.get(i);
+                if (segment instanceof Shard) {
+                    ((Shard) segment).runControls(rm, vp);
+                } else {
+                    ((CullTask) segment).runControls(rm, vp);
+                }
+            }
+        }
+
+        void mergeInto(RenderQueue queue) {
+            for (int i = 0; i < segments.size(); i++) {
+                Object segment = segments.get(i);
+                if (segment instanceof Shard) {
+                    ((Shard) segment).mergeInto(queue);
+                } else {
+                    ((CullTask) segment).mergeInto(queue);
+                }
+            }
+        }
+    }
+}
@@ -328,6 +328,12 @@ public class RenderContext {
      */
     public final WeakReference<VertexBuffer>[] boundAttribs = new WeakReference[16];
 
+    /**
+     * Vertex attribs whose pointer was set into the vertex streaming ring
+     * rather than into the buffer's own storage.
+     */
+    public final boolean[] boundAttribsStreamed = new boolean[16];
+
     /**
      * IDList for vertex attributes.
      */
@@ -429,6 +435,7 @@ public class RenderContext {
 
         for (int i = 0; i < boundAttribs.length; i++) {
             boundAttribs[i] = null;
+            boundAttribsStreamed[i] = false;
         }
 
         attribIndexList.reset();
@@ -66,6 +66,7 @@ import com.jme3.util.SafeArrayList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 
@@ -106,6 +107,10 @@ public class RenderManager {
     private int singlePassLightBatchSize = 1;
     private MatParamOverride boundDrawBufferId=new MatParamOverride(VarType.Int,"BoundDrawBuffer",0);
     private Predicate<Geometry> renderFilter;
+    private boolean parallelCulling = false;
+    private ForkJoinPool parallelCullingPool;
+    private int parallelCullingThreshold = 256;
+    private ParallelSceneCuller parallelCuller;
 
 
     /**
@@ -784,13 +789,100 @@ public class RenderManager {
      * @param vp The ViewPort provides the {@link ViewPort#getCamera() camera}
      *     used for culling and the {@link ViewPort#getQueue() queue} used to
      *     contain the flattened scene graph.
+     * @see #setParallelCulling(boolean)
      */
     public void renderScene(Spatial scene, ViewPort vp) {
         //reset of the camera plane state for proper culling
         //(must be 0 for the first note of the scene to be rendered)
         vp.getCamera().setPlaneState(0);
         //rendering the scene
-        renderSubScene(scene, vp);
+        if (parallelCulling && scene instanceof Node) {
+            if (parallelCuller == null) {
+                parallelCuller = new ParallelSceneCuller(this);
+            }
+            ForkJoinPool pool = parallelCullingPool != null
+                    ? parallelCullingPool : ForkJoinPool.commonPool();
+            parallelCuller.cull(scene, vp, pool, parallelCullingThreshold);
+        } else {
+            renderSubScene(scene, vp);
+        }
+    }
+
+    /**
+     * Enables or disables parallel culling in {@link #renderScene(Spatial, ViewPort)}.
+     *
+     * <p>When enabled, the children of every visible {@link Node} that has at
+     * least {@link #getParallelCullingThreshold() threshold} children are
+     * culled concurrently on a {@link ForkJoinPool}, each task filling its
+     * own geometry shards. The shards are merged into the viewport's queue
+     * in traversal order, so the queue content (and hence the sorted result)
+     * is identical to the one produced by the sequential traversal.
+     *
+     * <p>Culling only reads the scene graph, which must not be modified
+     * while rendering. {@link com.jme3.scene.control.Control#render(RenderManager, ViewPort)
+     * Control.render()} is still invoked on the render thread, in traversal
+     * order, but only after the whole scene has been culled, so controls
+     * must not rely on changing the visibility of their spatial's children
+     * from that callback.
+     *
+     * @param parallelCulling true to cull large subtrees in parallel,
+     *     false for the sequential traversal (default=false)
+     */
+    public void setParallelCulling(boolean parallelCulling) {
+        this.parallelCulling = parallelCulling;
+    }
+
+    /**
+     * Tests whether large subtrees are culled in parallel.
+     *
+     * @return true if parallel culling is enabled, otherwise false
+     * @see #setParallelCulling(boolean)
+     */
+    public boolean isParallelCulling() {
+        return parallelCulling;
+    }
+
+    /**
+     * Sets the pool used for parallel culling.
+     *
+     * @param pool the pool to use, or null for the
+     *     {@link ForkJoinPool#commonPool() common pool} (default=null)
+     */
+    public void setParallelCullingPool(ForkJoinPool pool) {
+        this.parallelCullingPool = pool;
+    }
+
+    /**
+     * Returns the pool used for parallel culling.
+     *
+     * @return the pool, or null if the common pool is used
+     */
+    public ForkJoinPool getParallelCullingPool() {
+        return parallelCullingPool;
+    }
+
+    /**
+     * Sets the minimum number of children a node must have for its
+     * children to be culled concurrently. Smaller nodes are traversed
+     * sequentially by the task that reaches them.
+     *
+     * @param threshold the minimum number of children (&ge;2, default=256)
+     */
+    public void setParallelCullingThreshold(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("threshold must be at least 2, got " + threshold);
+        }
+        this.parallelCullingThreshold = threshold;
+    }
+
+    /**
+     * Returns the minimum number of children a node must have for its
+     * children to be culled concurrently.
+     *
+     * @return the threshold (&ge;2)
+     */
+    public int getParallelCullingThreshold() {
+        return parallelCullingThreshold;
     }
 
     /**
@@ -117,6 +117,10 @@ public final class GLRenderer implements Renderer {
     private final TextureUtil texUtil;
     private boolean debug = false;
     private int debugGroupId = 0;
+    private boolean vertexStreaming = false;
+    private int streamingSegmentSize = 4 * 1024 * 1024;
+    private int streamingSegmentCount = 3;
+    private GLStreamingBuffer streamingBuffer;
 
 
     public GLRenderer(GL gl, GLExt glext, GLFbo glfbo) {
@@ -141,6 +145,65 @@ public final class GLRenderer implements Renderer {
         debug = v;
     }
 
+    /**
+     * Enables or disables streaming of {@link Usage#Stream} vertex buffers.
+     *
+     * <p>When enabled, the data of stream vertex buffers (particles, CPU
+     * skinning, etc.) is not given its own GL buffer. Instead it is
+     * sub-allocated each frame from a ring of large buffers (see
+     * {@link GLStreamingBuffer}), which avoids re-specifying driver storage
+     * for every updated buffer. Index buffers, interleaved data and data
+     * larger than a segment keep using their own GL buffers.
+     *
+     * @param enabled true to stream, false to give every buffer its own
+     *     storage (default=false)
+     */
+    public void setVertexStreaming(boolean enabled) {
+        if (!enabled && streamingBuffer != null) {
+            streamingBuffer.delete();
+            streamingBuffer = null;
+        }
+        vertexStreaming = enabled;
+    }
+
+    /**
+     * Tests whether stream vertex buffers are sub-allocated from a ring.
+     *
+     * @return true if streaming is enabled, otherwise false
+     * @see #setVertexStreaming(boolean)
+     */
+    public boolean isVertexStreaming() {
+        return vertexStreaming;
+    }
+
+    /**
+     * Configures the ring used for vertex streaming. Takes effect the next
+     * time streaming is enabled.
+     *
+     * @param segmentSize the number of bytes that can be streamed per
+     *     frame (&gt;0, default=4 MiB)
+     * @param segmentCount the number of frames that may be in flight
+     *     (&ge;1, default=3)
+     */
+    public void setVertexStreamingBufferSize(int segmentSize, int segmentCount) {
+        if (segmentSize <= 0 || segmentCount < 1) {
+            throw new IllegalArgumentException("Invalid streaming buffer size: "
+                    + segmentCount + " x " + segmentSize);
+        }
+        streamingSegmentSize = segmentSize;
+        streamingSegmentCount = segmentCount;
+    }
+
+    /**
+     * Returns the ring used for vertex streaming, mainly to read its counters.
+     *
+     * @return the ring, or null if nothing has been streamed since
+     *     streaming was enabled
+     */
+    public GLStreamingBuffer getStreamingBuffer() {
+        return streamingBuffer;
+    }
+
     @Override
     public void popDebugGroup() {
         if (debug && caps.contains(Caps.GLDebug)) {
@@ -744,6 +807,9 @@ public final class GLRenderer implements Renderer {
     public void resetGLObjects() {
         logger.log(Level.FINE, "Resetting objects and invalidating state");
         objManager.resetObjects();
+        if (streamingBuffer != null) {
+            streamingBuffer.reset();
+        }
         statistics.clearMemory();
         invalidateState();
     }
@@ -752,6 +818,9 @@ public final class GLRenderer implements Renderer {
     public void cleanup() {
         logger.log(Level.FINE, "Deleting objects and invalidating state");
         objManager.deleteAllObjects(this);
+        if (streamingBuffer != null) {
+            streamingBuffer.delete();
+        }
         OpenCLObjectManager.getInstance().deleteAllObjects();
         statistics.clearMemory();
         invalidateState();
@@ -1236,6 +1305,9 @@ public final class GLRenderer implements Renderer {
 
     @Override
     public void postFrame() {
+        if (streamingBuffer != null) {
+            streamingBuffer.endFrame();
+        }
         objManager.deleteUnused(this);
         OpenCLObjectManager.getInstance().deleteUnusedObjects();
         gl.resetStats();
@@ -2894,6 +2966,17 @@ public final class GLRenderer implements Renderer {
 
     @Override
     public void updateBufferData(VertexBuffer vb) {
+        updateBufferData(vb, false);
+    }
+
+    /**
+     * Uploads the data of a vertex buffer to its own GL buffer.
+     *
+     * @param vb the buffer to upload (not null)
+     * @param reallocate true to always re-specify the storage, false to only
+     *     replace the content of non-static buffers whose size didn't change
+     */
+    private void updateBufferData(VertexBuffer vb, boolean reallocate) {
         int bufId = vb.getId();
         boolean created = false;
         if (bufId == -1) {
@@ -2933,6 +3016,32 @@ public final class GLRenderer implements Renderer {
         int usage = convertUsage(vb.getUsage());
         vb.getData().rewind();
 
+        if (!created && !reallocate && vb.getUsage() != Usage.Static
+                && !vb.hasDataSizeChanged()) {
+            // the storage still fits, only replace its content
+            switch (vb.getFormat()) {
+                case Byte:
+                case UnsignedByte:
+                    gl.glBufferSubData(target, 0, (ByteBuffer) vb.getData());
+                    break;
+                case Short:
+                case UnsignedShort:
+                    gl.glBufferSubData(target, 0, (ShortBuffer) vb.getData());
+                    break;
+                case Int:
+                case UnsignedInt:
+                    glext.glBufferSubData(target, 0, (IntBuffer) vb.getData());
+                    break;
+                case Float:
+                    gl.glBufferSubData(target, 0, (FloatBuffer) vb.getData());
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unknown buffer format.");
+            }
+            vb.clearUpdateNeeded();
+            return;
+        }
+
         switch (vb.getFormat()) {
             case Byte:
             case UnsignedByte:
@@ -3142,7 +3251,11 @@ public final class GLRenderer implements Renderer {
             slotsRequired = vb.getNumComponents() / 4;
         }
 
-        if (vb.isUpdateNeeded() && idb == null) {
+        long streamOffset = -1;
+        if (idb == null && vertexStreaming && vb.getUsage() == Usage.Stream) {
+            streamOffset = streamVertexBuffer(vb);
+        }
+        if (streamOffset == -1 && (vb.isUpdateNeeded() || vb.getId() == -1) && idb == null) {
             updateBufferData(vb);
         }
 
@@ -3152,9 +3265,19 @@ public final class GLRenderer implements Renderer {
                 gl.glEnableVertexAttribArray(loc + i);
             }
         }
-        if (attribs[loc]==null||attribs[loc].get() != vb) {
+        // streamed data moves every frame, so the pointer is always set, and
+        // is set again when the data leaves the ring
+        if (streamOffset != -1 || context.boundAttribsStreamed[loc]
+                || attribs[loc]==null||attribs[loc].get() != vb) {
             // NOTE: Use id from interleaved buffer if specified
-            int bufId = idb != null ? idb.getId() : vb.getId();
+            int bufId;
+            long baseOffset = 0;
+            if (streamOffset != -1) {
+                bufId = streamingBuffer.getBufferId();
+                baseOffset = streamOffset;
+            } else {
+                bufId = idb != null ? idb.getId() : vb.getId();
+            }
             assert bufId != -1;
             if (context.boundArrayVBO != bufId) {
                 gl.glBindBuffer(GL.GL_ARRAY_BUFFER, bufId);
@@ -3170,7 +3293,7 @@ public final class GLRenderer implements Renderer {
                         convertFormat(vb.getFormat()),
                         vb.isNormalized(),
                         vb.getStride(),
-                        vb.getOffset());
+                        baseOffset + vb.getOffset());
             } else {
                 for (int i = 0; i < slotsRequired; i++) {
                     // The pointer maps the next 4 floats in the slot.
@@ -3186,7 +3309,7 @@ public final class GLRenderer implements Renderer {
                             convertFormat(vb.getFormat()),
                             vb.isNormalized(),
                             4 * 4 * slotsRequired,
-                            4 * 4 * i);
+                            baseOffset + 4 * 4 * i);
                 }
             }
 
@@ -3200,6 +3323,7 @@ public final class GLRenderer implements Renderer {
                     glext.glVertexAttribDivisorARB(slot, 0);
                 }
                 attribs[slot] = vb.getWeakRef();
+                context.boundAttribsStreamed[slot] = streamOffset != -1;
             }
         }
         if (debug && caps.contains(Caps.GLDebug)) {
@@ -3211,6 +3335,46 @@ public final class GLRenderer implements Renderer {
         setVertexAttrib(vb, null);
     }
 
+    /**
+     * Makes sure the data of a stream vertex buffer is in the streaming ring
+     * for the current frame.
+     *
+     * @param vb the buffer to stream (not null)
+     * @return the offset of the data in the ring buffer, or -1 if the data
+     *     was uploaded to the buffer's own storage instead
+     */
+    private long streamVertexBuffer(VertexBuffer vb) {
+        if (streamingBuffer == null) {
+            boolean fences = caps.contains(Caps.OpenGL32) || caps.contains(Caps.OpenGLES30)
+                    || hasExtension("GL_ARB_sync");
+            streamingBuffer = new GLStreamingBuffer(gl, glext, fences,
+                    streamingSegmentSize, streamingSegmentCount);
+        }
+
+        long offset = streamingBuffer.getOffset(vb);
+        if (offset != -1 && !vb.isUpdateNeeded()) {
+            return offset;
+        }
+        boolean firstUpload = offset == -1;
+
+        vb.getData().rewind();
+        offset = streamingBuffer.upload(vb, vb.getData());
+        if (offset == -1) {
+            // too large for the ring, its own storage may be stale or sized
+            // for older data
+            updateBufferData(vb, true);
+            return -1;
+        }
+        context.boundArrayVBO = streamingBuffer.getBufferId();
+        if (firstUpload && vb.getId() != -1) {
+            // the own storage goes stale while streaming, release the GL
+            // object but keep the data, which is still in use
+            objManager.deleteObject(this, vb);
+        }
+        vb.clearUpdateNeeded();
+        return offset;
+    }
+
     public void drawTriangleArray(Mesh.Mode mode, int count, int vertCount) {
         boolean useInstancing = count > 1 && caps.contains(Caps.MeshInstancing);
         if (useInstancing) {
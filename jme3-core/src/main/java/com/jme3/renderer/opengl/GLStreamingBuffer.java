@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer.opengl;
+
+import com.jme3.renderer.RendererException;
+import com.jme3.util.BufferUtils;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A ring of GL array buffers used to stream vertex data that changes
+ * every frame.
+ *
+ * <p>Instead of re-specifying the storage of every updated buffer with
+ * <code>glBufferData</code>, the data of all streamed vertex buffers of a
+ * frame is sub-allocated from one large segment with
+ * <code>glBufferSubData</code>. At the end of the frame a fence is inserted
+ * and the next segment of the ring is used. A segment is only written again
+ * once its fence signaled, i.e. once the GPU finished reading the frame that
+ * used it. When fences are not supported the segment storage is orphaned
+ * instead, so the driver can hand out fresh memory without stalling.
+ *
+ * <p>The class only talks to the {@link GL} and {@link GLExt} interfaces,
+ * the {@link GLRenderer} is responsible for pointing the vertex attributes
+ * at the returned offsets.
+ *
+ * @see GLRenderer#setVertexStreaming(boolean)
+ */
+public final class GLStreamingBuffer {
+
+    private static final Logger logger = Logger.getLogger(GLStreamingBuffer.class.getName());
+
+    /**
+     * Allocations are aligned so that any attribute format can start at
+     * the returned offset.
+     */
+    public static final int ALIGNMENT = 16;
+
+    /**
+     * Time in nanoseconds to wait for a fence before logging a stall and
+     * waiting again.
+     */
+    private static final long FENCE_TIMEOUT = 100000000L;
+
+    private final GL gl;
+    private final GLExt glext;
+    private final boolean useFences;
+    private final int segmentSize;
+    private final int[] bufferIds;
+    private final Object[] fences;
+    private final IntBuffer intBuf = BufferUtils.createIntBuffer(1);
+    private final IdentityHashMap<Object, Allocation> allocations = new IdentityHashMap<>();
+    private final ArrayList<Allocation> allocationPool = new ArrayList<>();
+
+    private int segment = 0;
+    private int cursor = 0;
+    private boolean segmentAcquired = false;
+
+    private long frameCount = 0;
+    private long allocationCount = 0;
+    private long uploadedBytes = 0;
+    private long overflowCount = 0;
+    private long fenceWaitCount = 0;
+
+    /**
+     * Creates a ring. No GL objects are created until the first upload.
+     *
+     * @param gl the GL interface (not null)
+     * @param glext the GL extension interface, only used for fences
+     * @param useFences true if fence sync objects are supported, false to
+     *     orphan the segments instead
+     * @param segmentSize the size of each segment in bytes (&gt;0)
+     * @param numSegments the number of segments in the ring, i.e. the number
+     *     of frames that may be in flight (&ge;1)
+     */
+    public GLStreamingBuffer(GL gl, GLExt glext, boolean useFences, int segmentSize, int numSegments) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize must be positive, got " + segmentSize);
+        }
+        if (numSegments < 1) {
+            throw new IllegalArgumentException("numSegments must be at least 1, got " + numSegments);
+        }
+        if (useFences && glext == null) {
+            throw new IllegalArgumentException("Fences require the GLExt interface");
+        }
+        this.gl = gl;
+        this.glext = glext;
+        this.useFences = useFences;
+        this.segmentSize = segmentSize;
+        this.bufferIds = new int[numSegments];
+        this.fences = new Object[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            bufferIds[i] = -1;
+        }
+    }
+
+    /**
+     * Copies the remaining content of the given buffer into the current
+     * segment and remembers the offset for the given owner until the end
+     * of the frame. The segment buffer is left bound to
+     * <code>GL_ARRAY_BUFFER</code>.
+     *
+     * @param owner the object the data belongs to, e.g. a vertex buffer
+     *     (not null)
+     * @param data the data to upload, from position to limit (not null,
+     *     unaffected)
+     * @return the byte offset of the data in the buffer returned by
+     *     {@link #getBufferId()}, or -1 if the data doesn't fit in a segment
+     *     and must be uploaded by other means
+     */
+    public long upload(Object owner, Buffer data) {
+        int bytes = data.remaining() * bytesPerElement(data);
+        int offset = (cursor + ALIGNMENT - 1) & -ALIGNMENT;
+        if (bytes > segmentSize - offset) {
+            overflowCount++;
+            return -1;
+        }
+
+        acquireSegment();
+        int bufferId = bufferIds[segment];
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, bufferId);
+        if (data instanceof FloatBuffer) {
+            gl.glBufferSubData(GL.GL_ARRAY_BUFFER, offset, (FloatBuffer) data);
+        } else if (data instanceof ByteBuffer) {
+            gl.glBufferSubData(GL.GL_ARRAY_BUFFER, offset, (ByteBuffer) data);
+        } else if (data instanceof ShortBuffer) {
+            gl.glBufferSubData(GL.GL_ARRAY_BUFFER, offset, (ShortBuffer) data);
+        } else if (data instanceof IntBuffer) {
+            glext.glBufferSubData(GL.GL_ARRAY_BUFFER, offset, (IntBuffer) data);
+        } else {
+            throw new UnsupportedOperationException("Unsupported buffer type: " + data.getClass());
+        }
+
+        cursor = offset + bytes;
+        allocationCount++;
+        uploadedBytes += bytes;
+
+        Allocation allocation = allocations.get(owner);
+        if (allocation == null) {
+            int last = allocationPool.size() - 1;
+            allocation = last >= 0 ? allocationPool.remove(last) : new Allocation();
+            allocations.put(owner, allocation);
+        }
+        allocation.offset = offset;
+        return offset;
+    }
+
+    /**
+     * Returns the offset of the data uploaded for the given owner during
+     * the current frame.
+     *
+     * @param owner the owner passed to {@link #upload(java.lang.Object, java.nio.Buffer)}
+     * @return the byte offset in the buffer returned by {@link #getBufferId()},
+     *     or -1 if nothing was uploaded for the owner during this frame
+     */
+    public long getOffset(Object owner) {
+        Allocation allocation = allocations.get(owner);
+        return allocation != null ? allocation.offset : -1;
+    }
+
+    /**
+     * Returns the GL buffer of the current segment, which holds the data of
+     * all uploads since the last {@link #endFrame()}.
+     *
+     * @return the buffer name, or -1 if nothing has been uploaded yet
+     */
+    public int getBufferId() {
+        return bufferIds[segment];
+    }
+
+    /**
+     * Returns the number of {@link #endFrame()} calls so far. Offsets returned
+     * by {@link #upload(java.lang.Object, java.nio.Buffer)} are only valid
+     * during the frame they were returned in.
+     *
+     * @return the frame number
+     */
+    public long getFrame() {
+        return frameCount;
+    }
+
+    /**
+     * Ends the current frame: fences the current segment if it was used and
+     * moves on to the next segment of the ring. All offsets of the frame
+     * are forgotten.
+     */
+    public void endFrame() {
+        releaseAllocations();
+        if (segmentAcquired) {
+            if (useFences) {
+                fences[segment] = glext.glFenceSync(GLExt.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            }
+            segment = (segment + 1) % bufferIds.length;
+            segmentAcquired = false;
+        }
+        cursor = 0;
+        frameCount++;
+    }
+
+    /**
+     * Makes the current segment writable, creating its buffer or waiting
+     * for the GPU to release it if required.
+     */
+    private void acquireSegment() {
+        if (segmentAcquired) {
+            return;
+        }
+        segmentAcquired = true;
+
+        if (bufferIds[segment] == -1) {
+            intBuf.clear();
+            gl.glGenBuffers(intBuf);
+            bufferIds[segment] = intBuf.get(0);
+            gl.glBindBuffer(GL.GL_ARRAY_BUFFER, bufferIds[segment]);
+            gl.glBufferData(GL.GL_ARRAY_BUFFER, segmentSize, GL.GL_STREAM_DRAW);
+            return;
+        }
+
+        if (useFences) {
+            waitForFence(segment);
+        } else {
+            // orphan the old storage, the GPU may still be reading it
+            gl.glBindBuffer(GL.GL_ARRAY_BUFFER, bufferIds[segment]);
+            gl.glBufferData(GL.GL_ARRAY_BUFFER, segmentSize, GL.GL_STREAM_DRAW);
+        }
+    }
+
+    private void waitForFence(int index) {
+        Object fence = fences[index];
+        if (fence == null) {
+            return;
+        }
+        fences[index] = null;
+
+        int flags = 0;
+        while (true) {
+            int status = glext.glClientWaitSync(fence, flags, flags == 0 ? 0 : FENCE_TIMEOUT);
+            if (status == GLExt.GL_ALREADY_SIGNALED || status == GLExt.GL_CONDITION_SATISFIED) {
+                break;
+            } else if (status == GLExt.GL_WAIT_FAILED) {
+                glext.glDeleteSync(fence);
+                throw new RendererException("Waiting for a streaming buffer fence failed");
+            }
+            if (flags == 0) {
+                // the GPU is behind, flush so that the fence can signal
+                fenceWaitCount++;
+                flags = GLExt.GL_SYNC_FLUSH_COMMANDS_BIT;
+            } else if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Still waiting for streaming segment {0}", index);
+            }
+        }
+        glext.glDeleteSync(fence);
+    }
+
+    /**
+     * Deletes all GL objects of the ring. The ring can be used again
+     * afterwards, the objects are then created again.
+     */
+    public void delete() {
+        for (int i = 0; i < bufferIds.length; i++) {
+            if (fences[i] != null) {
+                glext.glDeleteSync(fences[i]);
+                fences[i] = null;
+            }
+            if (bufferIds[i] != -1) {
+                intBuf.clear();
+                intBuf.put(0, bufferIds[i]);
+                gl.glDeleteBuffers(intBuf);
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Forgets all GL objects without deleting them, e.g. after the context
+     * was lost.
+     */
+    public void reset() {
+        for (int i = 0; i < bufferIds.length; i++) {
+            bufferIds[i] = -1;
+            fences[i] = null;
+        }
+        segment = 0;
+        cursor = 0;
+        segmentAcquired = false;
+        releaseAllocations();
+    }
+
+    private void releaseAllocations() {
+        if (!allocations.isEmpty()) {
+            allocationPool.addAll(allocations.values());
+            allocations.clear();
+        }
+    }
+
+    /**
+     * Returns the size of each segment.
+     *
+     * @return the size in bytes
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Returns the number of segments in the ring.
+     *
+     * @return the count (&ge;1)
+     */
+    public int getNumSegments() {
+        return bufferIds.length;
+    }
+
+    /**
+     * Returns the number of successful uploads since creation.
+     *
+     * @return the count
+     */
+    public long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * Returns the number of bytes uploaded since creation.
+     *
+     * @return the count
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Returns the number of uploads that did not fit in the current segment.
+     *
+     * @return the count
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Returns how many times the CPU had to wait for the GPU to release
+     * a segment. A high value means the ring should have more segments.
+     *
+     * @return the count
+     */
+    public long getFenceWaitCount() {
+        return fenceWaitCount;
+    }
+
+    private static final class Allocation {
+        long offset;
+    }
+
+    private static int bytesPerElement(Buffer data) {
+        if (data instanceof FloatBuffer || data instanceof IntBuffer) {
+            return 4;
+        } else if (data instanceof ShortBuffer) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+}
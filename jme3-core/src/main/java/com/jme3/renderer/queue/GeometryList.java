@@ -31,6 +31,7 @@
  */
 package com.jme3.renderer.queue;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -49,11 +50,23 @@ import com.jme3.util.ListSort;
 public class GeometryList implements Iterable<Geometry>{
 
     private static final int DEFAULT_SIZE = 32;
+    /**
+     * Lists up to this size are insertion-sorted by key instead of radix-sorted.
+     */
+    private static final int MIN_RADIX_SORT_SIZE = 48;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+    private static final int RADIX_PASSES = Long.SIZE / RADIX_BITS;
 
     private Geometry[] geometries;
     private final ListSort listSort;
     private int size;
     private GeometryComparator comparator;
+    private boolean keySorting = false;
+    private long[] keys;
+    private long[] keysTemp;
+    private Geometry[] geometriesTemp;
+    private int[] histograms;
 
     /**
      * Initializes the GeometryList to use the given {@link GeometryComparator}
@@ -82,6 +95,37 @@ public class GeometryList implements Iterable<Geometry>{
         return comparator;
     }
 
+    /**
+     * Enables or disables sorting by key. When enabled and the comparator
+     * is a {@link KeyedGeometryComparator}, {@link #sort()} computes one
+     * sort key per geometry and radix-sorts the list by those keys, which
+     * gives the same order as the comparator but without evaluating it
+     * for every pair of compared geometries. Other comparators are always
+     * used directly.
+     *
+     * @param keySorting true to sort by key, false to always use the
+     *     comparator (default=false)
+     */
+    public void setKeySorting(boolean keySorting) {
+        this.keySorting = keySorting;
+        if (!keySorting) {
+            keys = null;
+            keysTemp = null;
+            geometriesTemp = null;
+            histograms = null;
+        }
+    }
+
+    /**
+     * Tests whether the list is sorted by key when its comparator supports it.
+     *
+     * @return true if key sorting is enabled, otherwise false
+     * @see #setKeySorting(boolean)
+     */
+    public boolean isKeySorting() {
+        return keySorting;
+    }
+
     /**
      * Set the camera that will be set on the geometry comparators
      * via {@link GeometryComparator#setCamera(com.jme3.renderer.Camera)}.
@@ -137,6 +181,28 @@ public class GeometryList implements Iterable<Geometry>{
         geometries[size++] = g;
     }
 
+    /**
+     * Appends all geometries of another list, preserving their order.
+     * List size is grown to fit if there is no room.
+     *
+     * @param other
+     *            The list whose geometries are appended (not null, unaffected).
+     */
+    public void addAll(GeometryList other) {
+        int count = other.size;
+        if (count == 0) {
+            return;
+        }
+        if (size + count > geometries.length) {
+            int newLength = Math.max(size + count, geometries.length * 2);
+            Geometry[] temp = new Geometry[newLength];
+            System.arraycopy(geometries, 0, temp, 0, size);
+            geometries = temp;
+        }
+        System.arraycopy(other.geometries, 0, geometries, size, count);
+        size += count;
+    }
+
     /**
      * Resets list size to 0.
      */
@@ -154,6 +220,10 @@ public class GeometryList implements Iterable<Geometry>{
     @SuppressWarnings("unchecked")
     public void sort() {
         if (size > 1) {
+            if (keySorting && comparator instanceof KeyedGeometryComparator) {
+                sortByKey((KeyedGeometryComparator) comparator);
+                return;
+            }
             // sort the spatial list using the comparator
             if (listSort.getLength() != size) {
                 listSort.allocateStack(size);
@@ -162,6 +232,105 @@ public class GeometryList implements Iterable<Geometry>{
         }
     }
 
+    /**
+     * Stable sort by the unsigned keys of the comparator. Small lists use
+     * an insertion sort, larger ones a least-significant-digit radix sort
+     * which skips the digits shared by all keys.
+     */
+    private void sortByKey(KeyedGeometryComparator keyed) {
+        if (keys == null || keys.length < size) {
+            keys = new long[geometries.length];
+        }
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyed.getSortKey(geometries[i]);
+        }
+
+        if (size <= MIN_RADIX_SORT_SIZE) {
+            insertionSortByKey();
+        } else {
+            radixSortByKey();
+        }
+    }
+
+    private void insertionSortByKey() {
+        for (int i = 1; i < size; i++) {
+            long key = keys[i];
+            Geometry geom = geometries[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                geometries[j + 1] = geometries[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            geometries[j + 1] = geom;
+        }
+    }
+
+    private void radixSortByKey() {
+        if (keysTemp == null || keysTemp.length < size) {
+            keysTemp = new long[keys.length];
+            geometriesTemp = new Geometry[keys.length];
+        }
+        if (histograms == null) {
+            histograms = new int[RADIX_PASSES * RADIX_SIZE];
+        } else {
+            Arrays.fill(histograms, 0);
+        }
+
+        // count all digits in a single pass over the keys
+        for (int i = 0; i < size; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < RADIX_PASSES; pass++) {
+                int digit = (int) (key >>> (pass * RADIX_BITS)) & (RADIX_SIZE - 1);
+                histograms[pass * RADIX_SIZE + digit]++;
+            }
+        }
+
+        long[] srcKeys = keys;
+        long[] dstKeys = keysTemp;
+        Geometry[] srcGeoms = geometries;
+        Geometry[] dstGeoms = geometriesTemp;
+        for (int pass = 0; pass < RADIX_PASSES; pass++) {
+            int offset = pass * RADIX_SIZE;
+            int shift = pass * RADIX_BITS;
+            // all keys share this digit, the pass would not change the order
+            int firstDigit = (int) (srcKeys[0] >>> shift) & (RADIX_SIZE - 1);
+            if (histograms[offset + firstDigit] == size) {
+                continue;
+            }
+
+            // turn the counts into start indices
+            int sum = 0;
+            for (int digit = 0; digit < RADIX_SIZE; digit++) {
+                int count = histograms[offset + digit];
+                histograms[offset + digit] = sum;
+                sum += count;
+            }
+
+            for (int i = 0; i < size; i++) {
+                long key = srcKeys[i];
+                int digit = (int) (key >>> shift) & (RADIX_SIZE - 1);
+                int index = histograms[offset + digit]++;
+                dstKeys[index] = key;
+                dstGeoms[index] = srcGeoms[i];
+            }
+
+            long[] swapKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = swapKeys;
+            Geometry[] swapGeoms = srcGeoms;
+            srcGeoms = dstGeoms;
+            dstGeoms = swapGeoms;
+        }
+
+        if (srcGeoms != geometries) {
+            System.arraycopy(srcGeoms, 0, geometries, 0, size);
+        }
+        // don't keep geometries alive through the scratch array
+        Arrays.fill(geometriesTemp, 0, size, null);
+    }
+
     @Override
     public Iterator<Geometry> iterator() {
         return new Iterator<Geometry>() {
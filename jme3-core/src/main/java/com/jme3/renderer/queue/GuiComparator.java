@@ -40,7 +40,7 @@ import com.jme3.scene.Geometry;
  *
  * @author Kirill Vainer
  */
-public class GuiComparator implements GeometryComparator {
+public class GuiComparator implements KeyedGeometryComparator {
 
     @Override
     public int compare(Geometry o1, Geometry o2) {
@@ -54,6 +54,12 @@ public class GuiComparator implements GeometryComparator {
             return 0;
     }
 
+    @Override
+    public long getSortKey(Geometry geom) {
+        float z = geom.getWorldTranslation().getZ();
+        return KeyedGeometryComparator.floatToSortableInt(z) & 0xFFFFFFFFL;
+    }
+
     @Override
     public void setCamera(Camera cam) {
     }
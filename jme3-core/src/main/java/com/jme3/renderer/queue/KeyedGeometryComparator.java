@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer.queue;
+
+import com.jme3.scene.Geometry;
+
+/**
+ * A {@link GeometryComparator} that can also express its ordering as a
+ * packed 64-bit sort key per geometry.
+ *
+ * <p>When {@link GeometryList#setKeySorting(boolean) key sorting} is enabled,
+ * a {@link GeometryList} computes the key of every geometry once per sort and
+ * radix-sorts the list by the keys, interpreted as unsigned values, instead
+ * of calling {@link #compare(Object, Object)} O(n log n) times.
+ *
+ * <p>Implementations must keep both orderings consistent: for any two
+ * geometries, comparing their keys as unsigned longs must give the same sign
+ * as <code>compare()</code>. Since both sorts are stable, the resulting order
+ * is then identical. The bucket is not part of the key, as every bucket is
+ * sorted in its own list.
+ *
+ * @author Kirill Vainer
+ */
+public interface KeyedGeometryComparator extends GeometryComparator {
+
+    /**
+     * Computes the sort key of the given geometry for the current camera.
+     *
+     * @param geom the geometry to compute the key for (not null)
+     * @return the sort key, lower unsigned values are rendered first
+     */
+    public long getSortKey(Geometry geom);
+
+    /**
+     * Maps a float to an int whose unsigned order matches the numerical
+     * order of the floats. Negative and positive zero are mapped to the same
+     * value, as they compare equal.
+     *
+     * @param value the value to map (not NaN)
+     * @return the order-preserving unsigned representation
+     */
+    public static int floatToSortableInt(float value) {
+        if (value == 0f) {
+            value = 0f; // normalize -0f
+        }
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) | 0x80000000);
+    }
+}
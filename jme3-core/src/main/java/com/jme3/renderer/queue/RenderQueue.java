@@ -50,6 +50,7 @@ public class RenderQueue {
     private GeometryList transparentList;
     private GeometryList translucentList;
     private GeometryList skyList;
+    private boolean keySorting = false;
 
     /**
      * Creates a new RenderQueue, the default {@link GeometryComparator comparators}
@@ -187,27 +188,56 @@ public class RenderQueue {
      * @param c the comparator to use (alias created)
      */
     public void setGeometryComparator(Bucket bucket, GeometryComparator c) {
+        GeometryList list = new GeometryList(c);
+        list.setKeySorting(keySorting);
         switch (bucket) {
             case Gui:
-                guiList = new GeometryList(c);
+                guiList = list;
                 break;
             case Opaque:
-                opaqueList = new GeometryList(c);
+                opaqueList = list;
                 break;
             case Sky:
-                skyList = new GeometryList(c);
+                skyList = list;
                 break;
             case Transparent:
-                transparentList = new GeometryList(c);
+                transparentList = list;
                 break;
             case Translucent:
-                translucentList = new GeometryList(c);
+                translucentList = list;
                 break;
             default:
                 throw new UnsupportedOperationException("Unknown bucket type: " + bucket);
         }
     }
 
+    /**
+     * Enables or disables {@link GeometryList#setKeySorting(boolean) key sorting}
+     * for all buckets of this queue, including buckets whose comparator is
+     * replaced later.
+     *
+     * @param keySorting true to sort by key where the comparator supports it,
+     *     false to always use the comparators (default=false)
+     */
+    public void setKeySorting(boolean keySorting) {
+        this.keySorting = keySorting;
+        opaqueList.setKeySorting(keySorting);
+        guiList.setKeySorting(keySorting);
+        transparentList.setKeySorting(keySorting);
+        translucentList.setKeySorting(keySorting);
+        skyList.setKeySorting(keySorting);
+    }
+
+    /**
+     * Tests whether the buckets of this queue are sorted by key.
+     *
+     * @return true if key sorting is enabled, otherwise false
+     * @see #setKeySorting(boolean)
+     */
+    public boolean isKeySorting() {
+        return keySorting;
+    }
+
     /**
      *  Returns the current GeometryComparator used by the specified bucket,
      *  one of Gui, Opaque, Sky, Transparent, or Translucent.
@@ -264,6 +294,37 @@ public class RenderQueue {
         }
     }
 
+    /**
+     * Adds all geometries of a list to the given bucket, in list order.
+     * This is equivalent to calling {@link #addToQueue(Geometry, Bucket)}
+     * for each element, and is used by the {@link RenderManager} to merge
+     * geometries that were culled in parallel.
+     *
+     * @param list The geometries to add (not null, unaffected).
+     * @param bucket The bucket to add to.
+     */
+    public void addToQueue(GeometryList list, Bucket bucket) {
+        switch (bucket) {
+            case Gui:
+                guiList.addAll(list);
+                break;
+            case Opaque:
+                opaqueList.addAll(list);
+                break;
+            case Sky:
+                skyList.addAll(list);
+                break;
+            case Transparent:
+                transparentList.addAll(list);
+                break;
+            case Translucent:
+                translucentList.addAll(list);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unknown bucket type: " + bucket);
+        }
+    }
+
     private void renderGeometryList(GeometryList list, RenderManager rm, Camera cam, boolean clear) {
         list.setCamera(cam); // select camera for sorting
         list.sort();
@@ -50,6 +50,7 @@ import com.jme3.renderer.queue.RenderQueue.Bucket;
 import com.jme3.renderer.queue.RenderQueue.ShadowMode;
 import com.jme3.scene.control.Control;
 import com.jme3.util.SafeArrayList;
+import com.jme3.util.TempPool;
 import com.jme3.util.TempVars;
 import com.jme3.util.clone.Cloner;
 import com.jme3.util.clone.IdentityCloneFunction;
@@ -673,38 +674,40 @@ public abstract class Spatial implements Savable, Cloneable, Collidable,
             worldTransform.set(localTransform);
             refreshFlags &= ~RF_TRANSFORM;
         } else {
-            TempVars vars = TempVars.get();
-
-            Spatial[] stack = vars.spatialStack;
-            Spatial rootNode = this;
-            int i = 0;
-            while (true) {
-                Spatial hisParent = rootNode.parent;
-                if (hisParent == null) {
-                    rootNode.worldTransform.set(rootNode.localTransform);
-                    rootNode.refreshFlags &= ~RF_TRANSFORM;
-                    i--;
-                    break;
+            try (TempPool pool = TempPool.open()) {
+                Spatial[] stack = pool.spatialArray(32);
+                Spatial rootNode = this;
+                int i = 0;
+                while (true) {
+                    Spatial hisParent = rootNode.parent;
+                    if (hisParent == null) {
+                        rootNode.worldTransform.set(rootNode.localTransform);
+                        rootNode.refreshFlags &= ~RF_TRANSFORM;
+                        i--;
+                        break;
+                    }
+
+                    if (i == stack.length) {
+                        stack = pool.spatialArray(i + 1);
+                    }
+                    stack[i] = rootNode;
+
+                    if ((hisParent.refreshFlags & RF_TRANSFORM) == 0) {
+                        break;
+                    }
+
+                    rootNode = hisParent;
+                    i++;
                 }
 
-                stack[i] = rootNode;
-
-                if ((hisParent.refreshFlags & RF_TRANSFORM) == 0) {
-                    break;
+                for (int j = i; j >= 0; j--) {
+                    rootNode = stack[j];
+                    //rootNode.worldTransform.set(rootNode.localTransform);
+                    //rootNode.worldTransform.combineWithParent(rootNode.parent.worldTransform);
+                    //rootNode.refreshFlags &= ~RF_TRANSFORM;
+                    rootNode.updateWorldTransforms();
+                    stack[j] = null;
                 }
-
-                rootNode = hisParent;
-                i++;
-            }
-
-            vars.release();
-
-            for (int j = i; j >= 0; j--) {
-                rootNode = stack[j];
-                //rootNode.worldTransform.set(rootNode.localTransform);
-                //rootNode.worldTransform.combineWithParent(rootNode.parent.worldTransform);
-                //rootNode.refreshFlags &= ~RF_TRANSFORM;
-                rootNode.updateWorldTransforms();
             }
         }
     }
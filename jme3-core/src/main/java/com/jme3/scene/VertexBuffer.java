@@ -711,19 +711,24 @@ public class VertexBuffer extends NativeObject implements Savable, Cloneable {
     }
 
     /**
-     * Returns true if the data size of the VertexBuffer has changed.
+     * Returns true if the data size of the VertexBuffer has changed since
+     * it was last sent to the GPU, either through {@link #updateData(java.nio.Buffer)}
+     * or because the limit of the data buffer was changed in place.
      * Internal use only.
      *
      * @return true if the data size has changed
      */
     public boolean hasDataSizeChanged() {
-        return dataSizeChanged;
+        return dataSizeChanged || (data != null && data.limit() != lastLimit);
     }
 
     @Override
     public void clearUpdateNeeded() {
         super.clearUpdateNeeded();
         dataSizeChanged = false;
+        if (data != null) {
+            lastLimit = data.limit();
+        }
     }
 
     /**
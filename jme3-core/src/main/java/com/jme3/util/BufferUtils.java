@@ -41,6 +41,7 @@ import java.io.UnsupportedEncodingException;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -67,6 +68,8 @@ public final class BufferUtils {
     private static boolean trackDirectMemory = false;
     private static final ReferenceQueue<Buffer> removeCollected = new ReferenceQueue<Buffer>();
     private static final ConcurrentHashMap<BufferInfo, BufferInfo> trackedBuffers = new ConcurrentHashMap<BufferInfo, BufferInfo>();
+    private static final ReferenceQueue<Buffer> collectedExternal = new ReferenceQueue<Buffer>();
+    private static final ConcurrentHashMap<ExternalRef, Boolean> externalBuffers = new ConcurrentHashMap<ExternalRef, Boolean>();
     static ClearReferences cleanupthread;
 
     /**
@@ -1289,9 +1292,60 @@ public final class BufferUtils {
         if (!isDirect(toBeDestroyed)) {
             return;
         }
+        if (!externalBuffers.isEmpty()
+                && externalBuffers.containsKey(new ExternalRef(toBeDestroyed, null))) {
+            return;
+        }
         allocator.destroyDirectBuffer(toBeDestroyed);
     }
 
+    /**
+     * Marks a direct buffer whose memory is not owned by the buffer itself,
+     * for example a view of a memory-mapped file.
+     * {@link #destroyDirectBuffer(java.nio.Buffer) } ignores such buffers,
+     * since freeing them could release memory that other buffers still use.
+     * The mark is dropped when the buffer is garbage collected.
+     *
+     * @param buffer the buffer to mark (not null)
+     */
+    public static void markExternalBuffer(Buffer buffer) {
+        for (Reference<? extends Buffer> ref; (ref = collectedExternal.poll()) != null;) {
+            externalBuffers.remove(ref);
+        }
+        externalBuffers.put(new ExternalRef(buffer, collectedExternal), Boolean.TRUE);
+    }
+
+    /**
+     * Identity-based weak key for {@link #externalBuffers}, since the
+     * equality of buffers depends on their content.
+     */
+    private static final class ExternalRef extends WeakReference<Buffer> {
+
+        private final int hash;
+
+        ExternalRef(Buffer buffer, ReferenceQueue<Buffer> queue) {
+            super(buffer, queue);
+            hash = System.identityHashCode(buffer);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ExternalRef)) {
+                return false;
+            }
+            Buffer buffer = get();
+            return buffer != null && buffer == ((ExternalRef) obj).get();
+        }
+    }
+
     /**
      * Test whether the specified buffer is direct.
      *
@@ -166,6 +166,19 @@ public class NativeObjectManager {
         }
     }
     
+    /**
+     * (Internal use only) Deletes the native object of a
+     * <code>NativeObject</code> right away and unregisters it. Unlike
+     * {@link NativeObject#dispose()}, its buffers are kept, so it can still be
+     * used and will be uploaded again when needed.
+     *
+     * @param rendererObject The renderer object.
+     * @param obj The object to delete (not null, registered with this manager)
+     */
+    public void deleteObject(Object rendererObject, NativeObject obj) {
+        deleteNativeObject(rendererObject, obj, null, true, false);
+    }
+
     /**
      * (Internal use only) Deletes unused NativeObjects.
      * Will delete at most {@link #MAX_REMOVES_PER_FRAME} objects.
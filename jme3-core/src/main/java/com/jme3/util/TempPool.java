@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.util;
+
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Matrix4f;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
+import com.jme3.scene.Spatial;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * A scope of temporary math objects for the calling thread. Unlike
+ * {@link TempVars}, the pool behind it is not limited in the number of
+ * objects or nested scopes, so it can be used in deep call chains, worker
+ * threads and callbacks:
+ * <pre>
+ * try (TempPool pool = TempPool.open()) {
+ *     Vector3f v = pool.vector3f();
+ *     Quaternion q = pool.quaternion();
+ *     ...
+ * }
+ * </pre>
+ * All objects taken from a scope are returned when it is closed, after which
+ * they must no longer be used. Scopes must be closed in the opposite order
+ * they were opened, and objects may only be taken from the innermost open
+ * scope. The contents of a taken object are undefined.
+ * <p>
+ * Each thread grows its own pool on demand and never shrinks it, so no
+ * locking is involved and nothing is allocated once the pool is large enough
+ * for the deepest use. The largest number of objects of each type held at
+ * once by any thread is recorded, see {@link #getHighWaterMark(Class) }.
+ */
+public final class TempPool implements AutoCloseable {
+
+    private static final Class<?>[] TYPES = {
+        Vector2f.class, Vector3f.class, Vector4f.class, Quaternion.class,
+        Matrix3f.class, Matrix4f.class, Transform.class
+    };
+    private static final int VECTOR2F = 0;
+    private static final int VECTOR3F = 1;
+    private static final int VECTOR4F = 2;
+    private static final int QUATERNION = 3;
+    private static final int MATRIX3F = 4;
+    private static final int MATRIX4F = 5;
+    private static final int TRANSFORM = 6;
+
+    private static final AtomicIntegerArray highWaterMarks = new AtomicIntegerArray(TYPES.length);
+    private static final AtomicInteger depthHighWaterMark = new AtomicInteger();
+
+    private static final ThreadLocal<Pool> poolLocal = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    /**
+     * The objects of one type, taken from the front.
+     */
+    private static final class Slots {
+
+        final int type;
+        final Supplier<Object> factory;
+        Object[] items = new Object[8];
+        int used;
+        int created;
+
+        Slots(int type, Supplier<Object> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        Object take() {
+            if (used == created) {
+                if (created == items.length) {
+                    Object[] grown = new Object[items.length * 2];
+                    System.arraycopy(items, 0, grown, 0, items.length);
+                    items = grown;
+                }
+                items[created++] = factory.get();
+                raise(highWaterMarks, type, created);
+            }
+            return items[used++];
+        }
+    }
+
+    /**
+     * The pool and the stack of scopes of a thread.
+     */
+    private static final class Pool {
+
+        final Slots[] slots = {
+            new Slots(VECTOR2F, Vector2f::new),
+            new Slots(VECTOR3F, Vector3f::new),
+            new Slots(VECTOR4F, Vector4f::new),
+            new Slots(QUATERNION, Quaternion::new),
+            new Slots(MATRIX3F, Matrix3f::new),
+            new Slots(MATRIX4F, Matrix4f::new),
+            new Slots(TRANSFORM, Transform::new)
+        };
+        TempPool[] scopes = new TempPool[8];
+        int depth;
+    }
+
+    private final Pool pool;
+    private final int level;
+    private final int[] marks = new int[TYPES.length];
+    private Spatial[] spatials;
+    private boolean open;
+
+    private TempPool(Pool pool, int level) {
+        this.pool = pool;
+        this.level = level;
+    }
+
+    /**
+     * Opens a new scope on the calling thread. The scope must be closed by
+     * the same thread, preferably with try-with-resources.
+     *
+     * @return the scope (not null)
+     */
+    public static TempPool open() {
+        Pool pool = poolLocal.get();
+        int level = pool.depth;
+        if (level == pool.scopes.length) {
+            TempPool[] grown = new TempPool[level * 2];
+            System.arraycopy(pool.scopes, 0, grown, 0, level);
+            pool.scopes = grown;
+        }
+        TempPool scope = pool.scopes[level];
+        if (scope == null) {
+            scope = new TempPool(pool, level);
+            pool.scopes[level] = scope;
+            raise(depthHighWaterMark, level + 1);
+        }
+        for (int i = 0; i < scope.marks.length; i++) {
+            scope.marks[i] = pool.slots[i].used;
+        }
+        scope.open = true;
+        pool.depth = level + 1;
+        return scope;
+    }
+
+    /**
+     * Returns all objects taken from this scope to the pool.
+     *
+     * @throws IllegalStateException if the scope is already closed or a
+     * scope opened after it is still open
+     */
+    @Override
+    public void close() {
+        if (!open) {
+            throw new IllegalStateException("This TempPool scope was already closed!");
+        }
+        if (pool.depth != level + 1) {
+            throw new IllegalStateException("A nested TempPool scope has not been closed!");
+        }
+        for (int i = 0; i < marks.length; i++) {
+            pool.slots[i].used = marks[i];
+        }
+        open = false;
+        pool.depth = level;
+    }
+
+    private Object take(int type) {
+        if (!open || pool.depth != level + 1) {
+            throw new IllegalStateException("Objects can only be taken from the innermost open scope");
+        }
+        return pool.slots[type].take();
+    }
+
+    /**
+     * Takes a vector from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Vector2f (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Vector2f vector2f() {
+        return (Vector2f) take(VECTOR2F);
+    }
+
+    /**
+     * Takes a vector from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Vector3f (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Vector3f vector3f() {
+        return (Vector3f) take(VECTOR3F);
+    }
+
+    /**
+     * Takes a vector from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Vector4f (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Vector4f vector4f() {
+        return (Vector4f) take(VECTOR4F);
+    }
+
+    /**
+     * Takes a quaternion from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Quaternion (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Quaternion quaternion() {
+        return (Quaternion) take(QUATERNION);
+    }
+
+    /**
+     * Takes a matrix from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Matrix3f (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Matrix3f matrix3f() {
+        return (Matrix3f) take(MATRIX3F);
+    }
+
+    /**
+     * Takes a matrix from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Matrix4f (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Matrix4f matrix4f() {
+        return (Matrix4f) take(MATRIX4F);
+    }
+
+    /**
+     * Takes a transform from this scope. Its contents are undefined, and it
+     * must not be used after this scope is closed.
+     *
+     * @return a pooled Transform (not null)
+     * @throws IllegalStateException if this is not the innermost open scope
+     */
+    public Transform transform() {
+        return (Transform) take(TRANSFORM);
+    }
+
+    /**
+     * Returns an array for use as a stack of Spatials, such as when walking a
+     * scene graph. The same array is returned by every call on this scope,
+     * grown as needed, and its elements are kept when it grows. Elements are
+     * not cleared when the scope is closed.
+     *
+     * @param minLength the minimum length of the array
+     * @return an array of at least minLength elements
+     */
+    public Spatial[] spatialArray(int minLength) {
+        if (!open) {
+            throw new IllegalStateException("This TempPool scope is closed");
+        }
+        if (spatials == null) {
+            spatials = new Spatial[Math.max(minLength, 32)];
+        } else if (spatials.length < minLength) {
+            spatials = Arrays.copyOf(spatials, Math.max(minLength, spatials.length * 2));
+        }
+        return spatials;
+    }
+
+    /**
+     * Returns the largest number of objects of the given type that any thread
+     * held at once, which is also the number of objects allocated by the
+     * busiest thread.
+     *
+     * @param type one of Vector2f, Vector3f, Vector4f, Quaternion, Matrix3f,
+     * Matrix4f or Transform
+     * @return the high-water mark
+     * @throws IllegalArgumentException if the type is not pooled
+     */
+    public static int getHighWaterMark(Class<?> type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i] == type) {
+                return highWaterMarks.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a pooled type: " + type);
+    }
+
+    /**
+     * Returns the largest number of nested scopes that any thread had open at
+     * once.
+     *
+     * @return the high-water mark
+     */
+    public static int getDepthHighWaterMark() {
+        return depthHighWaterMark.get();
+    }
+
+    private static void raise(AtomicIntegerArray marks, int index, int value) {
+        int current;
+        while (value > (current = marks.get(index))) {
+            if (marks.compareAndSet(index, current, value)) {
+                return;
+            }
+        }
+    }
+
+    private static void raise(AtomicInteger mark, int value) {
+        int current;
+        while (value > (current = mark.get())) {
+            if (mark.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+}
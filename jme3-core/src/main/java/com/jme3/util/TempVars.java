@@ -46,11 +46,15 @@ import java.util.ArrayList;
  * instances must be returned via TempVars.release().
  * This returns an available instance of the TempVar class ensuring this 
  * particular instance is never used elsewhere in the meantime.
+ * <p>
+ * New code should prefer {@link TempPool}, which provides individual
+ * objects of each type.
  */
-public class TempVars {
+public class TempVars implements AutoCloseable {
 
     /**
-     * Allow X instances of TempVars in a single thread.
+     * Initial number of TempVars instances in a single thread, more are
+     * created as needed.
      */
     private static final int STACK_SIZE = 5;
 
@@ -89,15 +93,20 @@ public class TempVars {
     /**
      * Acquire an instance of the TempVar class.
      * You have to release the instance after use by calling the 
-     * release() method. 
-     * If more than STACK_SIZE (currently 5) instances are requested 
-     * in a single thread then an ArrayIndexOutOfBoundsException will be thrown.
+     * release() method, or by acquiring it in a try-with-resources
+     * statement.
      * 
      * @return A TempVar instance
      */
     public static TempVars get() {
         TempVarsStack stack = varsLocal.get();
 
+        if (stack.index == stack.tempVars.length) {
+            TempVars[] grown = new TempVars[stack.index * 2];
+            System.arraycopy(stack.tempVars, 0, grown, 0, stack.index);
+            stack.tempVars = grown;
+        }
+
         TempVars instance = stack.tempVars[stack.index];
 
         if (instance == null) {
@@ -139,6 +148,14 @@ public class TempVars {
             throw new IllegalStateException("An instance of TempVars has not been released in a called method!");
         }
     }
+
+    /**
+     * Releases this instance of TempVars, see {@link #release() }.
+     */
+    @Override
+    public void close() {
+        release();
+    }
     /**
      * For interfacing with OpenGL in Renderer.
      */
@@ -60,7 +60,10 @@ public class FileLocator implements AssetLocator {
         }
     }
 
-    private static class AssetInfoFile extends AssetInfo {
+    /**
+     * Information about an asset located in the file system.
+     */
+    public static class AssetInfoFile extends AssetInfo {
 
         final private File file;
 
@@ -69,6 +72,15 @@ public class FileLocator implements AssetLocator {
             this.file = file;
         }
 
+        /**
+         * Returns the file the asset is read from.
+         *
+         * @return the file (not null)
+         */
+        public File getFile() {
+            return file;
+        }
+
         @Override
         public InputStream openStream() {
             try{
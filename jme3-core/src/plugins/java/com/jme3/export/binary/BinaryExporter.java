@@ -38,10 +38,13 @@ import com.jme3.export.OutputCapsule;
 import com.jme3.export.Savable;
 import com.jme3.export.SavableClassUtil;
 import com.jme3.math.FastMath;
+import com.jme3.scene.Spatial;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.zip.Deflater;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -114,6 +117,44 @@ import java.util.logging.Logger;
  * <p>19. "capsule data" - X bytes of data, where X = the number of bytes from
  * item 18
  *
+ * <p>CHUNKED LAYOUT: when {@link #setChunked(boolean) chunking} is enabled,
+ * the version is {@link FormatVersion#CHUNKED_VERSION} and the capsules are
+ * grouped into chunks that can be located and decompressed independently.
+ * Every direct Spatial reference of the root object (e.g. each child of the
+ * root Node) starts a chunk holding its subtree, and NIO buffers of at least
+ * {@link #setBufferChunkThreshold(int) the threshold} are stored in chunks of
+ * their own. Items 1 and 2 are followed by:
+ *
+ * <p>3. "header size" - 4 bytes - the number of bytes in items 4 thru 12
+ *
+ * <p>4. the class table, as items 3 thru 11 above
+ *
+ * <p>5. "number of capsules" - 4 bytes
+ *
+ * <p>LOCATION TABLE: items 6 thru 8 for each capsule
+ *
+ * <p>6. "data id" - 4 bytes
+ *
+ * <p>7. "chunk" - 4 bytes - index of the chunk holding the capsule
+ *
+ * <p>8. "data location" - 4 bytes - offset of the capsule in the
+ * uncompressed chunk, which holds capsules as items 17 thru 19 above
+ *
+ * <p>9. "root id" - 4 bytes
+ *
+ * <p>10. "number of chunks" - 4 bytes
+ *
+ * <p>CHUNK INDEX: items 11 and 12 for each chunk
+ *
+ * <p>11. "kind" - 1 byte - capsules or buffer; "compression" - 1 byte -
+ * none or deflate; "uncompressed size", "stored size" and "chunk root id"
+ * - 4 bytes each
+ *
+ * <p>12. "name size" - 4 bytes - followed by the name of the chunk's root
+ * Spatial in UTF-8
+ *
+ * <p>13. "chunk data" - the stored bytes of every chunk, in index order
+ *
  * @author Joshua Slack
  */
 
@@ -139,6 +180,40 @@ public class BinaryExporter implements JmeExporter {
     public static boolean debug = false;
     public static boolean useFastBufs = true;
 
+    /**
+     * Chunk holding capsules.
+     */
+    static final byte CHUNK_CAPSULES = 0;
+    /**
+     * Chunk holding the little-endian payload of an NIO buffer.
+     */
+    static final byte CHUNK_BUFFER = 1;
+    static final byte COMPRESSION_NONE = 0;
+    static final byte COMPRESSION_DEFLATE = 1;
+
+    private boolean chunked = false;
+    private boolean chunkCompression = true;
+    private int bufferChunkThreshold = 64 * 1024;
+
+    // chunks of the file being saved, only used if chunked
+    private final ArrayList<ChunkOut> chunks = new ArrayList<>();
+    private int currentChunk;
+    private int depth;
+
+    private static final class ChunkOut {
+
+        final byte kind;
+        final String name;
+        final int rootId;
+        byte[] data;
+
+        ChunkOut(byte kind, String name, int rootId) {
+            this.kind = kind;
+            this.name = name;
+            this.rootId = rootId;
+        }
+    }
+
     public BinaryExporter() {
     }
 
@@ -146,6 +221,95 @@ public class BinaryExporter implements JmeExporter {
         return new BinaryExporter();
     }
 
+    /**
+     * Enables or disables the chunked layout of
+     * {@link FormatVersion#CHUNKED_VERSION}, which lets
+     * {@link BinaryImporter#loadChunk(java.nio.file.Path, java.lang.String) }
+     * load individual subtrees. Files in this layout cannot be read by
+     * versions of the engine that predate it.
+     *
+     * @param chunked true to write chunks, false for the flat layout (default=false)
+     */
+    public void setChunked(boolean chunked) {
+        this.chunked = chunked;
+    }
+
+    /**
+     * Tests whether the chunked layout is written.
+     *
+     * @return true if chunked, otherwise false
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    /**
+     * Enables or disables Deflate compression of chunks. A chunk is only
+     * stored compressed if that makes it smaller. Ignored unless chunked.
+     *
+     * @param compress true to compress chunks (default=true)
+     */
+    public void setChunkCompression(boolean compress) {
+        this.chunkCompression = compress;
+    }
+
+    /**
+     * Tests whether chunks are compressed.
+     *
+     * @return true if compressed, otherwise false
+     */
+    public boolean isChunkCompression() {
+        return chunkCompression;
+    }
+
+    /**
+     * Sets the size from which NIO buffers are stored in chunks of their own,
+     * so they are only read when the object that owns them is loaded.
+     * Ignored unless chunked.
+     *
+     * @param bytes the minimum size in bytes (&ge;0, default=65536)
+     */
+    public void setBufferChunkThreshold(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes cannot be negative");
+        }
+        this.bufferChunkThreshold = bytes;
+    }
+
+    /**
+     * Returns the size from which NIO buffers are stored in chunks of their own.
+     *
+     * @return the minimum size in bytes
+     */
+    public int getBufferChunkThreshold() {
+        return bufferChunkThreshold;
+    }
+
+    /**
+     * Stores the payload of an NIO buffer in a chunk of its own, if the file
+     * is chunked and the buffer is large enough.
+     *
+     * @param byteLength the size of the payload in bytes
+     * @return true if the payload should be passed to
+     * {@link #addBufferChunk(byte[]) }, false to write it inline
+     */
+    boolean isBufferChunk(int byteLength) {
+        return chunked && byteLength >= bufferChunkThreshold;
+    }
+
+    /**
+     * Adds a chunk holding the little-endian payload of an NIO buffer.
+     *
+     * @param payload the payload
+     * @return the index of the new chunk
+     */
+    int addBufferChunk(byte[] payload) {
+        ChunkOut chunk = new ChunkOut(CHUNK_BUFFER, null, -1);
+        chunk.data = payload;
+        chunks.add(chunk);
+        return chunks.size() - 1;
+    }
+
     /**
      * Saves the object into memory then loads it from memory.
      *
@@ -181,6 +345,16 @@ public class BinaryExporter implements JmeExporter {
         contentTable.clear();
         locationTable.clear();
         contentKeys.clear();
+        chunks.clear();
+        depth = 0;
+        currentChunk = 0;
+
+        if (chunked) {
+            chunks.add(new ChunkOut(CHUNK_CAPSULES, "", -1));
+            saveChunked(processBinarySavable(object), os);
+            chunks.clear();
+            return;
+        }
 
         // write signature and version
         os.write(ByteUtils.convertToBytes(FormatVersion.SIGNATURE)); // 1. "signature"
@@ -189,48 +363,11 @@ public class BinaryExporter implements JmeExporter {
         int id = processBinarySavable(object);
 
         // write out tag table
-        int classTableSize = 0;
         int classNum = classes.keySet().size();
         int aliasSize = ((int) FastMath.log(classNum, 256) + 1); // make all
                                                                   // aliases a
                                                                   // fixed width
-
-        os.write(ByteUtils.convertToBytes(classNum)); // 3. "number of classes"
-        for (String key : classes.keySet()) {
-            BinaryClassObject bco = classes.get(key);
-
-            // write alias
-            byte[] aliasBytes = fixClassAlias(bco.alias,
-                    aliasSize);
-            os.write(aliasBytes);                     // 4. "class alias"
-            classTableSize += aliasSize;
-
-            // jME3 NEW: Write class hierarchy version numbers
-            os.write( bco.classHierarchyVersions.length );
-            for (int version : bco.classHierarchyVersions){
-                os.write(ByteUtils.convertToBytes(version));
-            }
-            classTableSize += 1 + bco.classHierarchyVersions.length * 4;
-
-            // write classname size & classname
-            byte[] classBytes = key.getBytes();
-            os.write(ByteUtils.convertToBytes(classBytes.length)); // 5. "full class-name size"
-            os.write(classBytes);                                  // 6. "full class name"
-            classTableSize += 4 + classBytes.length;
-
-            // for each field, write alias, type, and name
-            os.write(ByteUtils.convertToBytes(bco.nameFields.size())); // 7. "number of fields"
-            for (String fieldName : bco.nameFields.keySet()) {
-                BinaryClassField bcf = bco.nameFields.get(fieldName);
-                os.write(bcf.alias);                                   // 8. "field alias"
-                os.write(bcf.type);                                    // 9. "field type"
-
-                byte[] fNameBytes = fieldName.getBytes();
-                os.write(ByteUtils.convertToBytes(fNameBytes.length)); // 10. "field-name size"
-                os.write(fNameBytes);                                  // 11. "field name"
-                classTableSize += 2 + 4 + fNameBytes.length;
-            }
-        }
+        int classTableSize = writeClassTable(os, aliasSize);
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         // write out data to a separate stream
@@ -300,6 +437,161 @@ public class BinaryExporter implements JmeExporter {
         }
     }
 
+    private int writeClassTable(OutputStream os, int aliasSize) throws IOException {
+        int classTableSize = 0;
+        int classNum = classes.keySet().size();
+        os.write(ByteUtils.convertToBytes(classNum)); // 3. "number of classes"
+        for (String key : classes.keySet()) {
+            BinaryClassObject bco = classes.get(key);
+
+            // write alias
+            byte[] aliasBytes = fixClassAlias(bco.alias,
+                    aliasSize);
+            os.write(aliasBytes);                     // 4. "class alias"
+            classTableSize += aliasSize;
+
+            // jME3 NEW: Write class hierarchy version numbers
+            os.write( bco.classHierarchyVersions.length );
+            for (int version : bco.classHierarchyVersions){
+                os.write(ByteUtils.convertToBytes(version));
+            }
+            classTableSize += 1 + bco.classHierarchyVersions.length * 4;
+
+            // write classname size & classname
+            byte[] classBytes = key.getBytes();
+            os.write(ByteUtils.convertToBytes(classBytes.length)); // 5. "full class-name size"
+            os.write(classBytes);                                  // 6. "full class name"
+            classTableSize += 4 + classBytes.length;
+
+            // for each field, write alias, type, and name
+            os.write(ByteUtils.convertToBytes(bco.nameFields.size())); // 7. "number of fields"
+            for (String fieldName : bco.nameFields.keySet()) {
+                BinaryClassField bcf = bco.nameFields.get(fieldName);
+                os.write(bcf.alias);                                   // 8. "field alias"
+                os.write(bcf.type);                                    // 9. "field type"
+
+                byte[] fNameBytes = fieldName.getBytes();
+                os.write(ByteUtils.convertToBytes(fNameBytes.length)); // 10. "field-name size"
+                os.write(fNameBytes);                                  // 11. "field name"
+                classTableSize += 2 + 4 + fNameBytes.length;
+            }
+        }
+        return classTableSize;
+    }
+
+    private void saveChunked(int id, OutputStream os) throws IOException {
+        int classNum = classes.keySet().size();
+        int aliasSize = ((int) FastMath.log(classNum, 256) + 1);
+
+        // capsules, grouped by chunk
+        ByteArrayOutputStream[] chunkData = new ByteArrayOutputStream[chunks.size()];
+        HashMap<String, ArrayList<BinaryIdContentPair>> alreadySaved = new HashMap<>(
+                contentTable.size());
+        for (Savable savable : contentKeys) {
+            String savableName = savable.getClass().getName();
+            BinaryIdContentPair pair = contentTable.get(savable);
+            int chunk = pair.getChunk();
+            ByteArrayOutputStream out = chunkData[chunk];
+            if (out == null) {
+                out = chunkData[chunk] = new ByteArrayOutputStream();
+            }
+            // only reuse matches within the same chunk
+            String bucketKey = chunk + savableName + getChunk(pair);
+            ArrayList<BinaryIdContentPair> bucket = alreadySaved.get(bucketKey);
+            int prevLoc = findPrevMatch(pair, bucket);
+            if (prevLoc != -1) {
+                locationTable.put(pair.getId(), prevLoc);
+                continue;
+            }
+
+            locationTable.put(pair.getId(), out.size());
+            if (bucket == null) {
+                bucket = new ArrayList<BinaryIdContentPair>();
+                alreadySaved.put(bucketKey, bucket);
+            }
+            bucket.add(pair);
+            out.write(fixClassAlias(classes.get(savableName).alias, aliasSize));
+            BinaryOutputCapsule cap = pair.getContent();
+            out.write(ByteUtils.convertToBytes(cap.bytes.length));
+            out.write(cap.bytes);
+        }
+        for (int i = 0; i < chunkData.length; i++) {
+            if (chunkData[i] != null) {
+                chunks.get(i).data = chunkData[i].toByteArray();
+            } else if (chunks.get(i).data == null) {
+                chunks.get(i).data = new byte[0];
+            }
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeClassTable(header, aliasSize);                                // 4.
+        header.write(ByteUtils.convertToBytes(locationTable.size()));      // 5.
+        for (Savable savable : contentKeys) {
+            BinaryIdContentPair pair = contentTable.get(savable);
+            header.write(ByteUtils.convertToBytes(pair.getId()));          // 6.
+            header.write(ByteUtils.convertToBytes(pair.getChunk()));       // 7.
+            header.write(ByteUtils.convertToBytes(locationTable.get(pair.getId()))); // 8.
+        }
+        header.write(ByteUtils.convertToBytes(id));                        // 9.
+        header.write(ByteUtils.convertToBytes(chunks.size()));             // 10.
+
+        byte[][] stored = new byte[chunks.size()][];
+        for (int i = 0; i < chunks.size(); i++) {
+            ChunkOut chunk = chunks.get(i);
+            byte compression = COMPRESSION_NONE;
+            stored[i] = chunk.data;
+            if (chunkCompression && chunk.data.length > 0) {
+                byte[] compressed = compress(chunk.data);
+                if (compressed.length < chunk.data.length) {
+                    compression = COMPRESSION_DEFLATE;
+                    stored[i] = compressed;
+                }
+            }
+            header.write(chunk.kind);                                      // 11.
+            header.write(compression);
+            header.write(ByteUtils.convertToBytes(chunk.data.length));
+            header.write(ByteUtils.convertToBytes(stored[i].length));
+            header.write(ByteUtils.convertToBytes(chunk.rootId));
+            byte[] name = chunk.name == null ? new byte[0]
+                    : chunk.name.getBytes(StandardCharsets.UTF_8);
+            header.write(ByteUtils.convertToBytes(name.length));           // 12.
+            header.write(name);
+        }
+
+        os.write(ByteUtils.convertToBytes(FormatVersion.SIGNATURE));       // 1.
+        os.write(ByteUtils.convertToBytes(FormatVersion.CHUNKED_VERSION)); // 2.
+        os.write(ByteUtils.convertToBytes(header.size()));                 // 3.
+        header.writeTo(os);
+        for (byte[] data : stored) {
+            os.write(data);                                                // 13.
+        }
+
+        if (debug) {
+            logger.fine("Stats:");
+            logger.log(Level.FINE, "classes: {0}", classNum);
+            logger.log(Level.FINE, "objects: {0}", locationTable.size());
+            logger.log(Level.FINE, "chunks: {0}", chunks.size());
+            logger.log(Level.FINE, "header: {0} bytes", header.size());
+        }
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
     private String getChunk(BinaryIdContentPair pair) {
         return new String(pair.getContent().bytes, 0, Math.min(64, pair
                 .getContent().bytes.length));
@@ -376,7 +668,22 @@ public class BinaryExporter implements JmeExporter {
         if (old == null) {
             contentKeys.add(object);
         }
-        object.write(this);
+
+        int parentChunk = currentChunk;
+        if (chunked && depth == 1 && object instanceof Spatial) {
+            // each Spatial directly below the root gets a chunk for its subtree
+            chunks.add(new ChunkOut(CHUNK_CAPSULES, ((Spatial) object).getName(), newPair.getId()));
+            currentChunk = chunks.size() - 1;
+        }
+        newPair.setChunk(currentChunk);
+
+        depth++;
+        try {
+            object.write(this);
+        } finally {
+            depth--;
+            currentChunk = parentChunk;
+        }
         newPair.getContent().finish();
         return newPair.getId();
 
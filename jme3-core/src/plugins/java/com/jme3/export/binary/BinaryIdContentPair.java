@@ -35,6 +35,8 @@ class BinaryIdContentPair {
 
     private int id;
     private BinaryOutputCapsule content;
+    // index of the chunk holding the content, if the file is chunked
+    private int chunk;
     
     BinaryIdContentPair(int id, BinaryOutputCapsule content) {
         this.id = id;
@@ -56,4 +58,12 @@ class BinaryIdContentPair {
     void setId(int id) {
         this.id = id;
     }
+
+    int getChunk() {
+        return chunk;
+    }
+
+    void setChunk(int chunk) {
+        this.chunk = chunk;
+    }
 }
@@ -35,13 +35,26 @@ import com.jme3.asset.AssetInfo;
 import com.jme3.asset.AssetManager;
 import com.jme3.export.*;
 import com.jme3.math.FastMath;
+import com.jme3.asset.plugins.FileLocator;
+import com.jme3.util.BufferUtils;
 import java.io.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 /**
  * @author Joshua Slack
@@ -65,13 +78,27 @@ public final class BinaryImporter implements JmeImporter {
     //Key - id, object - location in the file
     private final HashMap<Integer, Integer> locationTable
              = new HashMap<>();
+    //Key - id, object - chunk holding the capsule
+    private final HashMap<Integer, Integer> chunkTable
+             = new HashMap<>();
+    //Key - chunk index, object - uncompressed capsule chunk
+    private final HashMap<Integer, ByteBuffer> chunkCache
+             = new HashMap<>();
 
     public static boolean debug = false;
 
-    private byte[] dataArray;
+    private ByteBuffer dataBuffer;
+    private boolean memoryMapped;
+    private boolean useMemoryMapping = false;
     private int aliasWidth;
     private int formatVersion;
 
+    // chunk index of a chunked file, null for the flat layout
+    private ChunkInfo[] chunks;
+    // source of the chunk data when reading parts of an unmapped file
+    private FileChannel chunkChannel;
+    private long chunkDataStart;
+
     private static final boolean fastRead = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
     
     public BinaryImporter() {
@@ -99,6 +126,41 @@ public final class BinaryImporter implements JmeImporter {
         return assetManager;
     }
 
+    /**
+     * Enables or disables memory mapping of files. When enabled, files
+     * (including assets located by a {@link FileLocator}) are mapped instead
+     * of read into the heap, and the NIO buffers of the loaded objects, such
+     * as vertex and image data, are views of the mapping rather than copies.
+     * <p>
+     * The mapping stays alive as long as any of those buffers is reachable,
+     * and on some platforms the file cannot be deleted or replaced until
+     * then. Mapping is only used on little-endian platforms, see
+     * {@link #canUseFastBuffers() }.
+     *
+     * @param useMemoryMapping true to map files, false to read them (default=false)
+     */
+    public void setUseMemoryMapping(boolean useMemoryMapping) {
+        this.useMemoryMapping = useMemoryMapping;
+    }
+
+    /**
+     * Tests whether files are memory mapped.
+     *
+     * @return true if mapping is enabled, otherwise false
+     * @see #setUseMemoryMapping(boolean)
+     */
+    public boolean isUseMemoryMapping() {
+        return useMemoryMapping;
+    }
+
+    /**
+     * Tests whether the object currently being loaded is read from a
+     * memory-mapped file.
+     */
+    boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
     @Override
     public Object load(AssetInfo info){
 //        if (!(info.getKey() instanceof ModelKey))
@@ -106,6 +168,15 @@ public final class BinaryImporter implements JmeImporter {
 
         assetManager = info.getManager();
 
+        if (useMemoryMapping && fastRead && info instanceof FileLocator.AssetInfoFile) {
+            try {
+                return loadMapped(((FileLocator.AssetInfoFile) info).getFile().toPath(), null);
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, "An error occurred while loading jME binary object", ex);
+                return null;
+            }
+        }
+
         InputStream is = null;
         try {
             is = info.openStream();
@@ -135,7 +206,185 @@ public final class BinaryImporter implements JmeImporter {
     public Savable load(InputStream is, ReadListener listener, ByteArrayOutputStream baos) throws IOException {
         contentTable.clear();
         BufferedInputStream bis = new BufferedInputStream(is);
-        
+        int id = readHeader(bis, listener);
+
+        if (baos == null) {
+                baos = new ByteArrayOutputStream(4096);
+        } else {
+                baos.reset();
+        }
+        int size = -1;
+        byte[] cache = new byte[4096];
+        while((size = bis.read(cache)) != -1) {
+            baos.write(cache, 0, size);
+            if (listener != null) listener.readBytes(size);
+        }
+        bis = null;
+
+        dataBuffer = ByteBuffer.wrap(baos.toByteArray());
+        baos = null;
+
+        return readRoot(id);
+    }
+
+    /**
+     * Loads a file by memory mapping it, regardless of
+     * {@link #setUseMemoryMapping(boolean) }. The NIO buffers of the loaded
+     * objects are views of the mapping, so no vertex or image data is copied
+     * into the heap.
+     *
+     * @param file the file to load
+     * @param listener the listener to notify, or null for none
+     * @return the root object
+     * @throws IOException if the file cannot be mapped or is malformed
+     */
+    public Savable loadMapped(Path file, ReadListener listener) throws IOException {
+        MappedByteBuffer mapped = map(file);
+
+        contentTable.clear();
+        int id = readHeader(new MappedInputStream(mapped), listener);
+        if (listener != null) listener.readBytes(mapped.remaining());
+
+        // Offsets in the location table are relative to the object data.
+        dataBuffer = mapped.slice();
+        memoryMapped = fastRead;
+        try {
+            return readRoot(id);
+        } finally {
+            memoryMapped = false;
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        if (Files.isWritable(file)) {
+            // A private mapping keeps the buffers writable, modifications
+            // are never written back to the file.
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Lists the chunks of a file written with
+     * {@link BinaryExporter#setChunked(boolean) chunking} enabled. Only the
+     * header of the file is read.
+     *
+     * @param file the file to inspect
+     * @return the names of the Spatials that can be passed to
+     * {@link #loadChunk(Path, String) }, in the order they were saved
+     * @throws IOException if the file cannot be read or is not chunked
+     */
+    public List<String> getChunkNames(Path file) throws IOException {
+        openChunked(file);
+        try {
+            List<String> names = new ArrayList<>();
+            for (ChunkInfo chunk : chunks) {
+                if (chunk.kind == BinaryExporter.CHUNK_CAPSULES && chunk.rootId != -1) {
+                    names.add(chunk.name);
+                }
+            }
+            return names;
+        } finally {
+            closeChunked();
+        }
+    }
+
+    /**
+     * Loads a single subtree of a file written with
+     * {@link BinaryExporter#setChunked(boolean) chunking} enabled, without
+     * reading or decompressing the chunks of the other subtrees. The file is
+     * memory mapped if {@link #setUseMemoryMapping(boolean) mapping} is
+     * enabled, otherwise only the header and the needed chunks are read.
+     *
+     * @param file the file to load from
+     * @param name the name of a direct Spatial child of the saved root
+     * @return the Spatial, or null if the file holds no chunk of that name
+     * @throws IOException if the file cannot be read or is not chunked
+     */
+    public Savable loadChunk(Path file, String name) throws IOException {
+        openChunked(file);
+        try {
+            for (ChunkInfo chunk : chunks) {
+                if (chunk.kind == BinaryExporter.CHUNK_CAPSULES && chunk.rootId != -1
+                        && chunk.name.equals(name)) {
+                    Savable rVal = readObject(chunk.rootId);
+                    if (rVal == null) {
+                        throw new IOException("Chunk " + name + " could not be read");
+                    }
+                    return rVal;
+                }
+            }
+            return null;
+        } finally {
+            closeChunked();
+        }
+    }
+
+    private void openChunked(Path file) throws IOException {
+        contentTable.clear();
+        if (useMemoryMapping && fastRead) {
+            MappedByteBuffer mapped = map(file);
+            readHeader(new MappedInputStream(mapped), null);
+            dataBuffer = mapped.slice();
+            memoryMapped = true;
+        } else {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer prefix = ByteBuffer.allocate(12);
+                readFully(channel, prefix, 0);
+                int headerSize = prefix.getInt(8);
+                if (prefix.getInt(0) != FormatVersion.SIGNATURE
+                        || prefix.getInt(4) != FormatVersion.CHUNKED_VERSION
+                        || headerSize < 0) {
+                    throw new IOException(file + " is not a chunked binary file");
+                }
+                ByteBuffer header = ByteBuffer.allocate(12 + headerSize);
+                readFully(channel, header, 0);
+                readHeader(new ByteArrayInputStream(header.array()), null);
+                chunkChannel = channel;
+                chunkDataStart = header.capacity();
+            } catch (IOException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+        if (chunks == null) {
+            closeChunked();
+            throw new IOException(file + " is not a chunked binary file");
+        }
+    }
+
+    private void closeChunked() throws IOException {
+        dataBuffer = null;
+        memoryMapped = false;
+        chunkCache.clear();
+        if (chunkChannel != null) {
+            FileChannel channel = chunkChannel;
+            chunkChannel = null;
+            channel.close();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            if (channel.read(dst, position + dst.position()) < 0) {
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+        dst.flip();
+    }
+
+    /**
+     * Reads the class and location tables.
+     *
+     * @return the id of the root object
+     */
+    private int readHeader(InputStream bis, ReadListener listener) throws IOException {
         int numClasses;
         
         // Try to read signature
@@ -143,13 +392,17 @@ public final class BinaryImporter implements JmeImporter {
         if (maybeSignature == FormatVersion.SIGNATURE){
             // this is a new version J3O file
             formatVersion = ByteUtils.readInt(bis);
-            numClasses = ByteUtils.readInt(bis);
             
             // check if this binary is from the future
-            if (formatVersion > FormatVersion.VERSION){
+            if (formatVersion > FormatVersion.CHUNKED_VERSION){
                 throw new IOException("The binary file is of newer version than expected! " + 
-                                      formatVersion + " > " + FormatVersion.VERSION);
+                                      formatVersion + " > " + FormatVersion.CHUNKED_VERSION);
+            }
+            if (formatVersion == FormatVersion.CHUNKED_VERSION){
+                // header size, only needed for random access
+                ByteUtils.readInt(bis);
             }
+            numClasses = ByteUtils.readInt(bis);
         }else{
             // this is an old version J3O file
             // the signature was actually the class count
@@ -213,6 +466,12 @@ public final class BinaryImporter implements JmeImporter {
 
         capsuleTable.clear();
         locationTable.clear();
+        chunkTable.clear();
+        chunkCache.clear();
+        chunks = null;
+        if (formatVersion == FormatVersion.CHUNKED_VERSION) {
+            return readChunkedTables(bis, listener, numLocs);
+        }
         for(int i = 0; i < numLocs; i++) {
             int id = ByteUtils.readInt(bis);
             int loc = ByteUtils.readInt(bis);
@@ -225,34 +484,183 @@ public final class BinaryImporter implements JmeImporter {
         int id = ByteUtils.readInt(bis);
         bytes += 8;
         if (listener != null) listener.readBytes(bytes);
+        return id;
+    }
 
-        if (baos == null) {
-                baos = new ByteArrayOutputStream(bytes);
+    /**
+     * Reads the location table and the chunk index of the chunked layout.
+     *
+     * @return the id of the root object
+     */
+    private int readChunkedTables(InputStream bis, ReadListener listener, int numLocs) throws IOException {
+        int bytes = 4;
+        for (int i = 0; i < numLocs; i++) {
+            int id = ByteUtils.readInt(bis);
+            chunkTable.put(id, ByteUtils.readInt(bis));
+            locationTable.put(id, ByteUtils.readInt(bis));
+            bytes += 12;
+        }
+
+        int id = ByteUtils.readInt(bis);
+        int numChunks = ByteUtils.readInt(bis);
+        bytes += 8;
+        chunks = new ChunkInfo[numChunks];
+        int offset = 0;
+        for (int i = 0; i < numChunks; i++) {
+            ChunkInfo chunk = new ChunkInfo();
+            chunk.kind = (byte) bis.read();
+            chunk.compression = (byte) bis.read();
+            chunk.rawLength = ByteUtils.readInt(bis);
+            chunk.storedLength = ByteUtils.readInt(bis);
+            chunk.rootId = ByteUtils.readInt(bis);
+            int nameLength = ByteUtils.readInt(bis);
+            byte[] name = new byte[nameLength];
+            for (int j = 0; j < nameLength; j++) {
+                name[j] = (byte) bis.read();
+            }
+            chunk.name = new String(name, StandardCharsets.UTF_8);
+            chunk.offset = offset;
+            offset += chunk.storedLength;
+            chunks[i] = chunk;
+            bytes += 18 + nameLength;
+        }
+        if (listener != null) listener.readBytes(bytes);
+        return id;
+    }
+
+    /**
+     * An entry of the chunk index.
+     */
+    private static final class ChunkInfo {
+
+        byte kind;
+        byte compression;
+        int rawLength;
+        int storedLength;
+        int rootId;
+        String name;
+        // offset of the stored bytes from the start of the chunk data
+        int offset;
+    }
+
+    /**
+     * Reads and decompresses a chunk.
+     *
+     * @return the uncompressed chunk, in big-endian order
+     */
+    private ByteBuffer readChunk(int index) throws IOException {
+        ChunkInfo chunk = chunks[index];
+        ByteBuffer stored;
+        if (chunkChannel == null) {
+            stored = dataBuffer.duplicate();
+            stored.limit(chunk.offset + chunk.storedLength).position(chunk.offset);
+            stored = stored.slice();
         } else {
-                baos.reset();
+            stored = ByteBuffer.allocate(chunk.storedLength);
+            readFully(chunkChannel, stored, chunkDataStart + chunk.offset);
         }
-        int size = -1;
-        byte[] cache = new byte[4096];
-        while((size = bis.read(cache)) != -1) {
-            baos.write(cache, 0, size);
-            if (listener != null) listener.readBytes(size);
+        if (chunk.compression == BinaryExporter.COMPRESSION_NONE) {
+            return stored;
         }
-        bis = null;
 
-        dataArray = baos.toByteArray();
-        baos = null;
+        byte[] input = new byte[stored.remaining()];
+        stored.get(input);
+        byte[] raw = new byte[chunk.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < raw.length) {
+                int n = inflater.inflate(raw, length, raw.length - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new EOFException("Chunk " + index + " is truncated");
+                }
+                length += n;
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Chunk " + index + " is corrupt", ex);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Reads the NIO buffer payload stored in a chunk of its own.
+     *
+     * @param index the index of the chunk
+     * @return a direct buffer in little-endian order, which is a view of the
+     * file if {@link #isSharedBufferChunk(int) } is true
+     * @throws IOException if the chunk cannot be read
+     */
+    ByteBuffer readBufferChunk(int index) throws IOException {
+        ByteBuffer data = readChunk(index);
+        if (!isSharedBufferChunk(index)) {
+            ByteBuffer copy = BufferUtils.createByteBuffer(data.remaining());
+            copy.put(data).rewind();
+            data = copy;
+        }
+        return data.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Tests whether {@link #readBufferChunk(int) } returns a view of a
+     * memory-mapped file rather than a copy.
+     */
+    boolean isSharedBufferChunk(int index) {
+        return memoryMapped && chunkChannel == null
+                && chunks[index].compression == BinaryExporter.COMPRESSION_NONE;
+    }
 
+    private ByteBuffer getCapsuleChunk(int index) throws IOException {
+        ByteBuffer data = chunkCache.get(index);
+        if (data == null) {
+            data = readChunk(index);
+            chunkCache.put(index, data);
+        }
+        return data;
+    }
+
+    private Savable readRoot(int id) {
         Savable rVal = readObject(id);
         if (debug) {
             logger.fine("Importer Stats: ");
-            logger.log(Level.FINE, "Tags: {0}", numClasses);
-            logger.log(Level.FINE, "Objects: {0}", numLocs);
-            logger.log(Level.FINE, "Data Size: {0}", dataArray.length);
+            logger.log(Level.FINE, "Tags: {0}", classes.size());
+            logger.log(Level.FINE, "Objects: {0}", locationTable.size());
+            logger.log(Level.FINE, "Data Size: {0}", dataBuffer.capacity());
         }
-        dataArray = null;
+        dataBuffer = null;
+        chunkCache.clear();
         return rVal;
     }
 
+    /**
+     * Reads the header of a mapped file without copying it.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+    }
+
     public Savable load(URL f) throws IOException {
         return load(f, null);
     }
@@ -269,6 +677,9 @@ public final class BinaryImporter implements JmeImporter {
     }
 
     public Savable load(File f, ReadListener listener) throws IOException {
+        if (useMemoryMapping && fastRead) {
+            return loadMapped(f.toPath(), listener);
+        }
         FileInputStream fis = new FileInputStream(f);
         try {
             return load(fis, listener);
@@ -299,9 +710,13 @@ public final class BinaryImporter implements JmeImporter {
     }
 
     protected String readString(int length, int offset) throws IOException {
+        return readString(dataBuffer, length, offset);
+    }
+
+    private static String readString(ByteBuffer source, int length, int offset) {
         byte[] data = new byte[length];
         for(int j = 0; j < length; j++) {
-            data[j] = dataArray[j+offset];
+            data[j] = source.get(j+offset);
         }
 
         return new String(data);
@@ -315,8 +730,9 @@ public final class BinaryImporter implements JmeImporter {
 
         try {
             int loc = locationTable.get(id);
+            ByteBuffer data = chunks == null ? dataBuffer : getCapsuleChunk(chunkTable.get(id));
 
-            String alias = readString(aliasWidth, loc);
+            String alias = readString(data, aliasWidth, loc);
             loc+=aliasWidth;
 
             BinaryClassObject bco = classes.get(alias);
@@ -326,13 +742,13 @@ public final class BinaryImporter implements JmeImporter {
                 return null;
             }
 
-            int dataLength = ByteUtils.convertIntFromBytes(dataArray, loc);
+            int dataLength = data.getInt(loc);
             loc+=4;
 
             Savable  out = SavableClassUtil.fromName(bco.className);
 
             BinaryInputCapsule cap = new BinaryInputCapsule(this, out, bco);
-            cap.setContent(dataArray, loc, loc+dataLength);
+            cap.setContent(data, loc, loc+dataLength);
 
             capsuleTable.put(out, cap);
             contentTable.put(id, out);
@@ -19,10 +19,32 @@ public class BinaryLoader implements AssetLoader {
      */
     private final Deque<BinaryImporter> importers;
 
+    private static volatile boolean useMemoryMapping = false;
+
     public BinaryLoader() {
         importers = new ArrayDeque<>();
     }
 
+    /**
+     * Enables or disables memory mapping of j3o assets that are located in
+     * the file system, see {@link BinaryImporter#setUseMemoryMapping(boolean) }.
+     * Affects all binary loaders.
+     *
+     * @param enabled true to map files, false to read them (default=false)
+     */
+    public static void setUseMemoryMapping(boolean enabled) {
+        useMemoryMapping = enabled;
+    }
+
+    /**
+     * Tests whether j3o assets located in the file system are memory mapped.
+     *
+     * @return true if mapping is enabled, otherwise false
+     */
+    public static boolean isUseMemoryMapping() {
+        return useMemoryMapping;
+    }
+
     @Override
     public Object load(final AssetInfo assetInfo) throws IOException {
 
@@ -32,6 +54,7 @@ public class BinaryLoader implements AssetLoader {
             importer = new BinaryImporter();
         }
 
+        importer.setUseMemoryMapping(useMemoryMapping);
         try {
             return importer.load(assetInfo);
         } finally {
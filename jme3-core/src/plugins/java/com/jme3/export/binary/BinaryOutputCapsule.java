@@ -38,6 +38,7 @@ import com.jme3.util.IntMap.Entry;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
@@ -54,6 +55,11 @@ final class BinaryOutputCapsule implements OutputCapsule {
 
     public static final int NULL_OBJECT = -1;
     public static final int DEFAULT_OBJECT = -2;
+    /**
+     * Marks an NIO buffer stored in a chunk of its own, followed by the
+     * index of the chunk.
+     */
+    public static final int EXTERNAL_OBJECT = -3;
 
     public static byte[] NULL_BYTES = new byte[] { (byte) -1 };
     public static byte[] DEFAULT_BYTES = new byte[] { (byte) -2 };
@@ -915,6 +921,14 @@ final class BinaryOutputCapsule implements OutputCapsule {
         }
         value.rewind();
         int length = value.limit();
+        if (exporter.isBufferChunk(length * 4)) {
+            ByteBuffer payload = ByteBuffer.allocate(length * 4).order(ByteOrder.LITTLE_ENDIAN);
+            payload.asFloatBuffer().put(value);
+            value.rewind();
+            write(EXTERNAL_OBJECT);
+            write(exporter.addBufferChunk(payload.array()));
+            return;
+        }
         write(length);
         for (int x = 0; x < length; x++) {
             writeForBuffer(value.get());
@@ -931,6 +945,14 @@ final class BinaryOutputCapsule implements OutputCapsule {
         }
         value.rewind();
         int length = value.limit();
+        if (exporter.isBufferChunk(length * 4)) {
+            ByteBuffer payload = ByteBuffer.allocate(length * 4).order(ByteOrder.LITTLE_ENDIAN);
+            payload.asIntBuffer().put(value);
+            value.rewind();
+            write(EXTERNAL_OBJECT);
+            write(exporter.addBufferChunk(payload.array()));
+            return;
+        }
         write(length);
 
         for (int x = 0; x < length; x++) {
@@ -948,6 +970,14 @@ final class BinaryOutputCapsule implements OutputCapsule {
         }
         value.rewind();
         int length = value.limit();
+        if (exporter.isBufferChunk(length)) {
+            ByteBuffer payload = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            payload.put(value);
+            value.rewind();
+            write(EXTERNAL_OBJECT);
+            write(exporter.addBufferChunk(payload.array()));
+            return;
+        }
         write(length);
         for (int x = 0; x < length; x++) {
             writeForBuffer(value.get());
@@ -964,6 +994,14 @@ final class BinaryOutputCapsule implements OutputCapsule {
         }
         value.rewind();
         int length = value.limit();
+        if (exporter.isBufferChunk(length * 2)) {
+            ByteBuffer payload = ByteBuffer.allocate(length * 2).order(ByteOrder.LITTLE_ENDIAN);
+            payload.asShortBuffer().put(value);
+            value.rewind();
+            write(EXTERNAL_OBJECT);
+            write(exporter.addBufferChunk(payload.array()));
+            return;
+        }
         write(length);
         for (int x = 0; x < length; x++) {
             writeForBuffer(value.get());
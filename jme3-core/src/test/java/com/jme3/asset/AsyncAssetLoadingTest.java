@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.asset;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies the background loading API of {@link DesktopAssetManager}.
+ */
+public class AsyncAssetLoadingTest {
+
+    private static final AtomicInteger loadCount = new AtomicInteger();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    public static class MemoryLocator implements AssetLocator {
+        @Override
+        public void setRootPath(String rootPath) {
+        }
+
+        @Override
+        public AssetInfo locate(AssetManager manager, AssetKey key) {
+            if (key.getName().startsWith("missing")) {
+                return null;
+            }
+            return new AssetInfo(manager, key) {
+                @Override
+                public InputStream openStream() {
+                    return new ByteArrayInputStream(key.getName().getBytes());
+                }
+            };
+        }
+    }
+
+    public static class GatedLoader implements AssetLoader {
+        @Override
+        public Object load(AssetInfo assetInfo) throws java.io.IOException {
+            loadCount.incrementAndGet();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                throw new java.io.IOException(ex);
+            }
+            return assetInfo.getKey().getName();
+        }
+    }
+
+    private AssetManager assetManager;
+
+    @Before
+    public void setUp() {
+        loadCount.set(0);
+        assetManager = new DesktopAssetManager();
+        assetManager.registerLocator(null, MemoryLocator.class);
+        assetManager.registerLoader(GatedLoader.class, "txt");
+    }
+
+    @Test
+    public void testInFlightLoadsAreShared() {
+        gate = new CountDownLatch(1);
+        AssetKey<String> key = new AssetKey<>("shared.txt");
+        CompletableFuture<String> first = assetManager.loadAssetAsync(key);
+        CompletableFuture<String> second = assetManager.loadAssetAsync(new AssetKey<>("shared.txt"));
+        gate.countDown();
+
+        Assert.assertEquals("shared.txt", first.join());
+        Assert.assertEquals("shared.txt", second.join());
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void testBatchProgress() {
+        gate = new CountDownLatch(0);
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AssetLoadBatch batch = assetManager.loadAssets(Arrays.asList(
+                new AssetKey<>("a.txt"), new AssetKey<>("b.txt"),
+                new AssetKey<>("a.txt"), new AssetKey<>("missing.txt")),
+                new AssetLoadBatch.Listener() {
+                    @Override
+                    public void assetLoaded(AssetLoadBatch b, AssetKey<?> key, Object asset) {
+                        loaded.incrementAndGet();
+                    }
+
+                    @Override
+                    public void assetFailed(AssetLoadBatch b, AssetKey<?> key, Throwable cause) {
+                        Assert.assertTrue(cause instanceof AssetNotFoundException);
+                        failed.incrementAndGet();
+                    }
+                });
+
+        Assert.assertEquals(3, batch.getTotalCount());
+        batch.getCompletion().join();
+        Assert.assertTrue(batch.isDone());
+        Assert.assertEquals(1f, batch.getProgress(), 0f);
+        Assert.assertEquals(3, batch.getCompletedCount());
+        Assert.assertEquals(1, batch.getFailedCount());
+        Assert.assertEquals(2, loaded.get());
+        Assert.assertEquals(1, failed.get());
+        Assert.assertEquals("b.txt", batch.getAsset(new AssetKey<>("b.txt")));
+    }
+
+    @Test(expected = AssetNotFoundException.class)
+    public void testBatchRethrowsFailure() {
+        AssetLoadBatch batch = assetManager.loadAssets(
+                Arrays.asList(new AssetKey<>("missing.txt")), null);
+        batch.getAsset(new AssetKey<>("missing.txt"));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.asset.cache;
+
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.cache.BoundedAssetCache.EvictionPolicy;
+import com.jme3.scene.shape.Box;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the eviction and accounting of {@link BoundedAssetCache}.
+ */
+public class BoundedAssetCacheTest {
+
+    private static BoundedAssetCache createCache(long budget, EvictionPolicy policy) {
+        BoundedAssetCache cache = new BoundedAssetCache(budget, policy);
+        // Weigh every asset by the number in its name.
+        cache.setSizeEstimator((key, asset) -> Long.parseLong(key.getName()));
+        return cache;
+    }
+
+    @Test
+    public void testLruEviction() {
+        BoundedAssetCache cache = createCache(100, EvictionPolicy.LRU);
+        AssetKey<Object> a = new AssetKey<>("40");
+        AssetKey<Object> b = new AssetKey<>("41");
+        cache.addToCache(a, "a");
+        cache.addToCache(b, "b");
+        Assert.assertEquals("a", cache.getFromCache(a));
+
+        // b is now the least recently used
+        cache.addToCache(new AssetKey<>("30"), "c");
+        Assert.assertNull(cache.getFromCache(b));
+        Assert.assertEquals("a", cache.getFromCache(a));
+        Assert.assertEquals(70, cache.getCurrentSize());
+        Assert.assertEquals(2, cache.getAssetCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testLfuEviction() {
+        BoundedAssetCache cache = createCache(100, EvictionPolicy.LFU);
+        AssetKey<Object> a = new AssetKey<>("40");
+        AssetKey<Object> b = new AssetKey<>("41");
+        cache.addToCache(a, "a");
+        cache.addToCache(b, "b");
+        cache.getFromCache(a);
+        cache.getFromCache(a);
+        cache.getFromCache(b);
+
+        cache.addToCache(new AssetKey<>("30"), "c");
+        Assert.assertEquals("a", cache.getFromCache(a));
+        Assert.assertEquals("b", cache.getFromCache(b));
+        // c was never used, so it goes first
+        cache.addToCache(new AssetKey<>("10"), "d");
+        Assert.assertNull(cache.getFromCache(new AssetKey<>("30")));
+    }
+
+    @Test
+    public void testOversizedAssetIsRejected() {
+        BoundedAssetCache cache = createCache(100, EvictionPolicy.LRU);
+        cache.addToCache(new AssetKey<>("50"), "a");
+        cache.addToCache(new AssetKey<>("101"), "b");
+        Assert.assertEquals(1, cache.getRejectionCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertEquals(50, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testShrinkBudgetAndDelete() {
+        BoundedAssetCache cache = createCache(100, EvictionPolicy.LRU);
+        AssetKey<Object> a = new AssetKey<>("20");
+        cache.addToCache(a, "a");
+        cache.addToCache(new AssetKey<>("30"), "b");
+        cache.setMemoryBudget(40);
+        Assert.assertEquals(30, cache.getCurrentSize());
+        Assert.assertFalse(cache.deleteFromCache(a));
+        Assert.assertTrue(cache.deleteFromCache(new AssetKey<>("30")));
+        Assert.assertEquals(0, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testDefaultEstimator() {
+        Box box = new Box(1, 1, 1);
+        long size = BoundedAssetCache.estimateAssetSize(null, box);
+        // 24 vertices with position, normal and texcoord, 36 short indices
+        Assert.assertEquals(24 * (3 + 3 + 2) * 4 + 36 * 2, size);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.export.binary;
+
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.shape.Box;
+import com.jme3.scene.shape.Sphere;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies the chunked layout written by {@link BinaryExporter#setChunked(boolean) }.
+ */
+public class ChunkedBinaryFormatTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Node createScene() {
+        Node root = new Node("root");
+        root.attachChild(new Geometry("box", new Box(1, 2, 3)));
+        Node group = new Node("group");
+        group.attachChild(new Geometry("sphere", new Sphere(16, 24, 2f)));
+        group.attachChild(new Geometry("small box", new Box(0.5f, 0.5f, 0.5f)));
+        root.attachChild(group);
+        return root;
+    }
+
+    private File save(Node scene, boolean compression, int threshold) throws IOException {
+        BinaryExporter exporter = BinaryExporter.getInstance();
+        exporter.setChunked(true);
+        exporter.setChunkCompression(compression);
+        exporter.setBufferChunkThreshold(threshold);
+        File file = folder.newFile();
+        exporter.save(scene, file);
+        return file;
+    }
+
+    private static void assertSameMesh(Mesh expected, Mesh actual) {
+        for (VertexBuffer vb : expected.getBufferList()) {
+            Buffer data = actual.getBuffer(vb.getBufferType()).getData();
+            Assert.assertTrue(data.isDirect());
+            vb.getData().rewind();
+            Assert.assertEquals(vb.getData(), data);
+        }
+    }
+
+    private static void assertSameGeometry(Geometry expected, Geometry actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        assertSameMesh(expected.getMesh(), actual.getMesh());
+    }
+
+    private static void assertSameScene(Node expected, Node actual) {
+        assertSameGeometry((Geometry) expected.getChild(0), (Geometry) actual.getChild(0));
+        Node expectedGroup = (Node) expected.getChild(1);
+        Node actualGroup = (Node) actual.getChild(1);
+        Assert.assertEquals("group", actualGroup.getName());
+        Assert.assertEquals(expectedGroup.getQuantity(), actualGroup.getQuantity());
+        for (int i = 0; i < expectedGroup.getQuantity(); i++) {
+            assertSameGeometry((Geometry) expectedGroup.getChild(i), (Geometry) actualGroup.getChild(i));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Node scene = createScene();
+        for (boolean compression : new boolean[]{false, true}) {
+            for (int threshold : new int[]{0, 256, Integer.MAX_VALUE}) {
+                File file = save(scene, compression, threshold);
+                BinaryImporter importer = BinaryImporter.getInstance();
+                importer.setAssetManager(new DesktopAssetManager());
+                assertSameScene(scene, (Node) importer.load(file));
+                importer.setUseMemoryMapping(true);
+                assertSameScene(scene, (Node) importer.load(file));
+            }
+        }
+    }
+
+    @Test
+    public void testFlatLayoutIsDefault() throws IOException {
+        File file = folder.newFile();
+        BinaryExporter.getInstance().save(createScene(), file);
+        try {
+            BinaryImporter.getInstance().getChunkNames(file.toPath());
+            Assert.fail("the flat layout has no chunks");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testLoadChunk() throws IOException {
+        Node scene = createScene();
+        File file = save(scene, true, 256);
+        BinaryImporter importer = BinaryImporter.getInstance();
+        Assert.assertEquals(Arrays.asList("box", "group"), importer.getChunkNames(file.toPath()));
+
+        for (boolean mapped : new boolean[]{false, true}) {
+            importer.setUseMemoryMapping(mapped);
+            Node group = (Node) importer.loadChunk(file.toPath(), "group");
+            Node expected = (Node) scene.getChild(1);
+            Assert.assertEquals(expected.getQuantity(), group.getQuantity());
+            assertSameGeometry((Geometry) expected.getChild(0), (Geometry) group.getChild(0));
+            assertSameGeometry((Geometry) scene.getChild(0),
+                    (Geometry) importer.loadChunk(file.toPath(), "box"));
+            Assert.assertNull(importer.loadChunk(file.toPath(), "missing"));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.export.binary;
+
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.shape.Box;
+import com.jme3.scene.shape.Sphere;
+import com.jme3.util.BufferUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies loading j3o files through a memory mapping.
+ */
+public class MappedBinaryImporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Node createScene() {
+        Node root = new Node("root");
+        root.attachChild(new Geometry("box", new Box(1, 2, 3)));
+        root.attachChild(new Geometry("sphere", new Sphere(8, 12, 2f)));
+        return root;
+    }
+
+    private File save(Node scene) throws IOException {
+        File file = folder.newFile("scene.j3o");
+        BinaryExporter.getInstance().save(scene, file);
+        return file;
+    }
+
+    private static void assertSameMesh(Mesh expected, Mesh actual) {
+        for (VertexBuffer vb : expected.getBufferList()) {
+            Buffer data = actual.getBuffer(vb.getBufferType()).getData();
+            Assert.assertTrue(data.isDirect());
+            Assert.assertEquals(vb.getData().limit(), data.limit());
+            vb.getData().rewind();
+            Assert.assertEquals(vb.getData(), data);
+        }
+    }
+
+    @Test
+    public void testMappedLoadMatchesStreamLoad() throws IOException {
+        Assume.assumeTrue(BinaryImporter.canUseFastBuffers());
+        Node scene = createScene();
+        File file = save(scene);
+
+        BinaryImporter importer = BinaryImporter.getInstance();
+        importer.setAssetManager(new DesktopAssetManager());
+        Node streamed = (Node) importer.load(file);
+        importer.setUseMemoryMapping(true);
+        Node mapped = (Node) importer.load(file);
+
+        Assert.assertEquals(scene.getQuantity(), mapped.getQuantity());
+        for (int i = 0; i < scene.getQuantity(); i++) {
+            Geometry original = (Geometry) scene.getChild(i);
+            Assert.assertEquals(original.getName(), mapped.getChild(i).getName());
+            assertSameMesh(original.getMesh(), ((Geometry) mapped.getChild(i)).getMesh());
+            assertSameMesh(original.getMesh(), ((Geometry) streamed.getChild(i)).getMesh());
+        }
+    }
+
+    @Test
+    public void testDestroyingMappedBufferKeepsMapping() throws IOException {
+        Assume.assumeTrue(BinaryImporter.canUseFastBuffers());
+        Node scene = createScene();
+        File file = save(scene);
+
+        BinaryImporter importer = BinaryImporter.getInstance();
+        Node mapped = (Node) importer.loadMapped(file.toPath(), null);
+        Mesh box = ((Geometry) mapped.getChild(0)).getMesh();
+        Mesh sphere = ((Geometry) mapped.getChild(1)).getMesh();
+
+        // must not release memory shared with the other buffers
+        BufferUtils.destroyDirectBuffer(box.getBuffer(VertexBuffer.Type.Position).getData());
+        assertSameMesh(((Geometry) scene.getChild(1)).getMesh(), sphere);
+    }
+}
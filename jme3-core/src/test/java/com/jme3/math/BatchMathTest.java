@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.math;
+
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that {@link BatchMath} matches the per-vector operations of
+ * Matrix4f and Vector3f, for arrays, heap buffers and direct buffers.
+ */
+public class BatchMathTest {
+
+    // larger than one chunk, and not a multiple of it
+    private static final int COUNT = 1000;
+
+    private static float[] randomVectors(Random random) {
+        float[] data = new float[COUNT * 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextFloat() * 20f - 10f;
+        }
+        data[6] = data[7] = data[8] = 0f; // a zero vector
+        return data;
+    }
+
+    private static Matrix4f createMatrix() {
+        Quaternion rotation = new Quaternion().fromAngles(0.3f, -1.2f, 2f);
+        return new Transform(new Vector3f(1, -2, 3), rotation, new Vector3f(2, 0.5f, 1))
+                .toTransformMatrix();
+    }
+
+    private static FloatBuffer[] buffers(float[] data) {
+        FloatBuffer direct = BufferUtils.createFloatBuffer(data);
+        return new FloatBuffer[]{FloatBuffer.wrap(data.clone()), direct, direct.asReadOnlyBuffer()};
+    }
+
+    private static void assertVector(Vector3f expected, FloatBuffer actual, int index) {
+        Assert.assertEquals(expected.x, actual.get(index * 3), 1e-5f);
+        Assert.assertEquals(expected.y, actual.get(index * 3 + 1), 1e-5f);
+        Assert.assertEquals(expected.z, actual.get(index * 3 + 2), 1e-5f);
+    }
+
+    @Test
+    public void testTransform() {
+        float[] data = randomVectors(new Random(1));
+        Matrix4f mat = createMatrix();
+        for (FloatBuffer src : buffers(data)) {
+            FloatBuffer points = BufferUtils.createFloatBuffer((COUNT + 5) * 3);
+            FloatBuffer directions = FloatBuffer.allocate((COUNT + 5) * 3);
+            BatchMath.transformPoints(mat, src, 0, points, 5, COUNT);
+            BatchMath.transformDirections(mat, src, 0, directions, 5, COUNT);
+            Assert.assertEquals(0, src.position());
+            Vector3f v = new Vector3f();
+            for (int i = 0; i < COUNT; i++) {
+                v.set(data[i * 3], data[i * 3 + 1], data[i * 3 + 2]);
+                assertVector(mat.mult(v, null), points, i + 5);
+                assertVector(mat.multNormal(v, null), directions, i + 5);
+            }
+        }
+    }
+
+    @Test
+    public void testTransformInPlace() {
+        float[] data = randomVectors(new Random(2));
+        Matrix4f mat = createMatrix();
+        float[] array = data.clone();
+        BatchMath.transformPoints(mat, array, 0, array, 0, COUNT);
+        FloatBuffer direct = BufferUtils.createFloatBuffer(data);
+        BatchMath.transformPoints(mat, direct, 0, direct, 0, COUNT);
+        for (int i = 0; i < array.length; i++) {
+            Assert.assertEquals(array[i], direct.get(i), 0f);
+        }
+    }
+
+    @Test
+    public void testNormalize() {
+        float[] data = randomVectors(new Random(3));
+        FloatBuffer direct = BufferUtils.createFloatBuffer(data);
+        BatchMath.normalize(direct, 0, COUNT);
+        Vector3f v = new Vector3f();
+        for (int i = 0; i < COUNT; i++) {
+            v.set(data[i * 3], data[i * 3 + 1], data[i * 3 + 2]).normalizeLocal();
+            assertVector(v, direct, i);
+        }
+    }
+
+    @Test
+    public void testComputeBounds() {
+        float[] data = randomVectors(new Random(4));
+        Vector3f expectedMin = new Vector3f(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        Vector3f expectedMax = expectedMin.negate();
+        for (int i = 3; i < COUNT; i++) {
+            Vector3f v = new Vector3f(data[i * 3], data[i * 3 + 1], data[i * 3 + 2]);
+            expectedMin.minLocal(v);
+            expectedMax.maxLocal(v);
+        }
+        for (FloatBuffer buffer : buffers(data)) {
+            Vector3f min = new Vector3f();
+            Vector3f max = new Vector3f();
+            BatchMath.computeBounds(buffer, 3, COUNT - 3, min, max);
+            Assert.assertEquals(expectedMin, min);
+            Assert.assertEquals(expectedMax, max);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRangeCheck() {
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(9);
+        BatchMath.normalize(buffer, 1, 3);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.material.TechniqueDef;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.queue.GeometryComparator;
+import com.jme3.renderer.queue.GeometryList;
+import com.jme3.renderer.queue.GuiComparator;
+import com.jme3.renderer.queue.OpaqueComparator;
+import com.jme3.renderer.queue.TransparentComparator;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Box;
+import com.jme3.system.TestUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that sorting a GeometryList by key gives the same order as
+ * sorting it with the comparator.
+ */
+public class GeometryListKeySortTest {
+
+    private final Mesh mesh = new Box(1, 1, 1);
+    private final Camera cam = new Camera(640, 480);
+    private Material[] materials;
+
+    @Before
+    public void setUp() {
+        AssetManager assetManager = TestUtil.createAssetManager();
+        RenderManager renderManager = TestUtil.createRenderManager();
+        String[] defs = {
+            "Common/MatDefs/Misc/Unshaded.j3md",
+            "Common/MatDefs/Light/Lighting.j3md",
+            "Common/MatDefs/Misc/ShowNormals.j3md"
+        };
+        materials = new Material[defs.length];
+        for (int i = 0; i < defs.length; i++) {
+            materials[i] = new Material(assetManager, defs[i]);
+            materials[i].selectTechnique(TechniqueDef.DEFAULT_TECHNIQUE_NAME, renderManager);
+        }
+        cam.setLocation(new Vector3f(3f, 2f, 10f));
+        cam.lookAt(Vector3f.ZERO, Vector3f.UNIT_Y);
+    }
+
+    private List<Geometry> createGeometries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Geometry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Geometry geom = new Geometry("geom" + i, mesh);
+            geom.setMaterial(materials[random.nextInt(materials.length)]);
+            // few distinct positions, so that many keys are equal
+            geom.setLocalTranslation(random.nextInt(20) - 10f, random.nextInt(5) * -0.5f,
+                    random.nextInt(20) - 10f);
+            geom.updateGeometricState();
+            result.add(geom);
+        }
+        return result;
+    }
+
+    private void checkSameOrder(GeometryComparator comparator, int count) {
+        List<Geometry> geometries = createGeometries(count, count);
+
+        GeometryList expected = new GeometryList(comparator);
+        GeometryList actual = new GeometryList(comparator);
+        actual.setKeySorting(true);
+        for (Geometry geom : geometries) {
+            expected.add(geom);
+            actual.add(geom);
+        }
+        expected.setCamera(cam);
+        expected.sort();
+        for (Geometry geom : geometries) {
+            geom.queueDistance = Float.NEGATIVE_INFINITY;
+        }
+        actual.setCamera(cam);
+        actual.sort();
+
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame("mismatch at " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testOpaque() {
+        checkSameOrder(new OpaqueComparator(), 20);
+        checkSameOrder(new OpaqueComparator(), 2000);
+    }
+
+    @Test
+    public void testTransparent() {
+        checkSameOrder(new TransparentComparator(), 20);
+        checkSameOrder(new TransparentComparator(), 2000);
+    }
+
+    @Test
+    public void testGui() {
+        checkSameOrder(new GuiComparator(), 20);
+        checkSameOrder(new GuiComparator(), 2000);
+    }
+
+    @Test
+    public void testResortAfterGrowing() {
+        GeometryList list = new GeometryList(new GuiComparator());
+        list.setKeySorting(true);
+        for (Geometry geom : createGeometries(100, 7L)) {
+            list.add(geom);
+        }
+        list.sort();
+        for (Geometry geom : createGeometries(500, 8L)) {
+            list.add(geom);
+        }
+        list.sort();
+        for (int i = 1; i < list.size(); i++) {
+            float z0 = list.get(i - 1).getWorldTranslation().z;
+            float z1 = list.get(i).getWorldTranslation().z;
+            Assert.assertTrue(z0 <= z1);
+        }
+    }
+}
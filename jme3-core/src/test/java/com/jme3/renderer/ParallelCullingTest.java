@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer;
+
+import com.jme3.material.Material;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.queue.RenderQueue.Bucket;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.control.AbstractControl;
+import com.jme3.scene.shape.Box;
+import com.jme3.system.TestUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that parallel culling in the RenderManager produces the same
+ * render queues as the sequential traversal.
+ */
+public class ParallelCullingTest {
+
+    private RenderManager renderManager;
+    private ForkJoinPool pool;
+    private Material[] materials;
+
+    @Before
+    public void setUp() {
+        renderManager = TestUtil.createRenderManager();
+        pool = new ForkJoinPool(4);
+        Material base = new Material(TestUtil.createAssetManager(), "Common/MatDefs/Misc/Unshaded.j3md");
+        materials = new Material[3];
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = base.clone();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Builds a scene with large and small nodes, nested big nodes, culled
+     * subtrees and several buckets.
+     */
+    private Node createScene(List<Spatial> controlled) {
+        Random random = new Random(42L);
+        Node root = new Node("root");
+        Box box = new Box(0.5f, 0.5f, 0.5f);
+        for (int i = 0; i < 40; i++) {
+            Node group = new Node("group" + i);
+            int numChildren = (i % 4 == 0) ? 300 : 5;
+            for (int j = 0; j < numChildren; j++) {
+                Geometry geom = new Geometry("geom" + i + "_" + j, box);
+                geom.setMaterial(materials[random.nextInt(materials.length)]);
+                geom.setLocalTranslation(random.nextFloat() * 200f - 100f,
+                        random.nextFloat() * 200f - 100f, random.nextFloat() * -200f);
+                if (j % 7 == 0) {
+                    geom.setQueueBucket(Bucket.Transparent);
+                } else if (j % 11 == 0) {
+                    geom.setQueueBucket(Bucket.Translucent);
+                }
+                group.attachChild(geom);
+            }
+            if (i % 5 == 0) {
+                group.setCullHint(Spatial.CullHint.Always);
+            }
+            if (i % 8 == 0) {
+                group.setCullHint(Spatial.CullHint.Never);
+                group.addControl(new RecordingControl(controlled));
+            }
+            group.rotate(0f, FastMath.QUARTER_PI * i, 0f);
+            root.attachChild(group);
+        }
+        root.updateGeometricState();
+        return root;
+    }
+
+    private List<Geometry> render(Node scene, boolean parallel) {
+        Camera cam = new Camera(640, 480);
+        cam.setFrustumPerspective(45f, 640f / 480f, 1f, 150f);
+        cam.setLocation(new Vector3f(0f, 0f, 10f));
+        cam.lookAt(new Vector3f(0f, 0f, -50f), Vector3f.UNIT_Y);
+        ViewPort vp = new ViewPort("test", cam);
+
+        renderManager.setParallelCulling(parallel);
+        renderManager.setParallelCullingPool(pool);
+        renderManager.setParallelCullingThreshold(16);
+        renderManager.renderScene(scene, vp);
+
+        final List<Geometry> rendered = new ArrayList<>();
+        renderManager.setRenderFilter(geom -> {
+            rendered.add(geom);
+            return false;
+        });
+        for (Bucket bucket : new Bucket[]{Bucket.Opaque, Bucket.Transparent, Bucket.Translucent}) {
+            vp.getQueue().renderQueue(bucket, renderManager, cam);
+        }
+        renderManager.setRenderFilter(null);
+        return rendered;
+    }
+
+    @Test
+    public void testSameQueueAsSequential() {
+        List<Spatial> controlled = new ArrayList<>();
+        Node scene = createScene(controlled);
+
+        List<Geometry> sequential = render(scene, false);
+        List<Spatial> sequentialControls = new ArrayList<>(controlled);
+        controlled.clear();
+        List<Geometry> parallel = render(scene, true);
+
+        Assert.assertFalse(sequential.isEmpty());
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertEquals(sequentialControls, controlled);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingMaterial() {
+        Node scene = createScene(new ArrayList<Spatial>());
+        ((Node) scene.getChild("group3")).attachChild(new Geometry("noMaterial", new Box(1f, 1f, 1f)));
+        ((Node) scene.getChild("group4")).attachChild(new Geometry("noMaterial", new Box(1f, 1f, 1f)));
+        scene.updateGeometricState();
+
+        render(scene, true);
+    }
+
+    private static class RecordingControl extends AbstractControl {
+
+        private final List<Spatial> controlled;
+
+        RecordingControl(List<Spatial> controlled) {
+            this.controlled = controlled;
+        }
+
+        @Override
+        protected void controlUpdate(float tpf) {
+        }
+
+        @Override
+        protected void controlRender(RenderManager rm, ViewPort vp) {
+            controlled.add(getSpatial());
+        }
+    }
+}
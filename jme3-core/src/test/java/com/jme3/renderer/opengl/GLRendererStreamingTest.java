@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer.opengl;
+
+import com.jme3.renderer.Caps;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.shader.Shader;
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the GL calls that {@link GLRenderer} makes to upload and bind
+ * vertex buffers, with and without vertex streaming, against mocked GL
+ * interfaces.
+ */
+public class GLRendererStreamingTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int LOCATION = 0;
+
+    private GL gl;
+    private GLExt glext;
+    private GLRenderer renderer;
+    private int nextBufferId;
+
+    @Before
+    public void setUp() {
+        gl = Mockito.mock(GL.class);
+        glext = Mockito.mock(GLExt.class);
+        nextBufferId = 1;
+        doAnswer(invocation -> {
+            IntBuffer ids = invocation.getArgument(0);
+            ids.put(0, nextBufferId++);
+            return null;
+        }).when(gl).glGenBuffers(any(IntBuffer.class));
+        when(gl.glGetAttribLocation(anyInt(), anyString())).thenReturn(LOCATION);
+        when(glext.glFenceSync(anyInt(), anyInt())).thenAnswer(invocation -> new Object());
+        when(glext.glClientWaitSync(any(), anyInt(), anyLong())).thenReturn(GLExt.GL_ALREADY_SIGNALED);
+
+        renderer = new GLRenderer(gl, glext, Mockito.mock(GLFbo.class));
+        renderer.getCaps().add(Caps.OpenGL32);
+        renderer.setVertexStreamingBufferSize(SEGMENT_SIZE, 2);
+        Shader shader = new Shader();
+        shader.setId(1);
+        renderer.bindProgram(shader);
+    }
+
+    private static VertexBuffer positions(Usage usage, int vertexCount) {
+        VertexBuffer vb = new VertexBuffer(Type.Position);
+        vb.setupData(usage, 3, Format.Float, BufferUtils.createFloatBuffer(vertexCount * 3));
+        return vb;
+    }
+
+    private void verifyPointer(long offset) {
+        verify(gl).glVertexAttribPointer(LOCATION, 3, GL.GL_FLOAT, false, 0, offset);
+    }
+
+    @Test
+    public void testSameSizeUpdateUsesSubData() {
+        VertexBuffer vb = positions(Usage.Dynamic, 4);
+        renderer.setVertexAttrib(vb);
+        int id = vb.getId();
+        verify(gl).glBufferData(eq(GL.GL_ARRAY_BUFFER), same((FloatBuffer) vb.getData()), eq(GL.GL_DYNAMIC_DRAW));
+
+        // same size, only the content is replaced
+        vb.updateData(vb.getData());
+        renderer.setVertexAttrib(vb);
+        verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, (FloatBuffer) vb.getData());
+        verify(gl, times(1)).glBufferData(anyInt(), any(FloatBuffer.class), anyInt());
+        Assert.assertEquals(id, vb.getId());
+
+        // new data of another size re-specifies the storage
+        FloatBuffer larger = BufferUtils.createFloatBuffer(8 * 3);
+        vb.updateData(larger);
+        renderer.setVertexAttrib(vb);
+        verify(gl).glBufferData(GL.GL_ARRAY_BUFFER, larger, GL.GL_DYNAMIC_DRAW);
+        verify(gl, times(1)).glBufferSubData(anyInt(), anyLong(), any(FloatBuffer.class));
+        Assert.assertEquals(id, vb.getId());
+    }
+
+    @Test
+    public void testLimitChangedInPlace() {
+        VertexBuffer vb = positions(Usage.Dynamic, 4);
+        renderer.setVertexAttrib(vb);
+        Assert.assertFalse(vb.hasDataSizeChanged());
+
+        // the limit is compared with the one of the last upload
+        vb.getData().limit(6);
+        Assert.assertTrue(vb.hasDataSizeChanged());
+        vb.setUpdateNeeded();
+        renderer.setVertexAttrib(vb);
+        verify(gl, times(2)).glBufferData(anyInt(), any(FloatBuffer.class), anyInt());
+        verify(gl, never()).glBufferSubData(anyInt(), anyLong(), any(FloatBuffer.class));
+        Assert.assertFalse(vb.hasDataSizeChanged());
+
+        vb.setUpdateNeeded();
+        renderer.setVertexAttrib(vb);
+        verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, (FloatBuffer) vb.getData());
+    }
+
+    @Test
+    public void testStaticBuffersAreReallocated() {
+        VertexBuffer vb = positions(Usage.Static, 4);
+        renderer.setVertexAttrib(vb);
+        vb.updateData(vb.getData());
+        renderer.setVertexAttrib(vb);
+        verify(gl, times(2)).glBufferData(GL.GL_ARRAY_BUFFER, (FloatBuffer) vb.getData(), GL.GL_STATIC_DRAW);
+        verify(gl, never()).glBufferSubData(anyInt(), anyLong(), any(FloatBuffer.class));
+    }
+
+    @Test
+    public void testStreamingAcrossFrames() {
+        renderer.setVertexStreaming(true);
+        VertexBuffer vb = positions(Usage.Stream, 4);
+        FloatBuffer data = (FloatBuffer) vb.getData();
+
+        // frame 1, the data goes into the first segment
+        renderer.setVertexAttrib(vb);
+        GLStreamingBuffer ring = renderer.getStreamingBuffer();
+        Assert.assertNotNull(ring);
+        int first = ring.getBufferId();
+        Assert.assertEquals(-1, vb.getId());
+        verify(gl).glBufferData(GL.GL_ARRAY_BUFFER, (long) SEGMENT_SIZE, GL.GL_STREAM_DRAW);
+        verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, data);
+        verifyPointer(0L);
+
+        // unchanged data is not uploaded twice in a frame, but the
+        // pointer is still set
+        renderer.setVertexAttrib(vb);
+        verify(gl, times(1)).glBufferSubData(anyInt(), anyLong(), any(FloatBuffer.class));
+        verify(gl, times(2)).glVertexAttribPointer(LOCATION, 3, GL.GL_FLOAT, false, 0, 0L);
+        renderer.postFrame();
+
+        // frame 2, the next segment
+        vb.updateData(data);
+        renderer.setVertexAttrib(vb);
+        int second = ring.getBufferId();
+        Assert.assertNotEquals(first, second);
+        verify(gl, atLeastOnce()).glBindBuffer(GL.GL_ARRAY_BUFFER, second);
+        renderer.postFrame();
+
+        // frame 3, the ring wraps once the first frame's fence signaled
+        vb.updateData(data);
+        renderer.setVertexAttrib(vb);
+        Assert.assertEquals(first, ring.getBufferId());
+        verify(glext).glClientWaitSync(any(), anyInt(), anyLong());
+        verify(gl, times(3)).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, data);
+        verify(gl, never()).glBufferData(anyInt(), any(FloatBuffer.class), anyInt());
+        Assert.assertEquals(-1, vb.getId());
+        Assert.assertEquals(3, ring.getAllocationCount());
+    }
+
+    @Test
+    public void testRebindWhenDataLeavesRing() {
+        renderer.setVertexStreaming(true);
+        VertexBuffer vb = positions(Usage.Stream, 4);
+        renderer.setVertexAttrib(vb);
+        GLStreamingBuffer ring = renderer.getStreamingBuffer();
+        int ringId = ring.getBufferId();
+        renderer.postFrame();
+
+        // resized beyond a segment, the data falls back to its own
+        // storage and the attrib must stop pointing into the ring
+        FloatBuffer large = BufferUtils.createFloatBuffer(SEGMENT_SIZE / 4 + 3);
+        vb.updateData(large);
+        renderer.setVertexAttrib(vb);
+        int id = vb.getId();
+        Assert.assertNotEquals(-1, id);
+        Assert.assertNotEquals(ringId, id);
+        Assert.assertEquals(1, ring.getOverflowCount());
+        InOrder inOrder = Mockito.inOrder(gl);
+        inOrder.verify(gl).glBufferData(GL.GL_ARRAY_BUFFER, large, GL.GL_STREAM_DRAW);
+        inOrder.verify(gl).glVertexAttribPointer(LOCATION, 3, GL.GL_FLOAT, false, 0, 0L);
+        verify(gl, times(2)).glVertexAttribPointer(anyInt(), anyInt(), anyInt(), anyBoolean(), anyInt(), anyLong());
+        renderer.postFrame();
+
+        // now bound to its own storage, nothing changes
+        renderer.setVertexAttrib(vb);
+        verify(gl, times(2)).glVertexAttribPointer(anyInt(), anyInt(), anyInt(), anyBoolean(), anyInt(), anyLong());
+
+        // shrunk again, back into the ring
+        FloatBuffer small = BufferUtils.createFloatBuffer(4 * 3);
+        vb.updateData(small);
+        renderer.setVertexAttrib(vb);
+        verify(gl).glBufferSubData(eq(GL.GL_ARRAY_BUFFER), anyLong(), same(small));
+        verify(gl, times(3)).glVertexAttribPointer(anyInt(), anyInt(), anyInt(), anyBoolean(), anyInt(), anyLong());
+        // its own storage was released, the data kept
+        verify(gl).glDeleteBuffers(any(IntBuffer.class));
+        Assert.assertEquals(-1, vb.getId());
+        Assert.assertSame(small, vb.getData());
+    }
+
+    @Test
+    public void testStreamingReleasesOwnStorage() {
+        VertexBuffer vb = positions(Usage.Stream, 4);
+        renderer.setVertexAttrib(vb);
+        Assert.assertNotEquals(-1, vb.getId());
+
+        renderer.setVertexStreaming(true);
+        vb.updateData(vb.getData());
+        renderer.setVertexAttrib(vb);
+        verify(gl).glDeleteBuffers(any(IntBuffer.class));
+        Assert.assertEquals(-1, vb.getId());
+        Assert.assertNotNull(vb.getData());
+        // set for the own storage, then again into the ring
+        InOrder inOrder = Mockito.inOrder(gl);
+        inOrder.verify(gl).glVertexAttribPointer(LOCATION, 3, GL.GL_FLOAT, false, 0, 0L);
+        inOrder.verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, (FloatBuffer) vb.getData());
+        inOrder.verify(gl).glDeleteBuffers(any(IntBuffer.class));
+        inOrder.verify(gl).glVertexAttribPointer(LOCATION, 3, GL.GL_FLOAT, false, 0, 0L);
+    }
+
+    @Test
+    public void testDisablingStreamingDeletesRing() {
+        renderer.setVertexStreaming(true);
+        renderer.setVertexAttrib(positions(Usage.Stream, 4));
+        Assert.assertNotNull(renderer.getStreamingBuffer());
+
+        renderer.setVertexStreaming(false);
+        Assert.assertNull(renderer.getStreamingBuffer());
+        verify(gl).glDeleteBuffers(any(IntBuffer.class));
+
+        // stream buffers get their own storage again
+        VertexBuffer vb = positions(Usage.Stream, 4);
+        renderer.setVertexAttrib(vb);
+        Assert.assertNotEquals(-1, vb.getId());
+        verify(gl).glBufferData(GL.GL_ARRAY_BUFFER, (FloatBuffer) vb.getData(), GL.GL_STREAM_DRAW);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.renderer.opengl;
+
+import com.jme3.util.BufferUtils;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the allocation and fencing logic of {@link GLStreamingBuffer}
+ * against mocked GL interfaces.
+ */
+public class GLStreamingBufferTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    private GL gl;
+    private GLExt glext;
+    private int nextBufferId;
+
+    @Before
+    public void setUp() {
+        gl = Mockito.mock(GL.class);
+        glext = Mockito.mock(GLExt.class);
+        nextBufferId = 1;
+        doAnswer(invocation -> {
+            IntBuffer ids = invocation.getArgument(0);
+            ids.put(0, nextBufferId++);
+            return null;
+        }).when(gl).glGenBuffers(any(IntBuffer.class));
+    }
+
+    private static FloatBuffer floats(int count) {
+        return BufferUtils.createFloatBuffer(count);
+    }
+
+    @Test
+    public void testSubAllocation() {
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 2);
+        Object a = new Object();
+        Object b = new Object();
+        FloatBuffer dataA = floats(3);
+        FloatBuffer dataB = floats(8);
+
+        Assert.assertEquals(0, ring.upload(a, dataA));
+        // 12 bytes, the next allocation is aligned
+        Assert.assertEquals(GLStreamingBuffer.ALIGNMENT, ring.upload(b, dataB));
+        Assert.assertEquals(0, ring.getOffset(a));
+        Assert.assertEquals(GLStreamingBuffer.ALIGNMENT, ring.getOffset(b));
+        Assert.assertEquals(1, ring.getBufferId());
+
+        verify(gl, times(1)).glGenBuffers(any(IntBuffer.class));
+        verify(gl, times(1)).glBufferData(GL.GL_ARRAY_BUFFER, (long) SEGMENT_SIZE, GL.GL_STREAM_DRAW);
+        verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, 0L, dataA);
+        verify(gl).glBufferSubData(GL.GL_ARRAY_BUFFER, (long) GLStreamingBuffer.ALIGNMENT, dataB);
+        Assert.assertEquals(2, ring.getAllocationCount());
+        Assert.assertEquals(44, ring.getUploadedBytes());
+    }
+
+    @Test
+    public void testOverflow() {
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 2);
+        Object owner = new Object();
+
+        Assert.assertEquals(-1, ring.upload(owner, ByteBuffer.allocateDirect(SEGMENT_SIZE + 1)));
+        Assert.assertEquals(-1, ring.getOffset(owner));
+        Assert.assertEquals(1, ring.getOverflowCount());
+        // nothing was created for data that doesn't fit
+        verify(gl, never()).glGenBuffers(any(IntBuffer.class));
+
+        Assert.assertEquals(0, ring.upload(owner, ByteBuffer.allocateDirect(SEGMENT_SIZE)));
+        Assert.assertEquals(-1, ring.upload(new Object(), ByteBuffer.allocateDirect(1)));
+        Assert.assertEquals(2, ring.getOverflowCount());
+    }
+
+    @Test
+    public void testFencedRing() {
+        Object fence1 = new Object();
+        Object fence2 = new Object();
+        when(glext.glFenceSync(GLExt.GL_SYNC_GPU_COMMANDS_COMPLETE, 0)).thenReturn(fence1, fence2);
+        when(glext.glClientWaitSync(any(), anyInt(), anyLong())).thenReturn(GLExt.GL_ALREADY_SIGNALED);
+
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 2);
+        Object owner = new Object();
+
+        ring.upload(owner, floats(4));
+        int first = ring.getBufferId();
+        ring.endFrame();
+        Assert.assertEquals(-1, ring.getOffset(owner));
+
+        ring.upload(owner, floats(4));
+        int second = ring.getBufferId();
+        Assert.assertNotEquals(first, second);
+        ring.endFrame();
+        verify(glext, never()).glClientWaitSync(any(), anyInt(), anyLong());
+
+        // the ring wrapped, the first segment must be released by the GPU first
+        ring.upload(owner, floats(4));
+        Assert.assertEquals(first, ring.getBufferId());
+        InOrder inOrder = Mockito.inOrder(glext);
+        inOrder.verify(glext).glClientWaitSync(same(fence1), anyInt(), anyLong());
+        inOrder.verify(glext).glDeleteSync(fence1);
+        verify(gl, times(2)).glGenBuffers(any(IntBuffer.class));
+        Assert.assertEquals(0, ring.getFenceWaitCount());
+    }
+
+    @Test
+    public void testFenceWait() {
+        Object fence = new Object();
+        when(glext.glFenceSync(GLExt.GL_SYNC_GPU_COMMANDS_COMPLETE, 0)).thenReturn(fence);
+        when(glext.glClientWaitSync(any(), anyInt(), anyLong())).thenReturn(
+                GLExt.GL_TIMEOUT_EXPIRED, GLExt.GL_TIMEOUT_EXPIRED, GLExt.GL_CONDITION_SATISFIED);
+
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 1);
+        ring.upload(new Object(), floats(4));
+        ring.endFrame();
+        ring.upload(new Object(), floats(4));
+
+        // polled once, then waited while flushing
+        verify(glext).glClientWaitSync(fence, 0, 0L);
+        verify(glext, times(2)).glClientWaitSync(eq(fence), eq(GLExt.GL_SYNC_FLUSH_COMMANDS_BIT), anyLong());
+        verify(glext).glDeleteSync(fence);
+        Assert.assertEquals(1, ring.getFenceWaitCount());
+    }
+
+    @Test
+    public void testEmptyFrameIsNotFenced() {
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 2);
+        ring.endFrame();
+        ring.endFrame();
+        verify(glext, never()).glFenceSync(anyInt(), anyInt());
+        Assert.assertEquals(2, ring.getFrame());
+    }
+
+    @Test
+    public void testOrphaningWithoutFences() {
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, null, false, SEGMENT_SIZE, 1);
+        ring.upload(new Object(), floats(4));
+        ring.endFrame();
+        ring.upload(new Object(), floats(4));
+        ring.upload(new Object(), floats(4));
+
+        // allocated once, orphaned once when the segment was reused
+        verify(gl, times(1)).glGenBuffers(any(IntBuffer.class));
+        verify(gl, times(2)).glBufferData(GL.GL_ARRAY_BUFFER, (long) SEGMENT_SIZE, GL.GL_STREAM_DRAW);
+    }
+
+    @Test
+    public void testDelete() {
+        Object fence = new Object();
+        when(glext.glFenceSync(GLExt.GL_SYNC_GPU_COMMANDS_COMPLETE, 0)).thenReturn(fence);
+
+        GLStreamingBuffer ring = new GLStreamingBuffer(gl, glext, true, SEGMENT_SIZE, 2);
+        ring.upload(new Object(), floats(4));
+        ring.endFrame();
+        ring.delete();
+
+        verify(glext).glDeleteSync(fence);
+        verify(gl).glDeleteBuffers(any(IntBuffer.class));
+        Assert.assertEquals(-1, ring.getBufferId());
+    }
+}
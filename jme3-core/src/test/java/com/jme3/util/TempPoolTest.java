@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.util;
+
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that {@link TempPool} scopes reuse objects and nest to any depth.
+ */
+public class TempPoolTest {
+
+    @Test
+    public void testObjectsAreReusedAfterClose() {
+        Vector3f first;
+        try (TempPool pool = TempPool.open()) {
+            first = pool.vector3f();
+            Assert.assertNotSame(first, pool.vector3f());
+        }
+        try (TempPool pool = TempPool.open()) {
+            Assert.assertSame(first, pool.vector3f());
+        }
+    }
+
+    @Test
+    public void testDeepNesting() {
+        TempPool[] scopes = new TempPool[100];
+        Vector3f[] vectors = new Vector3f[scopes.length];
+        for (int i = 0; i < scopes.length; i++) {
+            scopes[i] = TempPool.open();
+            vectors[i] = scopes[i].vector3f().set(i, i, i);
+        }
+        for (int i = scopes.length - 1; i >= 0; i--) {
+            Assert.assertEquals(i, vectors[i].x, 0f);
+            scopes[i].close();
+        }
+        Assert.assertTrue(TempPool.getDepthHighWaterMark() >= scopes.length);
+        Assert.assertTrue(TempPool.getHighWaterMark(Vector3f.class) >= scopes.length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOuterScopeIsLockedWhileNested() {
+        try (TempPool outer = TempPool.open()) {
+            try (TempPool inner = TempPool.open()) {
+                outer.vector3f();
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleClose() {
+        TempPool pool = TempPool.open();
+        pool.close();
+        pool.close();
+    }
+
+    @Test
+    public void testTempVarsGrow() {
+        TempVars[] vars = new TempVars[20];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = TempVars.get();
+        }
+        for (int i = vars.length - 1; i >= 0; i--) {
+            vars[i].release();
+        }
+    }
+
+    @Test
+    public void testDeepSceneGraphTransform() {
+        Node root = new Node("root");
+        Node parent = root;
+        for (int i = 0; i < 100; i++) {
+            Node child = new Node("node" + i);
+            child.setLocalTranslation(1, 0, 0);
+            parent.attachChild(child);
+            parent = child;
+        }
+        Assert.assertEquals(100f, parent.getWorldTranslation().x, 0.001f);
+    }
+}
@@ -1,6 +1,7 @@
 package jme3tools.optimize;
 
 import com.jme3.material.Material;
+import com.jme3.math.BatchMath;
 import com.jme3.math.Matrix4f;
 import com.jme3.math.Transform;
 import com.jme3.math.Vector3f;
@@ -24,43 +25,13 @@ public class GeometryBatchFactory {
     private static final Logger logger = Logger.getLogger(GeometryBatchFactory.class.getName());
 
     private static void doTransformVerts(FloatBuffer inBuf, int offset, FloatBuffer outBuf, Matrix4f transform) {
-        Vector3f pos = new Vector3f();
-
         // offset is given in element units
-        // convert to be in component units
-        offset *= 3;
-
-        for (int i = 0; i < inBuf.limit() / 3; i++) {
-            pos.x = inBuf.get(i * 3 + 0);
-            pos.y = inBuf.get(i * 3 + 1);
-            pos.z = inBuf.get(i * 3 + 2);
-
-            transform.mult(pos, pos);
-
-            outBuf.put(offset + i * 3 + 0, pos.x);
-            outBuf.put(offset + i * 3 + 1, pos.y);
-            outBuf.put(offset + i * 3 + 2, pos.z);
-        }
+        BatchMath.transformPoints(transform, inBuf, 0, outBuf, offset, inBuf.limit() / 3);
     }
 
     private static void doTransformNorms(FloatBuffer inBuf, int offset, FloatBuffer outBuf, Matrix4f transform) {
-        Vector3f norm = new Vector3f();
-
         // offset is given in element units
-        // convert to be in component units
-        offset *= 3;
-
-        for (int i = 0; i < inBuf.limit() / 3; i++) {
-            norm.x = inBuf.get(i * 3 + 0);
-            norm.y = inBuf.get(i * 3 + 1);
-            norm.z = inBuf.get(i * 3 + 2);
-
-            transform.multNormal(norm, norm);
-
-            outBuf.put(offset + i * 3 + 0, norm.x);
-            outBuf.put(offset + i * 3 + 1, norm.y);
-            outBuf.put(offset + i * 3 + 2, norm.z);
-        }
+        BatchMath.transformDirections(transform, inBuf, 0, outBuf, offset, inBuf.limit() / 3);
     }
 
     private static void doTransformTangents(FloatBuffer inBuf, int offset, int components, FloatBuffer outBuf, Matrix4f transform) {
@@ -32,6 +32,7 @@
 package com.jme3.network;
 
 import com.jme3.network.service.ClientServiceManager;
+import com.jme3.network.stats.NetworkStats;
 
 
 /**
@@ -86,6 +87,16 @@ public interface Client extends MessageConnection
      *  the functionality of the client.
      */
     public ClientServiceManager getServices();     
+
+    /**
+     *  Returns the statistics of this client's channels, or null if 
+     *  the implementation doesn't keep any.  The client's own connection
+     *  is also available from getConnectionStats().
+     */
+    public default NetworkStats getNetworkStats()
+    {
+        return null;
+    }
  
     /**
      *  Sends a message to the server.
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ *  A set of connections that messages are often broadcast to, like
+ *  the players in a room or a zone.  A ConnectionGroup is a Filter,
+ *  so it can be passed to any of the Server.broadcast() methods, but
+ *  servers that know about groups, like DefaultServer, send to the
+ *  members directly instead of checking every connection against the
+ *  filter.
+ *
+ *  <p>Groups are kept up to date by the caller.  Adding the group
+ *  as a ConnectionListener to the server will remove connections
+ *  from it automatically when they are closed:</p>
+ *  <pre>
+ *  ConnectionGroup room = new ConnectionGroup("lobby");
+ *  server.addConnectionListener(room);
+ *  ...
+ *  room.add(conn);
+ *  server.broadcast(room, message);
+ *  </pre>
+ *
+ *  <p>All methods are thread safe.  Membership changes copy the
+ *  member list so that broadcasts can walk it without locking, which
+ *  is the right trade off as long as members come and go much less
+ *  often than messages are sent.</p>
+ *
+ *  @version   $Revision$
+ */
+public class ConnectionGroup implements Filter<HostedConnection>, ConnectionListener
+{
+    private static final HostedConnection[] EMPTY = new HostedConnection[0];
+
+    private String name;
+    private Set<HostedConnection> members = ConcurrentHashMap.newKeySet();
+    private volatile List<HostedConnection> snapshot = Collections.emptyList();
+
+    public ConnectionGroup()
+    {
+        this(null);
+    }
+
+    public ConnectionGroup( String name )
+    {
+        this.name = name;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     *  Adds the connection to this group and returns true if it
+     *  wasn't a member already.
+     */
+    public boolean add( HostedConnection conn )
+    {
+        if( conn == null )
+            throw new IllegalArgumentException( "Connection cannot be null." );
+        if( !members.add(conn) )
+            return false;
+        updateSnapshot();
+        return true;
+    }
+
+    /**
+     *  Removes the connection from this group and returns true if it
+     *  was a member.
+     */
+    public boolean remove( HostedConnection conn )
+    {
+        if( !members.remove(conn) )
+            return false;
+        updateSnapshot();
+        return true;
+    }
+
+    public void clear()
+    {
+        members.clear();
+        updateSnapshot();
+    }
+
+    public boolean contains( HostedConnection conn )
+    {
+        return members.contains(conn);
+    }
+
+    public int size()
+    {
+        return members.size();
+    }
+
+    /**
+     *  Returns an unmodifiable snapshot of the current members.  Later
+     *  changes to the group are not reflected in the returned collection.
+     */
+    public Collection<HostedConnection> getConnections()
+    {
+        return snapshot;
+    }
+
+    private synchronized void updateSnapshot()
+    {
+        HostedConnection[] array = members.toArray(EMPTY);
+        snapshot = Collections.unmodifiableList(Arrays.asList(array));
+    }
+
+    @Override
+    public boolean apply( HostedConnection input )
+    {
+        return members.contains(input);
+    }
+
+    @Override
+    public void connectionAdded( Server server, HostedConnection conn )
+    {
+    }
+
+    @Override
+    public void connectionRemoved( Server server, HostedConnection conn )
+    {
+        remove(conn);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConnectionGroup[" + (name == null ? "" : name + ", ") + "size=" + size() + "]";
+    }
+}
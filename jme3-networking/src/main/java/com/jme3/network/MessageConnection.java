@@ -31,6 +31,7 @@
  */
 package com.jme3.network;
 
+import com.jme3.network.stats.ConnectionStats;
 
 /**
  *  The source of a received message and the common abstract interface
@@ -77,5 +78,15 @@ public interface MessageConnection
      *  the specified alternate channel.
      */   
     public void send( int channel, Message message );
+
+    /**
+     *  Returns the traffic counters and round trip time estimate
+     *  of this connection, or null if the implementation doesn't
+     *  keep any.
+     */
+    public default ConnectionStats getConnectionStats()
+    {
+        return null;
+    }
 }    
 
@@ -34,6 +34,7 @@ package com.jme3.network;
 import java.util.Collection;
 
 import com.jme3.network.service.HostedServiceManager;
+import com.jme3.network.stats.NetworkStats;
 
 /**
  *  Represents a host that can send and receive messages to
@@ -62,6 +63,15 @@ public interface Server
      */
     public HostedServiceManager getServices();     
 
+    /**
+     *  Returns the statistics of this server's channels and connections,
+     *  or null if the implementation doesn't keep any.
+     */
+    public default NetworkStats getNetworkStats()
+    {
+        return null;
+    }
+
     /**
      *  Sends the specified message to all connected clients.
      */ 
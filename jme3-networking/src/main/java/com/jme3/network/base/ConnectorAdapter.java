@@ -36,6 +36,9 @@ import com.jme3.network.Message;
 import com.jme3.network.MessageListener;
 import com.jme3.network.kernel.Connector;
 import com.jme3.network.kernel.ConnectorException;
+import com.jme3.network.stats.ChannelStats;
+import com.jme3.network.stats.ConnectionStats;
+import com.jme3.network.stats.LatencyHistogram;
 import java.nio.ByteBuffer;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -67,7 +70,7 @@ public class ConnectorAdapter extends Thread
     private AtomicBoolean go = new AtomicBoolean(true);
     private MessageProtocol protocol;
 
-    private BlockingQueue<ByteBuffer> outbound;
+    private BlockingQueue<Pending> outbound;
      
     // Writes messages out on a background thread
     private WriterThread writer;
@@ -75,6 +78,11 @@ public class ConnectorAdapter extends Thread
     // Marks the messages as reliable or not if they came
     // through this connector.
     private boolean reliable;
+    
+    // Optional statistics, set before the adapter is started
+    private ChannelStats channelStats;
+    private ConnectionStats connectionStats;
+    private LatencyHistogram decodeTime;
  
     public ConnectorAdapter( Connector connector, MessageProtocol protocol, 
                              MessageListener<Object> dispatcher, 
@@ -94,7 +102,7 @@ public class ConnectorAdapter extends Thread
         // raw throughput tests.  Technically, a saturated TCP channel could
         // back up quite a bit if the buffers are full and the socket has
         // stalled but 16,000 messages is still a big backlog.       
-        outbound = new ArrayBlockingQueue<ByteBuffer>(OUTBOUND_BACKLOG); 
+        outbound = new ArrayBlockingQueue<Pending>(OUTBOUND_BACKLOG); 
  
         // Note: this technically adds a potential deadlock case
         // with the above code where there wasn't one before.  For example,
@@ -116,6 +124,28 @@ public class ConnectorAdapter extends Thread
         writer.start();                                           
     }
  
+    /**
+     *  Sets the statistics that this adapter will update for the
+     *  messages it reads and writes.  Any of them can be null.  This
+     *  must be called before the adapter is started.
+     */
+    public void setStats( ChannelStats channelStats, ConnectionStats connectionStats,
+                          LatencyHistogram decodeTime )
+    {
+        this.channelStats = channelStats;
+        this.connectionStats = connectionStats;
+        this.decodeTime = decodeTime;
+    }
+ 
+    /**
+     *  Returns the number of buffers waiting to be written by
+     *  the writer thread.
+     */
+    public int getOutboundQueueDepth()
+    {
+        return outbound.size();
+    }
+ 
     public void close()
     {
         go.set(false);
@@ -138,7 +168,7 @@ public class ConnectorAdapter extends Thread
     public void write( ByteBuffer data )
     {
         try {
-            outbound.put( data );
+            outbound.put( new Pending(data) );
         } catch( InterruptedException e ) {
             throw new RuntimeException( "Interrupted while waiting for queue to drain", e );
         }
@@ -170,19 +200,54 @@ public class ConnectorAdapter extends Thread
                     }
                 }
                 
+                int size = buffer.remaining();
+                long start = System.nanoTime();
+                long decode = 0;
+                int count = 0;
                 messageBuffer.addBytes(buffer);
                 
                 Message m = null;
                 while( (m = messageBuffer.pollMessage()) != null ) {
+                    decode += System.nanoTime() - start;
+                    count++;
                     m.setReliable( reliable );
                     dispatch( m );
+                    start = System.nanoTime();
                 }
+                recordReceived( count, size, decode );
             }
         } catch( Exception e ) {
             handleError( e );
         }            
     }
  
+    private void recordReceived( int count, int size, long decode )
+    {
+        if( channelStats != null ) {
+            channelStats.addReceived(count, size);
+        }
+        if( connectionStats != null ) {
+            connectionStats.addReceived(count, size);
+        }
+        if( decodeTime != null && count > 0 ) {
+            decodeTime.record(decode / count, count);
+        }
+    }
+ 
+    /**
+     *  An outbound buffer and the time it was queued.
+     */
+    private static class Pending
+    {
+        final ByteBuffer data;
+        final long queued = System.nanoTime();
+        
+        public Pending( ByteBuffer data )
+        {
+            this.data = data;
+        }
+    }
+ 
     protected class WriterThread extends Thread
     {
         public WriterThread()
@@ -209,8 +274,11 @@ public class ConnectorAdapter extends Thread
         {
             while( go.get() ) {
                 try {           
-                    ByteBuffer data = outbound.take();
-                    write(data);                                       
+                    Pending next = outbound.take();
+                    if( channelStats != null && channelStats.getOutboundWait() != null ) {
+                        channelStats.getOutboundWait().record(System.nanoTime() - next.queued);
+                    }
+                    write(next.data);                                       
                 } catch( InterruptedException e ) {
                     if( !go.get() )
                         return;
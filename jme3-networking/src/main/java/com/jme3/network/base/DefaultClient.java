@@ -40,6 +40,9 @@ import com.jme3.network.message.ClientRegistrationMessage;
 import com.jme3.network.message.DisconnectMessage;
 import com.jme3.network.service.ClientServiceManager;
 import com.jme3.network.service.serializer.ClientSerializerRegistrationsService;
+import com.jme3.network.stats.ConnectionStats;
+import com.jme3.network.stats.LatencyHistogram;
+import com.jme3.network.stats.NetworkStats;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
@@ -85,11 +88,16 @@ public class DefaultClient implements Client
     
     private ClientServiceManager services;
     private MessageProtocol protocol = new SerializerMessageProtocol();
+    private final NetworkStats networkStats;
+    private final ConnectionStats connectionStats;
     
     public DefaultClient( String gameName, int version )
     {
         this.gameName = gameName;
         this.version = version;
+        this.networkStats = new NetworkStats("client " + gameName);
+        this.connectionStats = new ConnectionStats("connection");
+        networkStats.addConnection(connectionStats);
         this.services = new ClientServiceManager(this);
         addStandardServices();
     }
@@ -116,15 +124,33 @@ public class DefaultClient implements Client
             throw new IllegalStateException( "Channels already exist." );
             
         this.connectorFactory = connectorFactory;
-        channels.add(new ConnectorAdapter(reliable, protocol, dispatcher, dispatcher, true));
+        addChannelAdapter(new ConnectorAdapter(reliable, protocol, dispatcher, dispatcher, true));
         if( fast != null ) {
-            channels.add(new ConnectorAdapter(fast, protocol, dispatcher, dispatcher, false));
+            addChannelAdapter(new ConnectorAdapter(fast, protocol, dispatcher, dispatcher, false));
         } else {
             // Add the null adapter to keep the indexes right
-            channels.add(null);
+            addChannelAdapter(null);
         }
     }  
 
+    /**
+     *  Adds the adapter as the next channel, hooking it up to the
+     *  statistics.  Returns the channel index.
+     */
+    private int addChannelAdapter( final ConnectorAdapter ca )
+    {
+        int ch = channels.size();
+        if( ca == null ) {
+            networkStats.addChannel(null);
+        } else {
+            ca.setStats(networkStats.addChannel(new LatencyHistogram()), connectionStats,
+                        networkStats.getDecodeTime());
+            networkStats.addGauge("outboundQueueDepth." + ch, ca::getOutboundQueueDepth);
+        }
+        channels.add(ca);
+        return ch;
+    }
+
     protected void checkRunning()
     {
         if( !isRunning )
@@ -264,6 +290,18 @@ public class DefaultClient implements Client
         send(channel + CH_FIRST, message, true);
     }
     
+    @Override
+    public NetworkStats getNetworkStats()
+    {
+        return networkStats;
+    }
+ 
+    @Override
+    public ConnectionStats getConnectionStats()
+    {
+        return connectionStats;
+    }
+ 
     protected void send( int channel, Message message, boolean waitForConnected )
     {
         checkRunning();
@@ -281,7 +319,9 @@ public class DefaultClient implements Client
         buffer.clear();        
  
         // Convert the message to bytes
+        long start = System.nanoTime();
         buffer = protocol.toByteBuffer(message, buffer);
+        networkStats.getEncodeTime().record(System.nanoTime() - start);
                 
         // Since we share the buffer between invocations, we will need to 
         // copy this message's part out of it.  This is because we actually
@@ -291,6 +331,9 @@ public class DefaultClient implements Client
         buffer = ByteBuffer.wrap(temp);
         
         channels.get(channel).write(buffer);
+        
+        connectionStats.addSent(1, temp.length);
+        networkStats.getChannel(channel).addSent(1, temp.length);
     }
  
     @Override
@@ -435,8 +478,7 @@ public class DefaultClient implements Client
             for( int i = 0; i < ports.length; i++ ) {
                 Connector c = connectorFactory.createConnector( i, ports[i] );
                 ConnectorAdapter ca = new ConnectorAdapter(c, protocol, dispatcher, dispatcher, true);
-                int ch = channels.size(); 
-                channels.add( ca );
+                int ch = addChannelAdapter( ca );
                 
                 // Need to send the connection its hook-up registration
                 // and start it.
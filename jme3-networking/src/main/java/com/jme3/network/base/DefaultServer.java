@@ -33,6 +33,7 @@ package com.jme3.network.base;
 
 import com.jme3.network.*;
 import com.jme3.network.base.protocol.SerializerMessageProtocol;
+import com.jme3.network.kernel.AbstractKernel;
 import com.jme3.network.kernel.Endpoint;
 import com.jme3.network.kernel.Kernel;
 import com.jme3.network.message.ChannelInfoMessage;
@@ -40,11 +41,15 @@ import com.jme3.network.message.ClientRegistrationMessage;
 import com.jme3.network.message.DisconnectMessage;
 import com.jme3.network.service.HostedServiceManager;
 import com.jme3.network.service.serializer.ServerSerializerRegistrationsService;
+import com.jme3.network.stats.ConnectionStats;
+import com.jme3.network.stats.LatencyHistogram;
+import com.jme3.network.stats.NetworkStats;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -70,7 +75,7 @@ public class DefaultServer implements Server
     private final AtomicInteger nextId = new AtomicInteger(0);
     private String gameName;
     private int version;
-    private final KernelFactory kernelFactory = KernelFactory.DEFAULT;
+    private KernelFactory kernelFactory = KernelFactory.DEFAULT;
     private KernelAdapter reliableAdapter;
     private KernelAdapter fastAdapter;
     private final List<KernelAdapter> channels = new ArrayList<>();
@@ -90,6 +95,8 @@ public class DefaultServer implements Server
     
     private HostedServiceManager services;
     private MessageProtocol protocol = new SerializerMessageProtocol();
+    private StripedExecutor dispatchExecutor;
+    private final NetworkStats networkStats;
     
     public DefaultServer( String gameName, int version, Kernel reliable, Kernel fast )
     {
@@ -98,17 +105,29 @@ public class DefaultServer implements Server
             
         this.gameName = gameName;
         this.version = version;
+        this.networkStats = new NetworkStats("server " + gameName);
         this.services = new HostedServiceManager(this);        
         addStandardServices();
         
         reliableAdapter = new KernelAdapter(this, reliable, protocol, dispatcher, true);
-        channels.add( reliableAdapter );
+        addChannelAdapter( reliableAdapter );
         if( fast != null ) {
             fastAdapter = new KernelAdapter(this, fast, protocol, dispatcher, false);
-            channels.add( fastAdapter );
+            addChannelAdapter( fastAdapter );
         }
     }   
 
+    private void addChannelAdapter( KernelAdapter ka )
+    {
+        Kernel kernel = ka.getKernel();
+        LatencyHistogram wait = null;
+        if( kernel instanceof AbstractKernel ) {
+            wait = ((AbstractKernel)kernel).getOutboundWait();
+        }
+        ka.setChannelStats( networkStats.addChannel(wait) );
+        channels.add( ka );
+    }
+
     protected void addStandardServices() {
         log.fine("Adding standard services...");
         services.addService(new ServerSerializerRegistrationsService());
@@ -132,6 +151,34 @@ public class DefaultServer implements Server
         return services;
     }
 
+    @Override
+    public NetworkStats getNetworkStats()
+    {
+        return networkStats;
+    }
+
+    /**
+     *  Sets the factory that creates the kernels of the channels
+     *  added with addChannel().  Defaults to KernelFactory.DEFAULT,
+     *  which creates TCP kernels.  For example, RudpKernelFactory
+     *  creates reliable UDP kernels, to be used with a client's
+     *  RudpConnectorFactory.  This must be set before channels are 
+     *  added.
+     */
+    public void setKernelFactory( KernelFactory kernelFactory )
+    {
+        if( isRunning )
+            throw new IllegalStateException( "Kernel factory cannot be set once server is started." );
+        if( kernelFactory == null )
+            throw new IllegalArgumentException( "Kernel factory cannot be null." );
+        this.kernelFactory = kernelFactory;
+    }
+
+    public KernelFactory getKernelFactory()
+    {
+        return kernelFactory;
+    }
+
     @Override
     public int addChannel( int port )
     {
@@ -155,7 +202,7 @@ public class DefaultServer implements Server
             alternatePorts.add(port);
             
             Kernel kernel = kernelFactory.createKernel(result, port); 
-            channels.add( new KernelAdapter(this, kernel, protocol, dispatcher, true) );
+            addChannelAdapter( new KernelAdapter(this, kernel, protocol, dispatcher, true) );
             
             return result;
         } catch( IOException e ) {
@@ -163,6 +210,33 @@ public class DefaultServer implements Server
         } 
     } 
 
+    /**
+     *  Sets the executor on which all channels decode and dispatch
+     *  their incoming messages, or null to do it on one thread per
+     *  channel, which is the default.  Each connection's messages are
+     *  still delivered in order.  This must be set before the server
+     *  is started, and the server shuts the executor down when it is
+     *  closed.  For example:
+     *  <pre>
+     *  server.setDispatchExecutor(StripedExecutor.createThreadPool(4, "dispatch"));
+     *  </pre>
+     */
+    public void setDispatchExecutor( StripedExecutor dispatchExecutor )
+    {
+        if( isRunning )
+            throw new IllegalStateException( "Dispatch executor cannot be changed once server is started." );
+        this.dispatchExecutor = dispatchExecutor;
+    }
+    
+    /**
+     *  Returns the executor set with setDispatchExecutor(), which
+     *  provides the queue depth of the messages waiting to be dispatched.
+     */
+    public StripedExecutor getDispatchExecutor()
+    {
+        return dispatchExecutor;
+    }
+
     protected void checkChannel( int channel )
     {
         if( channel < MessageConnection.CHANNEL_DEFAULT_RELIABLE 
@@ -179,8 +253,12 @@ public class DefaultServer implements Server
             
         // Initialize the kernels
         for( KernelAdapter ka : channels ) {
+            ka.setDispatchExecutor(dispatchExecutor);
             ka.initialize();
         }
+        if( dispatchExecutor != null ) {
+            networkStats.addGauge("dispatchQueueDepth", dispatchExecutor::getQueueDepth);
+        }
  
         // Start em up
         for( KernelAdapter ka : channels ) {
@@ -215,6 +293,16 @@ public class DefaultServer implements Server
                 ka.close();
             }
             
+            // Nothing new can be queued now that the adapters are done.
+            // Let the messages already queued reach the services before
+            // they are terminated.
+            if( dispatchExecutor != null ) {
+                dispatchExecutor.shutdown();
+                if( !dispatchExecutor.awaitTermination(1, TimeUnit.SECONDS) ) {
+                    log.log( Level.WARNING, "Dispatch executor did not finish in time:{0}", dispatchExecutor );
+                }
+            }
+            
             isRunning = false;
             
             // Now terminate all of the services.
@@ -240,17 +328,8 @@ public class DefaultServer implements Server
         if( connections.isEmpty() )
             return;
  
-        ByteBuffer buffer = protocol.toByteBuffer(message, null);
- 
-        FilterAdapter adapter = filter == null ? null : new FilterAdapter(filter);
-               
-        if( message.isReliable() || fastAdapter == null ) {
-            // Don't need to copy the data because message protocol is already
-            // giving us a fresh buffer
-            reliableAdapter.broadcast( adapter, buffer, true, false );
-        } else {
-            fastAdapter.broadcast( adapter, buffer, false, false );
-        }               
+        KernelAdapter ka = message.isReliable() || fastAdapter == null ? reliableAdapter : fastAdapter;
+        broadcast( ka, ka == reliableAdapter ? CH_RELIABLE : CH_UNRELIABLE, filter, message );
     }
 
     @Override
@@ -265,11 +344,95 @@ public class DefaultServer implements Server
 
         checkChannel(channel);
         
-        ByteBuffer buffer = protocol.toByteBuffer(message, null);
+        broadcast( channels.get(channel+CH_FIRST), channel+CH_FIRST, filter, message );
+    }
+
+    /**
+     *  Serializes the message once and lets the kernel copy it into
+     *  a buffer of the right size, which it shares between all of the
+     *  target endpoints.  ConnectionGroups are sent to their members
+     *  directly.
+     */
+    protected void broadcast( KernelAdapter ka, int channel, Filter<? super HostedConnection> filter,
+                              Message message )
+    {
+        boolean reliable = ka != fastAdapter;
+        if( filter instanceof ConnectionGroup ) {
+            List<Endpoint> targets = getEndpoints((ConnectionGroup)filter, channel);
+            if( targets.isEmpty() )
+                return;
+            ByteBuffer buffer = encode(message);
+            int size = buffer.remaining();
+            ka.broadcastTo( targets, buffer, reliable, true );
+            protocol.releaseBuffer(buffer);
+            
+            ka.getChannelStats().addSent(targets.size(), (long)size * targets.size());
+            for( Endpoint p : targets ) {
+                recordSent(getConnection(p), size);
+            } 
+            return;
+        }
+ 
+        ByteBuffer buffer = encode(message);
+        int size = buffer.remaining();
  
-        FilterAdapter adapter = filter == null ? null : new FilterAdapter(filter);
+        FilterAdapter adapter = filter == null ? null : new FilterAdapter(filter, size);
+ 
+        // The protocol's buffer is large enough for any message, so rather
+        // than keeping it queued until the slowest endpoint has written it,
+        // the kernel copies the message once and we give it right back.
+        ka.broadcast( adapter, buffer, reliable, true );
+        protocol.releaseBuffer(buffer);
+        
+        if( adapter == null ) {
+            // Close enough... the kernel sent it to all of its endpoints 
+            for( HostedConnection conn : connections.values() ) {
+                recordSent(conn, size);
+            }
+            ka.getChannelStats().addSent(connections.size(), (long)size * connections.size());
+        } else {
+            ka.getChannelStats().addSent(adapter.accepted, (long)size * adapter.accepted);
+        }
+    }
 
-        channels.get(channel+CH_FIRST).broadcast( adapter, buffer, true, false );               
+    /**
+     *  Serializes the message into a buffer from the protocol, 
+     *  recording the time it took.
+     */
+    protected ByteBuffer encode( Message message )
+    {
+        long start = System.nanoTime();
+        ByteBuffer result = protocol.toByteBuffer(message, null);
+        networkStats.getEncodeTime().record(System.nanoTime() - start);
+        return result;
+    }
+    
+    private static void recordSent( HostedConnection conn, int size )
+    {
+        ConnectionStats stats = conn == null ? null : conn.getConnectionStats();
+        if( stats != null )
+            stats.addSent(1, size);
+    }
+
+    /**
+     *  Returns the endpoints of the specified channel for the
+     *  connections in the group that belong to this server.
+     */
+    protected List<Endpoint> getEndpoints( ConnectionGroup group, int channel )
+    {
+        Collection<HostedConnection> members = group.getConnections();
+        List<Endpoint> result = new ArrayList<>(members.size());
+        for( HostedConnection conn : members ) {
+            if( !(conn instanceof Connection) || conn.getServer() != this )
+                continue;
+            Connection c = (Connection)conn;
+            if( c.closed )
+                continue;
+            Endpoint p = c.channels[channel];
+            if( p != null )
+                result.add(p);
+        }
+        return result;
     }
 
     @Override
@@ -417,6 +580,8 @@ public class DefaultServer implements Server
                 // Then we are fully connected
                 if( connections.put( c.getId(), c ) == null ) {
                 
+                    networkStats.addConnection( c.connectionStats );
+                
                     for( Endpoint cp : c.channels ) {
                         if( cp == null )
                             continue;
@@ -524,11 +689,13 @@ public class DefaultServer implements Server
         private int setChannelCount = 0; 
        
         private final Map<String,Object> sessionData = new ConcurrentHashMap<>();       
+        private final ConnectionStats connectionStats;
         
         public Connection( int channelCount )
         {
             id = nextId.getAndIncrement();
             channels = new Endpoint[channelCount];
+            connectionStats = new ConnectionStats("connection " + id);
         }
         
         boolean hasEndpoint( Endpoint p )
@@ -574,6 +741,12 @@ public class DefaultServer implements Server
         {            
             return channels[CH_RELIABLE] == null ? null : channels[CH_RELIABLE].getAddress();
         }
+ 
+        @Override
+        public ConnectionStats getConnectionStats()
+        {
+            return connectionStats;
+        }
        
         @Override
         public void send( Message message )
@@ -581,13 +754,21 @@ public class DefaultServer implements Server
             if( log.isLoggable(Level.FINER) ) {
                 log.log(Level.FINER, "send({0})", message);
             }
-            ByteBuffer buffer = protocol.toByteBuffer(message, null);
             if( message.isReliable() || channels[CH_UNRELIABLE] == null ) {
-                channels[CH_RELIABLE].send( buffer );
+                send( CH_RELIABLE, encode(message) );
             } else {
-                channels[CH_UNRELIABLE].send( buffer );
+                send( CH_UNRELIABLE, encode(message) );
             }
         }
+        
+        private void send( int channel, ByteBuffer buffer )
+        {
+            int size = buffer.remaining();
+            channels[channel].send( buffer );
+            protocol.releaseBuffer(buffer);
+            connectionStats.addSent(1, size);
+            networkStats.getChannel(channel).addSent(1, size);
+        }
 
         @Override
         public void send( int channel, Message message )
@@ -596,8 +777,7 @@ public class DefaultServer implements Server
                 log.log(Level.FINER, "send({0}, {1})", new Object[]{channel, message});
             }
             checkChannel(channel);
-            ByteBuffer buffer = protocol.toByteBuffer(message, null);
-            channels[channel+CH_FIRST].send(buffer);
+            send( channel+CH_FIRST, encode(message) );
         }
  
         protected void closeConnection()
@@ -605,6 +785,7 @@ public class DefaultServer implements Server
             if( closed ) 
                 return;
             closed = true;
+            networkStats.removeConnection( connectionStats );
             
             // Make sure all endpoints are closed.  Note: reliable
             // should always already be closed through all paths that I
@@ -680,10 +861,22 @@ public class DefaultServer implements Server
     protected class FilterAdapter implements Filter<Endpoint>
     {
         private final Filter<? super HostedConnection> delegate;
+        private final int size;
+        private int accepted;
         
         public FilterAdapter( Filter<? super HostedConnection> delegate )
+        {
+            this(delegate, 0);
+        }
+        
+        /**
+         *  Creates a filter that also counts the message of the specified
+         *  size as sent to each connection it accepts.
+         */
+        public FilterAdapter( Filter<? super HostedConnection> delegate, int size )
         {
             this.delegate = delegate;
+            this.size = size;
         }
         
         @Override
@@ -692,7 +885,13 @@ public class DefaultServer implements Server
             HostedConnection conn = getConnection( input );
             if( conn == null )
                 return false;
-            return delegate.apply(conn);
+            if( !delegate.apply(conn) )
+                return false;
+            if( size > 0 ) {
+                recordSent(conn, size);
+                accepted++;
+            }
+            return true;
         } 
     }     
 }
@@ -40,7 +40,10 @@ import com.jme3.network.kernel.EndpointEvent;
 import com.jme3.network.kernel.Envelope;
 import com.jme3.network.kernel.Kernel;
 import com.jme3.network.message.ClientRegistrationMessage;
+import com.jme3.network.stats.ChannelStats;
+import com.jme3.network.stats.ConnectionStats;
 import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -59,6 +62,13 @@ import java.util.logging.Logger;
  *  objects to 32676 bytes... even though, for example,
  *  datagram packets can hold twice that. :P</p>  
  *
+ *  <p>By default, messages are decoded and dispatched on the
+ *  adapter's own thread.  When a dispatch executor is set, the
+ *  adapter thread only reads from the kernel and the envelopes
+ *  are decoded and dispatched on the executor, striped by endpoint
+ *  so that each connection's messages are still delivered one at
+ *  a time and in order.</p>
+ *
  *  @version   $Revision$
  *  @author    Paul Speed
  */
@@ -81,6 +91,13 @@ public class KernelAdapter extends Thread
     // through this connector.
     private boolean reliable;
     
+    // Decodes and dispatches envelopes when set, else it's done
+    // on this thread
+    private StripedExecutor dispatchExecutor;
+    
+    // Counts the inbound traffic of this adapter's channel, if set
+    private ChannelStats channelStats;
+    
     public KernelAdapter( DefaultServer server, Kernel kernel, MessageProtocol protocol, MessageListener<HostedConnection> messageDispatcher,
                           boolean reliable )
     {
@@ -98,6 +115,38 @@ public class KernelAdapter extends Thread
         return kernel;
     }
 
+    /**
+     *  Sets the executor on which envelopes and connection events
+     *  are processed, or null to process them on this adapter's thread.
+     *  This must be set before the adapter is started.  The adapter does
+     *  not shut the executor down.
+     */
+    public void setDispatchExecutor( StripedExecutor dispatchExecutor )
+    {
+        if( isAlive() )
+            throw new IllegalStateException( "Dispatch executor cannot be changed once started." );
+        this.dispatchExecutor = dispatchExecutor;
+    }
+    
+    public StripedExecutor getDispatchExecutor()
+    {
+        return dispatchExecutor;
+    }
+
+    /**
+     *  Sets the stats that count the messages and bytes received
+     *  through this adapter.
+     */
+    public void setChannelStats( ChannelStats channelStats )
+    {
+        this.channelStats = channelStats;
+    }
+    
+    public ChannelStats getChannelStats()
+    {
+        return channelStats;
+    }
+
     public void initialize()
     {
         kernel.initialize();
@@ -109,6 +158,12 @@ public class KernelAdapter extends Thread
         kernel.broadcast( filter, data, reliable, copy );
     }                           
  
+    public void broadcastTo( Collection<? extends Endpoint> endpoints, ByteBuffer data, boolean reliable,
+                             boolean copy )
+    {
+        kernel.broadcastTo( endpoints, data, reliable, copy );
+    }                           
+ 
     public void close() throws InterruptedException
     {
         go.set(false);
@@ -165,7 +220,9 @@ public class KernelAdapter extends Thread
      *
      *  <p>And that's why this note is here.  DefaultServer does a rudimentary
      *  per-connection locking but it couldn't possibly guard against
-     *  out of order Envelope processing.</p>    
+     *  out of order Envelope processing.  The dispatch executor keeps
+     *  all Envelopes and events of an endpoint on one stripe for this
+     *  reason.</p>    
      */
     protected void dispatch( Endpoint p, Message m )
     {
@@ -220,6 +277,7 @@ public class KernelAdapter extends Thread
         byte[] data = env.getData();
         ByteBuffer buffer = ByteBuffer.wrap(data);
 
+        long start = System.nanoTime();
         if( !protocol.addBytes(buffer) ) {
             // This can happen if there was only a partial message
             // received.  However, this should never happen for unreliable
@@ -237,12 +295,38 @@ public class KernelAdapter extends Thread
         }            
         
         // Should be complete... and maybe we should check, but we don't.
+        // The time spent in the listeners doesn't count as decoding.
+        long decodeTime = 0;
+        int count = 0;
         Message m = null;
         while( (m = protocol.pollMessage()) != null ) {
+            decodeTime += System.nanoTime() - start;
+            count++;
             m.setReliable(reliable);
             dispatch(env.getSource(), m);
+            start = System.nanoTime();
         }
+        decodeTime += System.nanoTime() - start;
+        
+        recordReceived(env.getSource(), count, data.length, decodeTime);
     } 
+    
+    protected void recordReceived( Endpoint p, int messages, int bytes, long decodeTime )
+    {
+        if( channelStats == null )
+            return;
+        channelStats.addReceived(messages, bytes);
+        if( messages > 0 ) {
+            // The messages of an envelope are decoded together so
+            // they each get the average
+            server.getNetworkStats().getDecodeTime().record(decodeTime / messages, messages);
+        }
+        
+        HostedConnection source = getConnection(p);
+        ConnectionStats stats = source == null ? null : source.getConnectionStats();
+        if( stats != null )
+            stats.addReceived(messages, bytes);
+    }
 
     protected void createAndDispatch( EndpointEvent event )
     {
@@ -256,6 +340,12 @@ public class KernelAdapter extends Thread
     {
         EndpointEvent event;
         while( (event = kernel.nextEvent()) != null ) {
+            if( dispatchExecutor != null ) {
+                // Keep the event in order with the endpoint's envelopes
+                // so that a close is processed after its last messages
+                dispatchExecutor.execute( event.getEndpoint(), new EventTask(event) );
+                continue;
+            }
             try {
                 createAndDispatch( event );
             } catch( Exception e ) {
@@ -283,6 +373,11 @@ public class KernelAdapter extends Thread
                 // when the connection add events come through
                 flushEvents();
             
+                if( dispatchExecutor != null ) {
+                    dispatchExecutor.execute( e.getSource(), new EnvelopeTask(e) );
+                    continue;
+                }
+                
                 try {
                     createAndDispatch( e );
                 } catch( Exception ex ) {
@@ -296,6 +391,58 @@ public class KernelAdapter extends Thread
             }
         }
     }
+    
+    private class EnvelopeTask implements Runnable
+    {
+        private final Envelope env;
+        
+        public EnvelopeTask( Envelope env )
+        {
+            this.env = env;
+        }
+        
+        @Override
+        public void run()
+        {
+            try {
+                createAndDispatch( env );
+            } catch( Exception ex ) {
+                reportError(env.getSource(), env, ex);        
+            }
+        }
+        
+        @Override
+        public String toString()
+        {
+            return "EnvelopeTask[" + env + "]";
+        }
+    }
+    
+    private class EventTask implements Runnable
+    {
+        private final EndpointEvent event;
+        
+        public EventTask( EndpointEvent event )
+        {
+            this.event = event;
+        }
+        
+        @Override
+        public void run()
+        {
+            try {
+                createAndDispatch( event );
+            } catch( Exception e ) {
+                reportError(event.getEndpoint(), event, e);        
+            }
+        }
+        
+        @Override
+        public String toString()
+        {
+            return "EventTask[" + event + "]";
+        }
+    }
         
 }
 
@@ -51,6 +51,15 @@ public interface MessageProtocol {
     public ByteBuffer toByteBuffer( Message message, ByteBuffer target );
     public Message toMessage( ByteBuffer bytes );
     public MessageBuffer createBuffer();
+
+    /**
+     *  Called when the caller is done with a buffer returned by
+     *  toByteBuffer() for a null target, so that implementations that
+     *  pool their buffers can reuse it.  The default implementation
+     *  does nothing.
+     */
+    public default void releaseBuffer( ByteBuffer buffer ) {
+    }
 }
 
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import com.jme3.network.kernel.Connector;
+import com.jme3.network.kernel.rudp.LossSimulator;
+import com.jme3.network.kernel.rudp.RudpConnector;
+import java.io.IOException;
+import java.net.InetAddress;
+
+
+/**
+ *  Creates reliable UDP connectors to a specific remote address,
+ *  optionally sharing a LossSimulator for testing.
+ *
+ *  @version   $Revision$
+ */
+public class RudpConnectorFactory implements ConnectorFactory
+{
+    private InetAddress remoteAddress;
+    private LossSimulator lossSimulator;
+
+    public RudpConnectorFactory( InetAddress remoteAddress )
+    {
+        this( remoteAddress, null );
+    }
+
+    public RudpConnectorFactory( InetAddress remoteAddress, LossSimulator lossSimulator )
+    {
+        this.remoteAddress = remoteAddress;
+        this.lossSimulator = lossSimulator;
+    }
+
+    @Override
+    public Connector createConnector( int channel, int port ) throws IOException
+    {
+        RudpConnector connector = new RudpConnector( remoteAddress, port );
+        connector.setLossSimulator(lossSimulator);
+        return connector;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import com.jme3.network.kernel.NamedThreadFactory;
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *  Runs tasks on a shared executor while keeping the tasks
+ *  submitted for the same key in order.  Keys are hashed to a
+ *  fixed number of stripes and each stripe runs its tasks one at
+ *  a time, so tasks for different keys usually run in parallel
+ *  but tasks for the same key never do.
+ *
+ *  <p>Used by the KernelAdapter to decode and dispatch the messages
+ *  of many connections on several threads while still delivering
+ *  the messages of each connection in the order they were received.</p>
+ *
+ *  @version   $Revision$
+ */
+public class StripedExecutor
+{
+    private static final Logger log = Logger.getLogger(StripedExecutor.class.getName());
+
+    // The most tasks a stripe runs before giving its thread
+    // back to the other stripes
+    private static final int MAX_RUN = 64;
+
+    private final Executor executor;
+    private final Stripe[] stripes;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+
+    /**
+     *  Creates a striped executor that runs its stripes on the 
+     *  specified executor.  If the executor is an ExecutorService
+     *  then it is shut down with this one, once the queued tasks
+     *  have run.
+     */
+    public StripedExecutor( int stripeCount, Executor executor )
+    {
+        if( stripeCount < 1 )
+            throw new IllegalArgumentException( "Stripe count must be at least 1:" + stripeCount );
+        this.executor = executor;
+        this.stripes = new Stripe[stripeCount];
+        for( int i = 0; i < stripeCount; i++ ) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     *  Creates a striped executor with a pool of the specified number
+     *  of daemon threads and four stripes per thread.
+     */
+    public static StripedExecutor createThreadPool( int threads, String name )
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new NamedThreadFactory(name, true));
+        return new StripedExecutor(threads * 4, pool);
+    }
+
+    /**
+     *  Creates a striped executor that runs each stripe on a virtual
+     *  thread, so that listeners that block do not hold up a platform
+     *  thread.  On JDKs without virtual threads this falls back to
+     *  a pool with one platform thread per available processor.
+     */
+    public static StripedExecutor createVirtual( int stripeCount, String name )
+    {
+        ExecutorService virtual = createVirtualExecutor();
+        if( virtual == null ) {
+            log.log(Level.INFO, "Virtual threads are not supported, using a thread pool for:{0}", name);
+            int threads = Runtime.getRuntime().availableProcessors();
+            return new StripedExecutor(stripeCount, 
+                                       Executors.newFixedThreadPool(threads, new NamedThreadFactory(name, true)));
+        }
+        return new StripedExecutor(stripeCount, virtual);
+    }
+
+    /**
+     *  Returns true if the running JDK supports virtual threads.
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch( NoSuchMethodException e ) {
+            return false;
+        }
+    }
+
+    private static ExecutorService createVirtualExecutor()
+    {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)m.invoke(null);
+        } catch( NoSuchMethodException e ) {
+            return null;
+        } catch( ReflectiveOperationException e ) {
+            log.log(Level.WARNING, "Error creating virtual thread executor", e);
+            return null;
+        }
+    }
+
+    public int getStripeCount()
+    {
+        return stripes.length;
+    }
+
+    /**
+     *  Queues the task on the stripe of the specified key.
+     */
+    public void execute( Object key, Runnable task )
+    {
+        // Counted before checking the flag so that shutdown() either 
+        // sees this task or we see the flag
+        int depth = queueDepth.incrementAndGet();
+        if( shutdown.get() ) {
+            taskDone();
+            throw new RejectedExecutionException( "Executor has been shut down" );
+        }
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        Stripe stripe = stripes[(h & 0x7fffffff) % stripes.length];
+        
+        int max;
+        while( depth > (max = maxQueueDepth.get()) ) {
+            if( maxQueueDepth.compareAndSet(max, depth) ) {
+                break;
+            }
+        }
+        stripe.add(task);
+    }
+
+    /**
+     *  Returns the number of tasks waiting or running in all stripes.
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth.get();
+    }
+
+    /**
+     *  Returns the highest queue depth since creation or since the 
+     *  last call to resetMaxQueueDepth().
+     */
+    public int getMaxQueueDepth()
+    {
+        return maxQueueDepth.get();
+    }
+
+    public void resetMaxQueueDepth()
+    {
+        maxQueueDepth.set(queueDepth.get());
+    }
+
+    /**
+     *  Returns the number of tasks waiting or running in the 
+     *  specified stripe.  
+     */
+    public int getStripeQueueDepth( int stripe )
+    {
+        return stripes[stripe].depth.get();
+    }
+
+    /**
+     *  Returns the number of tasks that have finished running.
+     */
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+
+    /**
+     *  Stops accepting tasks.  The tasks that are already queued still
+     *  run, and then the underlying executor is shut down if it is an
+     *  ExecutorService.
+     */
+    public void shutdown()
+    {
+        if( !shutdown.compareAndSet(false, true) ) {
+            return;
+        }
+        if( queueDepth.get() == 0 ) {
+            terminate();
+        }
+    }
+
+    private void taskDone()
+    {
+        if( queueDepth.decrementAndGet() == 0 && shutdown.get() ) {
+            terminate();
+        }
+    }
+
+    private void terminate()
+    {
+        if( !terminated.compareAndSet(false, true) ) {
+            return;
+        }
+        if( executor instanceof ExecutorService ) {
+            ((ExecutorService)executor).shutdown();
+        }
+    }
+
+    public boolean isShutdown()
+    {
+        return shutdown.get();
+    }
+
+    /**
+     *  Waits up to the specified time for the queued tasks to finish
+     *  after shutdown() and returns true if they did.  If the underlying
+     *  executor is an ExecutorService then this also waits for it to 
+     *  terminate.
+     */
+    public boolean awaitTermination( long timeout, TimeUnit unit ) throws InterruptedException
+    {
+        long end = System.nanoTime() + unit.toNanos(timeout);
+        while( queueDepth.get() > 0 ) {
+            if( System.nanoTime() - end >= 0 ) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        if( executor instanceof ExecutorService ) {
+            return ((ExecutorService)executor).awaitTermination(Math.max(0, end - System.nanoTime()), 
+                                                                 TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StripedExecutor[stripes=" + stripes.length + ", queueDepth=" + queueDepth.get() 
+                + ", maxQueueDepth=" + maxQueueDepth.get() + ", completed=" + completed.get() + "]";
+    }
+
+    private class Stripe implements Runnable
+    {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicInteger depth = new AtomicInteger();
+
+        public void add( Runnable task )
+        {
+            depth.incrementAndGet();
+            queue.add(task);
+            if( scheduled.compareAndSet(false, true) ) {
+                schedule();
+            }
+        }
+
+        private void schedule()
+        {
+            try {
+                executor.execute(this);
+            } catch( RejectedExecutionException e ) {
+                // We only shut the executor down once every stripe is
+                // empty, so someone else must have shut it down
+                scheduled.set(false);
+                int dropped = 0;
+                while( queue.poll() != null ) {
+                    dropped++;
+                }
+                depth.addAndGet(-dropped);
+                for( int i = 0; i < dropped; i++ ) {
+                    taskDone();
+                }
+                log.log(Level.WARNING, "Dropped {0} tasks, executor was shut down", dropped);
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            for( int i = 0; i < MAX_RUN; i++ ) {
+                Runnable task = queue.poll();
+                if( task == null ) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch( RuntimeException e ) {
+                    log.log(Level.SEVERE, "Unhandled error running task:" + task, e);
+                } catch( Error e ) {
+                    // Let the rest of the stripe run elsewhere before 
+                    // the error takes down this thread
+                    release();
+                    throw e;
+                } finally {
+                    depth.decrementAndGet();
+                    completed.incrementAndGet();
+                    taskDone();
+                }
+            }
+
+            if( !queue.isEmpty() ) {
+                // Give the other stripes a turn
+                schedule();
+                return;
+            }
+            release();
+        }
+
+        private void release()
+        {
+            scheduled.set(false);
+
+            // A task may have been added after we found the queue empty
+            // but before we cleared the flag
+            if( !queue.isEmpty() && scheduled.compareAndSet(false, true) ) {
+                schedule();
+            }
+        }
+    }
+}
@@ -33,11 +33,12 @@
 package com.jme3.network.base.protocol;
 
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 
 import com.jme3.network.Message;
 import com.jme3.network.base.MessageBuffer;
 import com.jme3.network.base.MessageProtocol;
+import com.jme3.network.kernel.BufferPool;
 
 
 /**
@@ -55,13 +56,23 @@ import com.jme3.network.base.MessageProtocol;
 public class GreedyMessageBuffer implements MessageBuffer {
 
     private MessageProtocol protocol;
-    private final LinkedList<Message> messages = new LinkedList<>();
+    private BufferPool pool;
+    private final ArrayDeque<Message> messages = new ArrayDeque<>();
     private ByteBuffer current;
     private int size;
     private Byte carry;
     
     public GreedyMessageBuffer( MessageProtocol protocol ) {
+        this(protocol, BufferPool.getDefault());
+    }
+    
+    /**
+     *  Creates a message buffer that accumulates the partial messages
+     *  in buffers from the specified pool.
+     */
+    public GreedyMessageBuffer( MessageProtocol protocol, BufferPool pool ) {
         this.protocol = protocol;
+        this.pool = pool;
     }
     
     /**
@@ -124,7 +135,7 @@ public class GreedyMessageBuffer implements MessageBuffer {
  
                 // Allocate the buffer into which we'll feed the
                 // data as we get it               
-                current = ByteBuffer.allocate(size);
+                current = pool.acquire(size);
             } 
 
             if( current.remaining() <= buffer.remaining() ) {
@@ -143,9 +154,12 @@ public class GreedyMessageBuffer implements MessageBuffer {
                 // Now set the limit back to a good value
                 buffer.limit(buffer.position() + extra);
  
-                messages.add(protocol.toMessage(current));
- 
-                current = null;                    
+                try {
+                    messages.add(protocol.toMessage(current));
+                } finally {
+                    pool.release(current);
+                    current = null;
+                }                    
             } else {                
                 // Not yet a complete object so just copy what we have
                 current.put(buffer); 
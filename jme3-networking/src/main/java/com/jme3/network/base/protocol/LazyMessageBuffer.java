@@ -33,11 +33,12 @@
 package com.jme3.network.base.protocol;
 
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 
 import com.jme3.network.Message;
 import com.jme3.network.base.MessageBuffer;
 import com.jme3.network.base.MessageProtocol;
+import com.jme3.network.kernel.BufferPool;
 
 
 /**
@@ -52,13 +53,23 @@ import com.jme3.network.base.MessageProtocol;
 public class LazyMessageBuffer implements MessageBuffer {
 
     private MessageProtocol protocol;
-    private final LinkedList<ByteBuffer> messages = new LinkedList<>();
+    private BufferPool pool;
+    private final ArrayDeque<ByteBuffer> messages = new ArrayDeque<>();
     private ByteBuffer current;
     private int size;
     private Byte carry;
     
     public LazyMessageBuffer( MessageProtocol protocol ) {
+        this(protocol, BufferPool.getDefault());
+    }
+    
+    /**
+     *  Creates a message buffer that accumulates the partial messages
+     *  in buffers from the specified pool.
+     */
+    public LazyMessageBuffer( MessageProtocol protocol, BufferPool pool ) {
         this.protocol = protocol;
+        this.pool = pool;
     }
     
     /**
@@ -71,7 +82,11 @@ public class LazyMessageBuffer implements MessageBuffer {
             return null;
         }
         ByteBuffer bytes = messages.removeFirst();
-        return protocol.toMessage(bytes);                
+        try {
+            return protocol.toMessage(bytes);
+        } finally {
+            pool.release(bytes);
+        }
     }
     
     /**
@@ -122,7 +137,7 @@ public class LazyMessageBuffer implements MessageBuffer {
  
                 // Allocate the buffer into which we'll feed the
                 // data as we get it               
-                current = ByteBuffer.allocate(size);
+                current = pool.acquire(size);
             } 
 
             if( current.remaining() <= buffer.remaining() ) {
@@ -36,6 +36,7 @@ import java.nio.ByteBuffer;
 import com.jme3.network.Message;
 import com.jme3.network.base.MessageBuffer;
 import com.jme3.network.base.MessageProtocol;
+import com.jme3.network.kernel.BufferPool;
 import com.jme3.network.serializing.Serializer;
 
 /**
@@ -46,24 +47,39 @@ import com.jme3.network.serializing.Serializer;
  *  where two bytes represent the (short) length of the data
  *  and the rest is the raw data for the Serializers class.</p>
  *
+ *  <p>The buffers for serialized messages and for the messages being
+ *  accumulated by the MessageBuffers come from a BufferPool.</p>
+ *
  *  @version   $Revision$
  *  @author    Paul Speed
  */ 
 public class SerializerMessageProtocol implements MessageProtocol {
  
+    private BufferPool pool;
+ 
     public SerializerMessageProtocol() {
+        this(BufferPool.getDefault());
+    }
+ 
+    public SerializerMessageProtocol( BufferPool pool ) {
+        this.pool = pool;
+    }
+ 
+    public BufferPool getBufferPool() {
+        return pool;
     }
  
     /**
      *  Converts a message to a ByteBuffer using the com.jme3.network.serializing.Serializer
      *  and the (short length) + data protocol.  If target is null
-     *  then a 32k byte buffer will be created and filled.
+     *  then a 32k byte buffer will be taken from the pool and filled.
+     *  It should be given back with releaseBuffer() once it has been sent.
      */
     @Override
     public ByteBuffer toByteBuffer( Message message, ByteBuffer target ) {
     
         // Could let the caller pass their own in       
-        ByteBuffer buffer = target == null ? ByteBuffer.allocate(32767 + 2) : target;
+        ByteBuffer buffer = target == null ? pool.acquire(32767 + 2) : target;
         
         try {
             buffer.position(2);
@@ -75,10 +91,18 @@ public class SerializerMessageProtocol implements MessageProtocol {
             
             return buffer;
         } catch( IOException e ) {
+            if( target == null ) {
+                pool.release(buffer);
+            }
             throw new RuntimeException("Error serializing message", e);
         }
     }
 
+    @Override
+    public void releaseBuffer( ByteBuffer buffer ) {
+        pool.release(buffer);
+    }
+
     /**
      *  Creates and returns a message from the properly sized byte buffer
      *  using com.jme3.network.serializing.Serializer.
@@ -95,7 +119,7 @@ public class SerializerMessageProtocol implements MessageProtocol {
     @Override
     public MessageBuffer createBuffer() {
         // Defaulting to LazyMessageBuffer
-        return new LazyMessageBuffer(this);
+        return new LazyMessageBuffer(this, pool);
     }
      
 }
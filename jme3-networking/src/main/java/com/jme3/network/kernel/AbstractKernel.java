@@ -31,8 +31,10 @@
  */
 package com.jme3.network.kernel;
 
+import com.jme3.network.stats.LatencyHistogram;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -65,10 +67,96 @@ public abstract class AbstractKernel implements Kernel
      */
     private LinkedBlockingQueue<Envelope> envelopes = new LinkedBlockingQueue<>();
 
+    private volatile int maxBatchSize = 0;
+    private volatile long maxBatchDelay = 0;
+    private BatchStatistics batchStats = new BatchStatistics();
+    private final LatencyHistogram outboundWait = new LatencyHistogram();
+    private volatile BufferPool bufferPool = BufferPool.getDefault();
+
     protected AbstractKernel()
     {
     }
 
+    /**
+     *  Sets the pool from which the kernel takes the buffers that
+     *  hold outbound data until it is written.  Defaults to
+     *  BufferPool.getDefault().
+     */
+    public void setBufferPool( BufferPool bufferPool )
+    {
+        if( bufferPool == null )
+            throw new IllegalArgumentException( "Buffer pool cannot be null." );
+        this.bufferPool = bufferPool;
+    }
+
+    public BufferPool getBufferPool()
+    {
+        return bufferPool;
+    }
+
+    /**
+     *  Sets the largest number of bytes that will be coalesced into
+     *  a single outbound write.  Messages queued for the same endpoint
+     *  are combined until this size is reached or the batch delay
+     *  expires.  Messages larger than the batch size are written on
+     *  their own.  0, the default, disables batching.
+     */
+    public void setMaxBatchSize( int bytes )
+    {
+        if( bytes < 0 )
+            throw new IllegalArgumentException( "Batch size cannot be negative:" + bytes );
+        this.maxBatchSize = bytes;
+    }
+
+    public int getMaxBatchSize()
+    {
+        return maxBatchSize;
+    }
+
+    /**
+     *  Returns true if outbound messages are coalesced.
+     */
+    public boolean isBatching()
+    {
+        return maxBatchSize > 0;
+    }
+
+    /**
+     *  Sets the longest time that a message will be held back waiting
+     *  for more messages to coalesce with when batching is enabled.
+     *  With a delay of 0, the default, only the messages that are
+     *  already queued when the kernel gets around to writing are
+     *  combined.
+     */
+    public void setMaxBatchDelay( long delay, TimeUnit unit )
+    {
+        if( delay < 0 )
+            throw new IllegalArgumentException( "Batch delay cannot be negative:" + delay );
+        this.maxBatchDelay = unit.toNanos(delay);
+    }
+
+    public long getMaxBatchDelay( TimeUnit unit )
+    {
+        return unit.convert(maxBatchDelay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the counters for the batches written by this kernel.
+     */
+    public BatchStatistics getBatchStatistics()
+    {
+        return batchStats;
+    }
+
+    /**
+     *  Returns the time between outbound data being queued with
+     *  the kernel and it being taken for writing to the socket.
+     */
+    public LatencyHistogram getOutboundWait()
+    {
+        return outboundWait;
+    }
+
     protected void reportError( Exception e )
     {
         // Should really be queued up so the outer thread can
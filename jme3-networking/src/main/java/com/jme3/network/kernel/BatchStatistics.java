@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ *  Counters for the outbound batches written by a kernel when
+ *  batching is enabled.  A batch is one coalesced write: a single
+ *  socket write for TCP or a single datagram for UDP.  The flush
+ *  latency of a batch is the time between its oldest message being
+ *  queued and the batch being handed to the socket.
+ *
+ *  <p>All methods are thread safe.  The counters are updated
+ *  independently so a snapshot taken while the kernel is busy may
+ *  be slightly inconsistent.</p>
+ *
+ *  @version   $Revision$
+ */
+public class BatchStatistics
+{
+    private AtomicLong batches = new AtomicLong();
+    private AtomicLong messages = new AtomicLong();
+    private AtomicLong bytes = new AtomicLong();
+    private AtomicLong maxBatchBytes = new AtomicLong();
+    private AtomicLong totalLatency = new AtomicLong();
+    private AtomicLong maxLatency = new AtomicLong();
+
+    public BatchStatistics()
+    {
+    }
+
+    /**
+     *  Records one batch of the specified number of messages and bytes
+     *  that waited the specified number of nanoseconds to be flushed.
+     */
+    public void addBatch( int messageCount, int byteCount, long latencyNanos )
+    {
+        batches.incrementAndGet();
+        messages.addAndGet(messageCount);
+        bytes.addAndGet(byteCount);
+        raise(maxBatchBytes, byteCount);
+        totalLatency.addAndGet(latencyNanos);
+        raise(maxLatency, latencyNanos);
+    }
+
+    /**
+     *  Returns the number of batches written.
+     */
+    public long getBatchCount()
+    {
+        return batches.get();
+    }
+
+    /**
+     *  Returns the number of messages written as part of a batch.
+     */
+    public long getMessageCount()
+    {
+        return messages.get();
+    }
+
+    /**
+     *  Returns the number of bytes written as part of a batch.
+     */
+    public long getByteCount()
+    {
+        return bytes.get();
+    }
+
+    /**
+     *  Returns the average number of messages per batch.
+     */
+    public double getAverageBatchSize()
+    {
+        long count = batches.get();
+        return count == 0 ? 0 : (double)messages.get() / count;
+    }
+
+    /**
+     *  Returns the average number of bytes per batch.
+     */
+    public double getAverageBatchBytes()
+    {
+        long count = batches.get();
+        return count == 0 ? 0 : (double)bytes.get() / count;
+    }
+
+    /**
+     *  Returns the size in bytes of the largest batch.
+     */
+    public long getMaxBatchBytes()
+    {
+        return maxBatchBytes.get();
+    }
+
+    /**
+     *  Returns the average flush latency in the specified units.
+     */
+    public long getAverageFlushLatency( TimeUnit unit )
+    {
+        long count = batches.get();
+        return count == 0 ? 0 : unit.convert(totalLatency.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the largest flush latency in the specified units.
+     */
+    public long getMaxFlushLatency( TimeUnit unit )
+    {
+        return unit.convert(maxLatency.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Sets all counters back to zero.
+     */
+    public void reset()
+    {
+        batches.set(0);
+        messages.set(0);
+        bytes.set(0);
+        maxBatchBytes.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+    }
+
+    private static void raise( AtomicLong max, long value )
+    {
+        long current;
+        while( value > (current = max.get()) ) {
+            if( max.compareAndSet(current, value) )
+                return;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BatchStatistics[batches=" + getBatchCount() + ", messages=" + getMessageCount()
+                + ", bytes=" + getByteCount() + ", avgLatency="
+                + getAverageFlushLatency(TimeUnit.MICROSECONDS) + "us, maxLatency="
+                + getMaxFlushLatency(TimeUnit.MICROSECONDS) + "us]";
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ *  A thread safe pool of ByteBuffers in power of two size classes
+ *  from 64 bytes to 64 KB, which covers the largest message and the
+ *  largest datagram.  Buffers are handed out with their limit set to
+ *  the requested size and must be given back with release() once
+ *  they are no longer used by anyone.  Buffers that are never released
+ *  are simply garbage collected.
+ *
+ *  <p>Each size class keeps at most a fixed number of idle buffers
+ *  so that a burst of traffic doesn't pin memory forever.  Requests
+ *  larger than the largest class are allocated on the spot and not
+ *  pooled.</p>
+ *
+ *  @version   $Revision$
+ */
+public class BufferPool
+{
+    private static final int MIN_SHIFT = 6;
+    private static final int MAX_SHIFT = 16;
+
+    private static final BufferPool defaultPool = new BufferPool( true, 256 );
+
+    private boolean direct;
+    private SizeClass[] classes = new SizeClass[MAX_SHIFT - MIN_SHIFT + 1];
+    private AtomicLong allocated = new AtomicLong();
+    private AtomicLong reused = new AtomicLong();
+
+    /**
+     *  Creates a pool of direct or heap buffers that keeps up to
+     *  maxIdle unused buffers per size class.
+     */
+    public BufferPool( boolean direct, int maxIdle )
+    {
+        if( maxIdle < 0 )
+            throw new IllegalArgumentException( "Max idle cannot be negative:" + maxIdle );
+        this.direct = direct;
+        for( int i = 0; i < classes.length; i++ ) {
+            classes[i] = new SizeClass( 1 << (i + MIN_SHIFT), maxIdle );
+        }
+    }
+
+    /**
+     *  Returns the shared pool of direct buffers used by the kernels
+     *  and message protocols by default.
+     */
+    public static BufferPool getDefault()
+    {
+        return defaultPool;
+    }
+
+    public boolean isDirect()
+    {
+        return direct;
+    }
+
+    /**
+     *  Returns a cleared buffer whose capacity is at least the specified
+     *  size and whose limit is the specified size.
+     */
+    public ByteBuffer acquire( int size )
+    {
+        SizeClass sc = sizeClass(size);
+        ByteBuffer result = sc == null ? null : sc.poll();
+        if( result == null ) {
+            allocated.incrementAndGet();
+            int capacity = sc == null ? size : sc.size;
+            result = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        } else {
+            reused.incrementAndGet();
+        }
+        result.clear();
+        result.limit(size);
+        return result;
+    }
+
+    /**
+     *  Gives a buffer obtained from acquire() back to the pool.  The
+     *  caller must not use the buffer, or any view of it, afterwards.
+     *  Buffers that can't belong to this pool, because of their type or
+     *  capacity, are ignored.
+     */
+    public void release( ByteBuffer buffer )
+    {
+        if( buffer == null || buffer.isDirect() != direct || buffer.isReadOnly() )
+            return;
+        int capacity = buffer.capacity();
+        SizeClass sc = sizeClass(capacity);
+        if( sc == null || sc.size != capacity )
+            return;
+        sc.offer(buffer);
+    }
+
+    /**
+     *  Returns the number of buffers this pool had to allocate.
+     */
+    public long getAllocatedCount()
+    {
+        return allocated.get();
+    }
+
+    /**
+     *  Returns the number of times a buffer was handed out again
+     *  instead of being allocated.
+     */
+    public long getReusedCount()
+    {
+        return reused.get();
+    }
+
+    private SizeClass sizeClass( int size )
+    {
+        if( size < 0 )
+            throw new IllegalArgumentException( "Size cannot be negative:" + size );
+        if( size > 1 << MAX_SHIFT )
+            return null;
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+        return classes[Math.max(shift, MIN_SHIFT) - MIN_SHIFT];
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BufferPool[" + (direct ? "direct" : "heap") + ", allocated=" + getAllocatedCount()
+                + ", reused=" + getReusedCount() + "]";
+    }
+
+    /**
+     *  The idle buffers of one size.  A plain array stack so that
+     *  giving buffers back doesn't allocate anything, and the lock is
+     *  only held for a couple of field updates.
+     */
+    private static class SizeClass
+    {
+        private final int size;
+        private final ByteBuffer[] idle;
+        private int count;
+
+        public SizeClass( int size, int maxIdle )
+        {
+            this.size = size;
+            this.idle = new ByteBuffer[maxIdle];
+        }
+
+        public synchronized ByteBuffer poll()
+        {
+            if( count == 0 )
+                return null;
+            ByteBuffer result = idle[--count];
+            idle[count] = null;
+            return result;
+        }
+
+        public synchronized void offer( ByteBuffer buffer )
+        {
+            if( count < idle.length )
+                idle[count++] = buffer;
+        }
+    }
+}
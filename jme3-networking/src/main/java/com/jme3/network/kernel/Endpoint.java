@@ -67,7 +67,9 @@ public interface Endpoint
 
     /**
      *  Sends data to the other end of the connection represented
-     *  by this endpoint.
+     *  by this endpoint.  Only the bytes from data.position() to
+     *  data.limit() are sent.  Implementations must not hold on to
+     *  the buffer after returning because the caller may reuse it.
      */
     public void send( ByteBuffer data );
 
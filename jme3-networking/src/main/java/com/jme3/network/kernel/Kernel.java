@@ -33,6 +33,7 @@ package com.jme3.network.kernel;
 
 import com.jme3.network.Filter;
 import java.nio.ByteBuffer;
+import java.util.Collection;
 
 /**
  *  Defines the basic byte[] passing messaging
@@ -73,6 +74,19 @@ public interface Kernel
      */ 
     public void broadcast( Filter<? super Endpoint> filter, ByteBuffer data, boolean reliable, 
                            boolean copy );
+
+    /**
+     *  Dispatches the data to the specified endpoints of this kernel.
+     *  This is the same as broadcast() with a filter accepting exactly those
+     *  endpoints but without visiting every other endpoint, which is
+     *  useful when the caller already keeps track of the recipients.
+     *  The default implementation simply delegates to broadcast().
+     */
+    public default void broadcastTo( Collection<? extends Endpoint> endpoints, ByteBuffer data,
+                                     boolean reliable, boolean copy )
+    {
+        broadcast( (Endpoint p) -> endpoints.contains(p), data, reliable, copy );
+    }
  
     /**
      *  Returns true if there are waiting envelopes.
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ *  Reference counted outbound data that can be queued on any number
+ *  of endpoints without copying.  Each endpoint that queues it holds
+ *  one reference and gives it up once the data has been written.
+ *  When the last reference is released, the underlying buffer goes
+ *  back to its BufferPool.
+ *
+ *  <p>The content is the region between the position and the limit
+ *  of the buffer when the SharedBuffer was created.  The buffer itself
+ *  must not be modified afterwards, which is why the endpoints only
+ *  ever see read-only views of it.</p>
+ *
+ *  @version   $Revision$
+ */
+public class SharedBuffer
+{
+    private final ByteBuffer data;
+    private final BufferPool pool;
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    // Only used to copy the content out with a relative put(),
+    // which needs a position and limit to play with.
+    private final ByteBuffer source;
+    private final long created = System.nanoTime();
+
+    /**
+     *  Wraps the specified buffer, taking ownership of it, with a single
+     *  reference held by the caller.  The pool can be null if the buffer
+     *  shouldn't be pooled afterwards.
+     */
+    public SharedBuffer( ByteBuffer data, BufferPool pool )
+    {
+        this.data = data;
+        this.pool = pool;
+        this.source = data.duplicate();
+    }
+
+    /**
+     *  Copies the remaining bytes of the specified data into a buffer
+     *  from the pool, leaving the position of the data alone, and returns
+     *  it as a SharedBuffer with a single reference held by the caller.
+     */
+    public static SharedBuffer copyOf( ByteBuffer data, BufferPool pool )
+    {
+        int pos = data.position();
+        ByteBuffer copy = pool.acquire(data.remaining());
+        copy.put(data);
+        copy.flip();
+        data.position(pos);
+        return new SharedBuffer(copy, pool);
+    }
+
+    /**
+     *  Returns the number of bytes of content.
+     */
+    public int size()
+    {
+        return data.remaining();
+    }
+
+    /**
+     *  Returns the System.nanoTime() at which this shared buffer was
+     *  created, which is about when its data was queued for sending.
+     */
+    public long getCreationTime()
+    {
+        return created;
+    }
+
+    /**
+     *  Returns a new read-only view of the content with its own position
+     *  and limit.
+     */
+    public ByteBuffer view()
+    {
+        return data.asReadOnlyBuffer();
+    }
+
+    /**
+     *  Appends the content to the target buffer without creating
+     *  a view.
+     */
+    public void copyTo( ByteBuffer target )
+    {
+        synchronized( source ) {
+            source.limit(data.limit());
+            source.position(data.position());
+            target.put(source);
+        }
+    }
+
+    /**
+     *  Adds the specified number of references, one per endpoint that
+     *  the data is about to be queued on.
+     */
+    public void retain( int count )
+    {
+        refs.addAndGet(count);
+    }
+
+    /**
+     *  Gives up one reference, returning the buffer to the pool if it
+     *  was the last one.
+     */
+    public void release()
+    {
+        int count = refs.decrementAndGet();
+        if( count == 0 ) {
+            if( pool != null )
+                pool.release(data);
+        } else if( count < 0 ) {
+            throw new IllegalStateException( "SharedBuffer released too many times." );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedBuffer[size=" + size() + ", refs=" + refs.get() + "]";
+    }
+}
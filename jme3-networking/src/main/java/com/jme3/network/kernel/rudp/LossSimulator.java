@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.kernel.NamedThreadFactory;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ *  Simulates a bad network for the outbound datagrams of a RudpKernel
+ *  or RudpConnector, so that the protocol can be tried on loopback.
+ *  Each datagram is dropped with the loss rate, sent twice with the
+ *  duplicate rate, and held back for the delay plus a random part of
+ *  the jitter, which also reorders datagrams when the jitter is larger
+ *  than the time between them.  For example:
+ *  <pre>
+ *  LossSimulator lossy = new LossSimulator(0.1, 0.01);
+ *  lossy.setDelay(20, 10, TimeUnit.MILLISECONDS);
+ *  kernel.setLossSimulator(lossy);
+ *  </pre>
+ *
+ *  <p>Delayed datagrams are sent from a thread of the simulator, which
+ *  runs until close() is called.</p>
+ *
+ *  @version   $Revision$
+ */
+public class LossSimulator
+{
+    private final Random random;
+    private volatile double lossRate;
+    private volatile double duplicateRate;
+    private volatile long delay;
+    private volatile long jitter;
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong duplicated = new AtomicLong();
+
+    /**
+     *  Creates a simulator that drops and duplicates the specified
+     *  fractions of the datagrams, from 0 to 1.
+     */
+    public LossSimulator( double lossRate, double duplicateRate )
+    {
+        this(lossRate, duplicateRate, new Random());
+    }
+
+    /**
+     *  Creates a simulator that takes its decisions from the specified
+     *  random number generator, for repeatable runs.
+     */
+    public LossSimulator( double lossRate, double duplicateRate, Random random )
+    {
+        setLossRate(lossRate);
+        setDuplicateRate(duplicateRate);
+        this.random = random;
+    }
+
+    public final void setLossRate( double lossRate )
+    {
+        if( lossRate < 0 || lossRate > 1 )
+            throw new IllegalArgumentException( "Loss rate must be between 0 and 1:" + lossRate );
+        this.lossRate = lossRate;
+    }
+
+    public double getLossRate()
+    {
+        return lossRate;
+    }
+
+    public final void setDuplicateRate( double duplicateRate )
+    {
+        if( duplicateRate < 0 || duplicateRate > 1 )
+            throw new IllegalArgumentException( "Duplicate rate must be between 0 and 1:" + duplicateRate );
+        this.duplicateRate = duplicateRate;
+    }
+
+    public double getDuplicateRate()
+    {
+        return duplicateRate;
+    }
+
+    /**
+     *  Sets the one way delay of the datagrams, to which a random time
+     *  from 0 to jitter is added for each datagram.  Both default to 0,
+     *  in which case datagrams are sent right away on the caller's 
+     *  thread.
+     */
+    public synchronized void setDelay( long delay, long jitter, TimeUnit unit )
+    {
+        if( delay < 0 || jitter < 0 )
+            throw new IllegalArgumentException( "Delay and jitter cannot be negative." );
+        this.delay = unit.toNanos(delay);
+        this.jitter = unit.toNanos(jitter);
+    }
+
+    public long getDelay( TimeUnit unit )
+    {
+        return unit.convert(delay, TimeUnit.NANOSECONDS);
+    }
+
+    public long getJitter( TimeUnit unit )
+    {
+        return unit.convert(jitter, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Passes the datagram on to the sender, or not, according to
+     *  the simulated conditions.  The datagram is copied when it
+     *  has to be delayed.
+     */
+    public void send( ByteBuffer datagram, Consumer<ByteBuffer> sender )
+    {
+        double r;
+        synchronized( random ) {
+            r = random.nextDouble();
+        }
+        if( r < lossRate ) {
+            dropped.incrementAndGet();
+            return;
+        }
+        sent.incrementAndGet();
+        boolean twice = duplicateRate > 0 && r - lossRate < duplicateRate * (1 - lossRate);
+        if( twice ) {
+            duplicated.incrementAndGet();
+        }
+
+        if( delay == 0 && jitter == 0 ) {
+            if( twice ) {
+                sender.accept(datagram.duplicate());
+            }
+            sender.accept(datagram);
+            return;
+        }
+
+        ByteBuffer copy = ByteBuffer.allocate(datagram.remaining());
+        copy.put(datagram.duplicate());
+        copy.flip();
+        schedule(copy, sender);
+        if( twice ) {
+            schedule(copy.duplicate(), sender);
+        }
+    }
+
+    private void schedule( final ByteBuffer datagram, final Consumer<ByteBuffer> sender )
+    {
+        long time = delay;
+        if( jitter > 0 ) {
+            synchronized( random ) {
+                time += (long)(random.nextDouble() * jitter);
+            }
+        }
+        getScheduler().schedule( new Runnable() {
+                @Override
+                public void run()
+                {
+                    sender.accept(datagram);
+                }
+            }, time, TimeUnit.NANOSECONDS );
+    }
+
+    private synchronized ScheduledExecutorService getScheduler()
+    {
+        if( scheduler == null ) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("LossSimulator", true));
+        }
+        return scheduler;
+    }
+
+    /**
+     *  Stops the thread that sends the delayed datagrams.  Datagrams
+     *  that are still waiting are dropped.
+     */
+    public synchronized void close()
+    {
+        if( scheduler != null ) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     *  Returns the number of datagrams passed on, not counting the
+     *  duplicates.
+     */
+    public long getSentCount()
+    {
+        return sent.get();
+    }
+
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+
+    public long getDuplicatedCount()
+    {
+        return duplicated.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LossSimulator[loss=" + lossRate + ", duplicates=" + duplicateRate
+                + ", delay=" + TimeUnit.NANOSECONDS.toMillis(delay) + "ms, jitter=" 
+                + TimeUnit.NANOSECONDS.toMillis(jitter) + "ms]";
+    }
+}
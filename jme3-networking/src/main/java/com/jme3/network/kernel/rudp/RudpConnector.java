@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.kernel.Connector;
+import com.jme3.network.kernel.ConnectorException;
+import com.jme3.network.kernel.NamedThreadFactory;
+import java.io.IOException;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *  A Connector that talks to a RudpKernel, delivering data reliably
+ *  and in order over UDP.  The connector receives datagrams on a
+ *  thread of its own, so that acks go out even while the caller of
+ *  read() is busy.  The retransmissions and delayed acks of all
+ *  connectors are handled by one shared timer thread.
+ *
+ *  @version   $Revision$
+ */
+public class RudpConnector implements Connector
+{
+    private static final Logger log = Logger.getLogger(RudpConnector.class.getName());
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // How often read() checks whether the session is still alive
+    private static final long POLL_MILLIS = 100;
+
+    private static ScheduledExecutorService ticker;
+
+    private volatile DatagramSocket sock;
+    private SocketAddress remoteAddress;
+    private AtomicBoolean connected = new AtomicBoolean(false);
+    private AtomicBoolean remoteClosed = new AtomicBoolean(false);
+    private volatile IOException error;
+    private final Session session;
+    private final LinkedBlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+    private final ScheduledFuture<?> tick;
+    private final ReceiverThread receiver;
+    private volatile LossSimulator lossSimulator;
+
+    /**
+     *  Creates a new connection to the RudpKernel at the specified
+     *  address and port.
+     */
+    public RudpConnector( InetAddress remote, int remotePort ) throws IOException
+    {
+        this( remote, remotePort, RudpSession.DEFAULT_SEGMENT_SIZE );
+    }
+
+    /**
+     *  Creates a new connection with the specified segment size, which
+     *  must match the kernel's.
+     */
+    public RudpConnector( InetAddress remote, int remotePort, int maxSegmentSize ) throws IOException
+    {
+        this.sock = new DatagramSocket( new InetSocketAddress(0) );
+        this.remoteAddress = new InetSocketAddress( remote, remotePort );
+
+        // Setup to receive only from the remote address
+        sock.connect( remoteAddress );
+
+        session = new Session(random.nextInt(), maxSegmentSize);
+        connected.set(true);
+
+        tick = getTicker().scheduleAtFixedRate( new Runnable() {
+                @Override
+                public void run()
+                {
+                    try {
+                        session.tick();
+                    } catch( ConnectorException e ) {
+                        // A task that throws is never run again, and
+                        // read() notices if the connection is really gone
+                        log.log( Level.WARNING, "Error in connection tick", e );
+                    }
+                }
+            }, 1, 1, TimeUnit.MILLISECONDS );
+
+        receiver = new ReceiverThread();
+        receiver.start();
+    }
+
+    private static synchronized ScheduledExecutorService getTicker()
+    {
+        if( ticker == null ) {
+            ticker = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("RudpConnector-ticker", true));
+        }
+        return ticker;
+    }
+
+    /**
+     *  Passes all outbound datagrams through the specified simulator,
+     *  or sends them directly when null, the default.
+     */
+    public void setLossSimulator( LossSimulator lossSimulator )
+    {
+        this.lossSimulator = lossSimulator;
+    }
+
+    public LossSimulator getLossSimulator()
+    {
+        return lossSimulator;
+    }
+
+    /**
+     *  Returns the protocol state of this connection, mostly for
+     *  its statistics.
+     */
+    public RudpSession getSession()
+    {
+        return session;
+    }
+
+    protected void checkClosed()
+    {
+        if( sock == null )
+            throw new ConnectorException( "Connection is closed:" + remoteAddress );
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return connected.get() && !remoteClosed.get() && !session.isFailed();
+    }
+
+    @Override
+    public void close()
+    {
+        checkClosed();
+        DatagramSocket temp = sock;
+        connected.set(false);
+        tick.cancel(false);
+        if( !remoteClosed.get() ) {
+            session.close();
+        }
+        sock = null;
+        temp.close();
+    }
+
+    @Override
+    public boolean available()
+    {
+        checkClosed();
+        return !received.isEmpty();
+    }
+
+    /**
+     *  Returns the next chunk of data delivered by the session,
+     *  blocking until there is one.
+     */
+    @Override
+    public ByteBuffer read()
+    {
+        checkClosed();
+        while( true ) {
+            byte[] data;
+            try {
+                data = received.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch( InterruptedException e ) {
+                throw new ConnectorException( "Interrupted reading from connection to:" + remoteAddress, e );
+            }
+            if( data != null ) {
+                return ByteBuffer.wrap(data);
+            }
+            if( !connected.get() || remoteClosed.get() ) {
+                // Nothing to see here... just move along
+                return null;
+            }
+            if( error != null ) {
+                throw new ConnectorException( "Error reading from connection to:" + remoteAddress, error );
+            }
+            if( session.isFailed() ) {
+                throw new ConnectorException( "Connection timed out:" + remoteAddress );
+            }
+        }
+    }
+
+    @Override
+    public void write( ByteBuffer data )
+    {
+        checkClosed();
+        if( remoteClosed.get() || session.isFailed() )
+            throw new ConnectorException( "Connection is closed:" + remoteAddress );
+        session.send(data);
+    }
+
+    private void sendDatagram( ByteBuffer datagram )
+    {
+        DatagramSocket s = sock;
+        if( s == null )
+            return;
+        try {
+            s.send(new DatagramPacket( datagram.array(), datagram.arrayOffset() + datagram.position(),
+                                       datagram.remaining(), remoteAddress ));
+        } catch( IOException e ) {
+            if( connected.get() ) {
+                throw new ConnectorException( "Error writing to connection:" + remoteAddress, e );
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RudpConnector[" + remoteAddress + "]";
+    }
+
+    private class Session extends RudpSession
+    {
+        public Session( int sessionId, int maxSegmentSize )
+        {
+            super(sessionId, maxSegmentSize);
+        }
+
+        @Override
+        protected void transmit( ByteBuffer datagram )
+        {
+            LossSimulator sim = lossSimulator;
+            if( sim == null ) {
+                sendDatagram(datagram);
+                return;
+            }
+            sim.send(datagram, new Consumer<ByteBuffer>() {
+                    @Override
+                    public void accept( ByteBuffer d )
+                    {
+                        sendDatagram(d);
+                    }
+                });
+        }
+
+        @Override
+        protected void deliver( byte[] data )
+        {
+            received.add(data);
+        }
+    }
+
+    protected class ReceiverThread extends Thread
+    {
+        private byte[] buffer = new byte[65535];
+
+        public ReceiverThread()
+        {
+            setName( RudpConnector.this.toString() );
+            setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            DatagramSocket s = sock;
+            while( connected.get() ) {
+                try {
+                    DatagramPacket packet = new DatagramPacket( buffer, buffer.length );
+                    s.receive(packet);
+                    if( !session.receive(ByteBuffer.wrap(buffer, 0, packet.getLength())) ) {
+                        remoteClosed.set(true);
+                        tick.cancel(false);
+                        return;
+                    }
+                } catch( IOException e ) {
+                    if( connected.get() ) {
+                        error = e;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.kernel.Endpoint;
+import com.jme3.network.kernel.Envelope;
+import com.jme3.network.kernel.Kernel;
+import com.jme3.network.kernel.KernelException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Endpoint implementation for one reliable UDP session of a
+ *  RudpKernel.  Data sent to the endpoint is queued with the session
+ *  and written by the kernel's threads as the congestion window
+ *  allows.
+ *
+ *  @version   $Revision$
+ */
+public class RudpEndpoint implements Endpoint
+{
+    private final long id;
+    private final SocketAddress address;
+    private final RudpKernel kernel;
+    private final Session session;
+    private volatile boolean connected = true;
+    private volatile boolean closing;
+
+    public RudpEndpoint( RudpKernel kernel, long id, SocketAddress address, int sessionId )
+    {
+        this.id = id;
+        this.address = address;
+        this.kernel = kernel;
+        this.session = new Session(sessionId, kernel.getMaxSegmentSize());
+        session.setTimeout(kernel.getTimeout(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        session.setOutboundWait(kernel.getOutboundWait());
+    }
+
+    @Override
+    public Kernel getKernel()
+    {
+        return kernel;
+    }
+
+    protected SocketAddress getRemoteAddress()
+    {
+        return address;
+    }
+
+    /**
+     *  Returns the protocol state of this endpoint, mostly for
+     *  its statistics.
+     */
+    public RudpSession getSession()
+    {
+        return session;
+    }
+
+    @Override
+    public long getId()
+    {
+        return id;
+    }
+
+    @Override
+    public String getAddress()
+    {
+        return String.valueOf(address);
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return connected;
+    }
+
+    @Override
+    public void send( ByteBuffer data )
+    {
+        if( !connected || closing ) {
+            throw new KernelException( "Endpoint is not connected:" + this );
+        }
+        session.send(data);
+    }
+
+    @Override
+    public void close()
+    {
+        close( false );
+    }
+
+    /**
+     *  Closes the endpoint.  When flushing, the endpoint stays open
+     *  until the other end has acked all of the queued data, or the
+     *  session times out, and only then tells the other end that it
+     *  is closed.
+     */
+    @Override
+    public void close( boolean flushData )
+    {
+        if( !connected )
+            return;
+        closing = true;
+        if( flushData && !session.isIdle() && !session.isFailed() ) {
+            // The kernel's tick finishes the close
+            return;
+        }
+        session.close();
+        closed();
+    }
+
+    /**
+     *  Called by the kernel when the other end closed the session
+     *  or the session failed.
+     */
+    protected void closed()
+    {
+        connected = false;
+        kernel.closeEndpoint(this);
+    }
+
+    /**
+     *  Called by the kernel for each datagram of this session.
+     */
+    protected void receive( ByteBuffer datagram )
+    {
+        if( !session.receive(datagram) ) {
+            closed();
+        }
+    }
+
+    /**
+     *  Called by the kernel every millisecond.
+     */
+    protected void tick()
+    {
+        if( session.isFailed() ) {
+            closed();
+            return;
+        }
+        session.tick();
+        if( closing && session.isIdle() ) {
+            session.close();
+            closed();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RudpEndpoint[" + id + ", " + address + "]";
+    }
+
+    private class Session extends RudpSession
+    {
+        public Session( int sessionId, int maxSegmentSize )
+        {
+            super(sessionId, maxSegmentSize);
+        }
+
+        @Override
+        protected void transmit( ByteBuffer datagram )
+        {
+            kernel.transmit(datagram, address);
+        }
+
+        @Override
+        protected void deliver( byte[] data )
+        {
+            kernel.deliver(new Envelope(RudpEndpoint.this, data, true));
+        }
+    }
+}
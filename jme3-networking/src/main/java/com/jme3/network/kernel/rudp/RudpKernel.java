@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.Filter;
+import com.jme3.network.kernel.*;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *  A Kernel implementation that delivers data reliably and in order
+ *  over UDP, see RudpSession for the protocol.  Unlike a TCP kernel,
+ *  a lost datagram only holds back the data of its own endpoint and
+ *  channel until it is resent, and it is usually resent after a
+ *  few milliseconds instead of after a TCP retransmission timeout.
+ *  It can be used for the reliable channel and any additional channel
+ *  of a DefaultServer, with RudpConnectors on the client side:
+ *  <pre>
+ *  DefaultServer server = new DefaultServer(name, version, new RudpKernel(port), new UdpKernel(port + 1));
+ *  server.setKernelFactory(new RudpKernelFactory());
+ *  </pre>
+ *
+ *  <p>All data is sent reliably, so like the TCP kernels this kernel
+ *  rejects unreliable sends.  Sessions are started by the connector's
+ *  first datagram and are closed when the other end closes them or
+ *  stops answering.</p>
+ *
+ *  @version   $Revision$
+ */
+public class RudpKernel extends AbstractKernel
+{
+    private static final Logger log = Logger.getLogger(RudpKernel.class.getName());
+
+    private InetSocketAddress address;
+    private HostThread thread;
+    private ScheduledExecutorService ticker;
+    private volatile LossSimulator lossSimulator;
+    private int maxSegmentSize = RudpSession.DEFAULT_SEGMENT_SIZE;
+    private long timeout = TimeUnit.SECONDS.toNanos(10);
+
+    private Map<SocketAddress,RudpEndpoint> socketEndpoints = new ConcurrentHashMap<>();
+
+    public RudpKernel( InetAddress host, int port )
+    {
+        this( new InetSocketAddress(host, port) );
+    }
+
+    public RudpKernel( int port ) throws IOException
+    {
+        this( new InetSocketAddress(port) );
+    }
+
+    public RudpKernel( InetSocketAddress address )
+    {
+        this.address = address;
+    }
+
+    /**
+     *  Sets the largest number of data bytes per datagram.  Must be the
+     *  same on both ends and should keep datagrams under the path MTU.
+     *  Defaults to RudpSession.DEFAULT_SEGMENT_SIZE.
+     */
+    public void setMaxSegmentSize( int bytes )
+    {
+        if( bytes <= 0 || bytes > 65507 - RudpSession.DATA_HEADER_SIZE )
+            throw new IllegalArgumentException( "Invalid segment size:" + bytes );
+        this.maxSegmentSize = bytes;
+    }
+
+    public int getMaxSegmentSize()
+    {
+        return maxSegmentSize;
+    }
+
+    /**
+     *  Sets the time after which an endpoint that hasn't sent
+     *  anything is closed.  Defaults to 10 seconds.
+     */
+    public void setTimeout( long time, TimeUnit unit )
+    {
+        this.timeout = unit.toNanos(time);
+    }
+
+    public long getTimeout( TimeUnit unit )
+    {
+        return unit.convert(timeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Passes all outbound datagrams through the specified simulator,
+     *  or sends them directly when null, the default.
+     */
+    public void setLossSimulator( LossSimulator lossSimulator )
+    {
+        this.lossSimulator = lossSimulator;
+    }
+
+    public LossSimulator getLossSimulator()
+    {
+        return lossSimulator;
+    }
+
+    protected HostThread createHostThread()
+    {
+        return new HostThread();
+    }
+
+    @Override
+    public void initialize()
+    {
+        if( thread != null )
+            throw new IllegalStateException( "Kernel already initialized." );
+
+        thread = createHostThread();
+        try {
+            thread.connect();
+            thread.start();
+        } catch( IOException e ) {
+            throw new KernelException( "Error hosting:" + address, e );
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(toString() + "-ticker"));
+        ticker.scheduleAtFixedRate( new Runnable() {
+                @Override
+                public void run()
+                {
+                    tick();
+                }
+            }, 1, 1, TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public void terminate() throws InterruptedException
+    {
+        if( thread == null )
+            throw new IllegalStateException( "Kernel not initialized." );
+
+        ticker.shutdown();
+        ticker.awaitTermination(1, TimeUnit.SECONDS);
+        for( RudpEndpoint p : socketEndpoints.values() ) {
+            p.close();
+        }
+        try {
+            thread.close();
+            thread = null;
+
+            // Need to let any caller waiting for a read() wakeup
+            wakeupReader();
+        } catch( IOException e ) {
+            throw new KernelException( "Error closing host connection:" + address, e );
+        }
+    }
+
+    /**
+     *  Dispatches the data to all endpoints managed by the kernel
+     *  that match the filter.  Each endpoint's session copies the
+     *  data into its own segments.
+     */
+    @Override
+    public void broadcast( Filter<? super Endpoint> filter, ByteBuffer data, boolean reliable,
+                           boolean copy )
+    {
+        if( !reliable )
+            throw new UnsupportedOperationException( "Unreliable send not supported by this kernel." );
+
+        for( RudpEndpoint p : socketEndpoints.values() ) {
+            if( filter != null && !filter.apply(p) )
+                continue;
+            send(p, data);
+        }
+    }
+
+    /**
+     *  Sends the data to the specified endpoints.  Endpoints that don't
+     *  belong to this kernel, or not anymore, are skipped.
+     */
+    @Override
+    public void broadcastTo( Collection<? extends Endpoint> targets, ByteBuffer data,
+                             boolean reliable, boolean copy )
+    {
+        if( !reliable )
+            throw new UnsupportedOperationException( "Unreliable send not supported by this kernel." );
+
+        for( Endpoint e : targets ) {
+            if( !(e instanceof RudpEndpoint) )
+                continue;
+            RudpEndpoint p = (RudpEndpoint)e;
+            if( socketEndpoints.get(p.getRemoteAddress()) != p )
+                continue;
+            send(p, data);
+        }
+    }
+
+    private void send( RudpEndpoint p, ByteBuffer data )
+    {
+        if( !p.isConnected() )
+            return;
+        try {
+            p.send(data);
+        } catch( KernelException e ) {
+            // It closed while we were looking at it
+            log.log( Level.FINE, "Skipping closed endpoint:{0}", p );
+        }
+    }
+
+    /**
+     *  Called by the endpoints when they need to be closed.
+     */
+    protected void closeEndpoint( RudpEndpoint p )
+    {
+        if( !socketEndpoints.remove(p.getRemoteAddress(), p) )
+            return;
+
+        log.log( Level.FINE, "Closing endpoint:{0}.", p );
+        log.log( Level.FINE, "Socket endpoints size:{0}", socketEndpoints.size() );
+
+        addEvent( EndpointEvent.createRemove( this, p ) );
+        wakeupReader();
+    }
+
+    /**
+     *  Called by the endpoints with each chunk of data their session
+     *  delivers.
+     */
+    protected void deliver( Envelope env )
+    {
+        addEnvelope( env );
+    }
+
+    /**
+     *  Writes a datagram of an endpoint's session, through the loss
+     *  simulator if there is one.
+     */
+    protected void transmit( ByteBuffer datagram, final SocketAddress remote )
+    {
+        LossSimulator sim = lossSimulator;
+        if( sim == null ) {
+            write(datagram, remote);
+            return;
+        }
+        sim.send(datagram, new Consumer<ByteBuffer>() {
+                @Override
+                public void accept( ByteBuffer d )
+                {
+                    write(d, remote);
+                }
+            });
+    }
+
+    private void write( ByteBuffer datagram, SocketAddress remote )
+    {
+        HostThread t = thread;
+        if( t == null )
+            return;
+        try {
+            t.getChannel().send(datagram, remote);
+        } catch( IOException e ) {
+            if( t.isRunning() ) {
+                reportError(new KernelException( "Error sending datagram to:" + remote, e ));
+            }
+        }
+    }
+
+    protected void tick()
+    {
+        try {
+            for( RudpEndpoint p : socketEndpoints.values() ) {
+                p.tick();
+            }
+        } catch( RuntimeException e ) {
+            // Keep the ticker alive, it stops for good on an exception
+            reportError(e);
+        }
+    }
+
+    protected void newData( SocketAddress remote, ByteBuffer datagram )
+    {
+        if( datagram.remaining() < RudpSession.HEADER_SIZE )
+            return;
+        byte type = datagram.get(datagram.position());
+        int sessionId = datagram.getInt(datagram.position() + 1);
+
+        RudpEndpoint p = socketEndpoints.get(remote);
+        if( p != null && p.getSession().getSessionId() != sessionId ) {
+            // The same address and port started a new session, which
+            // means that the old one is gone.
+            if( type != RudpSession.TYPE_DATA )
+                return;
+            p.closed();
+            p = null;
+        }
+        if( p == null ) {
+            // Only data can start a session, anything else is left
+            // over from an older one.
+            if( type != RudpSession.TYPE_DATA )
+                return;
+            p = new RudpEndpoint(this, nextEndpointId(), remote, sessionId);
+            socketEndpoints.put(remote, p);
+            addEvent( EndpointEvent.createAdd( this, p ) );
+        }
+        p.receive(datagram);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RudpKernel[" + address + "]";
+    }
+
+    protected class HostThread extends Thread
+    {
+        private DatagramChannel channel;
+        private AtomicBoolean go = new AtomicBoolean(true);
+
+        private ByteBuffer buffer = ByteBuffer.allocate(65535);
+
+        public HostThread()
+        {
+            setName( "RUDP Host@" + address );
+            setDaemon(true);
+        }
+
+        protected DatagramChannel getChannel()
+        {
+            return channel;
+        }
+
+        protected boolean isRunning()
+        {
+            return go.get();
+        }
+
+        public void connect() throws IOException
+        {
+            channel = DatagramChannel.open();
+            channel.bind( address );
+            log.log( Level.FINE, "Hosting RUDP connection:{0}.", address );
+        }
+
+        public void close() throws IOException, InterruptedException
+        {
+            go.set(false);
+            channel.close();
+            join();
+        }
+
+        @Override
+        public void run()
+        {
+            log.log( Level.FINE, "Kernel started for connection:{0}.", address );
+
+            while( go.get() ) {
+                try {
+                    buffer.clear();
+                    SocketAddress remote = channel.receive(buffer);
+                    buffer.flip();
+                    newData( remote, buffer );
+                } catch( IOException e ) {
+                    if( !go.get() )
+                        return;
+                    reportError( e );
+                } catch( RuntimeException e ) {
+                    // A malformed datagram shouldn't take the kernel down
+                    reportError( e );
+                }
+            }
+        }
+    }
+}
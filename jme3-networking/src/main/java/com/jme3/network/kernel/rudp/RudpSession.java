@@ -0,0 +1,663 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.stats.LatencyHistogram;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  The protocol state of one reliable, ordered UDP connection,
+ *  shared by the kernel endpoints and the connector.  Outbound data
+ *  is cut into segments of at most getMaxSegmentSize() bytes, each
+ *  sent in its own datagram with a sequence number.  The receiver
+ *  delivers the segments in sequence order, buffering the ones that
+ *  arrive early, and tells the sender what it has with a cumulative
+ *  ack plus a bit set of the 64 following segments (selective acks).
+ *  Every datagram carries the acks, and a datagram of its own is only
+ *  sent for every second segment received, for segments received out
+ *  of order, or when nothing has gone the other way for a few
+ *  milliseconds.
+ *
+ *  <p>Segments that are not acked in time are sent again, with the
+ *  timeout derived from the measured round trip time as in RFC 6298.
+ *  A segment is also sent again as soon as a segment sent after it
+ *  has been acked and it is overdue by some margin for reordering,
+ *  at least a quarter of a round trip, which repairs most losses
+ *  within about one round trip.</p>
+ *
+ *  <p>The number of segments in flight is limited by a congestion
+ *  window that grows while the round trip time stays close to its
+ *  minimum and shrinks when it rises, which means that a queue is
+ *  building up somewhere on the path.  Lost segments alone don't
+ *  shrink the window, except when they time out, because on wireless
+ *  links most losses have nothing to do with congestion.  The segments
+ *  of a window are spread over a round trip instead of being sent in
+ *  one burst.</p>
+ *
+ *  <p>Every datagram starts with this header, in network byte order:</p>
+ *  <pre>
+ *  byte  type       DATA, ACK or CLOSE
+ *  int   session    random ID chosen by the connecting side
+ *  int   ack        next sequence number expected from the other end
+ *  long  ackBits    bit i set if segment ack + 1 + i was received
+ *  int   seq        DATA only, followed by the segment data
+ *  </pre>
+ *
+ *  <p>Subclasses write the datagrams and receive the delivered data.
+ *  All methods are thread safe.  transmit() is called while holding
+ *  the session's lock and deliver() without it.</p>
+ *
+ *  @version   $Revision$
+ */
+public abstract class RudpSession
+{
+    public static final byte TYPE_DATA = 1;
+    public static final byte TYPE_ACK = 2;
+    public static final byte TYPE_CLOSE = 3;
+
+    public static final int HEADER_SIZE = 17;
+    public static final int DATA_HEADER_SIZE = HEADER_SIZE + 4;
+
+    /**
+     *  The default segment size, which keeps datagrams under the
+     *  usual internet MTU.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1200;
+
+    // The sequence numbers in use never span more than the acks can
+    // describe, the cumulative ack plus 64 selective ack bits.  The
+    // ring buffers are the next power of two so that sequence numbers
+    // can be masked into them.
+    private static final int MAX_WINDOW = 65;
+    private static final int RING_SIZE = 128;
+    private static final int RING_MASK = RING_SIZE - 1;
+
+    private static final double MIN_CWND = 4;
+    private static final double INITIAL_CWND = 16;
+    private static final double DECREASE = 0.8;
+    private static final double PACING_GAIN = 1.25;
+    private static final int BURST = 4;
+    private static final int MAX_TRANSMITS = 30;
+
+    private static final long INITIAL_RTO = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long MIN_RTO = TimeUnit.MILLISECONDS.toNanos(40);
+    private static final long MAX_RTO = TimeUnit.SECONDS.toNanos(3);
+    private static final long MIN_REORDER_WINDOW = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ACK_DELAY = TimeUnit.MILLISECONDS.toNanos(4);
+    private static final long KEEP_ALIVE = TimeUnit.SECONDS.toNanos(1);
+
+    // The queuing delay above which the window shrinks, the larger
+    // of this and half of the minimum round trip time
+    private static final long QUEUE_TARGET = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long MIN_RTT_WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final int sessionId;
+    private final int maxSegmentSize;
+    private long timeout = TimeUnit.SECONDS.toNanos(10);
+    private LatencyHistogram outboundWait;
+
+    // Sending side
+    private final ArrayDeque<Segment> pending = new ArrayDeque<>();
+    private final Segment[] window = new Segment[RING_SIZE];
+    private int sendBase;
+    private int nextSeq;
+    private int inFlight;
+    private double cwnd = INITIAL_CWND;
+    private boolean slowStart = true;
+    private int reduceSeq;
+    private long latestAckedSendTime;
+    private long nextSendTime;
+    private long lastSendTime;
+    private boolean failed;
+
+    // Round trip estimate, RFC 6298
+    private long srtt;
+    private long rttvar;
+    private long rto = INITIAL_RTO;
+    private boolean hasRtt;
+    private long latestRtt;
+    private long minRtt;
+    private long minRttTime;
+
+    // Receiving side
+    private final byte[][] received = new byte[RING_SIZE][];
+    private int receiveNext;
+    private int unacked;
+    private long ackDueTime;
+    private long lastReceiveTime;
+
+    private long segmentsSent;
+    private long retransmits;
+    private long timeouts;
+    private long datagramsReceived;
+    private long duplicates;
+
+    protected RudpSession( int sessionId, int maxSegmentSize )
+    {
+        if( maxSegmentSize <= 0 )
+            throw new IllegalArgumentException( "Segment size must be positive:" + maxSegmentSize );
+        this.sessionId = sessionId;
+        this.maxSegmentSize = maxSegmentSize;
+        this.lastReceiveTime = System.nanoTime();
+        this.lastSendTime = lastReceiveTime;
+        this.latestAckedSendTime = lastReceiveTime;
+    }
+
+    /**
+     *  Writes one datagram to the other end.
+     */
+    protected abstract void transmit( ByteBuffer datagram );
+
+    /**
+     *  Called with each chunk of received data, in the order it was
+     *  sent.
+     */
+    protected abstract void deliver( byte[] data );
+
+    public int getSessionId()
+    {
+        return sessionId;
+    }
+
+    public int getMaxSegmentSize()
+    {
+        return maxSegmentSize;
+    }
+
+    /**
+     *  Sets the time after which the session fails if nothing has been
+     *  received from the other end.  Defaults to 10 seconds.  Idle
+     *  sessions send a keep-alive every second.
+     */
+    public synchronized void setTimeout( long time, TimeUnit unit )
+    {
+        this.timeout = unit.toNanos(time);
+    }
+
+    /**
+     *  Sets the histogram that records how long data waits between
+     *  send() and its first transmission.
+     */
+    public synchronized void setOutboundWait( LatencyHistogram outboundWait )
+    {
+        this.outboundWait = outboundWait;
+    }
+
+    /**
+     *  Queues the data for reliable, ordered delivery and sends as
+     *  much of it as the congestion window allows.  The data is copied
+     *  and small chunks are packed into the same segment while they
+     *  wait.
+     */
+    public synchronized void send( ByteBuffer data )
+    {
+        long now = System.nanoTime();
+        data = data.duplicate();
+        while( data.hasRemaining() ) {
+            Segment last = pending.peekLast();
+            if( last == null || last.size == maxSegmentSize ) {
+                last = new Segment(new byte[maxSegmentSize], now);
+                pending.add(last);
+            }
+            int count = Math.min(data.remaining(), maxSegmentSize - last.size);
+            data.get(last.data, last.size, count);
+            last.size += count;
+        }
+        sendPending(now);
+    }
+
+    /**
+     *  Handles a datagram from the other end.  Returns false if the
+     *  other end closed the session.
+     */
+    public boolean receive( ByteBuffer datagram )
+    {
+        List<byte[]> ready = null;
+        synchronized( this ) {
+            if( datagram.remaining() < HEADER_SIZE )
+                return true;
+            byte type = datagram.get();
+            if( datagram.getInt() != sessionId )
+                return true;
+            long now = System.nanoTime();
+            lastReceiveTime = now;
+            datagramsReceived++;
+
+            if( type == TYPE_CLOSE )
+                return false;
+
+            int ack = datagram.getInt();
+            long ackBits = datagram.getLong();
+            processAcks(ack, ackBits, now);
+
+            if( type == TYPE_DATA && datagram.remaining() >= 4 ) {
+                int seq = datagram.getInt();
+                byte[] data = new byte[datagram.remaining()];
+                datagram.get(data);
+                ready = processData(seq, data, now);
+            }
+            
+            // Acks may have opened up the window
+            sendPending(now);
+        }
+        if( ready != null ) {
+            for( byte[] data : ready ) {
+                deliver(data);
+            }
+        }
+        return true;
+    }
+
+    /**
+     *  Performs the timed work: retransmissions, paced sends, delayed
+     *  acks and keep-alives.  Should be called every millisecond or so.
+     */
+    public synchronized void tick()
+    {
+        long now = System.nanoTime();
+        if( failed )
+            return;
+
+        for( int seq = sendBase; seq - nextSeq < 0; seq++ ) {
+            Segment s = window[seq & RING_MASK];
+            if( s == null || s.acked )
+                continue;
+            long backoff = Math.min(rto << Math.min(s.transmits - 1, 6), MAX_RTO);
+            if( now - s.sentTime >= backoff ) {
+                if( s.transmits >= MAX_TRANSMITS ) {
+                    failed = true;
+                    return;
+                }
+                retransmits++;
+                timeouts++;
+                reduceWindow(0.5);
+                transmit(s, now);
+            }
+        }
+
+        detectLosses(now);
+        sendPending(now);
+
+        if( (unacked > 0 && now - ackDueTime >= 0) || now - lastSendTime >= KEEP_ALIVE ) {
+            sendAck();
+        }
+    }
+
+    /**
+     *  Returns true if the session can no longer deliver data because
+     *  the other end stopped answering.
+     */
+    public synchronized boolean isFailed()
+    {
+        return failed || System.nanoTime() - lastReceiveTime > timeout;
+    }
+
+    /**
+     *  Returns true if there is no data waiting to be sent or acked.
+     */
+    public synchronized boolean isIdle()
+    {
+        return pending.isEmpty() && sendBase == nextSeq;
+    }
+
+    /**
+     *  Tells the other end that this session is closed.  Any data
+     *  still in flight is dropped.
+     */
+    public synchronized void close()
+    {
+        ByteBuffer datagram = header(TYPE_CLOSE, HEADER_SIZE);
+        datagram.flip();
+        transmit(datagram);
+        failed = true;
+    }
+
+    private void processAcks( int ack, long ackBits, long now )
+    {
+        // Ignore acks for data that was never sent
+        if( ack - nextSeq > 0 )
+            return;
+
+        while( sendBase - ack < 0 ) {
+            Segment s = window[sendBase & RING_MASK];
+            if( s != null && !s.acked ) {
+                onAcked(s, now);
+            }
+            window[sendBase & RING_MASK] = null;
+            sendBase++;
+        }
+
+        for( int i = 0; ackBits != 0 && i < 64; i++ ) {
+            if( (ackBits & (1L << i)) == 0 )
+                continue;
+            int seq = ack + 1 + i;
+            if( seq - nextSeq >= 0 )
+                break;
+            Segment s = window[seq & RING_MASK];
+            if( s != null && !s.acked ) {
+                onAcked(s, now);
+            }
+        }
+
+        detectLosses(now);
+    }
+
+    private void onAcked( Segment s, long now )
+    {
+        s.acked = true;
+        inFlight--;
+        if( s.sentTime - latestAckedSendTime > 0 ) {
+            latestAckedSendTime = s.sentTime;
+        }
+        if( s.transmits == 1 ) {
+            // Karn's algorithm: only segments sent once give
+            // unambiguous samples
+            addRttSample(now - s.sentTime, now);
+        }
+        if( !hasRtt ) {
+            return;
+        }
+
+        long queueDelay = srtt - minRtt;
+        if( queueDelay > Math.max(QUEUE_TARGET, minRtt / 2) ) {
+            reduceWindow(DECREASE);
+        } else if( inFlight + 1 >= cwnd / 2 ) {
+            // Only grow a window that is actually used
+            cwnd += slowStart ? 1 : 1 / cwnd;
+            cwnd = Math.min(cwnd, MAX_WINDOW - 1);
+        }
+    }
+
+    /**
+     *  Shrinks the congestion window by the factor, at most once per
+     *  window of data.
+     */
+    private void reduceWindow( double factor )
+    {
+        if( sendBase - reduceSeq < 0 )
+            return;
+        cwnd = Math.max(cwnd * factor, MIN_CWND);
+        slowStart = false;
+        reduceSeq = nextSeq;
+    }
+
+    /**
+     *  Sends again the segments that were probably lost because later
+     *  segments were acked before them, and enough time has passed
+     *  for them to be acked too despite some reordering.
+     */
+    private void detectLosses( long now )
+    {
+        if( !hasRtt )
+            return;
+        long reorderWindow = Math.max(Math.max(srtt / 4, 2 * rttvar), MIN_REORDER_WINDOW);
+        long overdue = latestRtt + reorderWindow;
+        for( int seq = sendBase; seq - nextSeq < 0; seq++ ) {
+            Segment s = window[seq & RING_MASK];
+            if( s == null || s.acked )
+                continue;
+            if( s.sentTime - latestAckedSendTime < 0 && now - s.sentTime > overdue ) {
+                retransmits++;
+                transmit(s, now);
+            }
+        }
+    }
+
+    private void addRttSample( long rtt, long now )
+    {
+        latestRtt = rtt;
+        if( !hasRtt || rtt <= minRtt || now - minRttTime > MIN_RTT_WINDOW ) {
+            minRtt = rtt;
+            minRttTime = now;
+        }
+        if( !hasRtt ) {
+            srtt = rtt;
+            rttvar = rtt / 2;
+            hasRtt = true;
+        } else {
+            rttvar = (3 * rttvar + Math.abs(srtt - rtt)) / 4;
+            srtt = (7 * srtt + rtt) / 8;
+        }
+        rto = Math.max(MIN_RTO, Math.min(MAX_RTO, srtt + 4 * rttvar));
+    }
+
+    private List<byte[]> processData( int seq, byte[] data, long now )
+    {
+        int distance = seq - receiveNext;
+        if( unacked++ == 0 ) {
+            // Give the ack a chance to ride along with data going
+            // the other way
+            ackDueTime = now + ACK_DELAY;
+        }
+        if( distance < 0 ) {
+            // Already have it, the ack must have been lost
+            duplicates++;
+            sendAck();
+            return null;
+        }
+        if( distance >= MAX_WINDOW ) {
+            return null;
+        }
+        if( received[seq & RING_MASK] != null ) {
+            duplicates++;
+        }
+        received[seq & RING_MASK] = data;
+        if( distance > 0 ) {
+            // Out of order, let the sender know right away
+            sendAck();
+            return null;
+        }
+
+        List<byte[]> ready = new ArrayList<>();
+        while( received[receiveNext & RING_MASK] != null ) {
+            ready.add(received[receiveNext & RING_MASK]);
+            received[receiveNext & RING_MASK] = null;
+            receiveNext++;
+        }
+        if( unacked >= 2 ) {
+            sendAck();
+        }
+        return ready;
+    }
+
+    private long ackBits()
+    {
+        long bits = 0;
+        for( int i = 0; i < 64; i++ ) {
+            if( received[(receiveNext + 1 + i) & RING_MASK] != null ) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    private void sendPending( long now )
+    {
+        if( failed )
+            return;
+        long interval = hasRtt ? (long)(srtt / (cwnd * PACING_GAIN)) : 0;
+        if( nextSendTime - (now - interval * BURST) < 0 ) {
+            nextSendTime = now - interval * BURST;
+        }
+        while( !pending.isEmpty() && inFlight < (int)cwnd && nextSeq - sendBase < MAX_WINDOW
+               && nextSendTime - now <= 0 ) {
+            Segment s = pending.poll();
+            s.seq = nextSeq++;
+            window[s.seq & RING_MASK] = s;
+            inFlight++;
+            if( outboundWait != null ) {
+                outboundWait.record(now - s.queuedTime);
+            }
+            transmit(s, now);
+            nextSendTime += interval;
+        }
+    }
+
+    private void transmit( Segment s, long now )
+    {
+        ByteBuffer datagram = header(TYPE_DATA, DATA_HEADER_SIZE + s.size);
+        datagram.putInt(s.seq);
+        datagram.put(s.data, 0, s.size);
+        datagram.flip();
+        s.sentTime = now;
+        s.transmits++;
+        segmentsSent++;
+        transmit(datagram);
+    }
+
+    private void sendAck()
+    {
+        ByteBuffer datagram = header(TYPE_ACK, HEADER_SIZE);
+        datagram.flip();
+        transmit(datagram);
+    }
+
+    private ByteBuffer header( byte type, int size )
+    {
+        ByteBuffer datagram = ByteBuffer.allocate(size);
+        datagram.put(type);
+        datagram.putInt(sessionId);
+        datagram.putInt(receiveNext);
+        datagram.putLong(ackBits());
+        unacked = 0;
+        lastSendTime = System.nanoTime();
+        return datagram;
+    }
+
+    /**
+     *  Returns the smoothed round trip time, or 0 before the first 
+     *  ack.
+     */
+    public synchronized long getRtt( TimeUnit unit )
+    {
+        return unit.convert(srtt, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the current retransmission timeout.
+     */
+    public synchronized long getRto( TimeUnit unit )
+    {
+        return unit.convert(rto, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the current congestion window in segments.
+     */
+    public synchronized double getCongestionWindow()
+    {
+        return cwnd;
+    }
+
+    /**
+     *  Returns the number of segments sent and not yet acked.
+     */
+    public synchronized int getInFlightCount()
+    {
+        return inFlight;
+    }
+
+    /**
+     *  Returns the number of segments waiting for room in the 
+     *  congestion window.
+     */
+    public synchronized int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    /**
+     *  Returns the number of segment transmissions, including the
+     *  retransmissions.
+     */
+    public synchronized long getSegmentsSent()
+    {
+        return segmentsSent;
+    }
+
+    public synchronized long getRetransmitCount()
+    {
+        return retransmits;
+    }
+
+    /**
+     *  Returns the number of retransmissions caused by a timeout rather
+     *  than by later segments being acked.
+     */
+    public synchronized long getTimeoutCount()
+    {
+        return timeouts;
+    }
+
+    public synchronized long getDatagramsReceived()
+    {
+        return datagramsReceived;
+    }
+
+    /**
+     *  Returns the number of data segments received more than once.
+     */
+    public synchronized long getDuplicateCount()
+    {
+        return duplicates;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return getClass().getSimpleName() + "[session=" + Integer.toHexString(sessionId)
+                + ", rtt=" + TimeUnit.NANOSECONDS.toMicros(srtt) + "us, cwnd=" + (int)cwnd
+                + ", inFlight=" + inFlight + ", pending=" + pending.size()
+                + ", sent=" + segmentsSent + ", retransmits=" + retransmits + ", timeouts=" + timeouts + "]";
+    }
+
+    private static class Segment
+    {
+        final byte[] data;
+        final long queuedTime;
+        int size;
+        int seq;
+        long sentTime;
+        int transmits;
+        boolean acked;
+
+        public Segment( byte[] data, long queuedTime )
+        {
+            this.data = data;
+            this.queuedTime = queuedTime;
+        }
+    }
+}
@@ -31,13 +31,17 @@
  */
 package com.jme3.network.kernel.tcp;
 
+import com.jme3.network.kernel.BufferPool;
 import com.jme3.network.kernel.Endpoint;
 import com.jme3.network.kernel.Kernel;
 import com.jme3.network.kernel.KernelException;
+import com.jme3.network.kernel.SharedBuffer;
+import com.jme3.network.stats.LatencyHistogram;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -51,12 +55,25 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class NioEndpoint implements Endpoint
 {
     protected static final ByteBuffer CLOSE_MARKER = ByteBuffer.allocate(0);
+    private static final SharedBuffer CLOSE = new SharedBuffer(CLOSE_MARKER, null);
 
     private long id;
     private SocketChannel socket;
     private SelectorKernel kernel;
-    private ConcurrentLinkedQueue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
-    private boolean closing = false;
+    private ConcurrentLinkedQueue<SharedBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private volatile boolean closing = false;
+
+    // Bytes in the outbound queue and the time the oldest of them
+    // was queued.  Used to decide when a batch is due.
+    private AtomicInteger queuedBytes = new AtomicInteger();
+    private volatile long queuedSince;
+
+    // Only accessed by the selector thread: the buffer currently
+    // being written, the shared data it is a view of if any, and the
+    // reusable buffer batches are coalesced into.
+    private ByteBuffer current;
+    private SharedBuffer currentSource;
+    private ByteBuffer batchBuffer;
 
     public NioEndpoint( SelectorKernel kernel, long id, SocketChannel socket )
     {
@@ -121,51 +138,183 @@ public class NioEndpoint implements Endpoint
     /**
      *  The wakeup option is used internally when the kernel is
      *  broadcasting out to a bunch of endpoints and doesn't want to
-     *  necessarily wakeup right away.
+     *  necessarily wakeup right away.  Returns true if the selector
+     *  needs to be woken up for the new data, which is always the case
+     *  when the kernel isn't batching.
+     *
+     *  <p>With copy, the data is copied into a buffer from the kernel's
+     *  buffer pool and the position of the data is left alone.  Without,
+     *  the data is written as is and must not be changed until then.  It
+     *  is never given to the pool.</p>
      */
-    protected void send( ByteBuffer data, boolean copy, boolean wakeup )
-    {
-        // We create a ByteBuffer per endpoint since we
-        // use it to track the data sent to each endpoint
-        // separately.
-        ByteBuffer buffer;
-        if( !copy ) {
-            buffer = data;
-        } else {
-            // Copy the buffer
-            buffer = ByteBuffer.allocate(data.remaining());
-            buffer.put(data);
-            buffer.flip();
-        }
+    protected boolean send( ByteBuffer data, boolean copy, boolean wakeup )
+    {
+        if( data == CLOSE_MARKER )
+            return send( CLOSE, wakeup );
+        BufferPool pool = kernel.getBufferPool();
+        return send( copy ? SharedBuffer.copyOf(data, pool) : new SharedBuffer(data, null), wakeup );
+    }
 
-        // Queue it up
-        outbound.add(buffer);
+    /**
+     *  Queues shared data for writing.  The endpoint takes over one
+     *  reference to the data and releases it once the data has been
+     *  written.  See send(ByteBuffer, boolean, boolean) for the rest.
+     */
+    protected boolean send( SharedBuffer data, boolean wakeup )
+    {
+        // Queue it up.  Each endpoint gets its own view of the
+        // data when it's written so that it can track how much it
+        // has sent on its own.
+        int size = data.size();
+        outbound.add(data);
+        boolean first = queuedBytes.addAndGet(size) == size;
+        if( first )
+            queuedSince = System.nanoTime();
 
-        if( wakeup )
+        // When batching, the selector only needs to hear about the
+        // first message of a batch so that it can schedule the flush,
+        // or about a batch that can't wait any longer.
+        boolean due = first || kernel.isFlushDue(this);
+        if( wakeup && due )
             kernel.wakeupSelector();
+        return due;
+    }
+
+    /**
+     *  Returns the number of bytes queued for writing that have not
+     *  been taken by the selector yet.
+     */
+    protected int getQueuedBytes()
+    {
+        return queuedBytes.get();
+    }
+
+    /**
+     *  Returns the System.nanoTime() at which the oldest data that
+     *  has not been taken by the selector yet was queued.
+     */
+    protected long getQueuedSince()
+    {
+        return queuedSince;
+    }
+
+    protected boolean isClosing()
+    {
+        return closing;
     }
 
     /**
      *  Called by the SelectorKernel to get the current top
-     *  buffer for writing.
+     *  buffer for writing.  When the kernel is batching, consecutive
+     *  small buffers are coalesced into a single buffer first.
+     *  The buffer stays current until removePending() is called.
      */
     protected ByteBuffer peekPending()
     {
-        return outbound.peek();
+        if( current != null )
+            return current;
+
+        SharedBuffer next = outbound.poll();
+        if( next == null )
+            return null;
+
+        long now = System.nanoTime();
+        LatencyHistogram wait = kernel.getOutboundWait();
+        long start = queuedSince;
+        int max = kernel.getMaxBatchSize();
+        int messages = 1;
+        int size = next.size();
+        if( max > 0 && next != CLOSE && fits(outbound.peek(), max - size) ) {
+            if( batchBuffer == null || batchBuffer.capacity() < max ) {
+                BufferPool pool = kernel.getBufferPool();
+                pool.release(batchBuffer);
+                batchBuffer = pool.acquire(max);
+            }
+            batchBuffer.clear().limit(max);
+            wait.record(now - next.getCreationTime());
+            next.copyTo(batchBuffer);
+            next.release();
+            for( next = outbound.peek(); fits(next, max - size); next = outbound.peek() ) {
+                outbound.poll();
+                size += next.size();
+                wait.record(now - next.getCreationTime());
+                next.copyTo(batchBuffer);
+                next.release();
+                messages++;
+            }
+            batchBuffer.flip();
+            current = batchBuffer;
+        } else if( next == CLOSE ) {
+            current = CLOSE_MARKER;
+        } else {
+            wait.record(now - next.getCreationTime());
+            current = next.view();
+            currentSource = next;
+        }
+
+        int left = queuedBytes.addAndGet(-size);
+        if( max > 0 && current != CLOSE_MARKER ) {
+            if( left > 0 ) {
+                // Close enough... the rest was queued after 'start'
+                queuedSince = now;
+            }
+            kernel.getBatchStatistics().addBatch(messages, size, now - start);
+        }
+        return current;
+    }
+
+    private static boolean fits( SharedBuffer buffer, int room )
+    {
+        return buffer != null && buffer != CLOSE && buffer.size() <= room;
     }
 
     /**
      *  Called by the SelectorKernel when the top buffer
-     *  has been exhausted.
+     *  has been exhausted.  Pooled data goes back to the pool
+     *  so the result must not be used by the caller.
      */
     protected ByteBuffer removePending()
     {
-        return outbound.poll();
+        ByteBuffer result = current;
+        current = null;
+        if( currentSource != null ) {
+            currentSource.release();
+            currentSource = null;
+        }
+        return result;
+    }
+
+    /**
+     *  Called by the SelectorKernel when the endpoint has been removed
+     *  to give up the data that will never be written, including the
+     *  buffer that was partially written.
+     */
+    protected void discardPending()
+    {
+        current = null;
+        if( currentSource != null ) {
+            currentSource.release();
+            currentSource = null;
+        }
+        SharedBuffer next;
+        while( (next = outbound.poll()) != null ) {
+            if( next != CLOSE )
+                next.release();
+        }
     }
 
     protected boolean hasPending()
     {
-        return !outbound.isEmpty();
+        return current != null || !outbound.isEmpty();
+    }
+
+    /**
+     *  Returns true if a partially written buffer is waiting to be
+     *  finished.
+     */
+    protected boolean isWriting()
+    {
+        return current != null;
     }
 
     @Override
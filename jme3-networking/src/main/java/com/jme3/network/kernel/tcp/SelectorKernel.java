@@ -40,9 +40,11 @@ import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.nio.channels.spi.SelectorProvider;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -116,6 +118,11 @@ public class SelectorKernel extends AbstractKernel
         }
     }
 
+    /**
+     *  Queues the data on every endpoint that passes the filter.  The
+     *  data is copied at most once and the same buffer is shared by all
+     *  of the endpoints.
+     */
     @Override
     public void broadcast( Filter<? super Endpoint> filter, ByteBuffer data, boolean reliable,
                            boolean copy )
@@ -123,28 +130,91 @@ public class SelectorKernel extends AbstractKernel
         if( !reliable )
             throw new UnsupportedOperationException( "Unreliable send not supported by this kernel." );
 
-        if( copy ) {
-            // Copy the data just once
-            byte[] temp = new byte[data.remaining()];
-            System.arraycopy(data.array(), data.position(), temp, 0, data.remaining());
-            data = ByteBuffer.wrap(temp);
-        }
+        SharedBuffer shared = share(data, copy);
 
         // Hand it to all of the endpoints that match our routing
+        boolean wakeup = !isBatching();
         for( NioEndpoint p : endpoints.values() ) {
             // Does it match the filter?
             if( filter != null && !filter.apply(p) )
                 continue;
 
-            // Give it the data... but let each endpoint track their
-            // own completion over the shared array of bytes by
-            // duplicating it
-            p.send( data.duplicate(), false, false );
+            if( send(p, shared) )
+                wakeup = true;
         }
+        shared.release();
 
         // Wake up the selector so it can reinitialize its
-        // state accordingly.
-        wakeupSelector();
+        // state accordingly.  When batching, only if one of the
+        // endpoints needs it.
+        if( wakeup )
+            wakeupSelector();
+    }
+
+    /**
+     *  Queues the data on the specified endpoints, sharing the same
+     *  buffer like broadcast().  Endpoints that don't belong to this
+     *  kernel, or not anymore, are skipped.
+     */
+    @Override
+    public void broadcastTo( Collection<? extends Endpoint> targets, ByteBuffer data,
+                             boolean reliable, boolean copy )
+    {
+        if( !reliable )
+            throw new UnsupportedOperationException( "Unreliable send not supported by this kernel." );
+
+        SharedBuffer shared = share(data, copy);
+        boolean wakeup = false;
+        for( Endpoint e : targets ) {
+            if( e == null || endpoints.get(e.getId()) != e )
+                continue;
+            if( send((NioEndpoint)e, shared) )
+                wakeup = true;
+        }
+        shared.release();
+
+        if( wakeup )
+            wakeupSelector();
+    }
+
+    private SharedBuffer share( ByteBuffer data, boolean copy )
+    {
+        // The caller's own buffer is never ours to pool
+        return copy ? SharedBuffer.copyOf(data, getBufferPool())
+                    : new SharedBuffer(data, null);
+    }
+
+    private boolean send( NioEndpoint p, SharedBuffer shared )
+    {
+        // Give it the data.  Each endpoint holds its own reference
+        // and tracks its own completion over the shared bytes.
+        shared.retain(1);
+        return p.send( shared, false );
+    }
+
+    /**
+     *  Returns true if the data queued on the specified endpoint
+     *  should be written without waiting for the batch delay to
+     *  expire: when not batching, when there is no batch delay, when
+     *  the endpoint is closing, or when a full batch is queued.
+     */
+    protected boolean isFlushDue( NioEndpoint p )
+    {
+        return !isBatching() || getMaxBatchDelay(TimeUnit.NANOSECONDS) == 0
+               || p.isClosing() || p.getQueuedBytes() >= getMaxBatchSize();
+    }
+
+    /**
+     *  Returns how many nanoseconds the data queued on the specified
+     *  endpoint can still wait before it has to be written, 0 if it
+     *  is due now.
+     */
+    protected long getFlushWait( NioEndpoint p, long now )
+    {
+        if( p.isWriting() || isFlushDue(p) )
+            return 0;
+        long wait = p.getQueuedSince() + getMaxBatchDelay(TimeUnit.NANOSECONDS) - now;
+        return Math.max(0, wait);
     }
 
     protected NioEndpoint addEndpoint( SocketChannel c )
@@ -167,6 +237,9 @@ public class SelectorKernel extends AbstractKernel
         endpoints.remove( p.getId() );
         log.log( Level.FINE, "Endpoints size:{0}", endpoints.size() );
 
+        // Let go of whatever was still waiting to be written
+        p.discardPending();
+
         // Enqueue an endpoint event for the listeners
         addEvent( EndpointEvent.createRemove( this, p ) );
 
@@ -223,6 +296,10 @@ public class SelectorKernel extends AbstractKernel
         private AtomicBoolean go = new AtomicBoolean(true);
         private ByteBuffer working = ByteBuffer.allocate( 8192 );
 
+        // Nanoseconds until the next batch is due or 0 if the
+        // selector can block until it is woken up.
+        private long selectTimeout;
+
         /**
          *  Because we want to keep the keys to ourselves, we'll do
          *  the endpoint -&gt; key mapping internally.
@@ -287,9 +364,21 @@ public class SelectorKernel extends AbstractKernel
             // efficiently done as change requests... or simply
             // keeping a thread-safe set of endpoints with pending
             // writes.  For most cases, it shouldn't matter.
+            //
+            // When batching, endpoints whose data can still wait
+            // are left alone and the select() times out when the
+            // earliest of them is due.
+            long now = System.nanoTime();
+            selectTimeout = 0;
             for( Map.Entry<NioEndpoint,SelectionKey> e : endpointKeys.entrySet() ) {
-                if( e.getKey().hasPending() ) {
+                NioEndpoint p = e.getKey();
+                if( !p.hasPending() )
+                    continue;
+                long wait = getFlushWait(p, now);
+                if( wait == 0 ) {
                     e.getValue().interestOps(SelectionKey.OP_WRITE);
+                } else if( selectTimeout == 0 || wait < selectTimeout ) {
+                    selectTimeout = wait;
                 }
             }
         }
@@ -400,15 +489,21 @@ public class SelectorKernel extends AbstractKernel
             }
 
             // If we happened to empty the pending queue then let's read
-            // again.
-            if( !p.hasPending() ) {
+            // again.  Same if the rest of the queue is a batch that can
+            // still wait.
+            if( !p.hasPending() || getFlushWait(p, System.nanoTime()) > 0 ) {
                 key.interestOps( SelectionKey.OP_READ );
             }
         }
 
         protected void select() throws IOException
         {
-            selector.select();
+            if( selectTimeout > 0 ) {
+                // Round up so that we never pass 0, which would block
+                selector.select( Math.max(1, TimeUnit.NANOSECONDS.toMillis(selectTimeout + 999999)) );
+            } else {
+                selector.select();
+            }
 
             for( Iterator<SelectionKey> i = selector.selectedKeys().iterator(); i.hasNext(); ) {
                 SelectionKey key = i.next();
@@ -34,8 +34,8 @@ package com.jme3.network.kernel.udp;
 import com.jme3.network.kernel.Endpoint;
 import com.jme3.network.kernel.Kernel;
 import com.jme3.network.kernel.KernelException;
+import com.jme3.network.kernel.SharedBuffer;
 import java.io.IOException;
-import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.SocketAddress;
 import java.net.SocketException;
@@ -58,6 +58,13 @@ public class UdpEndpoint implements Endpoint
     private UdpKernel kernel;
     private boolean connected = true; // it's connectionless but we track logical state
 
+    // The datagram being filled when the kernel is batching
+    private final Object batchLock = new Object();
+    private ByteBuffer batch;
+    private int batchMessages;
+    private long batchStart;
+    private long batchId;
+
     public UdpEndpoint( UdpKernel kernel, long id, SocketAddress address, DatagramSocket socket )
     {
         this.id = id;
@@ -86,9 +93,18 @@ public class UdpEndpoint implements Endpoint
     @Override
     public void close( boolean flush )
     {
-        // No real reason to flush UDP traffic yet... especially
-        // when considering that the outbound UDP isn't even
-        // queued.
+        // Outbound UDP isn't queued per endpoint so the only data
+        // to flush is the batch in progress.  It is written even
+        // though the endpoint is closed right after.
+        synchronized( batchLock ) {
+            if( flush ) {
+                flushBatch(true);
+            } else {
+                kernel.getBufferPool().release(batch);
+                batch = null;
+                batchMessages = 0;
+            }
+        }
     
         try {
             kernel.closeEndpoint(this);
@@ -125,14 +141,105 @@ public class UdpEndpoint implements Endpoint
             throw new KernelException( "Endpoint is not connected:" + this );
         }
         
+        // The datagram is written on another thread so we
+        // can't hold on to the caller's buffer.
+        send( SharedBuffer.copyOf(data, kernel.getBufferPool()) );
+    }
+
+    /**
+     *  Sends shared data, taking over one reference to it that is
+     *  released once the data has been written or batched.
+     */
+    protected void send( SharedBuffer data )
+    {
+        if( !isConnected() ) {
+            data.release();
+            throw new KernelException( "Endpoint is not connected:" + this );
+        }
+        
+        int max = kernel.getMaxBatchSize();
+        if( max > 0 ) {
+            batch( data, max );
+            return;
+        }
         
+        write( data );
+    }
+
+    /**
+     *  Appends the data to the datagram being batched, writing
+     *  out the previous one first if the data doesn't fit.  The
+     *  messages in a datagram are still individually framed so the
+     *  receiving side doesn't need to know about batching.
+     */
+    protected void batch( SharedBuffer data, int max )
+    {
+        synchronized( batchLock ) {
+            if( batch != null && batch.remaining() < data.size() ) {
+                flushBatch();
+            }
+            if( data.size() > max ) {
+                // Too big to batch so it goes out on its own
+                write( data );
+                return;
+            }
+            if( batch == null ) {
+                batch = kernel.getBufferPool().acquire(max);
+                batchStart = System.nanoTime();
+                kernel.scheduleFlush(this, ++batchId);
+            }
+            data.copyTo(batch);
+            data.release();
+            batchMessages++;
+        }
+    }
+
+    /**
+     *  Called by the kernel when the batch delay of a batch has
+     *  expired to write out whatever has been batched.  Does nothing
+     *  if that batch was already written out because it was full.
+     */
+    protected void flush( long batchId )
+    {
+        synchronized( batchLock ) {
+            if( batchId == this.batchId ) {
+                flushBatch();
+            }
+        }
+    }
+
+    private void flushBatch()
+    {
+        flushBatch(false);
+    }
+
+    private void flushBatch( boolean closing )
+    {
+        if( batch == null )
+            return;
+        int size = batch.position();
+        batch.flip();
+        SharedBuffer data = new SharedBuffer(batch, kernel.getBufferPool());
+        if( closing ) {
+            kernel.enqueueWrite( this, data, true );
+        } else {
+            write( data );
+        }
+        kernel.getBatchStatistics().addBatch(batchMessages, size, System.nanoTime() - batchStart);
+        batch = null;
+        batchMessages = 0;
+    }
+
+    /**
+     *  Queues the data for the kernel threads to write out as one
+     *  datagram.  The reference to the data is released afterwards.
+     */
+    protected void write( SharedBuffer data )
+    {
         try {
-            DatagramPacket p = new DatagramPacket( data.array(), data.position(), 
-                                                   data.remaining(), address );
-                                                   
             // Just queue it up for the kernel threads to write
             // out
-            kernel.enqueueWrite( this, p );
+            kernel.enqueueWrite( this, data );
                                                                
             //socket.send(p);
         } catch (Exception e) {
@@ -36,10 +36,13 @@ import com.jme3.network.kernel.*;
 import java.io.IOException;
 import java.net.*;
 import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -54,10 +57,12 @@ public class UdpKernel extends AbstractKernel
 {
     private static final Logger log = Logger.getLogger(UdpKernel.class.getName());
 
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
     private InetSocketAddress address;
     private HostThread thread;
 
-    private ExecutorService writer;
+    private ScheduledExecutorService writer;
     
     // The nature of UDP means that even through a firewall,
     // a user would have to have a unique address+port since UDP
@@ -90,7 +95,10 @@ public class UdpKernel extends AbstractKernel
         if( thread != null )
             throw new IllegalStateException( "Kernel already initialized." );
 
-        writer = Executors.newFixedThreadPool(2, new NamedThreadFactory(toString() + "-writer"));
+        // A single writer keeps the datagrams of an endpoint in the order
+        // they were queued, batches flushed by the timer included.  The
+        // writes all go through the one socket anyway.
+        writer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(toString() + "-writer"));
         
         thread = createHostThread();
 
@@ -122,7 +130,9 @@ public class UdpKernel extends AbstractKernel
 
     /**
      *  Dispatches the data to all endpoints managed by the
-     *  kernel.  'routing' is currently ignored.
+     *  kernel.  'routing' is currently ignored.  The data is copied
+     *  at most once and the same buffer is shared by all of the
+     *  endpoints.
      */
     @Override
     public void broadcast( Filter<? super Endpoint> filter, ByteBuffer data, boolean reliable,
@@ -131,13 +141,8 @@ public class UdpKernel extends AbstractKernel
         if( reliable )
             throw new UnsupportedOperationException( "Reliable send not supported by this kernel." );
 
-        if( copy ) {
-            // Copy the data just once
-            byte[] temp = new byte[data.remaining()];
-            System.arraycopy(data.array(), data.position(), temp, 0, data.remaining());
-            data = ByteBuffer.wrap(temp);
-        }
-
+        SharedBuffer shared = share(data, copy);
+        
         // Hand it to all of the endpoints that match our routing
         for( UdpEndpoint p : socketEndpoints.values() ) {
             // Does it match the filter?
@@ -145,8 +150,59 @@ public class UdpKernel extends AbstractKernel
                 continue;
     
             // Send the data
-            p.send( data );
+            send(p, shared);
         }
+        shared.release();
+    }
+
+    /**
+     *  Sends the data to the specified endpoints, sharing the same
+     *  buffer like broadcast().  Endpoints that don't belong to this
+     *  kernel, or not anymore, are skipped.
+     */
+    @Override
+    public void broadcastTo( Collection<? extends Endpoint> targets, ByteBuffer data,
+                             boolean reliable, boolean copy )
+    {
+        if( reliable )
+            throw new UnsupportedOperationException( "Reliable send not supported by this kernel." );
+
+        SharedBuffer shared = share(data, copy);
+        for( Endpoint e : targets ) {
+            if( !(e instanceof UdpEndpoint) )
+                continue;
+            UdpEndpoint p = (UdpEndpoint)e;
+            if( socketEndpoints.get(p.getRemoteAddress()) != p )
+                continue;
+            send(p, shared);
+        }
+        shared.release();
+    }
+
+    private SharedBuffer share( ByteBuffer data, boolean copy )
+    {
+        // The caller's own buffer is never ours to pool
+        return copy ? SharedBuffer.copyOf(data, getBufferPool())
+                    : new SharedBuffer(data, null);
+    }
+
+    private void send( UdpEndpoint p, SharedBuffer shared )
+    {
+        shared.retain(1);
+        p.send(shared);
+    }
+
+    /**
+     *  Sets the largest datagram that batching will build.  Datagrams
+     *  larger than the path MTU, usually around 1400 bytes, are
+     *  fragmented and much more likely to be lost.
+     */
+    @Override
+    public void setMaxBatchSize( int bytes )
+    {
+        if( bytes > MAX_DATAGRAM_SIZE )
+            throw new IllegalArgumentException( "Batch size is larger than a datagram:" + bytes );
+        super.setMaxBatchSize(bytes);
     }
 
     protected Endpoint getEndpoint( SocketAddress address, boolean create )
@@ -196,20 +252,54 @@ public class UdpKernel extends AbstractKernel
         addEnvelope( env );
     }
 
-    protected void enqueueWrite( Endpoint endpoint, DatagramPacket packet )
+    protected void enqueueWrite( UdpEndpoint endpoint, SharedBuffer data )
     {
-        writer.execute( new MessageWriter(endpoint, packet) );
+        enqueueWrite( endpoint, data, false );
     } 
 
+    /**
+     *  Queues the data for the writer threads.  If closing is true, the
+     *  data is written even if the endpoint has been closed by then,
+     *  as when flushing it on close.
+     */
+    protected void enqueueWrite( UdpEndpoint endpoint, SharedBuffer data, boolean closing )
+    {
+        writer.execute( new MessageWriter(endpoint, data, closing) );
+    } 
+
+    /**
+     *  Called by an endpoint when it starts a new batch so that the
+     *  batch is written out once the batch delay expires.  The batch
+     *  id keeps the flush from writing out a later batch early.
+     */
+    protected void scheduleFlush( final UdpEndpoint endpoint, final long batchId )
+    {
+        long delay = getMaxBatchDelay(TimeUnit.NANOSECONDS);
+        writer.schedule( new Runnable() {
+                @Override
+                public void run()
+                {
+                    endpoint.flush(batchId);
+                }
+            }, delay, TimeUnit.NANOSECONDS );
+    }
+
     protected class MessageWriter implements Runnable
     {
-        private Endpoint endpoint;
-        private DatagramPacket packet;
+        private UdpEndpoint endpoint;
+        private SharedBuffer data;
+        private boolean closing;
         
-        public MessageWriter( Endpoint endpoint, DatagramPacket packet )
+        public MessageWriter( UdpEndpoint endpoint, SharedBuffer data )
+        {
+            this( endpoint, data, false );
+        }
+        
+        public MessageWriter( UdpEndpoint endpoint, SharedBuffer data, boolean closing )
         {
             this.endpoint = endpoint;
-            this.packet = packet;
+            this.data = data;
+            this.closing = closing;
         }
         
         @Override
@@ -217,22 +307,27 @@ public class UdpKernel extends AbstractKernel
         {
             // Not guaranteed to always work but an extra datagram
             // to a dead connection isn't so big of a deal.
-            if( !endpoint.isConnected() ) {
+            if( !endpoint.isConnected() && !closing ) {
+                data.release();
                 return;
             }
             
+            getOutboundWait().record(System.nanoTime() - data.getCreationTime());
             try {
-                thread.getSocket().send(packet);
+                thread.getChannel().send(data.view(), endpoint.getRemoteAddress());
             } catch( Exception e ) {
                 KernelException exc = new KernelException( "Error sending datagram to:" + address, e );
                 exc.fillInStackTrace();
                 reportError(exc);
+            } finally {
+                data.release();
             }
         } 
     }
 
     protected class HostThread extends Thread
     {
+        private DatagramChannel channel;
         private DatagramSocket socket;
         private AtomicBoolean go = new AtomicBoolean(true);
 
@@ -249,9 +344,22 @@ public class UdpKernel extends AbstractKernel
             return socket;
         }
 
+        /**
+         *  Returns the channel behind the socket, which is used for
+         *  writing so that pooled direct buffers can be sent as is.
+         */
+        protected DatagramChannel getChannel()
+        {
+            return channel;
+        }
+
         public void connect() throws IOException
         {
-            socket = new DatagramSocket( address );
+            // The channel stays in blocking mode so that the socket
+            // adapter can still be used for receiving.
+            channel = DatagramChannel.open();
+            channel.bind( address );
+            socket = channel.socket();
             log.log( Level.FINE, "Hosting UDP connection:{0}.", address );
         }
 
@@ -43,6 +43,8 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.Attributes;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,6 +54,10 @@ import java.util.logging.Logger;
  *  they can be sent across the network. Serializing classes should extend
  *  this to provide their own serialization.
  *
+ *  <p>The registry can be read from any thread while messages are being
+ *  serialized.  Registration is synchronized but is still expected to
+ *  happen up front, before the registry is made read-only.</p>
+ *
  * @author Lars Wesselius
  */
 public abstract class Serializer {
@@ -59,16 +65,20 @@ public abstract class Serializer {
 
     private static final SerializerRegistration NULL_CLASS = new SerializerRegistration( null, Void.class, (short)-1 );
 
-    private static final Map<Short, SerializerRegistration> idRegistrations         = new HashMap<Short, SerializerRegistration>();
-    private static final Map<Class, SerializerRegistration> classRegistrations      = new HashMap<Class, SerializerRegistration>();
-    private static final List<SerializerRegistration> registrations                 = new ArrayList<SerializerRegistration>();
+    private static final Map<Short, SerializerRegistration> idRegistrations         = new ConcurrentHashMap<Short, SerializerRegistration>();
+    private static final Map<Class, SerializerRegistration> classRegistrations      = new ConcurrentHashMap<Class, SerializerRegistration>();
+    private static final List<SerializerRegistration> registrations                 = new CopyOnWriteArrayList<SerializerRegistration>();
+    
+    // Classes that resolved to the registration of a super type, cleared
+    // whenever a class is registered
+    private static final Map<Class, SerializerRegistration> resolvedRegistrations   = new ConcurrentHashMap<Class, SerializerRegistration>();
 
     private static final Serializer                         fieldSerializer         = new FieldSerializer();
     private static final Serializer                         arraySerializer         = new ArraySerializer();
 
     private static short nextAvailableId = -2; // historically the first ID was always -2
 
-    private static boolean strictRegistration = true;
+    private static volatile boolean strictRegistration = true;
 
     private static volatile boolean locked = false;
     
@@ -78,12 +88,13 @@ public abstract class Serializer {
         initialize();
     }
     
-    public static void initialize() {
+    public static synchronized void initialize() {
 
         // Reset all of the indices and tracking variables just in case
         idRegistrations.clear();
         classRegistrations.clear();
         registrations.clear();        
+        resolvedRegistrations.clear();
 
         nextAvailableId = -2; // historically the first ID was always -2
 
@@ -170,7 +181,7 @@ public abstract class Serializer {
         }
     }
     
-    private static short nextId() {
+    private static synchronized short nextId() {
     
         // If the ID we are about to return is already in use
         // then skip it.
@@ -202,7 +213,7 @@ public abstract class Serializer {
      *  registerClass() method.  This method is intended for framework code that might
      *  be maintaining specific ID maps across client and server.
      */
-    public static SerializerRegistration registerClassForId( short id, Class cls, Serializer serializer ) {
+    public static synchronized SerializerRegistration registerClassForId( short id, Class cls, Serializer serializer ) {
  
         if( locked ) {
             throw new RuntimeException("Serializer registry locked trying to register class:" + cls);
@@ -212,6 +223,7 @@ public abstract class Serializer {
 
         idRegistrations.put(id, reg);
         classRegistrations.put(cls, reg);
+        resolvedRegistrations.clear();
         
         log.log( Level.FINE, "Registered class[" + id + "]:{0} to:" + serializer, cls );
 
@@ -229,7 +241,7 @@ public abstract class Serializer {
      *  this method returns null for failed registration or throws an exception.
      */
     @SuppressWarnings("unchecked")
-    public static SerializerRegistration registerClass(Class cls, boolean failOnMiss) {
+    public static synchronized SerializerRegistration registerClass(Class cls, boolean failOnMiss) {
         if (cls.isAnnotationPresent(Serializable.class)) {
             Serializable serializable = (Serializable)cls.getAnnotation(Serializable.class);
 
@@ -304,7 +316,7 @@ public abstract class Serializer {
         return classes;
     }
 
-    public static SerializerRegistration registerClass(Class cls, Serializer serializer) {
+    public static synchronized SerializerRegistration registerClass(Class cls, Serializer serializer) {
         SerializerRegistration existingReg = getExactSerializerRegistration(cls);
 
         short id;
@@ -346,9 +358,16 @@ public abstract class Serializer {
         
         if (reg != null) return reg;
 
+        reg = resolvedRegistrations.get(cls);
+        
+        if (reg != null) return reg;
+
         for (Map.Entry<Class, SerializerRegistration> entry : classRegistrations.entrySet()) {
             if (entry.getKey().isAssignableFrom(Serializable.class)) continue;
-            if (entry.getKey().isAssignableFrom(cls)) return entry.getValue();
+            if (entry.getKey().isAssignableFrom(cls)) {
+                resolvedRegistrations.put(cls, entry.getValue());
+                return entry.getValue();
+            }
         }
 
         if (cls.isArray()) return registerClass(cls, arraySerializer);
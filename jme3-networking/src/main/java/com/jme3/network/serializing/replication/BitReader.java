@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads values written by a {@link BitWriter}. Whole bytes are taken from
+ * the buffer as they are needed, so when the last value has been read the
+ * buffer is positioned just after the writer's flushed data.
+ *
+ * @version $Revision$
+ */
+public class BitReader {
+    private ByteBuffer buffer;
+    private long bits;
+    private int bitCount;
+
+    public BitReader() {
+    }
+
+    public BitReader(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * Discards any buffered bits and starts reading from the specified
+     * buffer at its current position.
+     */
+    public void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bits = 0;
+        this.bitCount = 0;
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Reads count bits and returns them in the lowest bits of the result.
+     *
+     * @param count the number of bits, from 0 to 32
+     * @throws java.nio.BufferUnderflowException if the buffer has no more data
+     */
+    public int readBits(int count) {
+        if (count < 0 || count > 32) {
+            throw new IllegalArgumentException("Bit count out of range:" + count);
+        }
+        while (bitCount < count) {
+            bits |= (buffer.get() & 0xffL) << bitCount;
+            bitCount += 8;
+        }
+        int result = (int)(bits & (0xffffffffL >>> (32 - count)));
+        bits >>>= count;
+        bitCount -= count;
+        return result;
+    }
+
+    public boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readBits(32));
+    }
+}
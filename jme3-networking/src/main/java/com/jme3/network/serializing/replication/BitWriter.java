@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes values of any number of bits, from 1 to 32, to a ByteBuffer.
+ * Bits are packed from the least significant end of each byte and a partly
+ * filled byte is only written by {@link #flush()}, which must be called
+ * after the last value.
+ *
+ * @version $Revision$
+ */
+public class BitWriter {
+    private ByteBuffer buffer;
+    private long bits;
+    private int bitCount;
+    private long bitsWritten;
+
+    public BitWriter() {
+    }
+
+    public BitWriter(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * Discards any unflushed bits and starts writing to the specified buffer
+     * at its current position.
+     */
+    public void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bits = 0;
+        this.bitCount = 0;
+        this.bitsWritten = 0;
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Writes the lowest count bits of the value.
+     *
+     * @param value the bits to write, higher bits are ignored
+     * @param count the number of bits, from 0 to 32
+     */
+    public void writeBits(int value, int count) {
+        if (count < 0 || count > 32) {
+            throw new IllegalArgumentException("Bit count out of range:" + count);
+        }
+        bits |= (value & (0xffffffffL >>> (32 - count))) << bitCount;
+        bitCount += count;
+        bitsWritten += count;
+        while (bitCount >= 8) {
+            buffer.put((byte)bits);
+            bits >>>= 8;
+            bitCount -= 8;
+        }
+    }
+
+    public void writeBit(boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes a float as its full 32 bits.
+     */
+    public void writeFloat(float value) {
+        writeBits(Float.floatToIntBits(value), 32);
+    }
+
+    /**
+     * Writes the last partly filled byte, if any, padding it with zeros.
+     */
+    public void flush() {
+        if (bitCount > 0) {
+            buffer.put((byte)bits);
+            bits = 0;
+            bitCount = 0;
+        }
+    }
+
+    /**
+     * Returns the number of bits written since the last reset.
+     */
+    public long getBitsWritten() {
+        return bitsWritten;
+    }
+}
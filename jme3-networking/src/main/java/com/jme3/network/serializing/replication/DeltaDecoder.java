@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import com.jme3.network.serializing.SerializerException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Decodes the snapshots written by a {@link DeltaEncoder}. After each
+ * snapshot is decoded, its sequence number, see {@link #getLastSequence()},
+ * should be sent back to the encoder so that it can be used as a baseline.
+ * Snapshots that arrive out of order, after a newer one, are discarded.
+ *
+ * @version $Revision$
+ */
+public class DeltaDecoder<T> {
+    private final StateCodec<T> codec;
+    private final T[] history;
+    private final int[] sequences;
+    private final BitReader reader = new BitReader();
+    private T scratch;
+    private int lastSequence = -1;
+
+    public DeltaDecoder(StateCodec<T> codec) {
+        this(codec, DeltaEncoder.DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historySize the number of snapshots kept as possible
+     * baselines, which must be the same as the encoder's
+     */
+    @SuppressWarnings("unchecked")
+    public DeltaDecoder(StateCodec<T> codec, int historySize) {
+        if (historySize < 1 || historySize > 255) {
+            throw new IllegalArgumentException("History size out of range:" + historySize);
+        }
+        this.codec = codec;
+        this.history = (T[])new Object[historySize];
+        this.sequences = new int[historySize];
+        this.scratch = codec.newState();
+        Arrays.fill(sequences, -1);
+    }
+
+    public StateCodec<T> getCodec() {
+        return codec;
+    }
+
+    /**
+     * Reads a snapshot from the buffer. The whole snapshot is always read.
+     *
+     * @return the decoded state, which belongs to the decoder and must not
+     * be modified, or null if the snapshot is older than the last one
+     * @throws SerializerException if the snapshot is newer than the last
+     * one and its baseline is no longer in the history
+     */
+    public synchronized T decode(ByteBuffer buffer) throws SerializerException {
+        int sequence = buffer.getInt();
+        int distance = buffer.get() & 0xff;
+
+        T baseline = null;
+        if (distance != 0) {
+            int baseSequence = sequence - distance;
+            int slot = baseSequence % history.length;
+            if (baseSequence >= 0 && sequences[slot] == baseSequence) {
+                baseline = history[slot];
+            }
+        }
+
+        T state = scratch;
+        if (baseline != null) {
+            codec.copy(baseline, state);
+        }
+        reader.reset(buffer);
+        int count = codec.getFieldCount();
+        for (int i = 0; i < count; i++) {
+            if (reader.readBit()) {
+                codec.readField(reader, state, i);
+            }
+        }
+        reader.reset(null);
+
+        // A late snapshot is discarded, even if its baseline is gone by now
+        if (sequence <= lastSequence) {
+            return null;
+        }
+        if (distance != 0 && baseline == null) {
+            throw new SerializerException("Baseline " + (sequence - distance)
+                                        + " of snapshot " + sequence + " is not in the history");
+        }
+
+        // Keep the state as a baseline and reuse the object it replaces
+        int slot = sequence % history.length;
+        scratch = history[slot] != null ? history[slot] : codec.newState();
+        history[slot] = state;
+        sequences[slot] = sequence;
+        lastSequence = sequence;
+        return state;
+    }
+
+    /**
+     * Returns the sequence number of the last decoded snapshot, to be sent
+     * back to the encoder, or -1 if none.
+     */
+    public synchronized int getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodes successive snapshots of a state for one connection, writing only
+ * the fields that changed since the last snapshot the other end has
+ * acknowledged. Until an acknowledgment arrives, or when the acknowledged
+ * snapshot is no longer in the history, the full state is written.
+ * <p>
+ * A snapshot is written as its sequence number (4 bytes), the distance
+ * back to its baseline (1 byte, 0 for a full state), then one bit per field
+ * followed by the field's data when the bit is set. Snapshots can be sent
+ * unreliably: one that is lost is simply never acknowledged.
+ * <p>
+ * The methods are synchronized so that acknowledgments can be delivered
+ * from the network thread while another thread encodes.
+ *
+ * @see DeltaDecoder
+ * @version $Revision$
+ */
+public class DeltaEncoder<T> {
+    public static final int DEFAULT_HISTORY = 32;
+
+    private final StateCodec<T> codec;
+    private final T[] history;
+    private final int[] sequences;
+    private final BitWriter writer = new BitWriter();
+    private int nextSequence;
+    private int ackedSequence = -1;
+    private long fullCount;
+    private long deltaCount;
+
+    public DeltaEncoder(StateCodec<T> codec) {
+        this(codec, DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historySize the number of snapshots kept as possible
+     * baselines, from 1 to 255
+     */
+    @SuppressWarnings("unchecked")
+    public DeltaEncoder(StateCodec<T> codec, int historySize) {
+        if (historySize < 1 || historySize > 255) {
+            throw new IllegalArgumentException("History size out of range:" + historySize);
+        }
+        this.codec = codec;
+        this.history = (T[])new Object[historySize];
+        this.sequences = new int[historySize];
+        reset();
+    }
+
+    public StateCodec<T> getCodec() {
+        return codec;
+    }
+
+    /**
+     * Forgets all snapshots and acknowledgments, so the next snapshot is
+     * written in full. The sequence numbers keep increasing.
+     */
+    public synchronized void reset() {
+        Arrays.fill(sequences, -1);
+        ackedSequence = -1;
+    }
+
+    /**
+     * Writes the state to the buffer as a new snapshot and keeps a copy of
+     * it as a possible baseline.
+     *
+     * @return the sequence number of the snapshot
+     */
+    public synchronized int encode(T state, ByteBuffer buffer) {
+        int sequence = nextSequence++;
+
+        T baseline = null;
+        int distance = 0;
+        if (ackedSequence >= 0 && sequence - ackedSequence < history.length) {
+            int slot = ackedSequence % history.length;
+            if (sequences[slot] == ackedSequence) {
+                baseline = history[slot];
+                distance = sequence - ackedSequence;
+            }
+        }
+
+        buffer.putInt(sequence);
+        buffer.put((byte)distance);
+        writer.reset(buffer);
+        int count = codec.getFieldCount();
+        for (int i = 0; i < count; i++) {
+            boolean changed = baseline == null || codec.isChanged(baseline, state, i);
+            writer.writeBit(changed);
+            if (changed) {
+                codec.writeField(writer, state, i);
+            }
+        }
+        writer.flush();
+        writer.reset(null);
+
+        if (baseline == null) {
+            fullCount++;
+        } else {
+            deltaCount++;
+        }
+
+        int slot = sequence % history.length;
+        if (history[slot] == null) {
+            history[slot] = codec.newState();
+        }
+        codec.copy(state, history[slot]);
+        sequences[slot] = sequence;
+        return sequence;
+    }
+
+    /**
+     * Records that the other end has received the snapshot with the
+     * specified sequence number, making it the baseline for the following
+     * snapshots. Older or unknown sequence numbers are ignored.
+     */
+    public synchronized void acknowledge(int sequence) {
+        if (sequence <= ackedSequence || sequence >= nextSequence) {
+            return;
+        }
+        if (sequences[sequence % history.length] != sequence) {
+            return;
+        }
+        ackedSequence = sequence;
+    }
+
+    /**
+     * Returns the last acknowledged sequence number or -1 if none.
+     */
+    public synchronized int getAcknowledgedSequence() {
+        return ackedSequence;
+    }
+
+    /**
+     * Returns the number of snapshots written in full.
+     */
+    public synchronized long getFullCount() {
+        return fullCount;
+    }
+
+    /**
+     * Returns the number of snapshots written as a delta.
+     */
+    public synchronized long getDeltaCount() {
+        return deltaCount;
+    }
+}
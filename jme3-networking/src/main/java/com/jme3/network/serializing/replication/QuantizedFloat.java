@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+/**
+ * Quantizes floats in a fixed range to a fixed number of bits. Values
+ * outside the range are clamped to it and NaN is written as the minimum.
+ * For example, a coordinate between -1024 and 1024 sent with 1 cm
+ * precision needs 18 bits instead of 32:
+ * <pre>
+ * QuantizedFloat coord = QuantizedFloat.withPrecision(-1024, 1024, 0.01f);
+ * </pre>
+ *
+ * @version $Revision$
+ */
+public final class QuantizedFloat {
+    private final float min;
+    private final float max;
+    private final int bits;
+    private final int maxValue;
+    private final double scale;
+
+    /**
+     * @param min the lowest value of the range
+     * @param max the highest value of the range
+     * @param bits the number of bits per value, from 1 to 31
+     */
+    public QuantizedFloat(float min, float max, int bits) {
+        if (!(max > min)) {
+            throw new IllegalArgumentException("Invalid range:" + min + " to " + max);
+        }
+        if (bits < 1 || bits > 31) {
+            throw new IllegalArgumentException("Bit count out of range:" + bits);
+        }
+        this.min = min;
+        this.max = max;
+        this.bits = bits;
+        this.maxValue = (int)((1L << bits) - 1);
+        this.scale = maxValue / ((double)max - min);
+    }
+
+    /**
+     * Returns a codec for the range that uses the fewest bits for which
+     * consecutive values are no further apart than the requested precision.
+     */
+    public static QuantizedFloat withPrecision(float min, float max, float precision) {
+        if (!(precision > 0)) {
+            throw new IllegalArgumentException("Invalid precision:" + precision);
+        }
+        double steps = Math.ceil(((double)max - min) / precision);
+        int bits = 1;
+        while (bits < 31 && (1L << bits) - 1 < steps) {
+            bits++;
+        }
+        return new QuantizedFloat(min, max, bits);
+    }
+
+    public float getMin() {
+        return min;
+    }
+
+    public float getMax() {
+        return max;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * Returns the distance between two consecutive quantized values.
+     */
+    public float getPrecision() {
+        return (float)(1 / scale);
+    }
+
+    public int quantize(float value) {
+        if (!(value > min)) {
+            return 0;
+        }
+        if (value >= max) {
+            return maxValue;
+        }
+        return (int)Math.round((value - min) * scale);
+    }
+
+    public float dequantize(int value) {
+        if (value >= maxValue) {
+            return max;
+        }
+        return (float)(min + value / scale);
+    }
+
+    /**
+     * Returns the value as it will be read on the other end.
+     */
+    public float round(float value) {
+        return dequantize(quantize(value));
+    }
+
+    /**
+     * Returns true if the two values are written the same way.
+     */
+    public boolean isSame(float a, float b) {
+        return quantize(a) == quantize(b);
+    }
+
+    public void write(BitWriter out, float value) {
+        out.writeBits(quantize(value), bits);
+    }
+
+    public float read(BitReader in) {
+        return dequantize(in.readBits(bits));
+    }
+
+    @Override
+    public String toString() {
+        return "QuantizedFloat[" + min + " to " + max + ", bits=" + bits + "]";
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+
+/**
+ * Quantizes unit quaternions with the "smallest three" method: the index
+ * of the largest component is written in 2 bits, followed by the three
+ * other components, which always lie between -1/sqrt(2) and 1/sqrt(2).
+ * The largest component is recomputed when reading. Since q and -q are
+ * the same rotation, the sign is chosen so that it is positive.
+ * <p>
+ * With 10 bits per component a rotation takes 32 bits instead of 128, with
+ * an error of at most about a quarter of a degree.
+ *
+ * @version $Revision$
+ */
+public final class QuantizedQuaternion {
+    private static final float RANGE = (float)Math.sqrt(0.5);
+
+    private final QuantizedFloat component;
+
+    /**
+     * @param bits the number of bits for each of the three smallest
+     * components, from 2 to 20
+     */
+    public QuantizedQuaternion(int bits) {
+        if (bits < 2 || bits > 20) {
+            throw new IllegalArgumentException("Bit count out of range:" + bits);
+        }
+        this.component = new QuantizedFloat(-RANGE, RANGE, bits);
+    }
+
+    /**
+     * Returns the number of bits written per rotation.
+     */
+    public int getBits() {
+        return 2 + component.getBits() * 3;
+    }
+
+    /**
+     * Returns the largest index and the three smallest components of the
+     * normalized rotation, packed into the low bits of a long in the order
+     * they are written.
+     */
+    private long pack(Quaternion q) {
+        float x = q.getX();
+        float y = q.getY();
+        float z = q.getZ();
+        float w = q.getW();
+        float norm = x * x + y * y + z * z + w * w;
+        if (norm != 1f && norm > 0f) {
+            float inv = FastMath.invSqrt(norm);
+            x *= inv;
+            y *= inv;
+            z *= inv;
+            w *= inv;
+        }
+
+        int largest = 0;
+        float max = Math.abs(x);
+        if (Math.abs(y) > max) {
+            largest = 1;
+            max = Math.abs(y);
+        }
+        if (Math.abs(z) > max) {
+            largest = 2;
+            max = Math.abs(z);
+        }
+        if (Math.abs(w) > max) {
+            largest = 3;
+        }
+
+        float a, b, c, big;
+        switch (largest) {
+            case 0: big = x; a = y; b = z; c = w; break;
+            case 1: big = y; a = x; b = z; c = w; break;
+            case 2: big = z; a = x; b = y; c = w; break;
+            default: big = w; a = x; b = y; c = z; break;
+        }
+        if (big < 0) {
+            a = -a;
+            b = -b;
+            c = -c;
+        }
+
+        int bits = component.getBits();
+        long packed = largest;
+        packed |= (long)component.quantize(a) << 2;
+        packed |= (long)component.quantize(b) << (2 + bits);
+        packed |= (long)component.quantize(c) << (2 + bits * 2);
+        return packed;
+    }
+
+    /**
+     * Returns true if the two rotations are written the same way.
+     */
+    public boolean isSame(Quaternion a, Quaternion b) {
+        return pack(a) == pack(b);
+    }
+
+    public void write(BitWriter out, Quaternion value) {
+        long packed = pack(value);
+        int bits = component.getBits();
+        int mask = (1 << bits) - 1;
+        out.writeBits((int)packed, 2);
+        out.writeBits((int)(packed >>> 2) & mask, bits);
+        out.writeBits((int)(packed >>> (2 + bits)) & mask, bits);
+        out.writeBits((int)(packed >>> (2 + bits * 2)) & mask, bits);
+    }
+
+    /**
+     * Reads a rotation into the store, or into a new quaternion if store is
+     * null.
+     */
+    public Quaternion read(BitReader in, Quaternion store) {
+        if (store == null) {
+            store = new Quaternion();
+        }
+        int largest = in.readBits(2);
+        float a = component.read(in);
+        float b = component.read(in);
+        float c = component.read(in);
+        float big = FastMath.sqrt(Math.max(0f, 1f - a * a - b * b - c * c));
+        switch (largest) {
+            case 0: store.set(big, a, b, c); break;
+            case 1: store.set(a, big, b, c); break;
+            case 2: store.set(a, b, big, c); break;
+            default: store.set(a, b, c, big); break;
+        }
+        return store.normalizeLocal();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import com.jme3.math.Vector3f;
+
+/**
+ * Quantizes the components of a Vector3f, each in its own range.
+ *
+ * @version $Revision$
+ */
+public final class QuantizedVector3 {
+    private final QuantizedFloat x;
+    private final QuantizedFloat y;
+    private final QuantizedFloat z;
+
+    /**
+     * Creates a codec that uses the same range and bits for all three
+     * components.
+     */
+    public QuantizedVector3(QuantizedFloat component) {
+        this(component, component, component);
+    }
+
+    public QuantizedVector3(QuantizedFloat x, QuantizedFloat y, QuantizedFloat z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Returns a codec for vectors within the box from min to max with at
+     * least the requested precision on each axis.
+     */
+    public static QuantizedVector3 withPrecision(Vector3f min, Vector3f max, float precision) {
+        return new QuantizedVector3(QuantizedFloat.withPrecision(min.x, max.x, precision),
+                                    QuantizedFloat.withPrecision(min.y, max.y, precision),
+                                    QuantizedFloat.withPrecision(min.z, max.z, precision));
+    }
+
+    public QuantizedFloat getX() {
+        return x;
+    }
+
+    public QuantizedFloat getY() {
+        return y;
+    }
+
+    public QuantizedFloat getZ() {
+        return z;
+    }
+
+    /**
+     * Returns the number of bits written per vector.
+     */
+    public int getBits() {
+        return x.getBits() + y.getBits() + z.getBits();
+    }
+
+    /**
+     * Returns true if the two vectors are written the same way.
+     */
+    public boolean isSame(Vector3f a, Vector3f b) {
+        return x.isSame(a.x, b.x) && y.isSame(a.y, b.y) && z.isSame(a.z, b.z);
+    }
+
+    public void write(BitWriter out, Vector3f value) {
+        x.write(out, value.x);
+        y.write(out, value.y);
+        z.write(out, value.z);
+    }
+
+    /**
+     * Reads a vector into the store, or into a new vector if store is null.
+     */
+    public Vector3f read(BitReader in, Vector3f store) {
+        if (store == null) {
+            store = new Vector3f();
+        }
+        store.x = x.read(in);
+        store.y = y.read(in);
+        store.z = z.read(in);
+        return store;
+    }
+}
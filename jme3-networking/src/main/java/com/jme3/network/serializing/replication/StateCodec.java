@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+/**
+ * Describes a replicated state object as a fixed list of fields so that
+ * a {@link DeltaEncoder} can send only the fields that changed. The codec
+ * decides how each field is written, typically with the quantized codecs
+ * of this package.
+ *
+ * @version $Revision$
+ */
+public interface StateCodec<T> {
+
+    /**
+     * Returns the number of fields, which must never change.
+     */
+    public int getFieldCount();
+
+    /**
+     * Creates an empty state object for the history of an encoder or
+     * decoder.
+     */
+    public T newState();
+
+    /**
+     * Copies all fields of the source to the target.
+     */
+    public void copy(T source, T target);
+
+    /**
+     * Returns true if the field would be written differently for the two
+     * states. Comparing the quantized values, rather than the raw ones,
+     * avoids sending changes that are too small to arrive.
+     */
+    public boolean isChanged(T baseline, T state, int field);
+
+    public void writeField(BitWriter out, T state, int field);
+
+    public void readField(BitReader in, T state, int field);
+}
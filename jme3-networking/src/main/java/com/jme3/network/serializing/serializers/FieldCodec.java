@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.serializers;
+
+import com.jme3.network.serializing.Serializer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes one field for the {@link FieldSerializer}. The field
+ * is accessed through method handles that are created once when its class
+ * is registered. Fields of a primitive type are read and written directly
+ * without boxing, in the same format as the stock primitive serializers.
+ *
+ * @version $Revision$
+ */
+abstract class FieldCodec {
+
+    protected final Field field;
+    protected final Serializer serializer;
+    protected final MethodHandle getter;
+    protected final MethodHandle setter;
+
+    protected FieldCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+        this.field = field;
+        this.serializer = serializer;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Creates the codec for the specified field, which must already be
+     * accessible.
+     *
+     * @param field the field to read and write
+     * @param serializer the serializer of the field's type or null if the
+     * class of the value is written with it
+     */
+    public static FieldCodec create(Field field, Serializer serializer) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            getter = lookup.unreflectGetter(field);
+            setter = lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Registration error: unable to access field:" + field, e);
+        }
+
+        Class type = field.getType();
+        if (type.isPrimitive() && serializer != null) {
+            // Only bypass the serializer if it is the stock one, because
+            // the application may have registered its own for the type
+            Class serializerType = serializer.getClass();
+            if (type == int.class && serializerType == IntSerializer.class) {
+                return new IntCodec(field, serializer, getter, setter);
+            } else if (type == float.class && serializerType == FloatSerializer.class) {
+                return new FloatCodec(field, serializer, getter, setter);
+            } else if (type == long.class && serializerType == LongSerializer.class) {
+                return new LongCodec(field, serializer, getter, setter);
+            } else if (type == boolean.class && serializerType == BooleanSerializer.class) {
+                return new BooleanCodec(field, serializer, getter, setter);
+            } else if (type == short.class && serializerType == ShortSerializer.class) {
+                return new ShortCodec(field, serializer, getter, setter);
+            } else if (type == byte.class && serializerType == ByteSerializer.class) {
+                return new ByteCodec(field, serializer, getter, setter);
+            } else if (type == double.class && serializerType == DoubleSerializer.class) {
+                return new DoubleCodec(field, serializer, getter, setter);
+            } else if (type == char.class && serializerType == CharSerializer.class) {
+                return new CharCodec(field, serializer, getter, setter);
+            }
+        }
+        return new ObjectCodec(field, serializer, getter, setter);
+    }
+
+    private static MethodHandle getter(MethodHandle getter, Class type) {
+        return getter.asType(MethodType.methodType(type, Object.class));
+    }
+
+    private static MethodHandle setter(MethodHandle setter, Class type) {
+        return setter.asType(MethodType.methodType(void.class, Object.class, type));
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * Reads the value of the field from the buffer and sets it on the
+     * target object.
+     */
+    public abstract void read(ByteBuffer data, Object target) throws Throwable;
+
+    /**
+     * Writes the value of the field of the source object to the buffer.
+     */
+    public abstract void write(ByteBuffer buffer, Object source) throws Throwable;
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + field + "]";
+    }
+
+    private static final class ObjectCodec extends FieldCodec {
+
+        ObjectCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, Object.class), setter(setter, Object.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            Object value;
+            if (serializer != null) {
+                value = serializer.readObject(data, field.getType());
+            } else {
+                value = Serializer.readClassAndObject(data);
+            }
+            setter.invokeExact(target, value);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            Object value = (Object)getter.invokeExact(source);
+            if (serializer != null) {
+                serializer.writeObject(buffer, value);
+            } else {
+                Serializer.writeClassAndObject(buffer, value);
+            }
+        }
+    }
+
+    private static final class BooleanCodec extends FieldCodec {
+
+        BooleanCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, boolean.class), setter(setter, boolean.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.get() == 1);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.put((boolean)getter.invokeExact(source) ? (byte)1 : (byte)0);
+        }
+    }
+
+    private static final class ByteCodec extends FieldCodec {
+
+        ByteCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, byte.class), setter(setter, byte.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.get());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.put((byte)getter.invokeExact(source));
+        }
+    }
+
+    private static final class CharCodec extends FieldCodec {
+
+        CharCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, char.class), setter(setter, char.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getChar());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putChar((char)getter.invokeExact(source));
+        }
+    }
+
+    private static final class ShortCodec extends FieldCodec {
+
+        ShortCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, short.class), setter(setter, short.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getShort());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putShort((short)getter.invokeExact(source));
+        }
+    }
+
+    private static final class IntCodec extends FieldCodec {
+
+        IntCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, int.class), setter(setter, int.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getInt());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putInt((int)getter.invokeExact(source));
+        }
+    }
+
+    private static final class LongCodec extends FieldCodec {
+
+        LongCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, long.class), setter(setter, long.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getLong());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putLong((long)getter.invokeExact(source));
+        }
+    }
+
+    private static final class FloatCodec extends FieldCodec {
+
+        FloatCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, float.class), setter(setter, float.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getFloat());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putFloat((float)getter.invokeExact(source));
+        }
+    }
+
+    private static final class DoubleCodec extends FieldCodec {
+
+        DoubleCodec(Field field, Serializer serializer, MethodHandle getter, MethodHandle setter) {
+            super(field, serializer, getter(getter, double.class), setter(setter, double.class));
+        }
+
+        @Override
+        public void read(ByteBuffer data, Object target) throws Throwable {
+            setter.invokeExact(target, data.getDouble());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object source) throws Throwable {
+            buffer.putDouble((double)getter.invokeExact(source));
+        }
+    }
+}
@@ -34,17 +34,24 @@ package com.jme3.network.serializing.serializers;
 import com.jme3.network.serializing.Serializer;
 import com.jme3.network.serializing.SerializerException;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * The field serializer is the default serializer used for custom class.
+ * The constructor and fields of each registered class are bound to method
+ * handles once, during registration, so reading and writing do not go
+ * through reflection and primitive fields are never boxed.
  *
  * @author Lars Wesselius, Nathan Sweet
  */
@@ -52,15 +59,15 @@ public class FieldSerializer extends Serializer {
     
     private static final Logger log = Logger.getLogger(FieldSerializer.class.getName());
 
-    private static Map<Class, SavedField[]> savedFields = new HashMap<Class, SavedField[]>();
-    private static Map<Class, Constructor> savedCtors = new HashMap<Class, Constructor>();
+    private static final Map<Class, FieldCodec[]> savedFields = new ConcurrentHashMap<Class, FieldCodec[]>();
+    private static final Map<Class, MethodHandle> savedCtors = new ConcurrentHashMap<Class, MethodHandle>();
 
     @SuppressWarnings("unchecked")
     protected void checkClass(Class clazz) {
     
         // See if the class has a public no-arg constructor
         try {
-            savedCtors.put(clazz, clazz.getConstructor());
+            saveConstructor(clazz, clazz.getConstructor());
             return;
         } catch( NoSuchMethodException e ) {
             //throw new RuntimeException( "Registration error: no-argument constructor not found on:" + clazz ); 
@@ -73,13 +80,24 @@ public class FieldSerializer extends Serializer {
             // Make sure we can call it later.
             ctor.setAccessible(true);
              
-            savedCtors.put(clazz, ctor);
+            saveConstructor(clazz, ctor);
             return;
         } catch( NoSuchMethodException e ) {
         }
         
         throw new RuntimeException( "Registration error: no-argument constructor not found on:" + clazz );  
     }        
+
+    private static void saveConstructor(Class clazz, Constructor ctor) {
+        try {
+            // The class itself may not be public
+            ctor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(ctor);
+            savedCtors.put(clazz, handle.asType(MethodType.methodType(Object.class)));
+        } catch( IllegalAccessException e ) {
+            throw new RuntimeException( "Registration error: unable to access constructor of:" + clazz, e );
+        }
+    }
     
     @Override
     public void initialize(Class clazz) {
@@ -94,7 +112,7 @@ public class FieldSerializer extends Serializer {
             processingClass = processingClass.getSuperclass();
         }
 
-        List<SavedField> cachedFields = new ArrayList<>(fields.size());
+        List<FieldCodec> cachedFields = new ArrayList<>(fields.size());
         for (Field field : fields) {
             int modifiers = field.getModifiers();
             if (Modifier.isTransient(modifiers)) continue;
@@ -102,9 +120,7 @@ public class FieldSerializer extends Serializer {
             if (field.isSynthetic()) continue;
             field.setAccessible(true);
 
-            SavedField cachedField = new SavedField();
-            cachedField.field = field;
-
+            Serializer serializer = null;
             if (Modifier.isFinal(field.getType().getModifiers())) {
                 // The type of this field is implicit in the outer class
                 // definition and because the type is final, it can confidently
@@ -117,19 +133,19 @@ public class FieldSerializer extends Serializer {
                 // doesn't have any ordering problems.
                 // ...well, as long as the order of fields is consistent from one
                 // end to the next. 
-                cachedField.serializer = Serializer.getSerializer(field.getType(), false);
+                serializer = Serializer.getSerializer(field.getType(), false);
             }                
 
-            cachedFields.add(cachedField);
+            cachedFields.add(FieldCodec.create(field, serializer));
         }
 
-        Collections.sort(cachedFields, new Comparator<SavedField>() {
+        Collections.sort(cachedFields, new Comparator<FieldCodec>() {
             @Override
-            public int compare (SavedField o1, SavedField o2) {
-                    return o1.field.getName().compareTo(o2.field.getName());
+            public int compare (FieldCodec o1, FieldCodec o2) {
+                    return o1.getField().getName().compareTo(o2.getField().getName());
             }
         });
-        savedFields.put(clazz, cachedFields.toArray(new SavedField[cachedFields.size()]));
+        savedFields.put(clazz, cachedFields.toArray(new FieldCodec[cachedFields.size()]));
 
         
     }
@@ -142,32 +158,25 @@ public class FieldSerializer extends Serializer {
         if (data.get() == 0x0)
             return null;
     
-        SavedField[] fields = savedFields.get(c);
+        FieldCodec[] fields = savedFields.get(c);
 
         T object;
         try {
-            Constructor<T> ctor = savedCtors.get(c);
-            object = ctor.newInstance();
-        } catch (Exception e) {
+            MethodHandle ctor = savedCtors.get(c);
+            object = (T)(Object)ctor.invokeExact();
+        } catch (Throwable e) {
             throw new SerializerException( "Error creating object of type:" + c, e );
         }
 
-        for (SavedField savedField : fields) {
-            Field field = savedField.field;
-            Serializer serializer = savedField.serializer;
+        for (FieldCodec codec : fields) {
             if( log.isLoggable(Level.FINER) ) {
-                log.log(Level.FINER, "Reading field:{0} using serializer:{1}", new Object[]{field, serializer});
-            }
-            Object value;
-
-            if (serializer != null) {
-                value = serializer.readObject(data, field.getType());
-            } else {
-                value = Serializer.readClassAndObject(data);
+                log.log(Level.FINER, "Reading field:{0} using serializer:{1}", new Object[]{codec.getField(), codec.getSerializer()});
             }
             try {
-                field.set(object, value);
-            } catch (IllegalAccessException e) {
+                codec.read(data, object);
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new SerializerException( "Error reading object", e);
             }
         }
@@ -184,39 +193,23 @@ public class FieldSerializer extends Serializer {
             return;
         }
         
-        SavedField[] fields = savedFields.get(object.getClass());
+        FieldCodec[] fields = savedFields.get(object.getClass());
         if (fields == null)
             throw new IOException("The " + object.getClass() + " is not registered"
                                 + " in the serializer!");
 
-        for (SavedField savedField : fields) {
-            Object val = null;
-            try {
-                val = savedField.field.get(object);
-            } catch (IllegalAccessException e) {
-                throw new SerializerException("Unable to access field:" + savedField.field + " on:" + object, e);
-            }
-            Serializer serializer = savedField.serializer;
+        for (FieldCodec codec : fields) {
             if( log.isLoggable(Level.FINER) ) {
-                log.log(Level.FINER, "Writing field:{0} using serializer:{1}", new Object[]{savedField.field, serializer});
+                log.log(Level.FINER, "Writing field:{0} using serializer:{1}", new Object[]{codec.getField(), codec.getSerializer()});
             }
 
             try {
-                if (serializer != null) {
-                    serializer.writeObject(buffer, val);
-                } else {
-                    Serializer.writeClassAndObject(buffer, val);
-                }
-            } catch (BufferOverflowException boe) {
-                throw boe;
-            } catch (Exception e) {
-                throw new SerializerException( "Error writing object for field:" + savedField.field, e );
+                codec.write(buffer, object);
+            } catch (BufferOverflowException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SerializerException( "Error writing object for field:" + codec.getField(), e );
             }
         }
     }
-
-    private final class SavedField {
-        public Field field;
-        public Serializer serializer;
-    }
 }
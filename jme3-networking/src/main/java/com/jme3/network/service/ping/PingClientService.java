@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.ping;
+
+import com.jme3.network.Client;
+import com.jme3.network.Message;
+import com.jme3.network.MessageListener;
+import com.jme3.network.kernel.NamedThreadFactory;
+import com.jme3.network.service.AbstractClientService;
+import com.jme3.network.service.ClientServiceManager;
+import com.jme3.network.service.ping.msg.PingMessage;
+import com.jme3.network.stats.ConnectionStats;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ *  The client side of the ping services.  Periodically pings the
+ *  server and records the round trip times in the client's
+ *  ConnectionStats.  Pings sent by a PingHostedService are answered
+ *  so that the server can measure its round trip time, too.
+ *
+ *  <p>This service is not added by default.  The server answers
+ *  pings only if it has a PingHostedService, which also registers
+ *  the PingMessage class that the client receives with the rest of
+ *  the server's serializer registrations.</p>
+ */
+public class PingClientService extends AbstractClientService {
+
+    private static final Logger log = Logger.getLogger(PingClientService.class.getName());
+
+    private final long interval;
+    private final boolean reliable;
+    private final PingListener listener = new PingListener();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     *  Creates a service that pings the server once a second
+     *  over the unreliable channel.
+     */
+    public PingClientService() {
+        this(1000, false);
+    }
+
+    /**
+     *  Creates a service that pings the server at the specified
+     *  interval in milliseconds.  An interval of 0 only answers the
+     *  server's pings without sending any.
+     */
+    public PingClientService( long interval, boolean reliable ) {
+        if( interval < 0 ) {
+            throw new IllegalArgumentException("Interval cannot be negative:" + interval);
+        }
+        this.interval = interval;
+        this.reliable = reliable;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public boolean isReliable() {
+        return reliable;
+    }
+
+    @Override
+    protected void onInitialize( ClientServiceManager serviceManager ) {
+        serviceManager.getClient().addMessageListener(listener, PingMessage.class);
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        if( interval > 0 ) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Ping", true));
+            scheduler.scheduleAtFixedRate(this::ping, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if( scheduler != null ) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    public void terminate( ClientServiceManager serviceManager ) {
+        serviceManager.getClient().removeMessageListener(listener, PingMessage.class);
+    }
+
+    /**
+     *  Sends a ping to the server.  This is called automatically
+     *  at the configured interval.
+     */
+    public void ping() {
+        Client client = getClient();
+        if( client == null || !client.isConnected() ) {
+            return;
+        }
+        PingMessage ping = new PingMessage(System.nanoTime(), false);
+        ping.setReliable(reliable);
+        try {
+            client.send(ping);
+        } catch( RuntimeException e ) {
+            // A scheduled task that throws is never run again
+            log.log(Level.WARNING, "Error sending ping", e);
+        }
+    }
+
+    private class PingListener implements MessageListener<Client> {
+        @Override
+        public void messageReceived( Client source, Message m ) {
+            PingMessage ping = (PingMessage)m;
+            if( !ping.isReply() ) {
+                PingMessage reply = new PingMessage(ping.getTime(), true);
+                reply.setReliable(m.isReliable());
+                source.send(reply);
+                return;
+            }
+            ConnectionStats stats = source.getConnectionStats();
+            if( stats != null ) {
+                stats.addRttSample(System.nanoTime() - ping.getTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.ping;
+
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Message;
+import com.jme3.network.MessageListener;
+import com.jme3.network.Server;
+import com.jme3.network.kernel.NamedThreadFactory;
+import com.jme3.network.serializing.Serializer;
+import com.jme3.network.service.AbstractHostedService;
+import com.jme3.network.service.HostedServiceManager;
+import com.jme3.network.service.ping.msg.PingMessage;
+import com.jme3.network.stats.ConnectionStats;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ *  Periodically pings every connection of the server and records
+ *  the round trip times in each connection's ConnectionStats.
+ *  Pings sent by a PingClientService are answered so that the
+ *  client can measure its own round trip time.
+ *
+ *  <p>This service is not added by default.  Add it to the server's
+ *  services to enable the RTT statistics:</p>
+ *  <pre>
+ *  server.getServices().addService(new PingHostedService());
+ *  </pre>
+ */
+public class PingHostedService extends AbstractHostedService {
+
+    private static final Logger log = Logger.getLogger(PingHostedService.class.getName());
+
+    private final long interval;
+    private final boolean reliable;
+    private final PingListener listener = new PingListener();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     *  Creates a service that pings every connection once a second
+     *  over the unreliable channel.
+     */
+    public PingHostedService() {
+        this(1000, false);
+    }
+
+    /**
+     *  Creates a service that pings every connection at the specified
+     *  interval in milliseconds.  When 'reliable' is false the pings
+     *  are sent over the unreliable channel if the server has one, which
+     *  measures the actual network latency without TCP retransmits.
+     */
+    public PingHostedService( long interval, boolean reliable ) {
+        if( interval <= 0 ) {
+            throw new IllegalArgumentException("Interval must be positive:" + interval);
+        }
+        this.interval = interval;
+        this.reliable = reliable;
+        Serializer.registerClasses(PingMessage.class);
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public boolean isReliable() {
+        return reliable;
+    }
+
+    @Override
+    protected void onInitialize( HostedServiceManager serviceManager ) {
+        serviceManager.getServer().addMessageListener(listener, PingMessage.class);
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Ping", true));
+        scheduler.scheduleAtFixedRate(this::pingAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if( scheduler != null ) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    public void terminate( HostedServiceManager serviceManager ) {
+        serviceManager.getServer().removeMessageListener(listener, PingMessage.class);
+    }
+
+    /**
+     *  Sends a ping to every connection of the server.  This is called
+     *  automatically at the configured interval.
+     */
+    public void pingAll() {
+        Server server = getServer();
+        if( server == null ) {
+            return;
+        }
+        for( HostedConnection hc : server.getConnections() ) {
+            PingMessage ping = new PingMessage(System.nanoTime(), false);
+            ping.setReliable(reliable);
+            try {
+                hc.send(ping);
+            } catch( RuntimeException e ) {
+                // A scheduled task that throws is never run again, and
+                // one closing connection should not stop the others' pings
+                log.log(Level.WARNING, "Error sending ping to:" + hc, e);
+            }
+        }
+    }
+
+    private class PingListener implements MessageListener<HostedConnection> {
+        @Override
+        public void messageReceived( HostedConnection source, Message m ) {
+            PingMessage ping = (PingMessage)m;
+            if( !ping.isReply() ) {
+                // Echo it back as is
+                PingMessage reply = new PingMessage(ping.getTime(), true);
+                reply.setReliable(m.isReliable());
+                source.send(reply);
+                return;
+            }
+            ConnectionStats stats = source.getConnectionStats();
+            if( stats != null ) {
+                stats.addRttSample(System.nanoTime() - ping.getTime());
+            }
+        }
+    }
+}
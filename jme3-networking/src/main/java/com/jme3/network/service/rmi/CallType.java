@@ -56,5 +56,15 @@ public enum CallType {
      *  but differs in that the call will be sent over UDP and so may
      *  not make it to the other end.
      */ 
-    Unreliable
+    Unreliable,
+    
+    /**
+     *  Caller does not block but gets a CompletableFuture that is 
+     *  completed when the response is received.  This is used for methods
+     *  that return a CompletableFuture or CompletionStage.  Many 
+     *  such calls can be pending at once.  On the other end, the
+     *  implementation can return an already completed future or complete
+     *  it later without blocking the thread that handles the call.
+     */
+    Future
 }
@@ -36,6 +36,8 @@ import com.jme3.network.serializing.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 
 /**
@@ -100,6 +102,9 @@ public final class MethodInfo {
     }
  
     public static CallType getCallType( Method m ) {
+        if( isFutureType(m.getReturnType()) ) {
+            return CallType.Future;
+        }
         if( m.getReturnType() != Void.TYPE ) {
             return CallType.Synchronous;
         }
@@ -117,6 +122,16 @@ public final class MethodInfo {
         return async.reliable() ? CallType.Asynchronous : CallType.Unreliable;         
     } 
 
+    /**
+     *  Returns true if the type is CompletableFuture or CompletionStage,
+     *  which a remote proxy can return for a pending call.  A plain Future
+     *  is not included because the other end could only wait for it by
+     *  blocking a thread.
+     */
+    public static boolean isFutureType( Class type ) {
+        return type == CompletableFuture.class || type == CompletionStage.class;
+    }
+
     @Override
     public int hashCode() {
         return representation.hashCode();
@@ -35,6 +35,7 @@ package com.jme3.network.service.rmi;
 import com.jme3.network.MessageConnection;
 import com.jme3.network.service.AbstractClientService;
 import com.jme3.network.service.ClientServiceManager;
+import com.jme3.network.service.rpc.RpcBatch;
 import com.jme3.network.service.rpc.RpcClientService;
 import java.util.ArrayList;
 import java.util.List;
@@ -146,6 +147,18 @@ public class RmiClientService extends AbstractClientService {
         return rmi.getRemoteObject(name, type);
     }    
 
+    /**
+     *  Starts collecting the remote calls made by the current thread so 
+     *  that they are sent to the server in as few messages as possible.
+     *  This is most useful with remote methods that return futures.
+     *  The calls are sent when the returned batch is closed.
+     *
+     *  @see RpcBatch
+     */
+    public RpcBatch startBatch() {
+        return rmi.startBatch();
+    }
+
     @Override
     protected void onInitialize( ClientServiceManager s ) {
         rpc = getService(RpcClientService.class);
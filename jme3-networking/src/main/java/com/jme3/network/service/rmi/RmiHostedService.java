@@ -67,6 +67,13 @@ import java.util.logging.Logger;
  *  at the connection layer.  The shareGlobal() space is a way to have global
  *  resources passed directly though the need is relatively rare.</p>
  * 
+ *  <p>Methods that return a CompletableFuture or CompletionStage don't
+ *  block the caller.  The remote proxy returns a future right away and 
+ *  completes it when the response arrives, so many calls can be in flight
+ *  at once.  The implementation can return an already completed future or
+ *  complete it later.  Small calls can also be batched into fewer messages,
+ *  see RmiRegistry.startBatch().</p>
+ *
  *  <p>Note: This RMI implementation is not as advanced as Java's regular
  *  RMI as it won't marshall shared references, ie: you can't pass
  *  a shared objects as an argument to another shared object's method.</p>
@@ -34,6 +34,7 @@ package com.jme3.network.service.rmi;
 
 import com.jme3.network.HostedConnection;
 import com.jme3.network.MessageConnection;
+import com.jme3.network.service.rpc.RpcBatch;
 import com.jme3.network.service.rpc.RpcConnection;
 import com.jme3.network.service.rpc.RpcHandler;
 import java.lang.reflect.Proxy;
@@ -227,6 +228,17 @@ public class RmiRegistry {
         }       
     }
     
+    /**
+     *  Starts collecting the remote calls made by the current thread so 
+     *  that they are sent to the other end in as few messages as possible.
+     *  The calls are sent when the returned batch is closed.
+     *
+     *  @see RpcBatch
+     */
+    public RpcBatch startBatch() {
+        return rpc.startBatch();
+    }
+    
     protected void addRemoteClass( ClassInfo info ) {
         if( remote.classes.put(info.getId(), info) != null ) {
             throw new RuntimeException("Error class already exists for ID:" + info.getId());
@@ -278,6 +290,9 @@ public class RmiRegistry {
                 log.finest("Sending unreliable asynchronous.");            
                 rpc.callAsync((byte)MessageConnection.CHANNEL_DEFAULT_UNRELIABLE, objectId, procId, args);
                 return null;
+            case Future:
+                log.finest("Sending pipelined.");
+                return rpc.call(channel, objectId, procId, args);
             default:
             case Synchronous:                                           
                 log.finest("Sending synchronous.");            
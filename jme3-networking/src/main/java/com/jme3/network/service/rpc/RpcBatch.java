@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.rpc;
+
+import com.jme3.network.Message;
+import com.jme3.network.service.rpc.msg.RpcBatchMessage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ *  Collects the RPC calls that a thread makes on an RpcConnection
+ *  so that they are sent to the other end in as few messages as
+ *  possible.  Batches are started with RpcConnection.startBatch() and
+ *  are best used with try-with-resources:
+ *  <pre>
+ *  try( RpcBatch batch = rpc.startBatch() ) {
+ *      for( ... ) {
+ *          futures.add(lobby.loadItem(id));
+ *      }
+ *  }
+ *  </pre>
+ *
+ *  <p>The collected calls are sent when the batch is closed, when
+ *  flush() is called, when getMaxBatchSize() calls are pending on the
+ *  same channel and before a synchronous call waits for its response.
+ *  Unreliable calls are never batched.  Batches can be nested, in
+ *  which case only closing the outermost one sends the calls.</p>
+ *
+ *  <p>A batch belongs to the thread that started it and must be closed
+ *  by that same thread.</p>
+ */
+public class RpcBatch implements AutoCloseable {
+
+    private final RpcConnection rpc;
+    private final Map<Byte, List<Message>> pending = new LinkedHashMap<>();
+    private int depth;
+    
+    protected RpcBatch( RpcConnection rpc ) {
+        this.rpc = rpc;
+    }
+
+    /**
+     *  Returns the connection whose calls this batch collects.
+     */
+    public RpcConnection getRpcConnection() {
+        return rpc;
+    }
+ 
+    /**
+     *  Returns the number of calls and responses collected but not
+     *  yet sent.
+     */
+    public int getPendingCount() {
+        int result = 0;
+        for( List<Message> list : pending.values() ) {
+            result += list.size();
+        }
+        return result;
+    }
+ 
+    protected void open() {
+        depth++;
+    }
+ 
+    protected void add( byte channel, Message msg ) {
+        List<Message> list = pending.get(channel);
+        if( list == null ) {
+            list = new ArrayList<>();
+            pending.put(channel, list);
+        }
+        list.add(msg);
+        if( list.size() >= rpc.getMaxBatchSize() ) {
+            send(channel, list);
+        }
+    }
+ 
+    /**
+     *  Sends all of the collected calls without closing the batch.
+     */
+    public void flush() {
+        for( Map.Entry<Byte, List<Message>> e : pending.entrySet() ) {
+            send(e.getKey(), e.getValue());
+        }
+    }
+ 
+    private void send( byte channel, List<Message> list ) {
+        if( list.isEmpty() ) {
+            return;
+        }
+        Message msg = list.size() == 1 ? list.get(0) : new RpcBatchMessage(list);
+        
+        // Clear it first in case sending leads back to this batch on
+        // the same thread, so that nothing is sent twice
+        list.clear();
+        rpc.sendDirect(channel, msg);
+    }
+
+    /**
+     *  Ends this batch, sending the collected calls if it is the
+     *  outermost batch of the thread.
+     */
+    @Override
+    public void close() {
+        if( depth <= 0 ) {
+            throw new IllegalStateException("Batch is already closed");
+        }
+        if( --depth == 0 ) {
+            // Detach it before sending so that whatever the thread sends
+            // while this batch is flushed does not reopen it
+            rpc.endBatch(this);
+            flush();
+        }
+    }
+}
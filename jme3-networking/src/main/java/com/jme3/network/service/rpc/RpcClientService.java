@@ -36,6 +36,7 @@ import com.jme3.network.Client;
 import com.jme3.network.util.ObjectMessageDelegator;
 import com.jme3.network.service.AbstractClientService;
 import com.jme3.network.service.ClientServiceManager;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -84,13 +85,15 @@ public class RpcClientService extends AbstractClientService {
 
     /**
      *  Used internally to unregister the RPC MessageDelegator that
-     *  was previously added to the network Client.
+     *  was previously added to the network Client.  Any calls still
+     *  waiting for a response fail with a "Closing connection" error.
      */
     @Override
     @SuppressWarnings("unchecked")
     public void terminate( ClientServiceManager serviceManager ) {
         Client client = serviceManager.getClient();
         client.removeMessageListener(delegator, delegator.getMessageTypes());                   
+        rpc.close();
     }
  
     /**
@@ -102,6 +105,17 @@ public class RpcClientService extends AbstractClientService {
         return rpc.callAndWait(channel, objId, procId, args);
     }
 
+    /**
+     *  Performs a call on the server against the specified object using
+     *  the specified procedure ID without waiting for the response.
+     *  The returned future completes when the response is received.
+     *  Both inbound and outbound communication is done on the specified 
+     *  channel.
+     */
+    public CompletableFuture<Object> call( byte channel, short objId, short procId, Object... args ) {
+        return rpc.call(channel, objId, procId, args);
+    }
+
     /**
      *  Performs an asynchronous call on the server against the specified
      *  object using the specified procedure ID.  Communication is done
@@ -32,11 +32,17 @@
 
 package com.jme3.network.service.rpc;
 
+import com.jme3.network.Message;
 import com.jme3.network.MessageConnection;
+import com.jme3.network.service.rpc.msg.RpcBatchMessage;
 import com.jme3.network.service.rpc.msg.RpcCallMessage;
 import com.jme3.network.service.rpc.msg.RpcResponseMessage;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -76,10 +82,16 @@ public class RpcConnection {
     /**
      *  Tracks the ResponseHolder objects for sent message IDs.  When the
      *  response is received, the appropriate handler is found here and the
-     *  response or error set, thus releasing the waiting caller.
+     *  response or error set, thus completing the caller's future.
      */ 
     private Map<Long, ResponseHolder> responses = new ConcurrentHashMap<>(); 
  
+    /**
+     *  The batch that the current thread has started, if any.
+     */
+    private final ThreadLocal<RpcBatch> batches = new ThreadLocal<>();
+    private volatile int maxBatchSize = 32;
+ 
     /**
      *  Creates a new RpcConnection for the specified network connection.
      */   
@@ -98,12 +110,86 @@ public class RpcConnection {
         }
     }
  
+    /**
+     *  Sets the largest number of calls that an RpcBatch collects
+     *  for one channel before sending them.  Defaults to 32.  Since a
+     *  batch is sent as a single message, it must stay under the
+     *  message size limit.
+     */
+    public void setMaxBatchSize( int maxBatchSize ) {
+        if( maxBatchSize < 1 ) {
+            throw new IllegalArgumentException("Batch size must be at least 1:" + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+ 
+    /**
+     *  Starts collecting the calls made by the current thread into
+     *  as few messages as possible until the returned batch is closed.
+     *  If the thread already has a batch open on this connection then
+     *  that batch is returned and must be closed once more.
+     */
+    public RpcBatch startBatch() {
+        RpcBatch batch = batches.get();
+        if( batch == null ) {
+            batch = new RpcBatch(this);
+            batches.set(batch);
+        }
+        batch.open();
+        return batch;
+    }
+ 
+    protected void endBatch( RpcBatch batch ) {
+        if( batches.get() == batch ) {
+            batches.remove();
+        }
+    }
+ 
+    /**
+     *  Returns the number of calls that have been sent and are still
+     *  waiting for their responses.
+     */
+    public int getPendingCallCount() {
+        return responses.size();
+    }
+ 
     /**
      *  Performs a remote procedure call with the specified arguments and waits
      *  for the response.  Both the outbound message and inbound response will
      *  be sent on the specified channel.
      */
     public Object callAndWait( byte channel, short objId, short procId, Object... args ) {
+        ResponseHolder holder = sendCall(channel, objId, procId, args);
+        
+        // Don't wait on calls that have not been sent yet
+        RpcBatch batch = batches.get();
+        if( batch != null ) {
+            batch.flush();
+        }
+        return holder.getResponse();
+    }
+ 
+    /**
+     *  Performs a remote procedure call with the specified arguments and returns
+     *  a future that completes with its result, without waiting.  Any number
+     *  of calls can be pending at once.  Both the outbound message and inbound 
+     *  response will be sent on the specified channel.
+     *
+     *  <p>The future is completed by the thread that receives the response,
+     *  so dependent actions that are not trivial should use the *Async
+     *  methods of the future.  If the call fails then the future completes
+     *  exceptionally with the same RuntimeException that callAndWait() would
+     *  throw.</p>
+     */
+    public CompletableFuture<Object> call( byte channel, short objId, short procId, Object... args ) {
+        return sendCall(channel, objId, procId, args);
+    }
+    
+    private ResponseHolder sendCall( byte channel, short objId, short procId, Object... args ) {
         
         RpcCallMessage msg = new RpcCallMessage(sequenceNumber.getAndIncrement(), 
                                                 channel, objId, procId, args);
@@ -121,13 +207,11 @@ public class RpcConnection {
         // because there is a high probability that this would block
         // forever waiting for a response.  For async calls it's ok
         // so it doesn't do the check.
-        if( channel >= 0 ) {        
-            connection.send(channel, msg);
-        } else {
-            connection.send(msg);
+        if( channel < 0 ) {
+            channel = (byte)MessageConnection.CHANNEL_DEFAULT_RELIABLE;
         }
-                
-        return holder.getResponse();
+        send(channel, msg);
+        return holder;
     }
 
     /**
@@ -141,7 +225,7 @@ public class RpcConnection {
         if( log.isLoggable(Level.FINEST) ) {
             log.log(Level.FINEST, "Sending:{0}  on channel:{1}", new Object[]{msg, channel});
         }        
-        connection.send(channel, msg);        
+        send(channel, msg);        
     }
     
     /** 
@@ -169,13 +253,30 @@ public class RpcConnection {
     }
  
     protected void send( byte channel, RpcResponseMessage msg ) {
-        if( channel >= 0 ) {
-            connection.send(channel, msg);
+        if( channel < 0 ) {
+            channel = (byte)MessageConnection.CHANNEL_DEFAULT_RELIABLE;
+        }
+        send(channel, (Message)msg);
+    }
+ 
+    /**
+     *  Sends the message on the specified channel, or adds it to the
+     *  current thread's batch if there is one.  Unreliable messages 
+     *  are always sent right away.
+     */
+    private void send( byte channel, Message msg ) {
+        RpcBatch batch = batches.get();
+        if( batch != null && channel != MessageConnection.CHANNEL_DEFAULT_UNRELIABLE ) {
+            batch.add(channel, msg);
         } else {
-            connection.send(msg);
+            sendDirect(channel, msg);
         }
     }
  
+    protected void sendDirect( byte channel, Message msg ) {
+        connection.send(channel, msg);
+    }
+ 
     /**
      *  Called internally when an RpcCallMessage is received from 
      *  the remote connection.
@@ -191,7 +292,11 @@ public class RpcConnection {
                 throw new RuntimeException("Handler not found for objectID:" + msg.getObjectId());
             }
             Object result = handler.call(this, msg.getObjectId(), msg.getProcedureId(), msg.getArguments());
-            if( !msg.isAsync() ) {
+            if( result instanceof CompletionStage ) {
+                // The handler will finish the call later so we
+                // respond when it does
+                respondWhenComplete(msg, (CompletionStage<?>)result);
+            } else if( !msg.isAsync() ) {
                 send(msg.getChannel(), new RpcResponseMessage(msg.getMessageId(), result));
             }
         } catch( Exception e ) {
@@ -203,6 +308,45 @@ public class RpcConnection {
         }   
     }
 
+    private void respondWhenComplete( final RpcCallMessage msg, CompletionStage<?> stage ) {
+        stage.whenComplete((result, error) -> {
+            if( error instanceof CompletionException && error.getCause() != null ) {
+                error = error.getCause();
+            }
+            if( msg.isAsync() ) {
+                if( error != null ) {
+                    log.log(Level.SEVERE, "Error completing async call for:" + msg, error);
+                }
+            } else if( error != null ) {
+                send(msg.getChannel(), new RpcResponseMessage(msg.getMessageId(), error));
+            } else {
+                send(msg.getChannel(), new RpcResponseMessage(msg.getMessageId(), result));
+            }
+        });
+    }
+ 
+    /**
+     *  Called internally when an RpcBatchMessage is received from 
+     *  the remote connection.  The responses to the calls that complete
+     *  right away are batched, too.
+     */ 
+    public void handleMessage( RpcBatchMessage msg ) {
+        if( log.isLoggable(Level.FINEST) ) {
+            log.log(Level.FINEST, "handleMessage({0})", msg);
+        }
+        try( RpcBatch batch = startBatch() ) {
+            for( Object o : msg.getMessages() ) {
+                if( o instanceof RpcCallMessage ) {
+                    handleMessage((RpcCallMessage)o);
+                } else if( o instanceof RpcResponseMessage ) {
+                    handleMessage((RpcResponseMessage)o);
+                } else {
+                    log.log(Level.WARNING, "Unexpected batched message:{0}", o);
+                }
+            }
+        }
+    }
+ 
     /**
      *  Called internally when an RpcResponseMessage is received from 
      *  the remote connection.
@@ -219,52 +363,49 @@ public class RpcConnection {
     }
  
     /**
-     *  Sort of like a Future, holds a locked reference to a response
-     *  until the remote call has completed and returned a response.
+     *  The future result of a remote call, completed when the remote call 
+     *  has returned a response.
      */   
-    private class ResponseHolder {
-        private Object response;
-        private String error;
-        private Throwable exception;
+    private class ResponseHolder extends CompletableFuture<Object> {
         private RpcCallMessage msg;
-        boolean received = false;
  
         public ResponseHolder( RpcCallMessage msg ) {
             this.msg = msg;
         }
         
-        public synchronized void setResponse( RpcResponseMessage msg ) {
-            this.response = msg.getResult();
-            this.error = msg.getError();
-            this.exception = msg.getThrowable();
-            this.received = true;
-            notifyAll();
+        public void setResponse( RpcResponseMessage msg ) {
+            if( msg.getError() != null ) {
+                setError(msg.getError());
+            } else if( msg.getThrowable() != null ) {
+                completeExceptionally(new RuntimeException("Error calling remote procedure:" + this.msg, 
+                                                           msg.getThrowable()));
+            } else {
+                complete(msg.getResult());
+            }
+        }
+        
+        private void setError( String error ) {
+            completeExceptionally(new RuntimeException("Error calling remote procedure:" + msg + "\n" + error));
         }
         
-        public synchronized Object getResponse() {
+        public Object getResponse() {
             try {
-                while(!received) {
-                    wait();                
-                }
+                return get();
             } catch( InterruptedException e ) {
                 throw new RuntimeException("Interrupted waiting for response to:" + msg, e);
+            } catch( ExecutionException e ) {
+                if( e.getCause() instanceof RuntimeException ) {
+                    throw (RuntimeException)e.getCause();
+                }
+                throw new RuntimeException("Error calling remote procedure:" + msg, e.getCause());
             }
-            if( error != null ) {
-                throw new RuntimeException("Error calling remote procedure:" + msg + "\n" + error);
-            }
-            if( exception != null ) {
-                throw new RuntimeException("Error calling remote procedure:" + msg, exception);
-            } 
-            return response;              
         }
         
-        public synchronized void release() {
-            if( received ) {
-                return;
-            }
-            // Else signal an error for the callers
-            this.error = "Closing connection";
-            this.received = true;
+        public void release() {
+            responses.remove(msg.getMessageId());
+            
+            // Signal an error for the callers if it's still pending
+            setError("Closing connection");
         }
     }
 }
@@ -38,6 +38,7 @@ import com.jme3.network.serializing.Serializer;
 import com.jme3.network.service.AbstractHostedConnectionService;
 import com.jme3.network.util.SessionDataDelegator;
 import com.jme3.network.service.HostedServiceManager;
+import com.jme3.network.service.rpc.msg.RpcBatchMessage;
 import com.jme3.network.service.rpc.msg.RpcCallMessage;
 import com.jme3.network.service.rpc.msg.RpcResponseMessage;
 import java.util.Arrays;
@@ -90,7 +91,7 @@ public class RpcHostedService extends AbstractHostedConnectionService {
         
         // This works for me... has to be different in
         // the general case
-        Serializer.registerClasses(RpcCallMessage.class, RpcResponseMessage.class);
+        Serializer.registerClasses(RpcCallMessage.class, RpcResponseMessage.class, RpcBatchMessage.class);
     }
 
     /**
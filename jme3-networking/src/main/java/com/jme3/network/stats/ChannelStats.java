@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+
+/**
+ *  The traffic of one channel of a server or client, together with
+ *  the time outbound messages wait in the channel's queues before
+ *  they are written.
+ *
+ *  @version   $Revision$
+ */
+public class ChannelStats extends TrafficStats
+{
+    private final int channel;
+    private final LatencyHistogram outboundWait;
+
+    public ChannelStats( int channel, TrafficStats parent, LatencyHistogram outboundWait )
+    {
+        super("channel " + channel, parent);
+        this.channel = channel;
+        this.outboundWait = outboundWait != null ? outboundWait : new LatencyHistogram();
+    }
+
+    /**
+     *  Returns the index of the channel, where 0 is the default reliable
+     *  channel, 1 the default unreliable channel and the channels added
+     *  with addChannel() follow.
+     */
+    public int getChannel()
+    {
+        return channel;
+    }
+
+    /**
+     *  Returns the time between an outbound message being queued and
+     *  being handed to the socket.
+     */
+    public LatencyHistogram getOutboundWait()
+    {
+        return outboundWait;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ *  The traffic of a single connection and an estimate of its round
+ *  trip time.  The round trip time is smoothed the way TCP does it
+ *  (RFC 6298) from the samples provided by a ping service, see
+ *  {@link com.jme3.network.service.ping.PingHostedService}.
+ *
+ *  @version   $Revision$
+ */
+public class ConnectionStats extends TrafficStats
+{
+    private long rttSamples;
+    private long lastRtt;
+    private long minRtt;
+    private long maxRtt;
+    private long smoothedRtt;
+    private long rttVariance;
+
+    public ConnectionStats( String name )
+    {
+        super(name);
+    }
+
+    public ConnectionStats( String name, TrafficStats parent )
+    {
+        super(name, parent);
+    }
+
+    /**
+     *  Adds a round trip time sample in nanoseconds.
+     */
+    public synchronized void addRttSample( long nanos )
+    {
+        if( nanos < 0 )
+            return;
+        if( rttSamples == 0 ) {
+            smoothedRtt = nanos;
+            rttVariance = nanos / 2;
+            minRtt = nanos;
+            maxRtt = nanos;
+        } else {
+            rttVariance += (Math.abs(smoothedRtt - nanos) - rttVariance) / 4;
+            smoothedRtt += (nanos - smoothedRtt) / 8;
+            minRtt = Math.min(minRtt, nanos);
+            maxRtt = Math.max(maxRtt, nanos);
+        }
+        lastRtt = nanos;
+        rttSamples++;
+    }
+
+    /**
+     *  Returns true if at least one round trip time sample was added.
+     */
+    public synchronized boolean hasRtt()
+    {
+        return rttSamples > 0;
+    }
+
+    public synchronized long getRttSampleCount()
+    {
+        return rttSamples;
+    }
+
+    /**
+     *  Returns the smoothed round trip time, or 0 if unknown.
+     */
+    public synchronized long getRtt( TimeUnit unit )
+    {
+        return unit.convert(smoothedRtt, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the smoothed mean deviation of the round trip time,
+     *  an indication of jitter.
+     */
+    public synchronized long getRttVariance( TimeUnit unit )
+    {
+        return unit.convert(rttVariance, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized long getLastRtt( TimeUnit unit )
+    {
+        return unit.convert(lastRtt, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized long getMinRtt( TimeUnit unit )
+    {
+        return unit.convert(minRtt, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized long getMaxRtt( TimeUnit unit )
+    {
+        return unit.convert(maxRtt, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void reset()
+    {
+        super.reset();
+        rttSamples = 0;
+        lastRtt = minRtt = maxRtt = smoothedRtt = rttVariance = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConnectionStats[" + getName() + ", sent=" + getMessagesSent() + "/" + getBytesSent() 
+                + "B, received=" + getMessagesReceived() + "/" + getBytesReceived() 
+                + "B, rtt=" + getRtt(TimeUnit.MICROSECONDS) + "us]";
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ *  A histogram of durations with power of two buckets, so that
+ *  recording is cheap and lock free.  Percentiles are estimated as the
+ *  upper bound of the bucket they fall in and are therefore accurate
+ *  to within a factor of two.
+ *
+ *  <p>All methods are thread safe.</p>
+ *
+ *  @version   $Revision$
+ */
+public class LatencyHistogram
+{
+    private static final int BUCKETS = 64;
+
+    // Bucket i counts durations d with 2^(i-1) <= d < 2^i nanoseconds,
+    // bucket 0 counts durations of 0
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram()
+    {
+    }
+
+    /**
+     *  Records one duration in nanoseconds.
+     */
+    public void record( long nanos )
+    {
+        record(nanos, 1);
+    }
+
+    /**
+     *  Records the same duration in nanoseconds several times.
+     */
+    public void record( long nanos, int times )
+    {
+        if( times <= 0 )
+            return;
+        if( nanos < 0 )
+            nanos = 0;
+        buckets.addAndGet(bucket(nanos), times);
+        count.add(times);
+        total.add(nanos * times);
+        long current;
+        while( nanos > (current = max.get()) ) {
+            if( max.compareAndSet(current, nanos) )
+                break;
+        }
+    }
+
+    private static int bucket( long nanos )
+    {
+        return BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     *  Adds the counts of the specified histogram to this one.
+     */
+    public void add( LatencyHistogram other )
+    {
+        for( int i = 0; i < BUCKETS; i++ ) {
+            long n = other.buckets.get(i);
+            if( n != 0 )
+                buckets.addAndGet(i, n);
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+        long value = other.max.get();
+        long current;
+        while( value > (current = max.get()) ) {
+            if( max.compareAndSet(current, value) )
+                break;
+        }
+    }
+
+    /**
+     *  Returns the number of recorded durations.
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     *  Returns the average duration in the specified units.
+     */
+    public long getAverage( TimeUnit unit )
+    {
+        long n = count.sum();
+        return n == 0 ? 0 : unit.convert(total.sum() / n, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns the longest duration in the specified units.
+     */
+    public long getMax( TimeUnit unit )
+    {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     *  Returns an upper bound of the specified percentile, for example
+     *  99 for the duration that 99 percent of the samples did not exceed.
+     */
+    public long getPercentile( double percentile, TimeUnit unit )
+    {
+        long n = count.sum();
+        if( n == 0 )
+            return 0;
+        long rank = (long)Math.ceil(n * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for( int i = 0; i < BUCKETS; i++ ) {
+            seen += buckets.get(i);
+            if( seen >= rank && seen > 0 ) {
+                long upper = i == 0 ? 0 : i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return unit.convert(Math.min(upper, max.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+
+    /**
+     *  Returns the count of each bucket, where bucket i holds the 
+     *  durations from 2^(i-1) up to 2^i nanoseconds and bucket 0 the
+     *  durations of 0.
+     */
+    public long[] getBucketCounts()
+    {
+        long[] result = new long[BUCKETS];
+        for( int i = 0; i < BUCKETS; i++ ) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+
+    public void reset()
+    {
+        for( int i = 0; i < BUCKETS; i++ ) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatencyHistogram[count=" + getCount() + ", avg=" + getAverage(TimeUnit.MICROSECONDS)
+                + "us, p99=" + getPercentile(99, TimeUnit.MICROSECONDS) 
+                + "us, max=" + getMax(TimeUnit.MICROSECONDS) + "us]";
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+
+/**
+ *  The statistics of a Server or Client: the traffic in total and 
+ *  per channel, the time spent encoding and decoding messages, the
+ *  time outbound messages wait to be written, the connections and
+ *  any number of named gauges such as queue depths.  
+ *
+ *  <p>The statistics can be polled directly or published through JMX
+ *  with {@link NetworkStatsJmx}.  All methods are thread safe.</p>
+ *
+ *  @version   $Revision$
+ */
+public class NetworkStats
+{
+    private final String name;
+    private final TrafficStats total;
+    private final List<ChannelStats> channels = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram encodeTime = new LatencyHistogram();
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+    private final Set<ConnectionStats> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public NetworkStats( String name )
+    {
+        this.name = name;
+        this.total = new TrafficStats(name);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     *  Returns the traffic of all channels together.
+     */
+    public TrafficStats getTotal()
+    {
+        return total;
+    }
+
+    /**
+     *  Adds the stats for the next channel.  
+     *
+     *  @param outboundWait the histogram in which the channel's transport
+     *  records the outbound queue wait, or null to create one.
+     */
+    public ChannelStats addChannel( LatencyHistogram outboundWait )
+    {
+        synchronized( channels ) {
+            ChannelStats result = new ChannelStats(channels.size(), total, outboundWait);
+            channels.add(result);
+            return result;
+        }
+    }
+
+    public int getChannelCount()
+    {
+        return channels.size();
+    }
+
+    public ChannelStats getChannel( int channel )
+    {
+        return channels.get(channel);
+    }
+
+    public List<ChannelStats> getChannels()
+    {
+        return Collections.unmodifiableList(channels);
+    }
+
+    /**
+     *  Returns the time spent serializing each outbound message.
+     */
+    public LatencyHistogram getEncodeTime()
+    {
+        return encodeTime;
+    }
+
+    /**
+     *  Returns the time spent deserializing each inbound message.
+     */
+    public LatencyHistogram getDecodeTime()
+    {
+        return decodeTime;
+    }
+
+    /**
+     *  Returns a new histogram combining the outbound wait of all 
+     *  channels.
+     */
+    public LatencyHistogram getOutboundWait()
+    {
+        LatencyHistogram result = new LatencyHistogram();
+        for( ChannelStats c : channels ) {
+            result.add(c.getOutboundWait());
+        }
+        return result;
+    }
+
+    public void addConnection( ConnectionStats stats )
+    {
+        connections.add(stats);
+    }
+
+    public void removeConnection( ConnectionStats stats )
+    {
+        connections.remove(stats);
+    }
+
+    /**
+     *  Returns the stats of the current connections, one for a client.
+     */
+    public Collection<ConnectionStats> getConnections()
+    {
+        return Collections.unmodifiableSet(connections);
+    }
+
+    /**
+     *  Adds or replaces a named value that is read whenever the gauges
+     *  are read, such as the depth of a queue.
+     */
+    public void addGauge( String name, LongSupplier gauge )
+    {
+        gauges.put(name, gauge);
+    }
+
+    public void removeGauge( String name )
+    {
+        gauges.remove(name);
+    }
+
+    /**
+     *  Returns the current value of every gauge, sorted by name.
+     */
+    public Map<String, Long> getGauges()
+    {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for( String key : new TreeSet<>(gauges.keySet()) ) {
+            LongSupplier gauge = gauges.get(key);
+            if( gauge != null )
+                result.put(key, gauge.getAsLong());
+        }
+        return result;
+    }
+
+    /**
+     *  Sets all counters and histograms back to zero, including those
+     *  of the channels and connections.  The outbound wait histograms
+     *  of the transports are reset too.
+     */
+    public void reset()
+    {
+        total.reset();
+        for( ChannelStats c : channels ) {
+            c.reset();
+            c.getOutboundWait().reset();
+        }
+        encodeTime.reset();
+        decodeTime.reset();
+        for( ConnectionStats c : connections ) {
+            c.reset();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NetworkStats[" + name + ", " + total + ", connections=" + connections.size() 
+                + ", encode=" + encodeTime + ", decode=" + decodeTime + "]";
+    }
+}
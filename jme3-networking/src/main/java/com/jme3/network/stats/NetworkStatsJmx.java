@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ *  Publishes NetworkStats as MXBeans on the platform MBean server so
+ *  that they can be watched with JConsole, VisualVM or any JMX based
+ *  monitoring.  This is kept apart from NetworkStats so that nothing
+ *  else depends on javax.management, which some platforms lack.
+ *  For example:
+ *  <pre>
+ *  ObjectName name = NetworkStatsJmx.register(server.getNetworkStats());
+ *  ...
+ *  NetworkStatsJmx.unregister(name);
+ *  </pre>
+ *
+ *  @version   $Revision$
+ */
+public class NetworkStatsJmx
+{
+    public static final String DOMAIN = "com.jme3.network";
+
+    private NetworkStatsJmx()
+    {
+    }
+
+    /**
+     *  Registers the stats under com.jme3.network:type=NetworkStats,name=
+     *  followed by the quoted name of the stats.
+     */
+    public static ObjectName register( NetworkStats stats )
+    {
+        try {
+            return register(stats, new ObjectName(DOMAIN + ":type=NetworkStats,name=" 
+                                                  + ObjectName.quote(stats.getName())));
+        } catch( JMException e ) {
+            throw new RuntimeException( "Error creating MBean name for:" + stats.getName(), e );
+        }
+    }
+
+    public static ObjectName register( NetworkStats stats, ObjectName name )
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            return server.registerMBean(new Bean(stats), name).getObjectName();
+        } catch( JMException e ) {
+            throw new RuntimeException( "Error registering MBean:" + name, e );
+        }
+    }
+
+    /**
+     *  Unregisters a name returned by register(), if it is still 
+     *  registered.
+     */
+    public static void unregister( ObjectName name )
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if( server.isRegistered(name) )
+                server.unregisterMBean(name);
+        } catch( JMException e ) {
+            throw new RuntimeException( "Error unregistering MBean:" + name, e );
+        }
+    }
+
+    private static class Bean implements NetworkStatsMXBean
+    {
+        private final NetworkStats stats;
+
+        public Bean( NetworkStats stats )
+        {
+            this.stats = stats;
+        }
+
+        @Override
+        public String getName()
+        {
+            return stats.getName();
+        }
+
+        @Override
+        public long getMessagesSent()
+        {
+            return stats.getTotal().getMessagesSent();
+        }
+
+        @Override
+        public long getBytesSent()
+        {
+            return stats.getTotal().getBytesSent();
+        }
+
+        @Override
+        public long getMessagesReceived()
+        {
+            return stats.getTotal().getMessagesReceived();
+        }
+
+        @Override
+        public long getBytesReceived()
+        {
+            return stats.getTotal().getBytesReceived();
+        }
+
+        @Override
+        public double getMessagesSentPerSecond()
+        {
+            return stats.getTotal().getMessagesSentPerSecond();
+        }
+
+        @Override
+        public double getBytesSentPerSecond()
+        {
+            return stats.getTotal().getBytesSentPerSecond();
+        }
+
+        @Override
+        public double getMessagesReceivedPerSecond()
+        {
+            return stats.getTotal().getMessagesReceivedPerSecond();
+        }
+
+        @Override
+        public double getBytesReceivedPerSecond()
+        {
+            return stats.getTotal().getBytesReceivedPerSecond();
+        }
+
+        @Override
+        public long[] getChannelMessagesSent()
+        {
+            List<ChannelStats> channels = stats.getChannels();
+            long[] result = new long[channels.size()];
+            for( int i = 0; i < result.length; i++ ) {
+                result[i] = channels.get(i).getMessagesSent();
+            }
+            return result;
+        }
+
+        @Override
+        public long[] getChannelBytesSent()
+        {
+            List<ChannelStats> channels = stats.getChannels();
+            long[] result = new long[channels.size()];
+            for( int i = 0; i < result.length; i++ ) {
+                result[i] = channels.get(i).getBytesSent();
+            }
+            return result;
+        }
+
+        @Override
+        public long[] getChannelMessagesReceived()
+        {
+            List<ChannelStats> channels = stats.getChannels();
+            long[] result = new long[channels.size()];
+            for( int i = 0; i < result.length; i++ ) {
+                result[i] = channels.get(i).getMessagesReceived();
+            }
+            return result;
+        }
+
+        @Override
+        public long[] getChannelBytesReceived()
+        {
+            List<ChannelStats> channels = stats.getChannels();
+            long[] result = new long[channels.size()];
+            for( int i = 0; i < result.length; i++ ) {
+                result[i] = channels.get(i).getBytesReceived();
+            }
+            return result;
+        }
+
+        @Override
+        public long getEncodeTimeAverage()
+        {
+            return stats.getEncodeTime().getAverage(TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public long getEncodeTime99thPercentile()
+        {
+            return stats.getEncodeTime().getPercentile(99, TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public long getDecodeTimeAverage()
+        {
+            return stats.getDecodeTime().getAverage(TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public long getDecodeTime99thPercentile()
+        {
+            return stats.getDecodeTime().getPercentile(99, TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public long getOutboundWaitAverage()
+        {
+            return stats.getOutboundWait().getAverage(TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public long getOutboundWait99thPercentile()
+        {
+            return stats.getOutboundWait().getPercentile(99, TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public int getConnectionCount()
+        {
+            return stats.getConnections().size();
+        }
+
+        @Override
+        public double getAverageRtt()
+        {
+            long sum = 0;
+            int count = 0;
+            for( ConnectionStats c : stats.getConnections() ) {
+                if( c.hasRtt() ) {
+                    sum += c.getRtt(TimeUnit.MICROSECONDS);
+                    count++;
+                }
+            }
+            return count == 0 ? 0 : sum / 1000.0 / count;
+        }
+
+        @Override
+        public double getMaxRtt()
+        {
+            long max = 0;
+            for( ConnectionStats c : stats.getConnections() ) {
+                max = Math.max(max, c.getRtt(TimeUnit.MICROSECONDS));
+            }
+            return max / 1000.0;
+        }
+
+        @Override
+        public Map<String, Long> getGauges()
+        {
+            return stats.getGauges();
+        }
+
+        @Override
+        public void reset()
+        {
+            stats.reset();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.Map;
+
+
+/**
+ *  The management interface under which {@link NetworkStatsJmx}
+ *  publishes a NetworkStats.  Durations are in microseconds and
+ *  round trip times in milliseconds.
+ *
+ *  @version   $Revision$
+ */
+public interface NetworkStatsMXBean
+{
+    public String getName();
+
+    public long getMessagesSent();
+    public long getBytesSent();
+    public long getMessagesReceived();
+    public long getBytesReceived();
+
+    public double getMessagesSentPerSecond();
+    public double getBytesSentPerSecond();
+    public double getMessagesReceivedPerSecond();
+    public double getBytesReceivedPerSecond();
+
+    /**
+     *  The per channel counters, indexed by channel.
+     */
+    public long[] getChannelMessagesSent();
+    public long[] getChannelBytesSent();
+    public long[] getChannelMessagesReceived();
+    public long[] getChannelBytesReceived();
+
+    public long getEncodeTimeAverage();
+    public long getEncodeTime99thPercentile();
+    public long getDecodeTimeAverage();
+    public long getDecodeTime99thPercentile();
+    public long getOutboundWaitAverage();
+    public long getOutboundWait99thPercentile();
+
+    public int getConnectionCount();
+
+    /**
+     *  The average of the smoothed round trip times of the connections
+     *  that have one.
+     */
+    public double getAverageRtt();
+
+    /**
+     *  The highest smoothed round trip time of all connections.
+     */
+    public double getMaxRtt();
+
+    public Map<String, Long> getGauges();
+
+    public void reset();
+}
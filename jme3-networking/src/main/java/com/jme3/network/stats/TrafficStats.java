@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ *  Counts the messages and bytes sent and received over a connection,
+ *  a channel or a whole server.  Bytes are counted as they go over the
+ *  wire, including the message framing.
+ *
+ *  <p>The per second rates are measured between calls: the first call
+ *  at least a second after the previous measurement starts a new one,
+ *  so polling once a second, for example from a monitoring tool, gives
+ *  the rates over the last second.</p>
+ *
+ *  <p>All methods are thread safe.</p>
+ *
+ *  @version   $Revision$
+ */
+public class TrafficStats
+{
+    private static final long RATE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final TrafficStats parent;
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
+    // The counts at the start of the current rate interval and
+    // the rates of the previous one
+    private long rateStart = System.nanoTime();
+    private final long[] rateBase = new long[4];
+    private final double[] rates = new double[4];
+
+    public TrafficStats( String name )
+    {
+        this(name, null);
+    }
+
+    /**
+     *  Creates traffic stats that also add everything they count to
+     *  the specified parent, if not null.
+     */
+    public TrafficStats( String name, TrafficStats parent )
+    {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void addSent( int messages, long bytes )
+    {
+        messagesSent.add(messages);
+        bytesSent.add(bytes);
+        if( parent != null )
+            parent.addSent(messages, bytes);
+    }
+
+    public void addReceived( int messages, long bytes )
+    {
+        messagesReceived.add(messages);
+        bytesReceived.add(bytes);
+        if( parent != null )
+            parent.addReceived(messages, bytes);
+    }
+
+    public long getMessagesSent()
+    {
+        return messagesSent.sum();
+    }
+
+    public long getBytesSent()
+    {
+        return bytesSent.sum();
+    }
+
+    public long getMessagesReceived()
+    {
+        return messagesReceived.sum();
+    }
+
+    public long getBytesReceived()
+    {
+        return bytesReceived.sum();
+    }
+
+    public double getMessagesSentPerSecond()
+    {
+        return getRate(0);
+    }
+
+    public double getBytesSentPerSecond()
+    {
+        return getRate(1);
+    }
+
+    public double getMessagesReceivedPerSecond()
+    {
+        return getRate(2);
+    }
+
+    public double getBytesReceivedPerSecond()
+    {
+        return getRate(3);
+    }
+
+    private synchronized double getRate( int index )
+    {
+        long now = System.nanoTime();
+        long elapsed = now - rateStart;
+        if( elapsed >= RATE_INTERVAL ) {
+            long[] counts = { getMessagesSent(), getBytesSent(), getMessagesReceived(), getBytesReceived() };
+            double seconds = elapsed / 1e9;
+            for( int i = 0; i < counts.length; i++ ) {
+                rates[i] = (counts[i] - rateBase[i]) / seconds;
+                rateBase[i] = counts[i];
+            }
+            rateStart = now;
+        }
+        return rates[index];
+    }
+
+    /**
+     *  Sets the counters back to zero.  The parent is not affected.
+     */
+    public synchronized void reset()
+    {
+        messagesSent.reset();
+        bytesSent.reset();
+        messagesReceived.reset();
+        bytesReceived.reset();
+        rateStart = System.nanoTime();
+        Arrays.fill(rateBase, 0);
+        Arrays.fill(rates, 0);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + name + ", sent=" + getMessagesSent() + "/" + getBytesSent() 
+                + "B, received=" + getMessagesReceived() + "/" + getBytesReceived() + "B]";
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import com.jme3.network.AbstractMessage;
+import com.jme3.network.Client;
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Message;
+import com.jme3.network.Network;
+import com.jme3.network.kernel.tcp.SelectorKernel;
+import com.jme3.network.kernel.udp.UdpKernel;
+import com.jme3.network.serializing.Serializable;
+import com.jme3.network.serializing.Serializer;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Sends messages on loopback through kernels that batch their writes
+ * and checks that the client gets them intact and in order.
+ */
+public class BatchingTest {
+
+    private static final String GAME_NAME = "BatchingTest";
+
+    private DefaultServer server;
+    private Client client;
+
+    @Serializable
+    public static class BatchedMessage extends AbstractMessage {
+        int sequence;
+        byte[] payload;
+
+        public BatchedMessage() {
+        }
+
+        BatchedMessage(int sequence, boolean reliable) {
+            super(reliable);
+            this.sequence = sequence;
+            this.payload = payload(sequence);
+        }
+    }
+
+    /**
+     * Payloads from empty to a few hundred bytes so that batches hold
+     * a varying number of messages.
+     */
+    private static byte[] payload(int sequence) {
+        byte[] result = new byte[(sequence * 13) % 300];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte)(sequence * 31 + i);
+        }
+        return result;
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null && client.isStarted()) {
+            client.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        // The server locks the registry when it starts
+        Serializer.setReadOnly(false);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void waitFor(String what, Condition condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.isMet()) {
+            Assert.assertTrue("Timed out waiting for " + what, System.nanoTime() - end < 0);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    @Test(timeout = 60000)
+    public void testBatchedMessages() throws Exception {
+        Serializer.registerClass(BatchedMessage.class);
+        int port = freePort();
+        SelectorKernel reliable = new SelectorKernel(port);
+        reliable.setMaxBatchSize(1400);
+        reliable.setMaxBatchDelay(2, TimeUnit.MILLISECONDS);
+        UdpKernel fast = new UdpKernel(port);
+        fast.setMaxBatchSize(1400);
+        fast.setMaxBatchDelay(2, TimeUnit.MILLISECONDS);
+        server = new DefaultServer(GAME_NAME, 1, reliable, fast);
+        server.start();
+
+        final List<BatchedMessage> reliableReceived = Collections.synchronizedList(new ArrayList<BatchedMessage>());
+        final List<BatchedMessage> fastReceived = Collections.synchronizedList(new ArrayList<BatchedMessage>());
+        client = Network.connectToServer(GAME_NAME, 1, "localhost", port, port);
+        client.addMessageListener((Client source, Message m) -> {
+            BatchedMessage message = (BatchedMessage)m;
+            if (message.isReliable()) {
+                reliableReceived.add(message);
+            } else {
+                fastReceived.add(message);
+            }
+        }, BatchedMessage.class);
+        client.start();
+        waitFor("connection", () -> client.isConnected() && server.getConnections().size() == 1);
+        HostedConnection conn = server.getConnection(client.getId());
+
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            conn.send(new BatchedMessage(i, true));
+        }
+        waitFor("reliable messages", () -> reliableReceived.size() == count);
+        for (int i = 0; i < count; i++) {
+            BatchedMessage message = reliableReceived.get(i);
+            Assert.assertEquals(i, message.sequence);
+            Assert.assertArrayEquals(payload(i), message.payload);
+        }
+        Assert.assertTrue(reliable.getBatchStatistics().getMessageCount() >= count);
+        Assert.assertTrue("Reliable messages were not batched: " + reliable.getBatchStatistics(),
+                reliable.getBatchStatistics().getAverageBatchSize() > 1);
+
+        // Datagrams may be dropped even on loopback, so only check that
+        // what does arrive is intact and was not reordered by the kernel
+        int fastCount = 200;
+        for (int i = 0; i < fastCount; i++) {
+            conn.send(new BatchedMessage(i, false));
+        }
+        waitFor("datagram batches", () -> fast.getBatchStatistics().getMessageCount() == fastCount);
+        Thread.sleep(200);
+        Assert.assertFalse("No datagrams arrived", fastReceived.isEmpty());
+        int last = -1;
+        synchronized (fastReceived) {
+            for (BatchedMessage message : fastReceived) {
+                Assert.assertTrue(message.sequence > last);
+                Assert.assertArrayEquals(payload(message.sequence), message.payload);
+                last = message.sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import com.jme3.network.AbstractMessage;
+import com.jme3.network.Client;
+import com.jme3.network.ConnectionGroup;
+import com.jme3.network.Filters;
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Message;
+import com.jme3.network.Network;
+import com.jme3.network.Server;
+import com.jme3.network.serializing.Serializable;
+import com.jme3.network.serializing.Serializer;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Broadcasts messages on loopback to all connections, to a filter and
+ * to a ConnectionGroup, and checks that each client gets exactly its
+ * messages, intact and in order.
+ */
+public class BroadcastTest {
+
+    private static final String GAME_NAME = "BroadcastTest";
+    private static final int ALL = 0;
+    private static final int FILTER = 1;
+    private static final int GROUP = 2;
+
+    private Server server;
+    private final List<Client> clients = new ArrayList<>();
+
+    @Serializable
+    public static class BroadcastMessage extends AbstractMessage {
+        int kind;
+        int sequence;
+        byte[] payload;
+
+        public BroadcastMessage() {
+        }
+
+        BroadcastMessage(int kind, int sequence) {
+            this.kind = kind;
+            this.sequence = sequence;
+            this.payload = payload(sequence);
+        }
+    }
+
+    /**
+     * Payloads from empty to a couple of KB, so that some messages are
+     * written in several parts.
+     */
+    private static byte[] payload(int sequence) {
+        byte[] result = new byte[(sequence * 37) % 2500];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte)(sequence * 31 + i);
+        }
+        return result;
+    }
+
+    /**
+     * The messages a client received, by kind.
+     */
+    private static class Received {
+        final List<List<BroadcastMessage>> byKind = new ArrayList<>();
+
+        Received() {
+            for (int i = 0; i < 3; i++) {
+                byKind.add(Collections.synchronizedList(new ArrayList<BroadcastMessage>()));
+            }
+        }
+
+        int count(int kind) {
+            return byKind.get(kind).size();
+        }
+
+        void check(int kind, int expected) {
+            List<BroadcastMessage> list = byKind.get(kind);
+            Assert.assertEquals(expected, list.size());
+            for (int i = 0; i < expected; i++) {
+                Assert.assertEquals(i, list.get(i).sequence);
+                Assert.assertArrayEquals(payload(i), list.get(i).payload);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (Client client : clients) {
+            if (client.isStarted()) {
+                client.close();
+            }
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        // The server locks the registry when it starts
+        Serializer.setReadOnly(false);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void waitFor(String what, Condition condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.isMet()) {
+            Assert.assertTrue("Timed out waiting for " + what, System.nanoTime() - end < 0);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    @Test(timeout = 60000)
+    public void testBroadcasts() throws Exception {
+        Serializer.registerClass(BroadcastMessage.class);
+        int port = freePort();
+        server = Network.createServer(GAME_NAME, 1, port, port);
+        ConnectionGroup group = new ConnectionGroup("test");
+        server.addConnectionListener(group);
+        server.start();
+
+        final List<Received> received = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Client client = Network.connectToServer(GAME_NAME, 1, "localhost", port, port);
+            final Received r = new Received();
+            client.addMessageListener((Client source, Message m) -> {
+                BroadcastMessage message = (BroadcastMessage)m;
+                r.byKind.get(message.kind).add(message);
+            }, BroadcastMessage.class);
+            client.start();
+            clients.add(client);
+            received.add(r);
+        }
+        waitFor("connections", () -> server.getConnections().size() == 3 && allConnected());
+
+        HostedConnection first = server.getConnection(clients.get(0).getId());
+        HostedConnection second = server.getConnection(clients.get(1).getId());
+        group.add(first);
+        group.add(second);
+
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            server.broadcast(new BroadcastMessage(ALL, i));
+            server.broadcast(Filters.notEqualTo(first), new BroadcastMessage(FILTER, i));
+            server.broadcast(group, new BroadcastMessage(GROUP, i));
+        }
+        waitFor("messages", () -> received.get(0).count(GROUP) == count
+                && received.get(1).count(GROUP) == count
+                && received.get(2).count(FILTER) == count
+                && received.get(0).count(ALL) == count
+                && received.get(2).count(ALL) == count);
+
+        for (Received r : received) {
+            r.check(ALL, count);
+        }
+        received.get(0).check(FILTER, 0);
+        received.get(1).check(FILTER, count);
+        received.get(2).check(FILTER, count);
+        received.get(0).check(GROUP, count);
+        received.get(1).check(GROUP, count);
+        received.get(2).check(GROUP, 0);
+
+        // A closed connection leaves the group
+        clients.get(1).close();
+        waitFor("group removal", () -> group.size() == 1);
+        Assert.assertTrue(group.contains(first));
+        Assert.assertFalse(group.contains(second));
+        server.broadcast(group, new BroadcastMessage(GROUP, count));
+        waitFor("last message", () -> received.get(0).count(GROUP) == count + 1);
+    }
+
+    private boolean allConnected() {
+        for (Client client : clients) {
+            if (!client.isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
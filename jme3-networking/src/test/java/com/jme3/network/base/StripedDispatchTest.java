@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import com.jme3.network.AbstractMessage;
+import com.jme3.network.Client;
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Message;
+import com.jme3.network.Network;
+import com.jme3.network.Server;
+import com.jme3.network.serializing.Serializable;
+import com.jme3.network.serializing.Serializer;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs a server with a striped dispatch executor on loopback and checks
+ * that the messages of each connection reach the listeners in order.
+ */
+public class StripedDispatchTest {
+
+    private static final String GAME_NAME = "StripedDispatchTest";
+
+    private Server server;
+    private final List<Client> clients = new ArrayList<>();
+
+    @Serializable
+    public static class SequenceMessage extends AbstractMessage {
+        int sequence;
+
+        public SequenceMessage() {
+        }
+
+        SequenceMessage(int sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (Client client : clients) {
+            if (client.isStarted()) {
+                client.close();
+            }
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        // The server locks the registry when it starts
+        Serializer.setReadOnly(false);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testOrderPerConnection() throws Exception {
+        Serializer.registerClass(SequenceMessage.class);
+        int port = freePort();
+        server = Network.createServer(GAME_NAME, 1, port, -1);
+        StripedExecutor dispatch = StripedExecutor.createThreadPool(4, "test-dispatch");
+        ((DefaultServer)server).setDispatchExecutor(dispatch);
+
+        final Map<HostedConnection, List<Integer>> received = new ConcurrentHashMap<>();
+        server.addMessageListener((HostedConnection source, Message m) -> {
+            List<Integer> list = received.computeIfAbsent(source,
+                    c -> Collections.synchronizedList(new ArrayList<Integer>()));
+            list.add(((SequenceMessage)m).sequence);
+        }, SequenceMessage.class);
+        server.start();
+
+        int count = 2000;
+        for (int i = 0; i < 4; i++) {
+            Client client = Network.connectToServer(GAME_NAME, 1, "localhost", port, -1);
+            client.start();
+            clients.add(client);
+        }
+        for (int i = 0; i < count; i++) {
+            for (Client client : clients) {
+                client.send(new SequenceMessage(i));
+            }
+        }
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < clients.size() || !allReceived(received, count)) {
+            Assert.assertTrue("Timed out, received:" + sizes(received), System.nanoTime() - end < 0);
+            Thread.sleep(10);
+        }
+        for (List<Integer> list : received.values()) {
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(i, (int)list.get(i));
+            }
+        }
+
+        server.close();
+        Assert.assertTrue(dispatch.isShutdown());
+        Assert.assertEquals(0, dispatch.getQueueDepth());
+    }
+
+    private static boolean allReceived(Map<HostedConnection, List<Integer>> received, int count) {
+        for (List<Integer> list : received.values()) {
+            if (list.size() < count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> sizes(Map<HostedConnection, List<Integer>> received) {
+        List<Integer> result = new ArrayList<>();
+        for (List<Integer> list : received.values()) {
+            result.add(list.size());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ordering, error handling and shutdown of StripedExecutor.
+ */
+public class StripedExecutorTest {
+
+    private StripedExecutor executor;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class Marker extends Error {
+    }
+
+    @Test
+    public void testOrderPerKey() throws InterruptedException {
+        executor = StripedExecutor.createThreadPool(4, "test");
+        int keys = 20;
+        int tasks = 500;
+        final List<List<Integer>> runs = new ArrayList<>();
+        for (int k = 0; k < keys; k++) {
+            runs.add(Collections.synchronizedList(new ArrayList<Integer>()));
+        }
+        for (int i = 0; i < tasks; i++) {
+            for (int k = 0; k < keys; k++) {
+                final List<Integer> run = runs.get(k);
+                final int value = i;
+                executor.execute("key" + k, () -> run.add(value));
+            }
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (List<Integer> run : runs) {
+            Assert.assertEquals(tasks, run.size());
+            for (int i = 0; i < tasks; i++) {
+                Assert.assertEquals(i, (int)run.get(i));
+            }
+        }
+        Assert.assertEquals(keys * tasks, executor.getCompletedCount());
+        Assert.assertEquals(0, executor.getQueueDepth());
+    }
+
+    /**
+     * Tasks of the same key never overlap, even when a stripe gives its
+     * thread back after MAX_RUN tasks and continues on another one.
+     */
+    @Test
+    public void testNoOverlapAcrossReschedules() throws InterruptedException {
+        executor = StripedExecutor.createThreadPool(4, "test");
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            executor.execute("key", () -> {
+                if (running.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+                count.incrementAndGet();
+                running.decrementAndGet();
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1000, count.get());
+        Assert.assertEquals(0, overlaps.get());
+    }
+
+    /**
+     * Tasks already queued when shutdown() is called still run, including
+     * the ones past the first MAX_RUN tasks of a stripe.
+     */
+    @Test
+    public void testShutdownDrainsQueuedTasks() throws InterruptedException {
+        executor = StripedExecutor.createThreadPool(1, "test");
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        executor.execute("key", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        for (int i = 0; i < 500; i++) {
+            executor.execute("key", count::incrementAndGet);
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.isShutdown());
+        try {
+            executor.execute("key", count::incrementAndGet);
+            Assert.fail("Accepted a task after shutdown");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        Assert.assertFalse(executor.awaitTermination(10, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(500, count.get());
+        Assert.assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void testShutdownWhenIdle() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        executor = new StripedExecutor(4, pool);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        Assert.assertTrue(pool.isTerminated());
+    }
+
+    @Test
+    public void testRuntimeExceptionIsLogged() throws InterruptedException {
+        executor = StripedExecutor.createThreadPool(1, "test");
+        final AtomicInteger count = new AtomicInteger();
+        executor.execute("key", () -> {
+            throw new IllegalStateException("test");
+        });
+        executor.execute("key", count::incrementAndGet);
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, count.get());
+        Assert.assertEquals(2, executor.getCompletedCount());
+    }
+
+    /**
+     * An Error escapes to the thread running the stripe, and the tasks
+     * queued after it still run.
+     */
+    @Test
+    public void testErrorPropagates() throws InterruptedException {
+        final AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        final CountDownLatch caught = new CountDownLatch(1);
+        ExecutorService pool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setUncaughtExceptionHandler((thread, e) -> {
+                uncaught.set(e);
+                caught.countDown();
+            });
+            return t;
+        });
+        executor = new StripedExecutor(1, pool);
+        final AtomicInteger count = new AtomicInteger();
+        executor.execute("key", () -> {
+            throw new Marker();
+        });
+        for (int i = 0; i < 100; i++) {
+            executor.execute("key", count::incrementAndGet);
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(100, count.get());
+        Assert.assertTrue(caught.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(uncaught.get() instanceof Marker);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel;
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the size classes and the recycling of BufferPool.
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        BufferPool pool = new BufferPool(false, 4);
+        int[][] cases = {
+            {0, 64}, {1, 64}, {64, 64}, {65, 128}, {1000, 1024},
+            {32767 + 2, 65536}, {65536, 65536}
+        };
+        for (int[] c : cases) {
+            ByteBuffer buffer = pool.acquire(c[0]);
+            Assert.assertEquals("Capacity for " + c[0], c[1], buffer.capacity());
+            Assert.assertEquals(0, buffer.position());
+            Assert.assertEquals(c[0], buffer.limit());
+            Assert.assertFalse(buffer.isDirect());
+        }
+        Assert.assertTrue(new BufferPool(true, 4).acquire(10).isDirect());
+    }
+
+    @Test
+    public void testReuse() {
+        BufferPool pool = new BufferPool(false, 4);
+        ByteBuffer first = pool.acquire(100);
+        first.put((byte)1).flip();
+        pool.release(first);
+
+        // Any request of the same size class gets it back, cleared
+        ByteBuffer second = pool.acquire(70);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(0, second.position());
+        Assert.assertEquals(70, second.limit());
+        Assert.assertEquals(1, pool.getAllocatedCount());
+        Assert.assertEquals(1, pool.getReusedCount());
+
+        // but not one of another size class
+        pool.release(second);
+        Assert.assertNotSame(second, pool.acquire(200));
+        Assert.assertEquals(2, pool.getAllocatedCount());
+    }
+
+    @Test
+    public void testOversizedBuffersAreNotPooled() {
+        BufferPool pool = new BufferPool(false, 4);
+        ByteBuffer big = pool.acquire(70000);
+        Assert.assertEquals(70000, big.capacity());
+        pool.release(big);
+        Assert.assertNotSame(big, pool.acquire(70000));
+        Assert.assertEquals(0, pool.getReusedCount());
+    }
+
+    @Test
+    public void testForeignBuffersAreIgnored() {
+        BufferPool pool = new BufferPool(false, 4);
+        pool.release(null);
+        pool.release(ByteBuffer.allocateDirect(128));
+        pool.release(ByteBuffer.allocate(100));
+        pool.release(ByteBuffer.allocate(128).asReadOnlyBuffer());
+        pool.acquire(128);
+        Assert.assertEquals(0, pool.getReusedCount());
+    }
+
+    @Test
+    public void testMaxIdle() {
+        BufferPool pool = new BufferPool(false, 2);
+        ByteBuffer[] buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(64);
+        }
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            pool.acquire(64);
+        }
+        Assert.assertEquals(2, pool.getReusedCount());
+        Assert.assertEquals(4, pool.getAllocatedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new BufferPool(false, 4).acquire(-1);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel;
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the reference counting and the views of SharedBuffer.
+ */
+public class SharedBufferTest {
+
+    private static ByteBuffer content(BufferPool pool, int size) {
+        ByteBuffer buffer = pool.acquire(size);
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte)i);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    public void testLastReleaseReturnsToPool() {
+        BufferPool pool = new BufferPool(false, 4);
+        ByteBuffer buffer = content(pool, 100);
+        SharedBuffer shared = new SharedBuffer(buffer, pool);
+
+        // One reference per endpoint, plus the caller's
+        shared.retain(2);
+        shared.release();
+        shared.release();
+        Assert.assertNotSame(buffer, pool.acquire(100));
+
+        shared.release();
+        Assert.assertSame(buffer, pool.acquire(100));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleaseTooManyTimes() {
+        SharedBuffer shared = new SharedBuffer(ByteBuffer.allocate(10), null);
+        shared.release();
+        shared.release();
+    }
+
+    /**
+     * A buffer that the pool didn't hand over is never given to it.
+     */
+    @Test
+    public void testNoPool() {
+        BufferPool pool = new BufferPool(false, 4);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        new SharedBuffer(buffer, null).release();
+        Assert.assertNotSame(buffer, pool.acquire(128));
+    }
+
+    @Test
+    public void testCopyOf() {
+        BufferPool pool = new BufferPool(false, 4);
+        ByteBuffer data = content(new BufferPool(false, 0), 200);
+        data.position(50);
+
+        SharedBuffer shared = SharedBuffer.copyOf(data, pool);
+        Assert.assertEquals(50, data.position());
+        Assert.assertEquals(150, shared.size());
+        Assert.assertEquals(data, shared.view());
+
+        // The copy is independent of the original
+        data.put(60, (byte)-1);
+        Assert.assertEquals((byte)60, shared.view().get(10));
+        shared.release();
+        Assert.assertEquals(1, pool.getAllocatedCount());
+        pool.acquire(150);
+        Assert.assertEquals(1, pool.getReusedCount());
+    }
+
+    @Test
+    public void testViews() {
+        BufferPool pool = new BufferPool(false, 4);
+        SharedBuffer shared = new SharedBuffer(content(pool, 100), pool);
+
+        ByteBuffer first = shared.view();
+        ByteBuffer second = shared.view();
+        Assert.assertTrue(first.isReadOnly());
+        first.position(40);
+        Assert.assertEquals(0, second.position());
+        Assert.assertEquals(100, shared.size());
+
+        ByteBuffer target = ByteBuffer.allocate(250);
+        target.put((byte)-1);
+        shared.copyTo(target);
+        shared.copyTo(target);
+        Assert.assertEquals(201, target.position());
+        Assert.assertEquals(99, target.get(100));
+        Assert.assertEquals(0, target.get(101));
+        Assert.assertEquals(40, first.position());
+    }
+}
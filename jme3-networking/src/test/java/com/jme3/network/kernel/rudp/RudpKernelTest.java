@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import com.jme3.network.kernel.Endpoint;
+import com.jme3.network.kernel.EndpointEvent;
+import com.jme3.network.kernel.Envelope;
+import com.jme3.network.kernel.Kernel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs a kernel and a connector on loopback, with a LossSimulator on
+ * each side.
+ */
+public class RudpKernelTest {
+
+    private RudpKernel kernel;
+    private RudpConnector connector;
+    private final LossSimulator kernelLoss = new LossSimulator(0.1, 0.05, new Random(1));
+    private final LossSimulator connectorLoss = new LossSimulator(0.1, 0.05, new Random(2));
+
+    @Before
+    public void setUp() throws IOException {
+        int port;
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            port = socket.getLocalPort();
+        }
+        kernelLoss.setDelay(1, 5, TimeUnit.MILLISECONDS);
+        connectorLoss.setDelay(1, 5, TimeUnit.MILLISECONDS);
+
+        kernel = new RudpKernel(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        kernel.setLossSimulator(kernelLoss);
+        kernel.initialize();
+        connector = new RudpConnector(InetAddress.getLoopbackAddress(), port);
+        connector.setLossSimulator(connectorLoss);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        connector.close();
+        kernel.terminate();
+        kernelLoss.close();
+        connectorLoss.close();
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    /**
+     * Reads envelopes from the kernel until the expected number of
+     * bytes has arrived.
+     */
+    private byte[] readKernel(int size) throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (out.size() < size) {
+            Envelope env = kernel.read();
+            if (env == Kernel.EVENTS_PENDING) {
+                continue;
+            }
+            Assert.assertTrue(env.isReliable());
+            out.write(env.getData(), 0, env.getData().length);
+        }
+        return out.toByteArray();
+    }
+
+    private Endpoint nextEvent(EndpointEvent.Type type) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() - end < 0) {
+            EndpointEvent event = kernel.nextEvent();
+            if (event != null) {
+                Assert.assertEquals(type, event.getType());
+                return event.getEndpoint();
+            }
+            Thread.sleep(1);
+        }
+        Assert.fail("No " + type + " event");
+        return null;
+    }
+
+    @Test(timeout = 30000)
+    public void testLossyLoopback() throws InterruptedException {
+        byte[] sent = randomBytes(100000, 3);
+        for (int i = 0; i < sent.length; i += 1000) {
+            connector.write(ByteBuffer.wrap(sent, i, 1000));
+        }
+        Assert.assertArrayEquals(sent, readKernel(sent.length));
+        Endpoint endpoint = nextEvent(EndpointEvent.Type.ADD);
+        Assert.assertTrue(endpoint.isConnected());
+
+        RudpSession session = connector.getSession();
+        Assert.assertTrue(session.getRetransmitCount() > 0);
+        Assert.assertTrue(((RudpEndpoint)endpoint).getSession().getDuplicateCount() > 0);
+    }
+
+    /**
+     * An endpoint closed with a flush delivers everything queued
+     * before it, even with datagrams being lost, and only then closes.
+     */
+    @Test(timeout = 30000)
+    public void testCloseWithFlush() throws InterruptedException {
+        connector.write(ByteBuffer.wrap(new byte[] {1}));
+        readKernel(1);
+        Endpoint endpoint = nextEvent(EndpointEvent.Type.ADD);
+
+        byte[] sent = randomBytes(100000, 4);
+        endpoint.send(ByteBuffer.wrap(sent));
+        endpoint.close(true);
+        Assert.assertTrue(endpoint.isConnected());
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        while (received.size() < sent.length) {
+            ByteBuffer data = connector.read();
+            Assert.assertNotNull("Closed before all data arrived", data);
+            received.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+        Assert.assertArrayEquals(sent, received.toByteArray());
+
+        Assert.assertSame(endpoint, nextEvent(EndpointEvent.Type.REMOVE));
+        Assert.assertFalse(endpoint.isConnected());
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.kernel.rudp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Drives a pair of sessions connected in memory, optionally through
+ * a LossSimulator in each direction.
+ */
+public class RudpSessionTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    private final TestSession a = new TestSession(0x1234);
+    private final TestSession b = new TestSession(0x1234);
+
+    /**
+     * A session that passes its datagrams to the inbox of its peer.
+     * The test thread empties the inboxes and ticks both sessions.
+     */
+    private static class TestSession extends RudpSession {
+        final Queue<ByteBuffer> inbox = new ConcurrentLinkedQueue<>();
+        final ByteArrayOutputStream delivered = new ByteArrayOutputStream();
+        TestSession peer;
+        LossSimulator lossSimulator;
+        int dropData;
+        int highestSeq = -1;
+        int reordered;
+        boolean closedByPeer;
+
+        TestSession(int sessionId) {
+            super(sessionId, SEGMENT_SIZE);
+        }
+
+        @Override
+        protected void transmit(ByteBuffer datagram) {
+            if (dropData > 0 && datagram.get(datagram.position()) == TYPE_DATA) {
+                dropData--;
+                return;
+            }
+            ByteBuffer copy = ByteBuffer.allocate(datagram.remaining());
+            copy.put(datagram).flip();
+            if (lossSimulator == null) {
+                peer.inbox.add(copy);
+            } else {
+                lossSimulator.send(copy, peer.inbox::add);
+            }
+        }
+
+        @Override
+        protected void deliver(byte[] data) {
+            delivered.write(data, 0, data.length);
+        }
+
+        void receiveAll() {
+            ByteBuffer datagram;
+            while ((datagram = inbox.poll()) != null) {
+                if (datagram.get(0) == TYPE_DATA) {
+                    int seq = datagram.getInt(HEADER_SIZE);
+                    if (seq < highestSeq) {
+                        reordered++;
+                    }
+                    highestSeq = Math.max(highestSeq, seq);
+                }
+                if (!receive(datagram)) {
+                    closedByPeer = true;
+                }
+            }
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    public RudpSessionTest() {
+        a.peer = b;
+        b.peer = a;
+    }
+
+    @After
+    public void tearDown() {
+        if (a.lossSimulator != null) {
+            a.lossSimulator.close();
+        }
+        if (b.lossSimulator != null) {
+            b.lossSimulator.close();
+        }
+    }
+
+    /**
+     * Exchanges datagrams and ticks both sessions every millisecond
+     * until the condition is met.
+     */
+    private void runUntil(Condition condition, long timeoutMillis) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!condition.isMet()) {
+            if (System.nanoTime() - end > 0) {
+                Assert.fail("Timed out, a:" + a + " b:" + b);
+            }
+            a.receiveAll();
+            b.receiveAll();
+            a.tick();
+            b.tick();
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Sends the bytes in chunks of random sizes, some of them larger
+     * than a segment.
+     */
+    private static byte[] send(RudpSession session, int size, Random random) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        for (int i = 0; i < size; ) {
+            int count = Math.min(1 + random.nextInt(SEGMENT_SIZE * 2), size - i);
+            session.send(ByteBuffer.wrap(data, i, count));
+            i += count;
+        }
+        return data;
+    }
+
+    private void exchange(int size, long timeoutMillis) throws InterruptedException {
+        Random random = new Random(3);
+        final byte[] fromA = send(a, size, random);
+        final byte[] fromB = send(b, size, random);
+        runUntil(() -> a.delivered.size() >= fromB.length && b.delivered.size() >= fromA.length
+                && a.isIdle() && b.isIdle(), timeoutMillis);
+        Assert.assertArrayEquals(fromA, b.delivered.toByteArray());
+        Assert.assertArrayEquals(fromB, a.delivered.toByteArray());
+    }
+
+    @Test
+    public void testInOrderDelivery() throws InterruptedException {
+        exchange(64 * 1024, 10000);
+        Assert.assertEquals(0, a.getRetransmitCount());
+        Assert.assertEquals(0, b.getRetransmitCount());
+        Assert.assertEquals(0, a.getDuplicateCount());
+        Assert.assertFalse(a.isFailed());
+    }
+
+    @Test
+    public void testLossAndDuplication() throws InterruptedException {
+        a.lossSimulator = new LossSimulator(0.2, 0.1, new Random(1));
+        b.lossSimulator = new LossSimulator(0.2, 0.1, new Random(2));
+        exchange(64 * 1024, 30000);
+
+        Assert.assertTrue(a.lossSimulator.getDroppedCount() > 0);
+        Assert.assertTrue(a.getRetransmitCount() > 0);
+        Assert.assertTrue(b.getRetransmitCount() > 0);
+        Assert.assertTrue(a.getDuplicateCount() > 0);
+        Assert.assertTrue(b.getDuplicateCount() > 0);
+    }
+
+    @Test
+    public void testReordering() throws InterruptedException {
+        a.lossSimulator = new LossSimulator(0, 0, new Random(1));
+        a.lossSimulator.setDelay(2, 10, TimeUnit.MILLISECONDS);
+        b.lossSimulator = new LossSimulator(0, 0, new Random(2));
+        b.lossSimulator.setDelay(2, 10, TimeUnit.MILLISECONDS);
+        exchange(64 * 1024, 30000);
+
+        Assert.assertTrue(b.reordered > 0);
+        Assert.assertTrue(a.reordered > 0);
+    }
+
+    /**
+     * A lost segment is sent again as soon as the selective acks of
+     * the later segments arrive, long before its timeout.
+     */
+    @Test
+    public void testSelectiveAckRetransmit() throws InterruptedException {
+        Random random = new Random(4);
+        a.dropData = 1;
+        byte[] first = send(a, SEGMENT_SIZE, random);
+        Thread.sleep(5);
+        byte[] rest = send(a, SEGMENT_SIZE * 15, random);
+        runUntil(() -> b.delivered.size() == SEGMENT_SIZE * 16 && a.isIdle(), 10000);
+
+        byte[] delivered = b.delivered.toByteArray();
+        Assert.assertArrayEquals(first, Arrays.copyOfRange(delivered, 0, SEGMENT_SIZE));
+        Assert.assertArrayEquals(rest, Arrays.copyOfRange(delivered, SEGMENT_SIZE, delivered.length));
+        Assert.assertEquals(1, a.getRetransmitCount());
+        Assert.assertEquals(0, a.getTimeoutCount());
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException {
+        a.setTimeout(100, TimeUnit.MILLISECONDS);
+        exchange(1024, 10000);
+
+        // from now on nothing gets back to a
+        b.lossSimulator = new LossSimulator(1, 0);
+        send(a, SEGMENT_SIZE * 4, new Random(5));
+        Assert.assertFalse(a.isFailed());
+        runUntil(a::isFailed, 5000);
+
+        Assert.assertTrue(a.getInFlightCount() > 0);
+        Assert.assertFalse(b.isFailed());
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        exchange(1024, 10000);
+        a.close();
+        runUntil(() -> b.closedByPeer, 1000);
+        Assert.assertTrue(a.isFailed());
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.network.serializing.SerializerException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the delta encoding of snapshots against acknowledged baselines,
+ * with lost and reordered snapshots.
+ */
+public class DeltaCodingTest {
+
+    /**
+     * A state of 16 bit values.
+     */
+    private static class IntCodec implements StateCodec<int[]> {
+        private final int size;
+
+        IntCodec(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return size;
+        }
+
+        @Override
+        public int[] newState() {
+            return new int[size];
+        }
+
+        @Override
+        public void copy(int[] source, int[] target) {
+            System.arraycopy(source, 0, target, 0, size);
+        }
+
+        @Override
+        public boolean isChanged(int[] baseline, int[] state, int field) {
+            return baseline[field] != state[field];
+        }
+
+        @Override
+        public void writeField(BitWriter out, int[] state, int field) {
+            out.writeBits(state[field], 16);
+        }
+
+        @Override
+        public void readField(BitReader in, int[] state, int field) {
+            state[field] = in.readBits(16);
+        }
+    }
+
+    private static ByteBuffer encode(DeltaEncoder<int[]> encoder, int... state) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        encoder.encode(state, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int[] decode(DeltaDecoder<int[]> decoder, ByteBuffer buffer) throws SerializerException {
+        int[] state = decoder.decode(buffer);
+        Assert.assertFalse("The whole snapshot is read", buffer.hasRemaining());
+        return state;
+    }
+
+    @Test
+    public void testDeltaAgainstAcknowledgedBaseline() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(8));
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(8));
+
+        // no acknowledgment yet: full state, 5 header bytes + 8 bits + 8 * 16 bits
+        ByteBuffer full = encode(encoder, 1, 2, 3, 4, 5, 6, 7, 8);
+        Assert.assertEquals(5 + 1 + 16, full.remaining());
+        Assert.assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8}, decode(decoder, full));
+        encoder.acknowledge(decoder.getLastSequence());
+        Assert.assertEquals(0, encoder.getAcknowledgedSequence());
+
+        // only the changed field is written
+        ByteBuffer delta = encode(encoder, 1, 2, 3, 40, 5, 6, 7, 8);
+        Assert.assertEquals(5 + 1 + 2, delta.remaining());
+        Assert.assertArrayEquals(new int[] {1, 2, 3, 40, 5, 6, 7, 8}, decode(decoder, delta));
+
+        // nothing changed since the baseline
+        encoder.acknowledge(decoder.getLastSequence());
+        ByteBuffer unchanged = encode(encoder, 1, 2, 3, 40, 5, 6, 7, 8);
+        Assert.assertEquals(5 + 1, unchanged.remaining());
+        Assert.assertArrayEquals(new int[] {1, 2, 3, 40, 5, 6, 7, 8}, decode(decoder, unchanged));
+
+        Assert.assertEquals(1, encoder.getFullCount());
+        Assert.assertEquals(2, encoder.getDeltaCount());
+    }
+
+    @Test
+    public void testLostSnapshots() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(4));
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(4));
+
+        decode(decoder, encode(encoder, 1, 1, 1, 1));
+        encoder.acknowledge(decoder.getLastSequence());
+
+        // lost on the way, so never acknowledged
+        encode(encoder, 2, 1, 1, 1);
+        encode(encoder, 2, 2, 1, 1);
+
+        // still a delta against snapshot 0, so it holds all changes since
+        ByteBuffer buffer = encode(encoder, 2, 2, 2, 1);
+        Assert.assertArrayEquals(new int[] {2, 2, 2, 1}, decode(decoder, buffer));
+        Assert.assertEquals(3, decoder.getLastSequence());
+        Assert.assertEquals(3, encoder.getDeltaCount());
+    }
+
+    @Test
+    public void testOutOfOrderSnapshotIsDiscarded() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(2));
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(2));
+
+        decode(decoder, encode(encoder, 1, 1));
+        encoder.acknowledge(0);
+        ByteBuffer first = encode(encoder, 2, 1);
+        ByteBuffer second = encode(encoder, 3, 1);
+
+        Assert.assertArrayEquals(new int[] {3, 1}, decode(decoder, second));
+        Assert.assertNull(decode(decoder, first));
+        Assert.assertEquals(2, decoder.getLastSequence());
+
+        // an old acknowledgment does not move the baseline back
+        encoder.acknowledge(2);
+        encoder.acknowledge(1);
+        Assert.assertEquals(2, encoder.getAcknowledgedSequence());
+    }
+
+    @Test
+    public void testLateSnapshotWithEvictedBaseline() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(2), 4);
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(2), 4);
+
+        decode(decoder, encode(encoder, 1, 1));
+        encoder.acknowledge(0);
+        ByteBuffer late = encode(encoder, 2, 1); // delta against snapshot 0
+
+        // snapshot 4 takes the place of snapshot 0 in the decoder's history
+        for (int i = 2; i <= 4; i++) {
+            decode(decoder, encode(encoder, i + 1, i));
+        }
+        Assert.assertEquals(4, decoder.getLastSequence());
+
+        Assert.assertNull(decode(decoder, late));
+        Assert.assertEquals(4, decoder.getLastSequence());
+    }
+
+    @Test
+    public void testMissingBaselineOfNewSnapshot() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(2));
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(2));
+        encode(encoder, 1, 1);
+        encoder.acknowledge(0);
+
+        // this decoder never saw snapshot 0
+        ByteBuffer buffer = encode(encoder, 2, 1);
+        try {
+            decoder.decode(buffer);
+            Assert.fail("The baseline is missing");
+        } catch (SerializerException e) {
+            // expected
+        }
+        Assert.assertEquals(-1, decoder.getLastSequence());
+    }
+
+    @Test
+    public void testEvictedAcknowledgmentFallsBackToFullState() throws SerializerException {
+        DeltaEncoder<int[]> encoder = new DeltaEncoder<>(new IntCodec(2), 4);
+        DeltaDecoder<int[]> decoder = new DeltaDecoder<>(new IntCodec(2), 4);
+        decode(decoder, encode(encoder, 1, 1));
+        encoder.acknowledge(0);
+
+        for (int i = 1; i < 4; i++) {
+            encode(encoder, i, 1);
+        }
+        Assert.assertEquals(1, encoder.getFullCount());
+        // snapshot 4 is too far from its baseline
+        Assert.assertArrayEquals(new int[] {4, 1}, decode(decoder, encode(encoder, 4, 1)));
+        Assert.assertEquals(2, encoder.getFullCount());
+    }
+
+    /**
+     * A position, a rotation and a small value per entity.
+     */
+    private static class Entity {
+        final Vector3f position = new Vector3f();
+        final Quaternion rotation = new Quaternion();
+        int health;
+    }
+
+    private static class EntityCodec implements StateCodec<Entity[]> {
+        static final QuantizedVector3 POSITION = QuantizedVector3.withPrecision(
+                new Vector3f(-512, -64, -512), new Vector3f(512, 64, 512), 0.01f);
+        static final QuantizedQuaternion ROTATION = new QuantizedQuaternion(10);
+        private final int count;
+
+        EntityCodec(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return count * 3;
+        }
+
+        @Override
+        public Entity[] newState() {
+            Entity[] state = new Entity[count];
+            for (int i = 0; i < count; i++) {
+                state[i] = new Entity();
+            }
+            return state;
+        }
+
+        @Override
+        public void copy(Entity[] source, Entity[] target) {
+            for (int i = 0; i < count; i++) {
+                target[i].position.set(source[i].position);
+                target[i].rotation.set(source[i].rotation);
+                target[i].health = source[i].health;
+            }
+        }
+
+        @Override
+        public boolean isChanged(Entity[] baseline, Entity[] state, int field) {
+            Entity a = baseline[field / 3];
+            Entity b = state[field / 3];
+            switch (field % 3) {
+                case 0: return !POSITION.isSame(a.position, b.position);
+                case 1: return !ROTATION.isSame(a.rotation, b.rotation);
+                default: return a.health != b.health;
+            }
+        }
+
+        @Override
+        public void writeField(BitWriter out, Entity[] state, int field) {
+            Entity e = state[field / 3];
+            switch (field % 3) {
+                case 0: POSITION.write(out, e.position); break;
+                case 1: ROTATION.write(out, e.rotation); break;
+                default: out.writeBits(e.health, 8); break;
+            }
+        }
+
+        @Override
+        public void readField(BitReader in, Entity[] state, int field) {
+            Entity e = state[field / 3];
+            switch (field % 3) {
+                case 0: POSITION.read(in, e.position); break;
+                case 1: ROTATION.read(in, e.rotation); break;
+                default: e.health = in.readBits(8); break;
+            }
+        }
+    }
+
+    /**
+     * 100 entities, a tenth of them moving each frame, with 10% of the
+     * snapshots lost and a third of the acknowledgments lost. This averages
+     * about 200 bytes per frame, against 3200 bytes of raw state.
+     */
+    @Test
+    public void testSimulatedReplication() throws SerializerException {
+        int count = 100;
+        int frames = 600;
+        EntityCodec codec = new EntityCodec(count);
+        DeltaEncoder<Entity[]> encoder = new DeltaEncoder<>(codec);
+        DeltaDecoder<Entity[]> decoder = new DeltaDecoder<>(codec);
+        Random random = new Random(1);
+
+        Entity[] state = codec.newState();
+        for (Entity e : state) {
+            e.position.set(random.nextFloat() * 100, 0, random.nextFloat() * 100);
+            e.health = 100;
+        }
+
+        long bytes = 0;
+        int received = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            for (int i = 0; i < count / 10; i++) {
+                Entity e = state[random.nextInt(count)];
+                e.position.addLocal(0.1f, 0, 0.05f);
+                e.rotation.fromAngles(0, frame * 0.01f, 0);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            encoder.encode(state, buffer);
+            buffer.flip();
+            bytes += buffer.remaining();
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+
+            Entity[] decoded = decoder.decode(buffer);
+            received++;
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(decoded[i].position.distance(state[i].position) < 0.01f);
+                Assert.assertTrue(Math.abs(decoded[i].rotation.dot(state[i].rotation)) > 0.9999f);
+                Assert.assertEquals(state[i].health, decoded[i].health);
+            }
+            if (random.nextInt(3) != 0) {
+                encoder.acknowledge(decoder.getLastSequence());
+            }
+        }
+
+        // 32 bytes of raw floats and an int per entity would be 3200 bytes
+        long average = bytes / frames;
+        Assert.assertTrue("Average of " + average + " bytes per frame", average < 250);
+        Assert.assertTrue(received > frames * 8 / 10);
+        Assert.assertTrue(encoder.getDeltaCount() > encoder.getFullCount() * 10);
+    }
+}
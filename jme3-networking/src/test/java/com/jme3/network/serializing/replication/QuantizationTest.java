@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.replication;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the bit packing and the quantized codecs.
+ */
+public class QuantizationTest {
+
+    private static ByteBuffer flip(BitWriter writer) {
+        writer.flush();
+        ByteBuffer buffer = writer.getBuffer();
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    public void testBitsRoundTrip() {
+        Random random = new Random(1);
+        int[] values = new int[200];
+        int[] counts = new int[values.length];
+        BitWriter writer = new BitWriter(ByteBuffer.allocate(1024));
+        for (int i = 0; i < values.length; i++) {
+            counts[i] = random.nextInt(33);
+            values[i] = random.nextInt();
+            writer.writeBits(values[i], counts[i]);
+        }
+        writer.writeFloat(-1.5f);
+        writer.writeBit(true);
+        long bits = writer.getBitsWritten();
+
+        ByteBuffer buffer = flip(writer);
+        Assert.assertEquals((bits + 7) / 8, buffer.remaining());
+        BitReader reader = new BitReader(buffer);
+        for (int i = 0; i < values.length; i++) {
+            int mask = counts[i] == 32 ? -1 : (1 << counts[i]) - 1;
+            Assert.assertEquals(values[i] & mask, reader.readBits(counts[i]));
+        }
+        Assert.assertEquals(-1.5f, reader.readFloat(), 0f);
+        Assert.assertTrue(reader.readBit());
+    }
+
+    @Test
+    public void testFloatErrorBound() {
+        QuantizedFloat codec = QuantizedFloat.withPrecision(-100f, 100f, 0.01f);
+        Assert.assertTrue(codec.getPrecision() <= 0.01f);
+        // one bit less would not reach the precision
+        Assert.assertTrue(200.0 / ((1 << (codec.getBits() - 1)) - 1) > 0.01);
+
+        Random random = new Random(2);
+        BitWriter writer = new BitWriter(ByteBuffer.allocate(4096));
+        float[] values = new float[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (random.nextFloat() - 0.5f) * 200f;
+            codec.write(writer, values[i]);
+        }
+        BitReader reader = new BitReader(flip(writer));
+        float halfStep = codec.getPrecision() / 2 + 1e-5f;
+        for (float value : values) {
+            float read = codec.read(reader);
+            Assert.assertEquals(value, read, halfStep);
+            Assert.assertEquals(codec.round(value), read, 0f);
+        }
+
+        // the ends of the range are exact, and values outside are clamped
+        Assert.assertEquals(-100f, codec.round(-100f), 0f);
+        Assert.assertEquals(100f, codec.round(100f), 0f);
+        Assert.assertEquals(-100f, codec.round(-1000f), 0f);
+        Assert.assertEquals(100f, codec.round(Float.POSITIVE_INFINITY), 0f);
+        Assert.assertTrue(codec.isSame(5f, 5f + codec.getPrecision() / 4));
+    }
+
+    @Test
+    public void testVectorErrorBound() {
+        QuantizedVector3 codec = QuantizedVector3.withPrecision(
+                new Vector3f(-512, -64, -512), new Vector3f(512, 64, 512), 0.01f);
+        Assert.assertEquals(codec.getX().getBits() * 2 + codec.getY().getBits(), codec.getBits());
+
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            Vector3f v = new Vector3f((random.nextFloat() - 0.5f) * 1024f,
+                    (random.nextFloat() - 0.5f) * 128f, (random.nextFloat() - 0.5f) * 1024f);
+            BitWriter writer = new BitWriter(ByteBuffer.allocate(16));
+            codec.write(writer, v);
+            Assert.assertEquals(codec.getBits(), writer.getBitsWritten());
+            Vector3f read = codec.read(new BitReader(flip(writer)), null);
+            Assert.assertEquals(v.x, read.x, 0.005f + 1e-4f);
+            Assert.assertEquals(v.y, read.y, 0.005f + 1e-4f);
+            Assert.assertEquals(v.z, read.z, 0.005f + 1e-4f);
+        }
+    }
+
+    private static float angle(Quaternion a, Quaternion b) {
+        float dot = Math.min(1f, Math.abs(a.dot(b)));
+        return 2 * FastMath.acos(dot) * FastMath.RAD_TO_DEG;
+    }
+
+    private static Quaternion roundTrip(QuantizedQuaternion codec, Quaternion q) {
+        BitWriter writer = new BitWriter(ByteBuffer.allocate(16));
+        codec.write(writer, q);
+        Assert.assertEquals(codec.getBits(), writer.getBitsWritten());
+        return codec.read(new BitReader(flip(writer)), null);
+    }
+
+    @Test
+    public void testSmallestThreeQuaternion() {
+        QuantizedQuaternion codec = new QuantizedQuaternion(10);
+        Assert.assertEquals(32, codec.getBits());
+
+        Random random = new Random(4);
+        float maxError = 0;
+        for (int i = 0; i < 10000; i++) {
+            Quaternion q = new Quaternion().fromAngles(random.nextFloat() * 7f,
+                    random.nextFloat() * 7f, random.nextFloat() * 7f);
+            Quaternion read = roundTrip(codec, q);
+            Assert.assertEquals(1f, read.norm(), 1e-5f);
+            maxError = Math.max(maxError, angle(q, read));
+        }
+        Assert.assertTrue("Error of " + maxError + " degrees", maxError < 0.25f);
+
+        // each component can be the largest one, with either sign
+        Quaternion[] cases = {
+            new Quaternion(0.9f, 0.1f, -0.3f, 0.2f), new Quaternion(0.1f, -0.9f, 0.3f, 0.2f),
+            new Quaternion(-0.1f, 0.2f, 0.9f, -0.3f), new Quaternion(0.2f, 0.1f, -0.3f, -0.9f),
+            Quaternion.IDENTITY, new Quaternion(0, 0, 0, -1)
+        };
+        for (Quaternion q : cases) {
+            Quaternion normalized = q.clone().normalizeLocal();
+            Assert.assertTrue(angle(normalized, roundTrip(codec, q)) < 0.25f);
+            // q and -q are the same rotation and are written the same way
+            Assert.assertTrue(codec.isSame(q, q.mult(-1f)));
+        }
+    }
+}
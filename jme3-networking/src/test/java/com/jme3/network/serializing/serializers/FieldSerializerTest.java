@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.serializing.serializers;
+
+import com.jme3.math.Vector3f;
+import com.jme3.network.serializing.Serializable;
+import com.jme3.network.serializing.Serializer;
+import com.jme3.network.serializing.SerializerRegistration;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test that FieldSerializer writes the same bytes as the plain reflective
+ * field serialization it replaced, and reads them back.
+ */
+public class FieldSerializerTest {
+
+    public enum Kind { NONE, SOME }
+
+    @Serializable
+    public static final class Inner {
+        int id;
+        String label;
+        float[] values;
+
+        public Inner() {
+        }
+
+        Inner(int id, String label) {
+            this.id = id;
+            this.label = label;
+            this.values = new float[] {id, -id};
+        }
+    }
+
+    @Serializable
+    public static class Base {
+        protected long baseValue;
+        transient int skipped = 99;
+        static int ignored = 7;
+    }
+
+    @Serializable
+    public static class Primitives extends Base {
+        boolean z;
+        byte b;
+        char c;
+        short s;
+        int i;
+        long l;
+        float f;
+        double d;
+        Boolean boxedZ;
+        Integer boxedI;
+        Double boxedD;
+        String text;
+        Vector3f vector;
+        Kind kind;
+        Inner inner;
+        Object any;
+        ArrayList<Object> list;
+
+        public Primitives() {
+        }
+    }
+
+    @BeforeClass
+    public static void registerClasses() {
+        Serializer.registerClass(Kind.class, new EnumSerializer());
+        Serializer.registerClasses(Inner.class, Base.class, Primitives.class);
+    }
+
+    private static Primitives filled() {
+        Primitives p = new Primitives();
+        p.baseValue = -123456789012L;
+        p.z = true;
+        p.b = -5;
+        p.c = '€';
+        p.s = Short.MIN_VALUE;
+        p.i = 0x12345678;
+        p.l = Long.MAX_VALUE;
+        p.f = -0.1f;
+        p.d = Math.PI;
+        p.boxedZ = Boolean.FALSE;
+        p.boxedI = 42;
+        p.boxedD = Double.NaN;
+        p.text = "text";
+        p.vector = new Vector3f(1, -2, 3);
+        p.kind = Kind.SOME;
+        p.inner = new Inner(3, "inner");
+        p.any = new Inner(4, null);
+        p.list = new ArrayList<>(Arrays.asList("a", 1, new Inner(5, "listed"), null));
+        return p;
+    }
+
+    private static byte[] write(Object object, boolean reflective) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        if (reflective) {
+            writeReflectively(buffer, object);
+        } else {
+            Serializer.getSerializer(object.getClass()).writeObject(buffer, object);
+        }
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testSameBytesAsReflection() throws Exception {
+        Assert.assertArrayEquals(write(filled(), true), write(filled(), false));
+        // defaults, with null references; boxed values and vectors are not
+        // nullable in either path as their types are final
+        Primitives empty = new Primitives();
+        empty.boxedZ = true;
+        empty.boxedI = 0;
+        empty.boxedD = 0.0;
+        empty.vector = new Vector3f();
+        Assert.assertArrayEquals(write(empty, true), write(empty, false));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Primitives p = filled();
+        ByteBuffer buffer = ByteBuffer.wrap(write(p, false));
+        Primitives read = Serializer.getSerializer(Primitives.class).readObject(buffer, Primitives.class);
+
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(p.baseValue, read.baseValue);
+        Assert.assertEquals(99, read.skipped);
+        Assert.assertEquals(p.z, read.z);
+        Assert.assertEquals(p.b, read.b);
+        Assert.assertEquals(p.c, read.c);
+        Assert.assertEquals(p.s, read.s);
+        Assert.assertEquals(p.i, read.i);
+        Assert.assertEquals(p.l, read.l);
+        Assert.assertEquals(p.f, read.f, 0f);
+        Assert.assertEquals(p.d, read.d, 0.0);
+        Assert.assertEquals(p.boxedZ, read.boxedZ);
+        Assert.assertEquals(p.boxedI, read.boxedI);
+        Assert.assertTrue(read.boxedD.isNaN());
+        Assert.assertEquals(p.text, read.text);
+        Assert.assertEquals(p.vector, read.vector);
+        Assert.assertEquals(p.kind, read.kind);
+        Assert.assertEquals(3, read.inner.id);
+        Assert.assertEquals("inner", read.inner.label);
+        Assert.assertArrayEquals(p.inner.values, read.inner.values, 0f);
+        Assert.assertNull(((Inner) read.any).label);
+        Assert.assertEquals(4, read.list.size());
+        Assert.assertEquals("listed", ((Inner) read.list.get(2)).label);
+        Assert.assertNull(read.list.get(3));
+    }
+
+    @Test
+    public void testNullObject() throws Exception {
+        Assert.assertArrayEquals(new byte[] {0}, write(null, Primitives.class));
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0});
+        Assert.assertNull(Serializer.getSerializer(Primitives.class).readObject(buffer, Primitives.class));
+    }
+
+    private static byte[] write(Object object, Class<?> type) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        Serializer.getSerializer(type).writeObject(buffer, object);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Writes an object the way FieldSerializer did before it used method
+     * handles: the fields through Field.get, in the order of their names.
+     */
+    private static void writeReflectively(ByteBuffer buffer, Object object) throws Exception {
+        buffer.put((byte) (object != null ? 0x1 : 0x0));
+        if (object == null) {
+            return;
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = object.getClass(); c != Object.class; c = c.getSuperclass()) {
+            Collections.addAll(fields, c.getDeclaredFields());
+        }
+        fields.removeIf(field -> Modifier.isTransient(field.getModifiers())
+                || Modifier.isStatic(field.getModifiers()) || field.isSynthetic());
+        fields.sort(Comparator.comparing(Field::getName));
+
+        for (Field field : fields) {
+            field.setAccessible(true);
+            Object value = field.get(object);
+            if (Modifier.isFinal(field.getType().getModifiers())) {
+                Serializer serializer = Serializer.getSerializer(field.getType(), false);
+                if (serializer instanceof FieldSerializer) {
+                    writeReflectively(buffer, value);
+                } else {
+                    serializer.writeObject(buffer, value);
+                }
+            } else if (value != null && Serializer.getSerializer(value.getClass()) instanceof FieldSerializer) {
+                SerializerRegistration reg = Serializer.writeClass(buffer, value.getClass());
+                Assert.assertSame(value.getClass(), reg.getType());
+                writeReflectively(buffer, value);
+            } else {
+                Serializer.writeClassAndObject(buffer, value);
+            }
+        }
+    }
+}
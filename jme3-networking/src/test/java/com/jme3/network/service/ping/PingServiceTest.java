@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.ping;
+
+import com.jme3.network.Client;
+import com.jme3.network.HostedConnection;
+import com.jme3.network.Network;
+import com.jme3.network.Server;
+import com.jme3.network.serializing.Serializer;
+import com.jme3.network.stats.ConnectionStats;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the ping services on loopback and checks that both ends measure
+ * a round trip time.
+ */
+public class PingServiceTest {
+
+    private static final String GAME_NAME = "PingServiceTest";
+
+    private Server server;
+    private Client client;
+
+    @After
+    public void tearDown() {
+        if (client != null && client.isStarted()) {
+            client.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        // The server locks the registry when it starts
+        Serializer.setReadOnly(false);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void checkRtt(ConnectionStats stats) {
+        Assert.assertTrue(stats.getRtt(TimeUnit.NANOSECONDS) > 0);
+        Assert.assertTrue(stats.getRtt(TimeUnit.SECONDS) < 5);
+        Assert.assertTrue(stats.getMinRtt(TimeUnit.NANOSECONDS) <= stats.getMaxRtt(TimeUnit.NANOSECONDS));
+        Assert.assertTrue(stats.getLastRtt(TimeUnit.NANOSECONDS) >= stats.getMinRtt(TimeUnit.NANOSECONDS));
+    }
+
+    private void testRoundTrip(boolean reliable) throws Exception {
+        int port = freePort();
+        server = Network.createServer(GAME_NAME, 1, port, port);
+        server.getServices().addService(new PingHostedService(20, reliable));
+        server.start();
+
+        client = Network.connectToServer(GAME_NAME, 1, "localhost", port, port);
+        client.getServices().addService(new PingClientService(20, reliable));
+        client.start();
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        HostedConnection conn = null;
+        while (conn == null || !conn.getConnectionStats().hasRtt()
+                || client.getConnectionStats().getRttSampleCount() < 3) {
+            Assert.assertTrue("Timed out waiting for pings", System.nanoTime() - end < 0);
+            Thread.sleep(10);
+            if (conn == null && client.isConnected()) {
+                conn = server.getConnection(client.getId());
+            }
+        }
+        checkRtt(conn.getConnectionStats());
+        checkRtt(client.getConnectionStats());
+    }
+
+    @Test(timeout = 60000)
+    public void testReliableRoundTrip() throws Exception {
+        testRoundTrip(true);
+    }
+
+    @Test(timeout = 60000)
+    public void testUnreliableRoundTrip() throws Exception {
+        testRoundTrip(false);
+    }
+
+    @Test
+    public void testIntervals() {
+        try {
+            new PingHostedService(0, true);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new PingClientService(-1, true);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        // The client can only answer the server's pings
+        Assert.assertEquals(0, new PingClientService(0, false).getInterval());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.rmi;
+
+import com.jme3.network.Client;
+import com.jme3.network.Network;
+import com.jme3.network.Server;
+import com.jme3.network.serializing.Serializer;
+import com.jme3.network.service.rpc.RpcBatch;
+import com.jme3.network.service.rpc.RpcClientService;
+import com.jme3.network.service.rpc.RpcHostedService;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Calls remote methods that return futures on loopback, with many
+ * calls pending at once and with batching.
+ */
+public class RmiFutureTest {
+
+    private static final String GAME_NAME = "RmiFutureTest";
+
+    private Server server;
+    private Client client;
+    private Service service;
+    private RemoteService remote;
+
+    public interface RemoteService {
+        CompletableFuture<String> hold(int value);
+
+        CompletionStage<Integer> square(int value);
+
+        CompletableFuture<String> fail(String message);
+
+        int add(int a, int b);
+    }
+
+    /**
+     * Completes the hold() futures only when asked to, so that the
+     * calls stay pending on the server.
+     */
+    private static class Service implements RemoteService {
+        final List<CompletableFuture<String>> held = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<String> hold(int value) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            synchronized (held) {
+                held.add(result);
+            }
+            return result.thenApply(s -> s + value);
+        }
+
+        int heldCount() {
+            synchronized (held) {
+                return held.size();
+            }
+        }
+
+        void release() {
+            synchronized (held) {
+                for (CompletableFuture<String> f : held) {
+                    f.complete("value:");
+                }
+            }
+        }
+
+        @Override
+        public CompletionStage<Integer> square(int value) {
+            return CompletableFuture.completedFuture(value * value);
+        }
+
+        @Override
+        public CompletableFuture<String> fail(String message) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            result.completeExceptionally(new IllegalStateException(message));
+            return result;
+        }
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        int port = freePort();
+        service = new Service();
+        server = Network.createServer(GAME_NAME, 1, port, -1);
+        server.getServices().addServices(new RpcHostedService(), new RmiHostedService());
+        server.getServices().getService(RmiHostedService.class).shareGlobal(service, RemoteService.class);
+        server.start();
+
+        client = Network.connectToServer(GAME_NAME, 1, "localhost", port, -1);
+        client.getServices().addServices(new RpcClientService(), new RmiClientService());
+        client.start();
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (remote == null) {
+            Assert.assertTrue("Timed out waiting for the remote object", System.nanoTime() - end < 0);
+            if (client.isStarted()) {
+                remote = client.getServices().getService(RmiClientService.class).getRemoteObject(RemoteService.class);
+            }
+            if (remote == null) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null && client.isStarted()) {
+            client.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.close();
+        }
+        // The server locks the registry when it starts
+        Serializer.setReadOnly(false);
+    }
+
+    @Test(timeout = 60000)
+    public void testManyPendingCalls() throws Exception {
+        int count = 100;
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(remote.hold(i));
+        }
+
+        // All of the calls reach the server while none has a result,
+        // so neither end blocks on them
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (service.heldCount() < count) {
+            Assert.assertTrue("Timed out waiting for the calls", System.nanoTime() - end < 0);
+            Thread.sleep(10);
+        }
+        for (CompletableFuture<String> result : results) {
+            Assert.assertFalse(result.isDone());
+        }
+        // A synchronous call is not held up by the pending ones
+        Assert.assertEquals(5, remote.add(2, 3));
+
+        service.release();
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals("value:" + i, results.get(i).get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testCompletionStage() throws Exception {
+        CompletionStage<Integer> result = remote.square(7);
+        Assert.assertEquals(Integer.valueOf(49), result.toCompletableFuture().get(30, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 60000)
+    public void testFailedFuture() throws Exception {
+        try {
+            remote.fail("expected failure").get(30, TimeUnit.SECONDS);
+            Assert.fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RuntimeException);
+            Assert.assertTrue(String.valueOf(e.getCause()), String.valueOf(e.getCause()).contains("expected failure"));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBatchedCalls() throws Exception {
+        List<CompletionStage<Integer>> results = new ArrayList<>();
+        RmiClientService rmi = client.getServices().getService(RmiClientService.class);
+        try (RpcBatch batch = rmi.startBatch()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(remote.square(i));
+            }
+            Assert.assertEquals(50 % batch.getRpcConnection().getMaxBatchSize(), batch.getPendingCount());
+        }
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(Integer.valueOf(i * i), results.get(i).toCompletableFuture().get(30, TimeUnit.SECONDS));
+        }
+    }
+}
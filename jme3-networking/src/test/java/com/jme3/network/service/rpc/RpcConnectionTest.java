@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.service.rpc;
+
+import com.jme3.network.Message;
+import com.jme3.network.MessageConnection;
+import com.jme3.network.service.rpc.msg.RpcBatchMessage;
+import com.jme3.network.service.rpc.msg.RpcCallMessage;
+import com.jme3.network.service.rpc.msg.RpcResponseMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies call batching and future-returning calls of RpcConnection
+ * over an in-memory link, without a network.
+ */
+public class RpcConnectionTest {
+
+    private static final byte CHANNEL = 0;
+    private static final short OBJECT_ID = 1;
+    private static final short PROC_ID = 2;
+
+    /**
+     * Records what is sent and, when it has a peer, hands it straight
+     * to the peer's RpcConnection on the calling thread.
+     */
+    private static class Link implements MessageConnection {
+        final List<Message> sent = new ArrayList<>();
+        final List<Integer> channels = new ArrayList<>();
+        RpcConnection peer;
+
+        @Override
+        public void send(Message message) {
+            send(MessageConnection.CHANNEL_DEFAULT_RELIABLE, message);
+        }
+
+        @Override
+        public void send(int channel, Message message) {
+            sent.add(message);
+            channels.add(channel);
+            if (peer == null) {
+                return;
+            }
+            if (message instanceof RpcBatchMessage) {
+                peer.handleMessage((RpcBatchMessage)message);
+            } else if (message instanceof RpcCallMessage) {
+                peer.handleMessage((RpcCallMessage)message);
+            } else {
+                peer.handleMessage((RpcResponseMessage)message);
+            }
+        }
+    }
+
+    /**
+     * Records the first argument of every call and returns it.
+     */
+    private static class Recorder implements RpcHandler {
+        final List<Object> calls = new ArrayList<>();
+
+        @Override
+        public Object call(RpcConnection conn, short objectId, short procId, Object... args) {
+            calls.add(args[0]);
+            return args[0];
+        }
+    }
+
+    private final Link clientLink = new Link();
+    private final Link serverLink = new Link();
+    private final RpcConnection client = new RpcConnection(clientLink);
+    private final RpcConnection server = new RpcConnection(serverLink);
+    private final Recorder recorder = new Recorder();
+
+    private void connect() {
+        clientLink.peer = server;
+        serverLink.peer = client;
+        server.registerHandler(OBJECT_ID, recorder);
+    }
+
+    private static int batchSize(Message message) {
+        Assert.assertTrue("Not a batch:" + message, message instanceof RpcBatchMessage);
+        return ((RpcBatchMessage)message).getMessages().length;
+    }
+
+    @Test
+    public void testBatchIsSentOnClose() {
+        connect();
+        try (RpcBatch batch = client.startBatch()) {
+            for (int i = 0; i < 3; i++) {
+                client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, i);
+            }
+            Assert.assertEquals(3, batch.getPendingCount());
+            Assert.assertTrue(clientLink.sent.isEmpty());
+        }
+        Assert.assertEquals(1, clientLink.sent.size());
+        Assert.assertEquals(3, batchSize(clientLink.sent.get(0)));
+        Assert.assertEquals(Integer.valueOf(CHANNEL), clientLink.channels.get(0));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), recorder.calls);
+        // Async calls have no responses
+        Assert.assertTrue(serverLink.sent.isEmpty());
+    }
+
+    @Test
+    public void testSingleCallIsNotWrapped() {
+        connect();
+        try (RpcBatch batch = client.startBatch()) {
+            client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, "only");
+        }
+        Assert.assertEquals(1, clientLink.sent.size());
+        Assert.assertTrue(clientLink.sent.get(0) instanceof RpcCallMessage);
+    }
+
+    @Test
+    public void testEmptyBatchSendsNothing() {
+        client.startBatch().close();
+        Assert.assertTrue(clientLink.sent.isEmpty());
+    }
+
+    @Test
+    public void testNesting() {
+        RpcBatch outer = client.startBatch();
+        RpcBatch inner = client.startBatch();
+        Assert.assertSame(outer, inner);
+        client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 1);
+        client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 2);
+        inner.close();
+        Assert.assertTrue(clientLink.sent.isEmpty());
+        Assert.assertEquals(2, outer.getPendingCount());
+        outer.close();
+        Assert.assertEquals(1, clientLink.sent.size());
+
+        try {
+            outer.close();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // The thread gets a fresh batch and calls outside of one go
+        // out right away
+        Assert.assertNotSame(outer, client.startBatch());
+        client.startBatch().close();
+        client.startBatch().close();
+        client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 3);
+        Assert.assertEquals(1, clientLink.sent.size());
+    }
+
+    @Test
+    public void testBatchesAreThreadLocal() throws Exception {
+        try (RpcBatch batch = client.startBatch()) {
+            Thread other = new Thread(() -> client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, "other"));
+            other.start();
+            other.join();
+            Assert.assertEquals(1, clientLink.sent.size());
+            Assert.assertEquals(0, batch.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        connect();
+        client.setMaxBatchSize(4);
+        try (RpcBatch batch = client.startBatch()) {
+            for (int i = 0; i < 10; i++) {
+                client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, i);
+            }
+            Assert.assertEquals(2, clientLink.sent.size());
+            Assert.assertEquals(2, batch.getPendingCount());
+        }
+        Assert.assertEquals(3, clientLink.sent.size());
+        Assert.assertEquals(4, batchSize(clientLink.sent.get(0)));
+        Assert.assertEquals(4, batchSize(clientLink.sent.get(1)));
+        Assert.assertEquals(2, batchSize(clientLink.sent.get(2)));
+        Assert.assertEquals(10, recorder.calls.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, recorder.calls.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxBatchSize() {
+        client.setMaxBatchSize(0);
+    }
+
+    @Test
+    public void testFlush() {
+        try (RpcBatch batch = client.startBatch()) {
+            client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 1);
+            client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 2);
+            batch.flush();
+            Assert.assertEquals(1, clientLink.sent.size());
+            Assert.assertEquals(0, batch.getPendingCount());
+            client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, 3);
+        }
+        Assert.assertEquals(2, clientLink.sent.size());
+    }
+
+    @Test
+    public void testChannelsAreBatchedSeparately() {
+        try (RpcBatch batch = client.startBatch()) {
+            client.callAsync((byte)0, OBJECT_ID, PROC_ID, 1);
+            client.callAsync((byte)1, OBJECT_ID, PROC_ID, 2);
+            client.callAsync((byte)0, OBJECT_ID, PROC_ID, 3);
+        }
+        Assert.assertEquals(2, clientLink.sent.size());
+        Assert.assertEquals(Arrays.asList(0, 1), clientLink.channels);
+        Assert.assertEquals(2, batchSize(clientLink.sent.get(0)));
+        Assert.assertTrue(clientLink.sent.get(1) instanceof RpcCallMessage);
+    }
+
+    @Test
+    public void testUnreliableCallsAreNotBatched() {
+        try (RpcBatch batch = client.startBatch()) {
+            client.callAsync((byte)MessageConnection.CHANNEL_DEFAULT_UNRELIABLE, OBJECT_ID, PROC_ID, 1);
+            Assert.assertEquals(1, clientLink.sent.size());
+            Assert.assertEquals(0, batch.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testCallAndWaitFlushesBatch() {
+        connect();
+        try (RpcBatch batch = client.startBatch()) {
+            client.callAsync(CHANNEL, OBJECT_ID, PROC_ID, "first");
+            // Would wait forever if the call stayed in the batch
+            Assert.assertEquals("second", client.callAndWait(CHANNEL, OBJECT_ID, PROC_ID, "second"));
+        }
+        Assert.assertEquals(Arrays.asList("first", "second"), recorder.calls);
+    }
+
+    @Test
+    public void testResponsesToBatchedCallsAreBatched() throws Exception {
+        connect();
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        try (RpcBatch batch = client.startBatch()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(client.call(CHANNEL, OBJECT_ID, PROC_ID, i));
+            }
+            Assert.assertEquals(5, client.getPendingCallCount());
+        }
+        Assert.assertEquals(1, serverLink.sent.size());
+        Assert.assertEquals(5, batchSize(serverLink.sent.get(0)));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i, results.get(i).get());
+        }
+        Assert.assertEquals(0, client.getPendingCallCount());
+    }
+
+    @Test
+    public void testFutureResults() throws Exception {
+        connect();
+        final List<CompletableFuture<Object>> pending = new ArrayList<>();
+        server.registerHandler(OBJECT_ID, (conn, objectId, procId, args) -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            pending.add(result);
+            return result;
+        });
+
+        CompletableFuture<Object> first = client.call(CHANNEL, OBJECT_ID, PROC_ID);
+        CompletableFuture<Object> second = client.call(CHANNEL, OBJECT_ID, PROC_ID);
+        Assert.assertEquals(2, pending.size());
+        Assert.assertFalse(first.isDone());
+        Assert.assertFalse(second.isDone());
+        Assert.assertEquals(2, client.getPendingCallCount());
+
+        // Responses go out as the handler's futures complete, in any order
+        pending.get(1).complete("two");
+        Assert.assertEquals("two", second.get());
+        Assert.assertFalse(first.isDone());
+        pending.get(0).completeExceptionally(new IllegalStateException("failed"));
+        try {
+            first.get();
+            Assert.fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RuntimeException);
+        }
+        Assert.assertEquals(0, client.getPendingCallCount());
+    }
+
+    @Test
+    public void testMissingHandler() {
+        connect();
+        try {
+            client.callAndWait(CHANNEL, (short)99, PROC_ID);
+            Assert.fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Handler not found"));
+        }
+    }
+
+    @Test
+    public void testCloseFailsPendingCalls() {
+        CompletableFuture<Object> result = client.call(CHANNEL, OBJECT_ID, PROC_ID);
+        Assert.assertEquals(1, client.getPendingCallCount());
+        client.close();
+        Assert.assertTrue(result.isCompletedExceptionally());
+        Assert.assertEquals(0, client.getPendingCallCount());
+    }
+}
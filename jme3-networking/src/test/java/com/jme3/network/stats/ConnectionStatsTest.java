@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the round trip time smoothing of ConnectionStats and that
+ * traffic counts roll up into the parent stats.
+ */
+public class ConnectionStatsTest {
+
+    @Test
+    public void testNoRtt() {
+        ConnectionStats stats = new ConnectionStats("test");
+        Assert.assertFalse(stats.hasRtt());
+        Assert.assertEquals(0, stats.getRttSampleCount());
+        Assert.assertEquals(0, stats.getRtt(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testRttSmoothing() {
+        ConnectionStats stats = new ConnectionStats("test");
+        stats.addRttSample(1000);
+        Assert.assertTrue(stats.hasRtt());
+        Assert.assertEquals(1000, stats.getRtt(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(500, stats.getRttVariance(TimeUnit.NANOSECONDS));
+
+        stats.addRttSample(2000);
+        // srtt += (2000 - 1000) / 8, rttvar += (|1000 - 2000| - 500) / 4
+        Assert.assertEquals(1125, stats.getRtt(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(625, stats.getRttVariance(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(2000, stats.getLastRtt(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1000, stats.getMinRtt(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(2000, stats.getMaxRtt(TimeUnit.NANOSECONDS));
+
+        stats.addRttSample(500);
+        Assert.assertEquals(500, stats.getMinRtt(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(3, stats.getRttSampleCount());
+
+        // Negative samples are ignored
+        stats.addRttSample(-1);
+        Assert.assertEquals(3, stats.getRttSampleCount());
+        Assert.assertEquals(500, stats.getLastRtt(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testConvergesToSteadyRtt() {
+        ConnectionStats stats = new ConnectionStats("test");
+        stats.addRttSample(TimeUnit.MILLISECONDS.toNanos(200));
+        for (int i = 0; i < 100; i++) {
+            stats.addRttSample(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        Assert.assertEquals(20, stats.getRtt(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, stats.getRttVariance(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testParentTotals() {
+        TrafficStats total = new TrafficStats("total");
+        ConnectionStats a = new ConnectionStats("a", total);
+        ConnectionStats b = new ConnectionStats("b", total);
+        a.addSent(2, 100);
+        b.addSent(1, 50);
+        b.addReceived(3, 30);
+
+        Assert.assertEquals(2, a.getMessagesSent());
+        Assert.assertEquals(100, a.getBytesSent());
+        Assert.assertEquals(0, a.getMessagesReceived());
+        Assert.assertEquals(3, total.getMessagesSent());
+        Assert.assertEquals(150, total.getBytesSent());
+        Assert.assertEquals(3, total.getMessagesReceived());
+        Assert.assertEquals(30, total.getBytesReceived());
+
+        // Resetting a connection leaves the totals alone
+        a.addRttSample(1000);
+        a.reset();
+        Assert.assertEquals(0, a.getMessagesSent());
+        Assert.assertFalse(a.hasRtt());
+        Assert.assertEquals(3, total.getMessagesSent());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.network.stats;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the bucketing and the percentile math of LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram h = new LatencyHistogram();
+        Assert.assertEquals(0, h.getCount());
+        Assert.assertEquals(0, h.getAverage(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(0, h.getMax(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(0, h.getPercentile(99, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testBuckets() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(0);
+        h.record(-5);
+        h.record(1);
+        h.record(2);
+        h.record(3);
+        h.record(4);
+        h.record(1000);
+        h.record(1023);
+        h.record(1024);
+        h.record(Long.MAX_VALUE);
+
+        long[] counts = h.getBucketCounts();
+        Assert.assertEquals(64, counts.length);
+        // Negative durations count as 0
+        Assert.assertEquals(2, counts[0]);
+        Assert.assertEquals(1, counts[1]);
+        Assert.assertEquals(2, counts[2]);
+        Assert.assertEquals(1, counts[3]);
+        Assert.assertEquals(2, counts[10]);
+        Assert.assertEquals(1, counts[11]);
+        Assert.assertEquals(1, counts[63]);
+        Assert.assertEquals(10, h.getCount());
+        Assert.assertEquals(Long.MAX_VALUE, h.getMax(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(Long.MAX_VALUE, h.getPercentile(100, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(1000, 90);
+        h.record(1_000_000, 10);
+
+        Assert.assertEquals(100, h.getCount());
+        Assert.assertEquals(100_900, h.getAverage(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(100, h.getAverage(TimeUnit.MICROSECONDS));
+        Assert.assertEquals(1_000_000, h.getMax(TimeUnit.NANOSECONDS));
+
+        // 1000 falls in the bucket [512, 1024)
+        Assert.assertEquals(1023, h.getPercentile(0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1023, h.getPercentile(50, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1023, h.getPercentile(90, TimeUnit.NANOSECONDS));
+        // The upper bound of [2^19, 2^20) is capped by the max
+        Assert.assertEquals(1_000_000, h.getPercentile(91, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1_000_000, h.getPercentile(99.9, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1_000_000, h.getPercentile(150, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, h.getPercentile(50, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void testIgnoresNonPositiveTimes() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(1000, 0);
+        h.record(1000, -1);
+        Assert.assertEquals(0, h.getCount());
+        Assert.assertEquals(0, h.getMax(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testAdd() {
+        LatencyHistogram a = new LatencyHistogram();
+        a.record(100, 3);
+        LatencyHistogram b = new LatencyHistogram();
+        b.record(5000);
+        a.add(b);
+
+        Assert.assertEquals(4, a.getCount());
+        Assert.assertEquals((300 + 5000) / 4, a.getAverage(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(5000, a.getMax(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(3, a.getBucketCounts()[7]);
+        Assert.assertEquals(1, a.getBucketCounts()[13]);
+        // The source is unchanged
+        Assert.assertEquals(1, b.getCount());
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(1000, 5);
+        h.reset();
+        Assert.assertEquals(0, h.getCount());
+        Assert.assertEquals(0, h.getMax(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(0, h.getPercentile(50, TimeUnit.NANOSECONDS));
+        Assert.assertArrayEquals(new long[64], h.getBucketCounts());
+    }
+}
@@ -57,6 +57,8 @@ import java.net.URLDecoder;
 import java.nio.Buffer;
 import java.nio.FloatBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -70,6 +72,8 @@ public class GltfLoader implements AssetLoader {
 
     // Data cache for already parsed JME objects
     private final Map<String, Object[]> dataCache = new HashMap<>();
+    // External images requested ahead of time, by texture key
+    private final Map<TextureKey, CompletableFuture<Texture>> pendingImages = new HashMap<>();
     private JsonArray scenes;
     private JsonArray nodes;
     private JsonArray meshes;
@@ -112,6 +116,7 @@ public class GltfLoader implements AssetLoader {
     protected Object loadFromStream(AssetInfo assetInfo, InputStream stream) throws IOException {
         try {
             dataCache.clear();
+            pendingImages.clear();
             info = assetInfo;
             skinnedSpatials.clear();
             rootNode = new Node();
@@ -149,6 +154,7 @@ public class GltfLoader implements AssetLoader {
 
             customContentManager.init(this);
 
+            prefetchImages();
             readSkins();
             readCameras();
 
@@ -182,6 +188,7 @@ public class GltfLoader implements AssetLoader {
         } catch (Exception e) {
             throw new AssetLoadException("An error occurred loading " + assetInfo.getKey().getName(), e);
         } finally {
+            pendingImages.clear();
             stream.close();
         }
     }
@@ -803,12 +810,47 @@ public class GltfLoader implements AssetLoader {
             // external file image
             String decoded = decodeUri(uri);
             TextureKey key = new TextureKey(info.getKey().getFolder() + decoded, flip);
-            Texture tex = info.getManager().loadTexture(key);
+            Texture tex;
+            // the prefetch only matches if it was made with the same flip
+            CompletableFuture<Texture> pending = pendingImages.remove(key);
+            if (pending != null) {
+                try {
+                    tex = pending.join();
+                } catch (CompletionException e) {
+                    // report the failure of the prefetch rather than loading again
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new AssetLoadException("Failed to load image " + key, e.getCause());
+                }
+            } else {
+                tex = info.getManager().loadTexture(key);
+            }
             result = (Texture2D) tex;
         }
         return result;
     }
 
+    /**
+     * Starts loading every external image of the document in the
+     * background, so their decoding overlaps with the parsing of the
+     * geometry. {@link #readImage(int, boolean)} picks the results up.
+     */
+    protected void prefetchImages() {
+        if (images == null) {
+            return;
+        }
+        AssetManager assetManager = info.getManager();
+        for (int i = 0; i < images.size(); i++) {
+            String uri = getAsString(images.get(i).getAsJsonObject(), "uri");
+            if (uri == null || uri.startsWith("data:")) {
+                continue;
+            }
+            TextureKey key = new TextureKey(info.getKey().getFolder() + decodeUri(uri), false);
+            pendingImages.put(key, assetManager.loadAssetAsync(key));
+        }
+    }
+
     public void readAnimation(int animationIndex) throws IOException {
         JsonObject animation = animations.get(animationIndex).getAsJsonObject();
         JsonArray channels = animation.getAsJsonArray("channels");
@@ -48,6 +48,7 @@ import java.nio.IntBuffer;
 public class GeoMap implements Savable {
     
     protected float[] hdata;
+    protected Heightfield heightfield;
     protected int width, height, maxval;
     
     public GeoMap() {}
@@ -59,12 +60,43 @@ public class GeoMap implements Savable {
         this.maxval = maxval;
     }
 
+    /**
+     * Creates a geomap that reads and writes its heights in the given
+     * heightfield instead of holding its own copy.
+     *
+     * @param heightfield the heights, usually a view of a larger heightfield
+     * @param maxval the maximum possible value
+     */
+    public GeoMap(Heightfield heightfield, int maxval){
+        this.heightfield = heightfield;
+        this.width = heightfield.getSize();
+        this.height = heightfield.getSize();
+        this.maxval = maxval;
+    }
+
+    /**
+     * Returns the heights of this Geomap, row by row. If the heights are
+     * held in a {@link Heightfield}, this is a copy, and heights must be
+     * changed with {@link #setValue(int, int, float)}.
+     *
+     * @return the height array, or null if the data is not loaded
+     */
     public float[] getHeightArray(){
         if (!isLoaded())
             return null;
+        if (heightfield != null)
+            return heightfield.toArray(null);
         return hdata;
     }
 
+    /**
+     * @return the heightfield that holds the heights of this Geomap, or null
+     * if they are held in an array
+     */
+    public Heightfield getHeightfield() {
+        return heightfield;
+    }
+
     /**
      * @return The maximum possible value that <code>getValue()</code> can 
      * return. Mostly depends on the source data format (byte, short, int, etcetera).
@@ -85,9 +117,27 @@ public class GeoMap implements Savable {
      * @throws NullPointerException If isLoaded() is false
      */
     public float getValue(int x, int y) {
+        if (heightfield != null)
+            return heightfield.get(x, y);
         return hdata[y*width+x];
     }
 
+    /**
+     * Sets the height value for a given point.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     * @param value the new height
+     *
+     * @throws NullPointerException If isLoaded() is false
+     */
+    public void setValue(int x, int y, float value) {
+        if (heightfield != null)
+            heightfield.set(x, y, value);
+        else
+            hdata[y*width+x] = value;
+    }
+
     /**
      * Returns the height value at the given index.
      *
@@ -100,6 +150,8 @@ public class GeoMap implements Savable {
      * @throws NullPointerException If isLoaded() is false
      */
     public float getValue(int i) {
+        if (heightfield != null)
+            return heightfield.get(i % width, i / width);
         return hdata[i];
     }
 
@@ -228,7 +280,7 @@ public class GeoMap implements Savable {
             store = BufferUtils.createFloatBuffer(width*height*3);
         }
 
-        assert hdata.length == height*width;
+        assert heightfield != null || hdata.length == height*width;
 
         Vector3f offset = new Vector3f(-getWidth() * scale.x * 0.5f,
                                        0,
@@ -236,11 +288,10 @@ public class GeoMap implements Savable {
         if (!center)
             offset.zero();
 
-        int i = 0;
         for (int z = 0; z < height; z++){
             for (int x = 0; x < width; x++){
                 store.put( x*scale.x + offset.x );
-                store.put( hdata[i++]*scale.y );
+                store.put( getValue(x, z)*scale.y );
                 store.put( z*scale.z + offset.z );
             }
         }
@@ -326,7 +377,7 @@ public class GeoMap implements Savable {
     @Override
     public void write(JmeExporter ex) throws IOException {
         OutputCapsule oc = ex.getCapsule(this);
-        oc.write(hdata, "hdataarray", null);
+        oc.write(getHeightArray(), "hdataarray", null);
         oc.write(width, "width", 0);
         oc.write(height, "height", 0);
         oc.write(maxval, "maxval", 0);
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain;
+
+import com.jme3.math.FastMath;
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+
+/**
+ * A square grid of heights held in a single direct buffer.
+ * <p>
+ * A view of a region of the grid reads and writes the same buffer, so the
+ * quads and patches of a terrain can each work on their own region while
+ * only one copy of the heights is kept in memory. Neighbouring views that
+ * overlap by one row or column, as the children of a TerrainQuad do, share
+ * the heights along their common edge.
+ * <p>
+ * Heights are stored row by row: the height at (x, z) follows the height at
+ * (x - 1, z). The buffer is only accessed with absolute indices, so any
+ * number of threads may read a heightfield at once, as long as no thread is
+ * modifying it.
+ */
+public class Heightfield {
+
+    private final FloatBuffer heights;
+    private final int stride;
+    private final int offset;
+    private final int size;
+
+    /**
+     * Creates a flat heightfield.
+     *
+     * @param size the number of heights on one side
+     */
+    public Heightfield(int size) {
+        this(BufferUtils.createFloatBuffer(size * size), size, 0, size);
+    }
+
+    /**
+     * Creates a heightfield that holds a copy of the given heights. If the
+     * height map is smaller than the heightfield, the remaining heights are
+     * zero. If it is larger, only its first size rows and columns are used.
+     *
+     * @param heightMap a square height map, row by row (may be null for a
+     * flat heightfield)
+     * @param size the number of heights on one side
+     */
+    public Heightfield(float[] heightMap, int size) {
+        this(size);
+        if (heightMap != null) {
+            int side = (int) FastMath.sqrt(heightMap.length);
+            int count = Math.min(side, size);
+            FloatBuffer row = heights.duplicate();
+            for (int z = 0; z < count; z++) {
+                row.position(z * size);
+                row.put(heightMap, z * side, count);
+            }
+        }
+    }
+
+    private Heightfield(FloatBuffer heights, int stride, int offset, int size) {
+        this.heights = heights;
+        this.stride = stride;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Returns a square region of this heightfield. Heights written through
+     * the view are seen by this heightfield, and the other way around.
+     *
+     * @param x the column of the first height of the view
+     * @param z the row of the first height of the view
+     * @param side the number of heights on one side of the view
+     * @return a new view
+     * @throws IndexOutOfBoundsException if the region does not fit in this
+     * heightfield
+     */
+    public Heightfield view(int x, int z, int side) {
+        if (x < 0 || z < 0 || side < 0 || x + side > size || z + side > size) {
+            throw new IndexOutOfBoundsException("View " + side + "x" + side + " at " + x + "," + z
+                    + " is outside of a heightfield of size " + size);
+        }
+        return new Heightfield(heights, stride, offset + z * stride + x, side);
+    }
+
+    /**
+     * @return the number of heights on one side
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the height at the given point. The coordinates are not checked
+     * against the bounds of a view.
+     *
+     * @param x the column, from 0 to getSize() - 1
+     * @param z the row, from 0 to getSize() - 1
+     * @return the height
+     */
+    public float get(int x, int z) {
+        return heights.get(offset + z * stride + x);
+    }
+
+    /**
+     * Sets the height at the given point. The coordinates are not checked
+     * against the bounds of a view.
+     *
+     * @param x the column, from 0 to getSize() - 1
+     * @param z the row, from 0 to getSize() - 1
+     * @param height the new height
+     */
+    public void set(int x, int z, float height) {
+        heights.put(offset + z * stride + x, height);
+    }
+
+    /**
+     * Tests whether this heightfield and the given one are views of the same
+     * buffer.
+     *
+     * @param other the other heightfield (not null)
+     * @return true if they share their heights
+     */
+    public boolean isSharedWith(Heightfield other) {
+        return heights == other.heights;
+    }
+
+    /**
+     * Copies the heights into an array, row by row.
+     *
+     * @param store the array to fill (optional), its length must be at least
+     * getSize() * getSize()
+     * @return store, or a new array if store is null
+     */
+    public float[] toArray(float[] store) {
+        if (store == null) {
+            store = new float[size * size];
+        } else if (store.length < size * size) {
+            throw new IllegalArgumentException("The array holds " + store.length
+                    + " heights, " + size * size + " are needed");
+        }
+        FloatBuffer row = heights.duplicate();
+        for (int z = 0; z < size; z++) {
+            row.position(offset + z * stride);
+            row.get(store, z * size, size);
+        }
+        return store;
+    }
+}
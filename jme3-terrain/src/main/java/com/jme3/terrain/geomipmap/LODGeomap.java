@@ -42,11 +42,11 @@ import com.jme3.scene.Mesh.Mode;
 import com.jme3.scene.VertexBuffer.Type;
 import com.jme3.scene.mesh.IndexBuffer;
 import com.jme3.terrain.GeoMap;
+import com.jme3.terrain.Heightfield;
 import com.jme3.util.BufferUtils;
 import com.jme3.util.TempVars;
 import java.io.IOException;
 import java.nio.BufferUnderflowException;
-import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
@@ -73,6 +73,10 @@ public class LODGeomap extends GeoMap {
         super(heightMap, size, size, 1);
     }
 
+    public LODGeomap(Heightfield heightfield) {
+        super(heightfield, 1);
+    }
+
     public Mesh createMesh(Vector3f scale, Vector2f tcScale, Vector2f tcOffset, float offsetAmount, int totalSize, boolean center) {
         return this.createMesh(scale, tcScale, tcOffset, offsetAmount, totalSize, center, 1, false, false, false, false);
     }
@@ -81,7 +85,6 @@ public class LODGeomap extends GeoMap {
         FloatBuffer pb = writeVertexArray(null, scale, center);
         FloatBuffer texb = writeTexCoordArray(null, tcOffset, tcScale, offsetAmount, totalSize);
         FloatBuffer nb = writeNormalArray(null, scale);
-        IndexBuffer ib = writeIndexArrayLodDiff(lod, rightLod, topLod, leftLod, bottomLod, totalSize);
         FloatBuffer bb = BufferUtils.createFloatBuffer(getWidth() * getHeight() * 3);
         FloatBuffer tanb = BufferUtils.createFloatBuffer(getWidth() * getHeight() * 3);
         writeTangentArray(nb, tanb, bb, texb, scale);
@@ -92,17 +95,7 @@ public class LODGeomap extends GeoMap {
         m.setBuffer(Type.Tangent, 3, tanb);
         m.setBuffer(Type.Binormal, 3, bb);
         m.setBuffer(Type.TexCoord, 2, texb);
-        switch (ib.getFormat()) {
-            case UnsignedInt:
-                m.setBuffer(Type.Index, 3, (IntBuffer) ib.getBuffer());
-                break;
-            case UnsignedShort:
-                m.setBuffer(Type.Index, 3, (ShortBuffer) ib.getBuffer());
-                break;
-            case UnsignedByte:
-                m.setBuffer(Type.Index, 3, (ByteBuffer) ib.getBuffer());
-                break;
-        }
+        m.setBuffer(LodIndexBufferCache.getIndexBuffer(this, lod, rightLod, topLod, leftLod, bottomLod));
         m.setStatic();
         m.updateBound();
         return m;
@@ -973,10 +966,10 @@ public class LODGeomap extends GeoMap {
             return Float.NaN;
         }
         
-        float h1 = hdata[index];                // top left
-        float h2 = hdata[index + 1];            // top right
-        float h3 = hdata[index + width];        // bottom left
-        float h4 = hdata[index + width + 1];    // bottom right
+        float h1 = getValue(x, z);              // top left
+        float h2 = getValue(x + 1, z);          // top right
+        float h3 = getValue(x, z + 1);          // bottom left
+        float h4 = getValue(x + 1, z + 1);      // bottom right
 
         //float dix = (x % 1f) ;
         //float diz = (z % 1f) ;
@@ -1078,10 +1071,10 @@ public class LODGeomap extends GeoMap {
         Triangle t = new Triangle(new Vector3f(), new Vector3f(), new Vector3f());
         Triangle t2 = new Triangle(new Vector3f(), new Vector3f(), new Vector3f());
 
-        float h1 = hdata[index];                // top left
-        float h2 = hdata[index + 1];            // top right
-        float h3 = hdata[index + width];        // bottom left
-        float h4 = hdata[index + width + 1];    // bottom right
+        float h1 = getValue(gridX, gridY);              // top left
+        float h2 = getValue(gridX + 1, gridY);          // top right
+        float h3 = getValue(gridX, gridY + 1);          // bottom left
+        float h4 = getValue(gridX + 1, gridY + 1);      // bottom right
 
 
         if ((gridX == 0 && gridY == 0) || (gridX == width - 2 && gridY == width - 2)) {
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.scene.mesh.IndexBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The index buffers of the terrain patches, shared by all patches.
+ * <p>
+ * The indices of a patch only depend on its size, its LOD and how its edges
+ * are stitched to the LOD of its four neighbours, not on its heights. So
+ * every patch with the same size and LODs uses the same index buffer, which
+ * is built the first time it is needed and uploaded to the GPU once. This
+ * saves building a new index buffer for each patch on every LOD change.
+ * <p>
+ * This class is thread-safe, the buffers can be requested from the LOD
+ * threads. The returned buffers are shared and must not be modified.
+ */
+public final class LodIndexBufferCache {
+
+    // the size and LOD values that fit in a key
+    private static final int MAX_SIZE = (1 << 12) - 1;
+    private static final int MAX_LOD = (1 << 10) - 1;
+
+    private static final ConcurrentHashMap<Long, VertexBuffer> buffers = new ConcurrentHashMap<>();
+
+    private LodIndexBufferCache() {
+    }
+
+    /**
+     * Returns the index buffer built by
+     * {@link LODGeomap#writeIndexArrayLodDiff(int, boolean, boolean, boolean, boolean, int)}
+     * for the given LOD.
+     *
+     * @param geomap the geomap of the patch, only its size is used
+     * @param lod level of detail of the mesh, as a step between vertices
+     * @param rightLod true if the right neighbour has a lower LOD
+     * @param topLod true if the top neighbour has a lower LOD
+     * @param leftLod true if the left neighbour has a lower LOD
+     * @param bottomLod true if the bottom neighbour has a lower LOD
+     * @return the shared index buffer
+     */
+    public static VertexBuffer getIndexBuffer(LODGeomap geomap, int lod, boolean rightLod,
+            boolean topLod, boolean leftLod, boolean bottomLod) {
+        int size = geomap.getWidth();
+        if (size > MAX_SIZE || lod > MAX_LOD) {
+            return createVertexBuffer(geomap.writeIndexArrayLodDiff(lod, rightLod, topLod, leftLod, bottomLod, 0));
+        }
+        long key = key(size, false, lod, rightLod ? 1 : 0, topLod ? 1 : 0, leftLod ? 1 : 0, bottomLod ? 1 : 0);
+        return buffers.computeIfAbsent(key, k -> createVertexBuffer(
+                geomap.writeIndexArrayLodDiff(lod, rightLod, topLod, leftLod, bottomLod, 0)));
+    }
+
+    /**
+     * Returns the index buffer built by
+     * {@link LODGeomap#writeIndexArrayLodVariable(int, int, int, int, int, int)}
+     * for the given LODs.
+     *
+     * @param geomap the geomap of the patch, only its size is used
+     * @param lod level of detail of the mesh, as a step between vertices
+     * @param rightLod level of detail of the right neighbour
+     * @param topLod level of detail of the top neighbour
+     * @param leftLod level of detail of the left neighbour
+     * @param bottomLod level of detail of the bottom neighbour
+     * @return the shared index buffer
+     */
+    public static VertexBuffer getVariableIndexBuffer(LODGeomap geomap, int lod, int rightLod,
+            int topLod, int leftLod, int bottomLod) {
+        int size = geomap.getWidth();
+        if (size > MAX_SIZE || Math.max(Math.max(lod, rightLod), Math.max(Math.max(topLod, leftLod), bottomLod)) > MAX_LOD) {
+            return createVertexBuffer(geomap.writeIndexArrayLodVariable(lod, rightLod, topLod, leftLod, bottomLod, 0));
+        }
+        long key = key(size, true, lod, rightLod, topLod, leftLod, bottomLod);
+        return buffers.computeIfAbsent(key, k -> createVertexBuffer(
+                geomap.writeIndexArrayLodVariable(lod, rightLod, topLod, leftLod, bottomLod, 0)));
+    }
+
+    /**
+     * @return the number of index buffers in the cache
+     */
+    public static int size() {
+        return buffers.size();
+    }
+
+    /**
+     * Removes all index buffers from the cache. The patches that use them
+     * keep them until their LOD changes.
+     */
+    public static void clear() {
+        buffers.clear();
+    }
+
+    private static long key(int size, boolean variable, int lod, int rightLod, int topLod, int leftLod, int bottomLod) {
+        long key = size;
+        key = (key << 1) | (variable ? 1 : 0);
+        key = (key << 10) | lod;
+        key = (key << 10) | rightLod;
+        key = (key << 10) | topLod;
+        key = (key << 10) | leftLod;
+        key = (key << 10) | bottomLod;
+        return key;
+    }
+
+    private static VertexBuffer createVertexBuffer(IndexBuffer indices) {
+        VertexBuffer vb = new VertexBuffer(Type.Index);
+        vb.setupData(Usage.Static, 3, indices.getFormat(), indices.getBuffer());
+        return vb;
+    }
+}
@@ -39,8 +39,9 @@ import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
 import com.jme3.util.SafeArrayList;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An extension of the TerrainLodControl that handles
@@ -106,6 +107,14 @@ public class MultiTerrainLodControl extends TerrainLodControl {
         removedTerrains.add(tq);
     }
     
+    /**
+     * The terrains can change between updates, so all patches are calculated.
+     */
+    @Override
+    protected TerrainLodScheduler makeLodScheduler() {
+        return null;
+    }
+
     @Override
     protected UpdateLOD createLodUpdateTask(final List<Vector3f> locations,
                                             final LodCalculator lodCalculator) {
@@ -145,9 +154,9 @@ public class MultiTerrainLodControl extends TerrainLodControl {
         }
         
         @Override
-        public HashMap<String, UpdatedTerrainPatch> call() throws Exception {
+        public Map<TerrainPatch, UpdatedTerrainPatch> call() throws Exception {
 
-            HashMap<String, UpdatedTerrainPatch> updated = new HashMap<>();
+            Map<TerrainPatch, UpdatedTerrainPatch> updated = new IdentityHashMap<>();
             
             for (TerrainQuad terrainQuad : terrains) {
                 // go through each patch and calculate its LOD based on camera distance
@@ -40,18 +40,26 @@ import com.jme3.material.Material;
 import com.jme3.math.FastMath;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
+import com.jme3.renderer.RenderManager;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.control.UpdateControl;
 import com.jme3.terrain.Terrain;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -67,9 +75,10 @@ import java.util.logging.Logger;
  * TerrainGrid will piggyback on the TerrainLodControl so it can use the camera for its
  * updates as well. It does this in the overwritten update() method.
  * </p><p>
- * It uses an LRU (Least Recently Used) cache of 16 terrain tiles (full TerrainQuadTrees). The
- * center 4 are the ones that are visible. As the camera moves, it checks what camera cell it is in
- * and will attach the now visible tiles.
+ * It uses an LRU (Least Recently Used) cache of terrain tiles (full TerrainQuadTrees), bounded
+ * by a memory budget, see {@link TerrainGridTileCache}. The 16 tiles around the camera are always
+ * kept, and the center 4 are the ones that are visible. As the camera moves, it checks what camera
+ * cell it is in and will attach the now visible tiles.
  * </p><p>
  * The 'quadIndex' variable is a 4x4 array that represents the tiles. The center
  * four (index numbers: 5, 6, 9, 10) are what is visible. Each quadIndex value is an
@@ -95,6 +104,12 @@ import java.util.logging.Logger;
  * attached to the grid quad tree, back on the OGL thread. It will grab the terrain quad from
  * the LRU cache if it exists. If it does not exist, it will load in the new TerrainQuad tile.
  * </p><p>
+ * To hide the loading, the tiles the camera is heading to are loaded ahead of time: the camera
+ * velocity predicts where the camera will be after the prefetch time, and the tiles around the
+ * cells on the way are requested too. Requests that did not start yet are canceled when the
+ * camera turns. Loaded tiles are uploaded to the GPU before they are attached, a few per frame
+ * within the upload budget, so the frame that attaches them does not stall.
+ * </p><p>
  * The loading of new tiles triggers events for any TerrainGridListeners. The events are:
  * <ul>
  *  <li>tile Attached
@@ -116,92 +131,69 @@ public class TerrainGrid extends TerrainQuad {
     protected Vector3f[] quadIndex;
     protected Set<TerrainGridListener> listeners = new HashSet<>();
     protected Material material;
-    //cache  needs to be 1 row (4 cells) larger than what we care is cached
-    protected LRUCache<Vector3f, TerrainQuad> cache = new LRUCache<>(20);
+    protected TerrainGridTileCache cache = new TerrainGridTileCache();
     protected int cellsLoaded = 0;
     protected int[] gridOffset;
     protected boolean runOnce = false;
     protected ExecutorService cacheExecutor;
 
-    protected class UpdateQuadCache implements Runnable {
+    /** the quadIndex indices of the visible tiles, in the order of their quadrants 1 to 4 */
+    protected static final int[] CENTER_INDICES = {5, 9, 6, 10};
+    /** the maximum number of cells on the predicted camera path whose tiles are prefetched */
+    protected static final int MAX_PREFETCH_STEPS = 4;
+    public static final float DEFAULT_PREFETCH_TIME = 2f;
+    public static final long DEFAULT_UPLOAD_BUDGET = 8L * 1024 * 1024;
+
+    protected final Map<Vector3f, Future<?>> tileRequests = new ConcurrentHashMap<>();
+    protected float prefetchTime = DEFAULT_PREFETCH_TIME;
+    protected long uploadBudget = DEFAULT_UPLOAD_BUDGET;
+    protected int canceledRequestCount = 0;
+    // the rendering thread's streaming state
+    private Vector3f lastCamLocation;
+    private final Vector3f camVelocity = new Vector3f();
+    private Vector3f prefetchFrom;
+    private Vector3f prefetchTo;
+    private final Set<Vector3f> prefetchCells = new LinkedHashSet<>();
+    private Set<Vector3f> requestedCells = Collections.emptySet();
+    private long uploadedBytes = 0;
+    private boolean uploadedThisFrame = false;
 
-        protected final Vector3f location;
+    /**
+     * Loads the tile of one cell on the background thread, unless it is
+     * cached already, and then attaches the visible tiles back on the OGL
+     * thread with the attachTiles() method.
+     */
+    protected class TileRequest implements Runnable {
 
-        public UpdateQuadCache(Vector3f location) {
-            this.location = location;
+        protected final Vector3f cell;
+
+        public TileRequest(Vector3f cell) {
+            this.cell = cell;
         }
 
-        /**
-         * This is executed if the camera has moved into a new CameraCell and will load in
-         * the new TerrainQuad tiles to be children of this TerrainGrid parent.
-         * It will first check the LRU cache to see if the terrain tile is already there,
-         * if it is not there, it will load it in and then cache that tile.
-         * The terrain tiles get added to the quad tree back on the OGL thread using the
-         * attachQuadAt() method. It also resets any cached values in TerrainQuad (such as
-         * neighbours).
-         */
         @Override
         public void run() {
-            for (int i = 0; i < 4; i++) {
-                for (int j = 0; j < 4; j++) {
-                    int quadIdx = i * 4 + j;
-                    final Vector3f quadCell = location.add(quadIndex[quadIdx]);
-                    TerrainQuad q = cache.get(quadCell);
-                    if (q == null) {
-                        if (gridTileLoader != null) {
-                            q = gridTileLoader.getTerrainQuadAt(quadCell);
-                            // only clone the material to the quad if it doesn't have a material of its own
-                            if(q.getMaterial()==null) q.setMaterial(material.clone());
-                            log.log(Level.FINE, "Loaded TerrainQuad {0} from TerrainQuadGrid", q.getName());
-                        }
-                    }
-                    cache.put(quadCell, q);
-
-                    
-                    final int quadrant = getQuadrant(quadIdx);
-                    final TerrainQuad newQuad = q;
-                    
-                    if (isCenter(quadIdx)) {
-                        // if it should be attached as a child right now, attach it
-                        getControl(UpdateControl.class).enqueue(new Callable<Object>() {
-                            // back on the OpenGL thread:
-                            @Override
-                            public Object call() throws Exception {
-                                if (newQuad.getParent() != null) {
-                                    attachQuadAt(newQuad, quadrant, quadCell, true);
-                                }
-                                else {
-                                    attachQuadAt(newQuad, quadrant, quadCell, false);
-                                }
-                                return null;
-                            }
-                        });
-                    } else {
-                        getControl(UpdateControl.class).enqueue(new Callable<Object>() {
-                            @Override
-                            public Object call() throws Exception {
-                                removeQuad(newQuad);
-                                return null;
-                            }
-                        });
-                    }
+            try {
+                if (!cache.contains(cell)) {
+                    TerrainQuad q = gridTileLoader.getTerrainQuadAt(cell);
+                    if (q == null)
+                        return;
+                    // only clone the material to the quad if it doesn't have a material of its own
+                    if(q.getMaterial()==null) q.setMaterial(material.clone());
+                    log.log(Level.FINE, "Loaded TerrainQuad {0} from TerrainQuadGrid", q.getName());
+                    cache.put(cell, q);
                 }
+            } finally {
+                tileRequests.remove(cell);
             }
 
             getControl(UpdateControl.class).enqueue(new Callable<Object>() {
-                    // back on the OpenGL thread:
-                    @Override
-                    public Object call() throws Exception {
-                        for (Spatial s : getChildren()) {
-                            if (s instanceof TerrainQuad) {
-                                TerrainQuad tq = (TerrainQuad)s;
-                                tq.resetCachedNeighbours();
-                            }
-                        }
-                        System.out.println("fixed normals "+location.clone().mult(size));
-                        setNeedToRecalculateNormals();
-                        return null;
-                    }
+                // back on the OpenGL thread:
+                @Override
+                public Object call() throws Exception {
+                    attachTiles();
+                    return null;
+                }
             });
         }
     }
@@ -380,59 +372,185 @@ public class TerrainGrid extends TerrainQuad {
      * Called when the camera has moved into a new cell. We need to
      * update what quads are in the scene now.
      * 
-     * Step 1: touch cache
-     * LRU cache is used, so elements that need to remain
-     * should be touched.
+     * Step 1: pin the cache
+     * The tiles of the 4x4 cells around the camera cell are pinned,
+     * so they are not evicted from the cache.
      *
-     * Step 2: load new quads in background thread
-     * if the camera has moved into a new cell, we load in new quads
+     * Step 2: request new quads from the background thread
+     * The tiles of those cells and of the prefetch rings that are not
+     * cached yet are loaded, the center four first. Requests for cells
+     * that are no longer needed are canceled if they did not start yet.
+     *
+     * Step 3: attach the center four tiles that are already cached.
      * @param camCell the cell the camera is in
      */
     protected void updateChildren(Vector3f camCell) {
+        this.currentCamCell = camCell;
+        cache.setPinned(getWindowCells(camCell));
+        requestTiles();
+        attachTiles();
+    }
 
-        int dx = 0;
-        int dy = 0;
-        if (currentCamCell != null) {
-            dx = (int) (camCell.x - currentCamCell.x);
-            dy = (int) (camCell.z - currentCamCell.z);
+    /**
+     * Returns the 4x4 cells around the camera cell, the center four first.
+     */
+    protected Set<Vector3f> getWindowCells(Vector3f camCell) {
+        Set<Vector3f> cells = new LinkedHashSet<>();
+        for (int quadIdx : CENTER_INDICES) {
+            cells.add(camCell.add(quadIndex[quadIdx]));
         }
-
-        int xMin = 0;
-        int xMax = 4;
-        int yMin = 0;
-        int yMax = 4;
-        if (dx == -1) { // camera moved to -X direction
-            xMax = 3;
-        } else if (dx == 1) { // camera moved to +X direction
-            xMin = 1;
+        for (int quadIdx = 0; quadIdx < quadIndex.length; quadIdx++) {
+            cells.add(camCell.add(quadIndex[quadIdx]));
         }
+        return cells;
+    }
 
-        if (dy == -1) { // camera moved to -Y direction
-            yMax = 3;
-        } else if (dy == 1) { // camera moved to +Y direction
-            yMin = 1;
+    /**
+     * Predicts where the camera will be after the prefetch time from its
+     * velocity, and requests the tiles around the camera cells on the way
+     * there, so they are cached when the camera arrives. Runs on the
+     * rendering thread every frame.
+     * @param location the camera location
+     * @param tpf the time since the last frame in seconds
+     */
+    protected void updateStreaming(Vector3f location, float tpf) {
+        uploadedThisFrame = false;
+        if (lastCamLocation == null) {
+            lastCamLocation = location.clone();
+            return;
+        }
+        if (tpf > 0) {
+            // smooth the velocity over a few frames, so a single frame does not swing the prediction
+            Vector3f velocity = location.subtract(lastCamLocation).divideLocal(tpf);
+            camVelocity.interpolateLocal(velocity, Math.min(1f, tpf * 4f));
+        }
+        lastCamLocation.set(location);
+
+        Vector3f from = getCamCell(location);
+        Vector3f to = getCamCell(camVelocity.mult(prefetchTime).addLocal(location));
+        if (from.equals(prefetchFrom) && to.equals(prefetchTo))
+            return;
+        prefetchFrom = from;
+        prefetchTo = to;
+
+        // the rings around the cells on the way, nearest first
+        prefetchCells.clear();
+        int steps = (int) Math.max(Math.abs(to.x - from.x), Math.abs(to.z - from.z));
+        steps = Math.min(steps, MAX_PREFETCH_STEPS);
+        for (int s = 1; s <= steps; s++) {
+            float t = (float) s / steps;
+            Vector3f cell = new Vector3f(Math.round(from.x + (to.x - from.x) * t), 0, Math.round(from.z + (to.z - from.z) * t));
+            prefetchCells.addAll(getWindowCells(cell));
         }
+        if (currentCamCell != null)
+            prefetchCells.removeAll(getWindowCells(currentCamCell));
+        requestTiles();
+    }
 
-        // Touch the items in the cache that we are and will be interested in.
-        // We activate cells in the direction we are moving. If we didn't move 
-        // either way in one of the axes (say X or Y axis) then they are all touched.
-        for (int i = yMin; i < yMax; i++) {
-            for (int j = xMin; j < xMax; j++) {
-                cache.get(camCell.add(quadIndex[i * 4 + j]));
+    /**
+     * Requests the tiles of the cells around the camera and of the prefetch
+     * rings that are not cached or requested yet, and cancels the requests
+     * that did not start and are no longer needed.
+     */
+    protected void requestTiles() {
+        if (gridTileLoader == null || currentCamCell == null)
+            return;
+        requestedCells = getWindowCells(currentCamCell);
+        requestedCells.addAll(prefetchCells);
+
+        for (Iterator<Map.Entry<Vector3f, Future<?>>> it = tileRequests.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Vector3f, Future<?>> request = it.next();
+            if (!requestedCells.contains(request.getKey()) && request.getValue().cancel(false)) {
+                it.remove();
+                canceledRequestCount++;
             }
         }
-        
-        // ---------------------------------------------------
-        // ---------------------------------------------------
 
         if (cacheExecutor == null) {
             // use the same executor as the LODControl
             cacheExecutor = createExecutorService();
         }
+        for (Vector3f cell : requestedCells) {
+            if (!cache.contains(cell) && !tileRequests.containsKey(cell)) {
+                // the request removes itself when done, so add it first
+                FutureTask<Object> request = new FutureTask<>(new TileRequest(cell), null);
+                tileRequests.put(cell, request);
+                cacheExecutor.execute(request);
+            }
+        }
+    }
 
-        cacheExecutor.submit(new UpdateQuadCache(camCell));
+    /**
+     * Attaches the cached tiles of the center four cells and detaches the
+     * tiles of other cells. It also resets any cached values in TerrainQuad
+     * (such as neighbours). Runs on the rendering thread.
+     */
+    protected void attachTiles() {
+        if (currentCamCell == null)
+            return;
+        Vector3f[] cells = new Vector3f[4];
+        TerrainQuad[] tiles = new TerrainQuad[4];
+        for (int i = 0; i < 4; i++) {
+            cells[i] = currentCamCell.add(quadIndex[CENTER_INDICES[i]]);
+            tiles[i] = cache.get(cells[i]);
+        }
 
-        this.currentCamCell = camCell;
+        boolean changed = false;
+        for (Spatial child : getChildren().toArray(new Spatial[0])) {
+            if (child instanceof TerrainQuad && !Arrays.asList(tiles).contains(child)) {
+                removeQuad((TerrainQuad) child);
+                changed = true;
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            TerrainQuad q = tiles[i];
+            int quadrant = getQuadrant(CENTER_INDICES[i]);
+            if (q == null || (q.getParent() == this && q.getQuadrant() == quadrant))
+                continue;
+            boolean shifted = q.getParent() != null;
+            attachQuadAt(q, quadrant, cells[i], shifted);
+            if (!shifted && !cache.isUploaded(cells[i])) {
+                // it will be uploaded when rendered, which takes from this frame's budget
+                uploadedBytes += cache.getTileSize(cells[i]);
+                cache.setUploaded(cells[i]);
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            for (Spatial s : getChildren()) {
+                if (s instanceof TerrainQuad) {
+                    TerrainQuad tq = (TerrainQuad)s;
+                    tq.resetCachedNeighbours();
+                }
+            }
+            setNeedToRecalculateNormals();
+        }
+    }
+
+    /**
+     * Uploads the cached tiles that are not attached yet to the GPU, nearest
+     * first, until the upload budget of the frame is used up, so attaching
+     * them later does not upload everything in one frame. Runs on the
+     * rendering thread, once per frame.
+     * @param rm the render manager
+     */
+    protected void uploadTiles(RenderManager rm) {
+        if (uploadedThisFrame)
+            return;
+        uploadedThisFrame = true;
+        long budget = uploadBudget - uploadedBytes;
+        uploadedBytes = 0;
+        for (Vector3f cell : requestedCells) {
+            if (budget <= 0)
+                break;
+            TerrainQuad q = cache.get(cell);
+            if (q == null || q.getParent() != null || cache.isUploaded(cell))
+                continue;
+            rm.preloadScene(q);
+            cache.setUploaded(cell);
+            budget -= cache.getTileSize(cell);
+        }
     }
 
     public void addListener(TerrainGridListener listener) {
@@ -447,6 +565,54 @@ public class TerrainGrid extends TerrainQuad {
         this.listeners.remove(listener);
     }
 
+    /**
+     * @return the cache of the loaded tiles
+     */
+    public TerrainGridTileCache getTileCache() {
+        return cache;
+    }
+
+    /**
+     * Sets how far ahead, in seconds of camera movement, the tiles are
+     * loaded. Zero only loads the tiles around the camera cell.
+     * Default is 2 seconds.
+     * @param prefetchTime the time in seconds, not negative
+     */
+    public void setPrefetchTime(float prefetchTime) {
+        if (prefetchTime < 0)
+            throw new IllegalArgumentException("Prefetch time must not be negative: " + prefetchTime);
+        this.prefetchTime = prefetchTime;
+    }
+
+    public float getPrefetchTime() {
+        return prefetchTime;
+    }
+
+    /**
+     * Sets how many bytes of prefetched tiles are uploaded to the GPU per
+     * frame, at least one tile. The visible tiles are never held back, but
+     * count against the budget of the frame they are attached in.
+     * Default is 8 MiB.
+     * @param uploadBudget the budget in bytes, greater than zero
+     */
+    public void setUploadBudget(long uploadBudget) {
+        if (uploadBudget <= 0)
+            throw new IllegalArgumentException("Upload budget must be greater than zero: " + uploadBudget);
+        this.uploadBudget = uploadBudget;
+    }
+
+    public long getUploadBudget() {
+        return uploadBudget;
+    }
+
+    /**
+     * @return the number of tile requests canceled because the camera moved
+     * away before they started
+     */
+    public int getCanceledRequestCount() {
+        return canceledRequestCount;
+    }
+
     @Override
     public void setMaterial(Material mat) {
         this.material = mat;
@@ -476,6 +642,11 @@ public class TerrainGrid extends TerrainQuad {
     public int getNumMajorSubdivisions() {
         return 2;
     }
+
+    @Override
+    protected void shareHeightfield() {
+        // the tiles are separate terrains, each with its own heightfield
+    }
     
     @Override
     public Material getMaterial(Vector3f worldLocation) {
@@ -514,7 +685,7 @@ public class TerrainGrid extends TerrainQuad {
                         if (future.isDone())
                             future.get();
                     } catch (CancellationException ce) {
-                        t = ce;
+                        // a tile request the camera does not need anymore
                     } catch (ExecutionException ee) {
                         t = ee.getCause();
                     } catch (InterruptedException ie) {
@@ -540,6 +711,9 @@ public class TerrainGrid extends TerrainQuad {
         offsetAmount = c.readFloat("offsetAmount", 0);
         gridTileLoader = (TerrainGridTileLoader) c.readSavable("terrainQuadGrid", null);
         material = (Material) c.readSavable("material", null);
+        prefetchTime = c.readFloat("prefetchTime", DEFAULT_PREFETCH_TIME);
+        uploadBudget = c.readLong("uploadBudget", DEFAULT_UPLOAD_BUDGET);
+        cache.setMemoryBudget(c.readLong("cacheMemoryBudget", TerrainGridTileCache.DEFAULT_MEMORY_BUDGET));
         initData();
         if (gridTileLoader != null) {
             gridTileLoader.setPatchSize(this.patchSize);
@@ -558,5 +732,8 @@ public class TerrainGrid extends TerrainQuad {
         c.write(offset, "offset", null);
         c.write(offsetAmount, "offsetAmount", 0);
         c.write(material, "material", null);
+        c.write(prefetchTime, "prefetchTime", DEFAULT_PREFETCH_TIME);
+        c.write(uploadBudget, "uploadBudget", DEFAULT_UPLOAD_BUDGET);
+        c.write(cache.getMemoryBudget(), "cacheMemoryBudget", TerrainGridTileCache.DEFAULT_MEMORY_BUDGET);
     }
 }
@@ -33,21 +33,48 @@ package com.jme3.terrain.geomipmap;
 
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
 import com.jme3.terrain.Terrain;
 import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
 import com.jme3.util.SafeArrayList;
 
 /**
- * Updates grid offsets and cell positions.
+ * Updates grid offsets and cell positions, and streams the tiles
+ * of the grid in: it prefetches them ahead of the camera and uploads
+ * them within the upload budget of each frame.
  * As well as updating LOD.
  * 
  * @author sploreg
  */
 public class TerrainGridLodControl extends TerrainLodControl {
+
+    private float tpf;
     
     public TerrainGridLodControl(Terrain terrain, Camera camera) {
         super(terrain, camera);
     }
+
+    /**
+     * The tiles of the grid change as the camera moves, so all patches are
+     * calculated.
+     */
+    @Override
+    protected TerrainLodScheduler makeLodScheduler() {
+        return null;
+    }
+    
+    @Override
+    protected void controlUpdate(float tpf) {
+        this.tpf = tpf;
+        super.controlUpdate(tpf);
+    }
+
+    @Override
+    protected void controlRender(RenderManager rm, ViewPort vp) {
+        super.controlRender(rm, vp);
+        ((TerrainGrid) getSpatial()).uploadTiles(rm);
+    }
     
     @Override
     protected void updateLOD(SafeArrayList<Vector3f> locations, LodCalculator lodCalculator) {
@@ -72,6 +99,7 @@ public class TerrainGridLodControl extends TerrainLodControl {
             }
         }
         terrainGrid.runOnce = true;
+        terrainGrid.updateStreaming(cam, tpf);
         super.updateLOD(locations, lodCalculator);
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector3f;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.terrain.Heightfield;
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The cache of the tiles of a {@link TerrainGrid}, keyed by cell. It can be
+ * read and filled from any thread without locking; only the eviction is
+ * serialized.
+ * <p>
+ * Each tile is weighed with the size of its vertex and height data, and when
+ * the total exceeds the memory budget, the least recently used tiles are
+ * evicted. Pinned cells, the ones around the camera, are never evicted, so
+ * the budget can be exceeded if they alone do not fit.
+ */
+public class TerrainGridTileCache {
+
+    private static final Logger logger = Logger.getLogger(TerrainGridTileCache.class.getName());
+
+    /**
+     * The default memory budget: 256 MiB.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+
+    private static final class Entry {
+
+        final TerrainQuad tile;
+        final long size;
+        volatile long lastUse;
+        volatile boolean uploaded;
+
+        Entry(TerrainQuad tile, long size) {
+            this.tile = tile;
+            this.size = size;
+        }
+    }
+
+    private final ConcurrentHashMap<Vector3f, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong currentSize = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private volatile long memoryBudget;
+    private volatile Set<Vector3f> pinned = Collections.emptySet();
+
+    /**
+     * Creates a cache with the {@link #DEFAULT_MEMORY_BUDGET default budget}.
+     */
+    public TerrainGridTileCache() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * @param memoryBudget the maximum total size in bytes (&gt;0)
+     */
+    public TerrainGridTileCache(long memoryBudget) {
+        setMemoryBudget(memoryBudget);
+    }
+
+    /**
+     * Alters the memory budget. If the cached tiles exceed the new budget,
+     * tiles are evicted immediately.
+     *
+     * @param memoryBudget the maximum total size in bytes (&gt;0)
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget must be positive");
+        }
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Retrieves a tile and marks it as the most recently used.
+     *
+     * @param cell the cell of the tile
+     * @return the tile, or null if it is not cached
+     */
+    public TerrainQuad get(Vector3f cell) {
+        Entry entry = entries.get(cell);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUse = clock.incrementAndGet();
+        return entry.tile;
+    }
+
+    /**
+     * Tests if a tile is cached, without marking it as used.
+     *
+     * @param cell the cell of the tile
+     * @return true if it is cached
+     */
+    public boolean contains(Vector3f cell) {
+        return entries.containsKey(cell);
+    }
+
+    /**
+     * Adds a tile as the most recently used, replacing the tile of the same
+     * cell, and evicts tiles if the cache is over budget.
+     *
+     * @param cell the cell of the tile
+     * @param tile the tile (not null)
+     */
+    public void put(Vector3f cell, TerrainQuad tile) {
+        Entry entry = new Entry(tile, estimateSize(tile));
+        entry.lastUse = clock.incrementAndGet();
+        Entry old = entries.put(cell.clone(), entry);
+        currentSize.addAndGet(old == null ? entry.size : entry.size - old.size);
+        evict();
+    }
+
+    /**
+     * Sets the cells whose tiles must not be evicted, replacing the previous
+     * ones.
+     *
+     * @param cells the cells to pin (not null, unaffected)
+     */
+    public void setPinned(Collection<Vector3f> cells) {
+        Set<Vector3f> copy = new HashSet<>();
+        for (Vector3f cell : cells) {
+            copy.add(cell.clone());
+        }
+        pinned = copy;
+        evict();
+    }
+
+    public void clear() {
+        entries.clear();
+        currentSize.set(0);
+    }
+
+    /**
+     * @return the estimated size of all cached tiles, in bytes
+     */
+    public long getCurrentSize() {
+        return currentSize.get();
+    }
+
+    public int getTileCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of tiles evicted to stay within the budget
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the estimated size of the tile in the cell, or 0 if it is not
+     * cached
+     */
+    long getTileSize(Vector3f cell) {
+        Entry entry = entries.get(cell);
+        return entry == null ? 0 : entry.size;
+    }
+
+    boolean isUploaded(Vector3f cell) {
+        Entry entry = entries.get(cell);
+        return entry != null && entry.uploaded;
+    }
+
+    void setUploaded(Vector3f cell) {
+        Entry entry = entries.get(cell);
+        if (entry != null) {
+            entry.uploaded = true;
+        }
+    }
+
+    private synchronized void evict() {
+        int evicted = 0;
+        Set<Vector3f> pinned = this.pinned;
+        while (currentSize.get() > memoryBudget) {
+            Map.Entry<Vector3f, Entry> victim = null;
+            for (Map.Entry<Vector3f, Entry> e : entries.entrySet()) {
+                if (!pinned.contains(e.getKey())
+                        && (victim == null || e.getValue().lastUse < victim.getValue().lastUse)) {
+                    victim = e;
+                }
+            }
+            if (victim == null) {
+                break; // only pinned tiles are left
+            }
+            if (entries.remove(victim.getKey(), victim.getValue())) {
+                currentSize.addAndGet(-victim.getValue().size);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictionCount.addAndGet(evicted);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "TerrainGridTileCache: {0} tiles were evicted.", evicted);
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of bytes held by a tile: the vertex data of its
+     * patches, without the index buffers that they share, and its heights.
+     *
+     * @param tile the tile to weigh (not null)
+     * @return the estimated size in bytes
+     */
+    protected long estimateSize(TerrainQuad tile) {
+        long size = 0;
+        List<TerrainPatch> patches = new ArrayList<>();
+        tile.getAllTerrainPatches(patches);
+        for (TerrainPatch patch : patches) {
+            for (VertexBuffer vb : patch.getMesh().getBufferList().getArray()) {
+                Buffer data = vb.getData();
+                if (data != null && vb.getBufferType() != VertexBuffer.Type.Index) {
+                    size += (long) data.capacity() * vb.getFormat().getComponentSize();
+                }
+            }
+        }
+        Heightfield heightfield = tile.getHeightfield();
+        if (heightfield != null) {
+            size += 4L * heightfield.getSize() * heightfield.getSize();
+        }
+        return size;
+    }
+}
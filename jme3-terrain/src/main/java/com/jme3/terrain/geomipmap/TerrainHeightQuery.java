@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.terrain.executor.TerrainExecutorService;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Answers many height and normal queries on a TerrainQuad at once.
+ * <p>
+ * A query is a snapshot of the terrain: it copies the world transform of
+ * the terrain and looks up every patch once, when it is created, so a point
+ * is then resolved to its patch with a division instead of a descent of the
+ * quad tree. The results are the same as those of
+ * {@link TerrainQuad#getHeight(com.jme3.math.Vector2f)} and
+ * {@link TerrainQuad#getNormal(com.jme3.math.Vector2f)}.
+ * <p>
+ * Create the query on the rendering thread, with
+ * {@link TerrainQuad#createHeightQuery()}, after the terrain was updated.
+ * It can then be used by any number of threads at once, as long as no
+ * thread modifies the heights of the terrain. Create a new query when the
+ * terrain moves or when patches or tiles are attached or detached.
+ */
+public final class TerrainHeightQuery {
+
+    /**
+     * The number of points that a thread resolves at a time in a parallel
+     * query.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final float translationX;
+    private final float translationZ;
+    private final float scaleX;
+    private final float scaleY;
+    private final float scaleZ;
+    private final float halfSize;
+    private final int totalSize;
+    // the patches, row by row, and the number of heights between their origins
+    private final TerrainPatch[] patches;
+    private final int patchCount;
+    private final int patchStep;
+
+    TerrainHeightQuery(TerrainQuad terrain) {
+        Vector3f translation = terrain.getWorldTranslation();
+        Vector3f scale = terrain.getWorldScale();
+        translationX = translation.x;
+        translationZ = translation.z;
+        scaleX = scale.x;
+        scaleY = scale.y;
+        scaleZ = scale.z;
+        totalSize = terrain.getTotalSize();
+        halfSize = (totalSize - 1) / 2f;
+        patchStep = Math.max(1, terrain.getPatchSize() - 1);
+        patchCount = Math.max(1, (terrain.size - 1) / patchStep);
+        patches = new TerrainPatch[patchCount * patchCount];
+        addPatches(terrain, 0, 0);
+    }
+
+    /**
+     * Finds the patches of the quad and its children, in the same order as
+     * the descent of TerrainQuad, so a point on the edge of two patches
+     * resolves to the same patch.
+     */
+    private void addPatches(TerrainQuad quad, int x, int z) {
+        int split = (quad.size + 1) >> 1;
+        List<Spatial> children = quad.getChildren();
+        for (int i = children.size(); --i >= 0;) {
+            Spatial child = children.get(i);
+            int quadrant;
+            if (child instanceof TerrainQuad) {
+                quadrant = ((TerrainQuad) child).getQuadrant();
+            } else if (child instanceof TerrainPatch) {
+                quadrant = ((TerrainPatch) child).getQuadrant();
+            } else {
+                continue;
+            }
+            if (quadrant < 1 || quadrant > 4) {
+                continue;
+            }
+            int col = quadrant > 2 ? x + split - 1 : x;
+            int row = quadrant == 2 || quadrant == 4 ? z + split - 1 : z;
+            if (child instanceof TerrainQuad) {
+                addPatches((TerrainQuad) child, col, row);
+            } else {
+                int index = row / patchStep * patchCount + col / patchStep;
+                if (col / patchStep < patchCount && index < patches.length && patches[index] == null) {
+                    patches[index] = (TerrainPatch) child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the patch that holds the height at the given point of the
+     * terrain grid, and stores the point's coordinates in that patch.
+     *
+     * @param local the patch coordinates (modified)
+     * @return the patch, or null if there is no patch at that point
+     */
+    private TerrainPatch findPatch(int x, int z, int[] local) {
+        if (x < 0 || z < 0) {
+            return null;
+        }
+        // a point on the edge of two patches belongs to the second one,
+        // except on the last edge of the terrain
+        int col = Math.min(x / patchStep, patchCount - 1);
+        int row = Math.min(z / patchStep, patchCount - 1);
+        local[0] = x - col * patchStep;
+        local[1] = z - row * patchStep;
+        return patches[row * patchCount + col];
+    }
+
+    /**
+     * Returns the interpolated height of the terrain at a point.
+     *
+     * @param x the world X coordinate
+     * @param z the world Z coordinate
+     * @return the height, or NaN if the point lies outside the terrain
+     */
+    public float getHeight(float x, float z) {
+        return getHeight(x, z, new int[2]);
+    }
+
+    private float getHeight(float worldX, float worldZ, int[] local) {
+        float x = ((worldX - translationX) / scaleX) + halfSize;
+        float z = ((worldZ - translationZ) / scaleZ) + halfSize;
+        int col = (int) x;
+        int row = (int) z;
+        if (col < 0 || row < 0 || col > totalSize || row > totalSize) {
+            return Float.NaN;
+        }
+        TerrainPatch patch = findPatch(col, row, local);
+        if (patch == null) {
+            return Float.NaN;
+        }
+        return patch.getHeight(local[0], local[1], x % 1f, z % 1f) * scaleY;
+    }
+
+    /**
+     * Returns the interpolated heights of the terrain at many points.
+     *
+     * @param xz the world X and Z coordinates of the points, one pair after
+     * the other
+     * @param store the array to store the heights in, one per point
+     * (optional)
+     * @return store, or a new array if store is null. A height is NaN if its
+     * point lies outside the terrain.
+     */
+    public float[] getHeights(float[] xz, float[] store) {
+        return getHeights(xz, store, false);
+    }
+
+    /**
+     * Returns the interpolated heights of the terrain at many points,
+     * optionally spreading the points over the threads of the
+     * TerrainExecutorService. The calling thread resolves points too, and
+     * returns when all heights are stored.
+     *
+     * @param xz the world X and Z coordinates of the points, one pair after
+     * the other
+     * @param store the array to store the heights in, one per point
+     * (optional)
+     * @param parallel true to use the terrain threads
+     * @return store, or a new array if store is null
+     */
+    public float[] getHeights(final float[] xz, float[] store, boolean parallel) {
+        final float[] heights = checkStore(xz, store, 1);
+        run(xz.length / 2, parallel, new Chunk() {
+            @Override
+            public void resolve(int start, int end) {
+                int[] local = new int[2];
+                for (int i = start; i < end; i++) {
+                    heights[i] = getHeight(xz[i * 2], xz[i * 2 + 1], local);
+                }
+            }
+        });
+        return heights;
+    }
+
+    /**
+     * Returns the normal of the terrain at a point, interpolated from the
+     * normals of the four nearest vertices.
+     *
+     * @param x the world X coordinate
+     * @param z the world Z coordinate
+     * @param store the vector to store the normal in (optional)
+     * @return store, or a new vector if store is null. Its components are NaN
+     * if the point lies outside the terrain.
+     */
+    public Vector3f getNormal(float x, float z, Vector3f store) {
+        if (store == null) {
+            store = new Vector3f();
+        }
+        float[] normal = new float[3];
+        getNormal(x, z, normal, 0, new int[2]);
+        return store.set(normal[0], normal[1], normal[2]);
+    }
+
+    private void getNormal(float worldX, float worldZ, float[] store, int offset, int[] local) {
+        float x = ((worldX - translationX) / scaleX) + halfSize - 0.5f;
+        float z = ((worldZ - translationZ) / scaleZ) + halfSize - 0.5f;
+        int x0 = (int) FastMath.floor(x);
+        int z0 = (int) FastMath.floor(z);
+        int x1 = (int) FastMath.ceil(x);
+        int z1 = (int) FastMath.ceil(z);
+        store[offset] = 0;
+        store[offset + 1] = 0;
+        store[offset + 2] = 0;
+        if (!addMeshNormal(x1, z1, store, offset, local)
+                || !addMeshNormal(x0, z1, store, offset, local)
+                || !addMeshNormal(x1, z0, store, offset, local)
+                || !addMeshNormal(x0, z0, store, offset, local)) {
+            store[offset] = Float.NaN;
+            store[offset + 1] = Float.NaN;
+            store[offset + 2] = Float.NaN;
+            return;
+        }
+        float length = store[offset] * store[offset]
+                + store[offset + 1] * store[offset + 1]
+                + store[offset + 2] * store[offset + 2];
+        if (length != 1f && length != 0f) {
+            length = 1f / FastMath.sqrt(length);
+            store[offset] *= length;
+            store[offset + 1] *= length;
+            store[offset + 2] *= length;
+        }
+    }
+
+    private boolean addMeshNormal(int x, int z, float[] store, int offset, int[] local) {
+        TerrainPatch patch = findPatch(x, z, local);
+        if (patch == null || local[0] >= patch.getSize() || local[1] >= patch.getSize()) {
+            return false;
+        }
+        VertexBuffer buffer = patch.getMesh().getBuffer(VertexBuffer.Type.Normal);
+        if (buffer == null) {
+            return false;
+        }
+        // absolute reads only, so other threads can read the buffer too
+        FloatBuffer normals = (FloatBuffer) buffer.getData();
+        int index = (local[1] * patch.getSize() + local[0]) * 3;
+        store[offset] += normals.get(index);
+        store[offset + 1] += normals.get(index + 1);
+        store[offset + 2] += normals.get(index + 2);
+        return true;
+    }
+
+    /**
+     * Returns the normals of the terrain at many points.
+     *
+     * @param xz the world X and Z coordinates of the points, one pair after
+     * the other
+     * @param store the array to store the normals in, three components per
+     * point (optional)
+     * @return store, or a new array if store is null
+     * @see #getNormal(float, float, com.jme3.math.Vector3f)
+     */
+    public float[] getNormals(float[] xz, float[] store) {
+        return getNormals(xz, store, false);
+    }
+
+    /**
+     * Returns the normals of the terrain at many points, optionally spreading
+     * the points over the threads of the TerrainExecutorService.
+     *
+     * @param xz the world X and Z coordinates of the points, one pair after
+     * the other
+     * @param store the array to store the normals in, three components per
+     * point (optional)
+     * @param parallel true to use the terrain threads
+     * @return store, or a new array if store is null
+     * @see #getNormal(float, float, com.jme3.math.Vector3f)
+     */
+    public float[] getNormals(final float[] xz, float[] store, boolean parallel) {
+        final float[] normals = checkStore(xz, store, 3);
+        run(xz.length / 2, parallel, new Chunk() {
+            @Override
+            public void resolve(int start, int end) {
+                int[] local = new int[2];
+                for (int i = start; i < end; i++) {
+                    getNormal(xz[i * 2], xz[i * 2 + 1], normals, i * 3, local);
+                }
+            }
+        });
+        return normals;
+    }
+
+    private static float[] checkStore(float[] xz, float[] store, int components) {
+        if (xz.length % 2 != 0) {
+            throw new IllegalArgumentException("The coordinates must come in X and Z pairs, got "
+                    + xz.length + " values");
+        }
+        int length = xz.length / 2 * components;
+        if (store == null) {
+            return new float[length];
+        } else if (store.length < length) {
+            throw new IllegalArgumentException("The array holds " + store.length
+                    + " values, " + length + " are needed");
+        }
+        return store;
+    }
+
+    /**
+     * Resolves a range of points.
+     */
+    private interface Chunk {
+        void resolve(int start, int end);
+    }
+
+    /**
+     * Resolves the points in chunks. The terrain threads and the calling
+     * thread take the next chunk until none are left, so the call completes
+     * even when all terrain threads are busy, or when it is made from one of
+     * them.
+     */
+    private static void run(final int count, boolean parallel, final Chunk chunk) {
+        final int chunkCount = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int helpers = Math.min(chunkCount, Runtime.getRuntime().availableProcessors()) - 1;
+        if (!parallel || helpers <= 0) {
+            chunk.resolve(0, count);
+            return;
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(chunkCount);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                for (int c; (c = next.getAndIncrement()) < chunkCount;) {
+                    try {
+                        chunk.resolve(c * CHUNK_SIZE, Math.min(count, (c + 1) * CHUNK_SIZE));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        TerrainExecutorService executor = TerrainExecutorService.getInstance();
+        for (int i = 0; i < helpers; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the terrain threads", e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+}
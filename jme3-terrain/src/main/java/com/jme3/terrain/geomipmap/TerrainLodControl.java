@@ -35,6 +35,7 @@ import com.jme3.export.InputCapsule;
 import com.jme3.export.JmeExporter;
 import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
+import com.jme3.math.Transform;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
 import com.jme3.renderer.RenderManager;
@@ -49,10 +50,14 @@ import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
 import com.jme3.util.SafeArrayList;
 import com.jme3.util.clone.Cloner;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import static java.util.Collections.singletonList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -73,6 +78,10 @@ import java.util.logging.Logger;
  * This camera reference has to be manually added in when you load the
  * terrain to the scene!
  *
+ * The patches whose LOD is calculated are picked by a {@link TerrainLodScheduler},
+ * and the resulting updates are applied over several frames if they take longer
+ * than the LOD update budget, see {@link #setLodUpdateBudget(float)}.
+ *
  * When the control or the terrain are removed from the scene, you should call
  * TerrainLodControl.detachAndCleanUpControl() to remove any threads it created
  * to handle the LOD processing. If you supply your own executor service, then
@@ -103,10 +112,21 @@ public class TerrainLodControl extends AbstractControl {
 
     protected Terrain terrain;
     protected LodCalculator lodCalculator;
-    protected Future<HashMap<String, UpdatedTerrainPatch>> indexer;
+    protected Future<Map<TerrainPatch, UpdatedTerrainPatch>> indexer;
 
     private int lodOffCount;
 
+    private TerrainLodScheduler lodScheduler;
+    private Transform cachedTransform;
+
+    /**
+     * The updates still to apply, in groups that can be applied in different
+     * frames without cracks between the patches.
+     */
+    private ArrayDeque<List<UpdatedTerrainPatch>> pendingUpdates;
+
+    private float lodUpdateBudget = 2f;
+
     /**
      * The flag of using a camera from render viewport instead cameras from {@link #cameras}.
      */
@@ -125,12 +145,23 @@ public class TerrainLodControl extends AbstractControl {
         lodCalcRunning = new AtomicBoolean(false);
         lodOffCount = 0;
         lodCalculator = makeLodCalculator(); // a default calculator
+        lodScheduler = makeLodScheduler();
+        pendingUpdates = new ArrayDeque<>();
     }
 
     protected DistanceLodCalculator makeLodCalculator() {
         return new DistanceLodCalculator(65, 2.7f);
     }
 
+    /**
+     * Makes the scheduler that picks the patches to calculate on each update.
+     * Return null to calculate every patch, as is needed when the patches of
+     * the terrain can change.
+     */
+    protected TerrainLodScheduler makeLodScheduler() {
+        return new TerrainLodScheduler();
+    }
+
     public TerrainLodControl(final Terrain terrain) {
         this();
         this.terrain = terrain;
@@ -170,6 +201,27 @@ public class TerrainLodControl extends AbstractControl {
         return useRenderCamera;
     }
 
+    /**
+     * Sets how long the updates of the patch geometries may take per frame.
+     * Updates that do not fit are applied in the next frames, and the LOD is
+     * not calculated again until all are applied. At least one group of
+     * neighbouring patches is updated per frame.
+     *
+     * @param milliseconds the budget, or 0 to apply all updates at once
+     * (default 2)
+     */
+    public void setLodUpdateBudget(float milliseconds) {
+        this.lodUpdateBudget = milliseconds;
+    }
+
+    /**
+     * @return the budget for the updates of the patch geometries per frame,
+     * in milliseconds
+     */
+    public float getLodUpdateBudget() {
+        return lodUpdateBudget;
+    }
+
     @Override
     protected void controlRender(final RenderManager rm, final ViewPort vp) {
 
@@ -232,6 +284,7 @@ public class TerrainLodControl extends AbstractControl {
             indexer.cancel(true);
             indexer = null;
         }
+        pendingUpdates.clear();
 
         getSpatial().removeControl(this);
     }
@@ -244,7 +297,9 @@ public class TerrainLodControl extends AbstractControl {
         }
 
         // update any existing ones that need updating
-        updateQuadLODs();
+        if (!updateQuadLODs()) {
+            return;
+        }
 
         if (updateLodOffCount(lodCalculator)) {
             return;
@@ -258,6 +313,10 @@ public class TerrainLodControl extends AbstractControl {
             previousCameraLocation.set(currentLocation);
         }
 
+        if (forceUpdate && lodScheduler != null) {
+            lodScheduler.reset();
+            cachedTransform = null;
+        }
         forceUpdate = false;
 
         if (!lodCalcRunning.compareAndSet(false, true)) {
@@ -278,7 +337,9 @@ public class TerrainLodControl extends AbstractControl {
         }
 
         // update any existing ones that need updating
-        updateQuadLODs();
+        if (!updateQuadLODs()) {
+            return;
+        }
 
         if (updateLodOffCount(lodCalculator)) {
             return;
@@ -302,6 +363,10 @@ public class TerrainLodControl extends AbstractControl {
             }
         }
 
+        if (forceUpdate && lodScheduler != null) {
+            lodScheduler.reset();
+            cachedTransform = null;
+        }
         forceUpdate = false;
 
         if (!lodCalcRunning.compareAndSet(false, true)) {
@@ -340,8 +405,14 @@ public class TerrainLodControl extends AbstractControl {
 
     protected void prepareTerrain() {
         TerrainQuad terrain = (TerrainQuad) getSpatial();
+        // the patches of a scheduled terrain do not change, so their transforms
+        // only have to be cached again when the terrain moved
+        if (lodScheduler != null && terrain.getWorldTransform().equals(cachedTransform)) {
+            return;
+        }
         // cache the terrain's world transforms so they can be accessed on the separate thread safely
         terrain.cacheTerrainTransforms();
+        cachedTransform = terrain.getWorldTransform().clone();
     }
 
     protected UpdateLOD createLodUpdateTask(final List<Vector3f> locations, final LodCalculator lodCalculator) {
@@ -349,28 +420,92 @@ public class TerrainLodControl extends AbstractControl {
     }
 
     /**
-     * Back on the ogl thread: update the terrain patch geometries
+     * Back on the ogl thread: update the terrain patch geometries, within the
+     * LOD update budget.
+     *
+     * @return true if no updates are left to apply
      */
-    private void updateQuadLODs() {
+    private boolean updateQuadLODs() {
 
-        if (indexer == null || !indexer.isDone()) {
-            return;
+        if (indexer != null && indexer.isDone()) {
+            try {
+
+                final Map<TerrainPatch, UpdatedTerrainPatch> updated = indexer.get();
+                if (updated != null) {
+                    queueUpdates(updated);
+                }
+
+            } catch (final InterruptedException | ExecutionException ex) {
+                Logger.getLogger(TerrainLodControl.class.getName()).log(Level.SEVERE, null, ex);
+            } finally {
+                indexer = null;
+            }
         }
 
-        try {
+        if (pendingUpdates.isEmpty()) {
+            return true;
+        }
 
-            final HashMap<String, UpdatedTerrainPatch> updated = indexer.get();
-            if (updated != null) {
-                // do the actual geometry update here
-                for (final UpdatedTerrainPatch utp : updated.values()) {
-                    utp.updateAll();
-                }
+        // do the actual geometry update here
+        final long budget = (long) (lodUpdateBudget * 1000000);
+        final long start = System.nanoTime();
+        do {
+            for (final UpdatedTerrainPatch utp : pendingUpdates.poll()) {
+                utp.updateAll();
             }
+        } while (!pendingUpdates.isEmpty() && (budget <= 0 || System.nanoTime() - start < budget));
 
-        } catch (final InterruptedException | ExecutionException ex) {
-            Logger.getLogger(TerrainLodControl.class.getName()).log(Level.SEVERE, null, ex);
-        } finally {
-            indexer = null;
+        return pendingUpdates.isEmpty();
+    }
+
+    /**
+     * Splits the updates into groups of neighbouring patches that are
+     * re-indexed, as their edges have to change in the same frame. The
+     * updates that only store LOD values go first, in one group.
+     */
+    private void queueUpdates(final Map<TerrainPatch, UpdatedTerrainPatch> updated) {
+
+        final List<UpdatedTerrainPatch> valuesOnly = new ArrayList<>();
+        final Set<TerrainPatch> queued = Collections.newSetFromMap(new IdentityHashMap<TerrainPatch, Boolean>());
+        final ArrayDeque<TerrainPatch> stack = new ArrayDeque<>();
+
+        for (final UpdatedTerrainPatch utp : updated.values()) {
+
+            if (!utp.isReIndexNeeded()) {
+                valuesOnly.add(utp);
+                continue;
+            } else if (!queued.add(utp.getUpdatedPatch())) {
+                continue;
+            }
+
+            final List<UpdatedTerrainPatch> group = new ArrayList<>();
+            stack.push(utp.getUpdatedPatch());
+            while (!stack.isEmpty()) {
+                final TerrainPatch patch = stack.pop();
+                group.add(updated.get(patch));
+                queueNeighbour(patch.rightNeighbour, updated, queued, stack);
+                queueNeighbour(patch.bottomNeighbour, updated, queued, stack);
+                queueNeighbour(patch.leftNeighbour, updated, queued, stack);
+                queueNeighbour(patch.topNeighbour, updated, queued, stack);
+            }
+            pendingUpdates.add(group);
+        }
+
+        if (!valuesOnly.isEmpty()) {
+            pendingUpdates.addFirst(valuesOnly);
+        }
+    }
+
+    private void queueNeighbour(final TerrainPatch neighbour, final Map<TerrainPatch, UpdatedTerrainPatch> updated,
+                                final Set<TerrainPatch> queued, final ArrayDeque<TerrainPatch> stack) {
+
+        if (neighbour == null) {
+            return;
+        }
+
+        final UpdatedTerrainPatch utp = updated.get(neighbour);
+        if (utp != null && utp.isReIndexNeeded() && queued.add(neighbour)) {
+            stack.push(neighbour);
         }
     }
 
@@ -404,6 +539,10 @@ public class TerrainLodControl extends AbstractControl {
         this.lastCameraLocations = new SafeArrayList<>(Vector3f.class);
         this.lodCalcRunning = new AtomicBoolean();
         this.previousCameraLocation = new Vector3f();
+        this.lodScheduler = makeLodScheduler();
+        this.cachedTransform = null;
+        this.pendingUpdates = new ArrayDeque<>();
+        this.indexer = null;
     }
 
     public void setCamera(final Camera camera) {
@@ -450,9 +589,10 @@ public class TerrainLodControl extends AbstractControl {
 
 
     /**
-     * Calculates the LOD of all child terrain patches.
+     * Calculates the LOD of the child terrain patches picked by the scheduler,
+     * or of all of them if there is none.
      */
-    protected class UpdateLOD implements Callable<HashMap<String, UpdatedTerrainPatch>> {
+    protected class UpdateLOD implements Callable<Map<TerrainPatch, UpdatedTerrainPatch>> {
 
         protected final List<Vector3f> camLocations;
         protected final LodCalculator lodCalculator;
@@ -463,14 +603,19 @@ public class TerrainLodControl extends AbstractControl {
         }
 
         @Override
-        public HashMap<String, UpdatedTerrainPatch> call() throws Exception {
+        public Map<TerrainPatch, UpdatedTerrainPatch> call() throws Exception {
 
             TerrainQuad terrainQuad = (TerrainQuad) getSpatial();
 
             // go through each patch and calculate its LOD based on camera distance
-            HashMap<String, UpdatedTerrainPatch> updated = new HashMap<>();
+            Map<TerrainPatch, UpdatedTerrainPatch> updated = new IdentityHashMap<>();
             // 'updated' gets populated here
-            boolean lodChanged = terrainQuad.calculateLod(camLocations, updated, lodCalculator);
+            boolean lodChanged;
+            if (lodScheduler != null) {
+                lodChanged = lodScheduler.calculateLod(terrainQuad, camLocations, updated, lodCalculator);
+            } else {
+                lodChanged = terrainQuad.calculateLod(camLocations, updated, lodCalculator);
+            }
 
             if (!lodChanged) {
                 // not worth updating anything else since no one's LOD changed
@@ -499,6 +644,7 @@ public class TerrainLodControl extends AbstractControl {
         oc.write((Node)terrain, "terrain", null);
         oc.write(lodCalculator, "lodCalculator", null);
         oc.write(useRenderCamera, "useRenderCamera", false);
+        oc.write(lodUpdateBudget, "lodUpdateBudget", 2f);
     }
 
     @Override
@@ -508,5 +654,6 @@ public class TerrainLodControl extends AbstractControl {
         terrain = (Terrain) ic.readSavable("terrain", null);
         lodCalculator = (LodCalculator) ic.readSavable("lodCalculator", new DistanceLodCalculator());
         useRenderCamera = ic.readBoolean("useRenderCamera", false);
+        lodUpdateBudget = ic.readFloat("lodUpdateBudget", 2f);
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector3f;
+import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the patches of a terrain whose LOD is calculated on an update of the
+ * {@link TerrainLodControl}, so that a camera move does not recalculate the
+ * whole terrain.
+ * <p>
+ * After each patch is calculated, the scheduler asks the {@link LodCalculator}
+ * how far the camera can move before the LOD of the patch can change, see
+ * {@link LodCalculator#getLodChangeDistance(TerrainPatch, List)}. That distance
+ * is kept relative to the camera location of the last full update, the center
+ * of the camera cell. Until the camera leaves the cell, an update only
+ * calculates the patches whose distance the camera has covered since, and
+ * only the patches whose LOD changed are kept in the updates. Once the camera
+ * leaves the cell, which is one patch wide, or the terrain, the calculator or
+ * its LOD state change, all patches are calculated again and a new cell
+ * starts around the camera.
+ * <p>
+ * The scheduler is used from the LOD thread, except for {@link #reset()}.
+ */
+public class TerrainLodScheduler {
+
+    private volatile boolean reset = true;
+
+    private TerrainPatch[] patches;
+    // how far the camera can move from the cell center before the LOD of each patch can change
+    private float[] changeDistances;
+    private final Vector3f cellCenter = new Vector3f();
+    private float cellSize;
+    private final Vector3f terrainTranslation = new Vector3f();
+    private final Vector3f terrainScale = new Vector3f();
+    private LodCalculator lodCalculator;
+    private boolean lodOff;
+
+    private int calculatedCount;
+
+    /**
+     * Makes the next update calculate all patches and keep every update, as
+     * the terrain may have changed in ways the scheduler cannot see.
+     */
+    public void reset() {
+        reset = true;
+    }
+
+    /**
+     * @return the number of patches calculated by the last update
+     */
+    public int getCalculatedCount() {
+        return calculatedCount;
+    }
+
+    /**
+     * Calculates the LOD of the patches of the terrain that may have changed
+     * since the last update.
+     *
+     * @param terrain the root quad
+     * @param locations the camera locations
+     * @param updates receives the updates of the patches that changed
+     * @param lodCalculator the calculator
+     * @return true if the LOD of any patch changed
+     */
+    public boolean calculateLod(TerrainQuad terrain, List<Vector3f> locations, Map<TerrainPatch,UpdatedTerrainPatch> updates, LodCalculator lodCalculator) {
+        if (locations == null || locations.isEmpty())
+            return false;
+        Vector3f location = locations.get(0);
+
+        if (reset || patches == null) {
+            reset = false;
+            return calculateAll(terrain, locations, updates, lodCalculator, false);
+        }
+        if (lodCalculator != this.lodCalculator || lodCalculator.isLodOff() != lodOff
+                || location.distance(cellCenter) > cellSize || !isTerrainUnmoved()) {
+            return calculateAll(terrain, locations, updates, lodCalculator, true);
+        }
+
+        float moved = location.distance(cellCenter);
+        boolean lodChanged = false;
+        int count = 0;
+        for (int i = 0; i < patches.length; i++) {
+            if (changeDistances[i] > moved)
+                continue;
+            TerrainPatch patch = patches[i];
+            if (calculateLod(patch, locations, updates, lodCalculator, true))
+                lodChanged = true;
+            // the distance from the new location, less how far that is from the cell center
+            changeDistances[i] = lodCalculator.getLodChangeDistance(patch, locations) - moved;
+            count++;
+        }
+        calculatedCount = count;
+        return lodChanged;
+    }
+
+    private boolean calculateAll(TerrainQuad terrain, List<Vector3f> locations, Map<TerrainPatch,UpdatedTerrainPatch> updates, LodCalculator lodCalculator, boolean changesOnly) {
+        List<TerrainPatch> holder = new ArrayList<>();
+        terrain.getAllTerrainPatches(holder);
+        patches = holder.toArray(new TerrainPatch[holder.size()]);
+        changeDistances = new float[patches.length];
+
+        boolean lodChanged = false;
+        for (int i = 0; i < patches.length; i++) {
+            if (calculateLod(patches[i], locations, updates, lodCalculator, changesOnly))
+                lodChanged = true;
+            changeDistances[i] = lodCalculator.getLodChangeDistance(patches[i], locations);
+        }
+
+        cellCenter.set(locations.get(0));
+        this.lodCalculator = lodCalculator;
+        lodOff = lodCalculator.isLodOff();
+        if (patches.length > 0) {
+            TerrainPatch patch = patches[0];
+            terrainTranslation.set(patch.getWorldTranslationCached());
+            terrainScale.set(patch.getWorldScaleCached());
+            cellSize = (patch.getSize() - 1) * terrainScale.x;
+        }
+        calculatedCount = patches.length;
+        return lodChanged;
+    }
+
+    private static boolean calculateLod(TerrainPatch patch, List<Vector3f> locations, Map<TerrainPatch,UpdatedTerrainPatch> updates, LodCalculator lodCalculator, boolean changesOnly) {
+        boolean lodChanged = lodCalculator.calculateLod(patch, locations, updates);
+        if (!lodChanged && changesOnly)
+            updates.remove(patch);
+        return lodChanged;
+    }
+
+    private boolean isTerrainUnmoved() {
+        if (patches.length == 0)
+            return true;
+        TerrainPatch patch = patches[0];
+        return terrainTranslation.equals(patch.getWorldTranslationCached())
+                && terrainScale.equals(patch.getWorldScaleCached());
+    }
+}
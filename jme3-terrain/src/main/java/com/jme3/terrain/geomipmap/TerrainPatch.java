@@ -47,6 +47,7 @@ import com.jme3.scene.Mesh;
 import com.jme3.scene.VertexBuffer;
 import com.jme3.scene.VertexBuffer.Type;
 import com.jme3.scene.mesh.IndexBuffer;
+import com.jme3.terrain.Heightfield;
 import com.jme3.terrain.geomipmap.TerrainQuad.LocationHeight;
 import com.jme3.terrain.geomipmap.lodcalc.util.EntropyComputeUtil;
 import com.jme3.util.BufferUtils;
@@ -54,8 +55,8 @@ import com.jme3.util.clone.Cloner;
 import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.FloatBuffer;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -178,9 +179,45 @@ public class TerrainPatch extends Geometry {
     public TerrainPatch(String name, int size, Vector3f stepScale,
                     float[] heightMap, Vector3f origin, int totalSize,
                     Vector2f offset, float offsetAmount) {
+        this(name, stepScale, origin, totalSize, offset, offsetAmount,
+                new LODGeomap(size, heightMap));
+    }
+
+    /**
+     * Constructor instantiates a new <code>TerrainPatch</code> object that
+     * reads and writes its heights in the given heightfield, instead of
+     * holding its own copy of them.
+     *
+     * @param name
+     *            the name of the terrain patch.
+     * @param stepScale
+     *            the scale for the axes.
+     * @param heightfield
+     *            the height data, usually a view of the heightfield of the
+     *            whole terrain. Its size is the size of the patch.
+     * @param origin
+     *            the origin offset of the patch.
+     * @param totalSize
+     *            the total size of the terrain. (Higher if the patch is part of
+     *            a <code>TerrainQuad</code> tree.)
+     * @param offset
+     *            the offset for texture coordinates.
+     * @param offsetAmount
+     *            the total offset amount. Used for texture coordinates.
+     */
+    public TerrainPatch(String name, Vector3f stepScale, Heightfield heightfield,
+                    Vector3f origin, int totalSize, Vector2f offset,
+                    float offsetAmount) {
+        this(name, stepScale, origin, totalSize, offset, offsetAmount,
+                new LODGeomap(heightfield));
+    }
+
+    private TerrainPatch(String name, Vector3f stepScale, Vector3f origin,
+                    int totalSize, Vector2f offset, float offsetAmount,
+                    LODGeomap geomap) {
         super(name);
         setBatchHint(BatchHint.Never);
-        this.size = size;
+        this.size = geomap.getWidth();
         this.stepScale = stepScale;
         this.totalSize = totalSize;
         this.offsetAmount = offsetAmount;
@@ -188,7 +225,7 @@ public class TerrainPatch extends Geometry {
 
         setLocalTranslation(origin);
 
-        geomap = new LODGeomap(size, heightMap);
+        this.geomap = geomap;
         Mesh m = geomap.createMesh(stepScale, new Vector2f(1,1), offset, offsetAmount, totalSize, false);
         setMesh(m);
 
@@ -220,6 +257,27 @@ public class TerrainPatch extends Geometry {
         return geomap.getHeightArray();
     }
 
+    /**
+     * @return the heightfield this patch reads its heights from, or null if
+     * the patch holds its own copy of the heights
+     */
+    public Heightfield getHeightfield() {
+        return geomap.getHeightfield();
+    }
+
+    /**
+     * Makes this patch read and write its heights in the given heightfield,
+     * which must already hold the heights of the patch. The mesh is kept.
+     *
+     * @param heightfield the heightfield, of the size of this patch
+     */
+    protected void setHeightfield(Heightfield heightfield) {
+        if (heightfield.getSize() != size)
+            throw new IllegalArgumentException("The heightfield size " + heightfield.getSize()
+                    + " does not match the patch size " + size);
+        geomap = new LODGeomap(heightfield);
+    }
+
     /**
      * The maximum lod supported by this terrain patch.
      * If the patch size is 32 then the returned value would be log2(32)-2 = 3
@@ -234,9 +292,9 @@ public class TerrainPatch extends Geometry {
         return maxLod;
     }
 
-    protected void reIndexGeometry(HashMap<String,UpdatedTerrainPatch> updated, boolean useVariableLod) {
+    protected void reIndexGeometry(Map<TerrainPatch,UpdatedTerrainPatch> updated, boolean useVariableLod) {
 
-        UpdatedTerrainPatch utp = updated.get(getName());
+        UpdatedTerrainPatch utp = updated.get(this);
 
         if (utp != null && utp.isReIndexNeeded() ) {
             int pow = (int) Math.pow(2, utp.getNewLod());
@@ -245,14 +303,14 @@ public class TerrainPatch extends Geometry {
             boolean right = utp.getRightLod() > utp.getNewLod();
             boolean bottom = utp.getBottomLod() > utp.getNewLod();
 
-            IndexBuffer idxB;
+            // the index buffers only depend on the size and LODs, so they are shared by all patches
+            VertexBuffer idxB;
             if (useVariableLod)
-                idxB = geomap.writeIndexArrayLodVariable(pow, (int) Math.pow(2, utp.getRightLod()), (int) Math.pow(2, utp.getTopLod()), (int) Math.pow(2, utp.getLeftLod()), (int) Math.pow(2, utp.getBottomLod()), totalSize);
+                idxB = LodIndexBufferCache.getVariableIndexBuffer(geomap, pow, (int) Math.pow(2, utp.getRightLod()), (int) Math.pow(2, utp.getTopLod()), (int) Math.pow(2, utp.getLeftLod()), (int) Math.pow(2, utp.getBottomLod()));
             else
-                idxB = geomap.writeIndexArrayLodDiff(pow, right, top, left, bottom, totalSize);
+                idxB = LodIndexBufferCache.getIndexBuffer(geomap, pow, right, top, left, bottom);
 
-            Buffer b = idxB.getBuffer();
-            utp.setNewIndexBuffer(b);
+            utp.setNewIndexBuffer(idxB);
         }
 
     }
@@ -297,7 +355,6 @@ public class TerrainPatch extends Geometry {
 
     protected void setHeight(List<LocationHeight> locationHeights, boolean overrideHeight) {
 
-        final float[] heightArray = geomap.getHeightArray();
         final VertexBuffer vertexBuffer = mesh.getBuffer(Type.Position);
         final FloatBuffer floatBuffer = mesh.getFloatBuffer(Type.Position);
 
@@ -310,10 +367,12 @@ public class TerrainPatch extends Geometry {
             int idx = lh.z * size + lh.x;
 
             if (overrideHeight) {
-                heightArray[idx] = lh.h;
+                geomap.setValue(lh.x, lh.z, lh.h);
             } else {
+                // read from the mesh, so a height on an edge shared with a
+                // neighbour is adjusted once, not once per patch
                 float currentHeight = floatBuffer.get(idx * 3 + 1);
-                heightArray[idx] = currentHeight + lh.h;
+                geomap.setValue(lh.x, lh.z, currentHeight + lh.h);
             }
         }
 
@@ -50,6 +50,7 @@ import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.debug.WireBox;
+import com.jme3.terrain.Heightfield;
 import com.jme3.terrain.ProgressMonitor;
 import com.jme3.terrain.Terrain;
 import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
@@ -60,7 +61,6 @@ import com.jme3.util.TangentBinormalGenerator;
 import com.jme3.util.clone.Cloner;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -130,6 +130,9 @@ public class TerrainQuad extends Node implements Terrain {
 
     protected NeighbourFinder neighbourFinder;
 
+    // the heights of this quad, a view of the heightfield of the whole tree
+    protected Heightfield heightfield;
+
     public TerrainQuad() {
         super("Terrain");
     }
@@ -204,16 +207,36 @@ public class TerrainQuad extends Node implements Terrain {
                             Vector3f scale, float[] heightMap, int totalSize,
                             Vector2f offset, float offsetAmount)
     {
-        super(name);
+        this(name, patchSize, quadSize, scale, createHeightfield(heightMap, quadSize),
+                totalSize, offset, offsetAmount);
+    }
 
-        if (heightMap == null)
-            heightMap = generateDefaultHeightMap(quadSize);
+    /**
+     * Creates a quad whose quads and patches all read and write their heights
+     * in views of the given heightfield, so only one copy of the heights is
+     * kept in memory.
+     *
+     * @param name the name of the scene element
+     * @param patchSize size of the individual patches
+     * @param quadSize size of this quad, can be between totalSize and patchSize
+     * @param scale
+     * @param heightfield the heights of this quad, of size quadSize
+     * @param totalSize the size of this entire terrain tree (on one side)
+     * @param offset
+     * @param offsetAmount
+     */
+    protected TerrainQuad(String name, int patchSize, int quadSize,
+                            Vector3f scale, Heightfield heightfield, int totalSize,
+                            Vector2f offset, float offsetAmount)
+    {
+        super(name);
 
         if (!FastMath.isPowerOfTwo(quadSize - 1)) {
             throw new RuntimeException("size given: " + quadSize + "  Terrain quad sizes may only be (2^N + 1)");
         }
-        if (FastMath.sqrt(heightMap.length) > quadSize) {
-            Logger.getLogger(this.getClass().getName()).log(Level.WARNING, "Heightmap size is larger than the terrain size. Make sure your heightmap image is the same size as the terrain!");
+        if (heightfield.getSize() != quadSize) {
+            throw new IllegalArgumentException("The heightfield size " + heightfield.getSize()
+                    + " does not match the quad size " + quadSize);
         }
 
         this.offset = offset;
@@ -222,7 +245,15 @@ public class TerrainQuad extends Node implements Terrain {
         this.size = quadSize;
         this.patchSize = patchSize;
         this.stepScale = scale;
-        split(patchSize, heightMap);
+        this.heightfield = heightfield;
+        split(patchSize, heightfield);
+    }
+
+    private static Heightfield createHeightfield(float[] heightMap, int quadSize) {
+        if (heightMap != null && FastMath.sqrt(heightMap.length) > quadSize) {
+            Logger.getLogger(TerrainQuad.class.getName()).log(Level.WARNING, "Heightmap size is larger than the terrain size. Make sure your heightmap image is the same size as the terrain!");
+        }
+        return new Heightfield(heightMap, quadSize);
     }
 
     public void setNeighbourFinder(NeighbourFinder neighbourFinder) {
@@ -237,14 +268,6 @@ public class TerrainQuad extends Node implements Terrain {
         affectedAreaBBox = new BoundingBox(new Vector3f(0,0,0), totalSize*2, Float.MAX_VALUE, totalSize*2);
     }
 
-    /**
-     * Create just a flat heightmap
-     */
-    private float[] generateDefaultHeightMap(int size) {
-        float[] heightMap = new float[size*size];
-        return heightMap;
-    }
-
     /**
      * update the normals if there were any height changes recently.
      * Should only be called on the root quad
@@ -343,7 +366,7 @@ public class TerrainQuad extends Node implements Terrain {
     }
 
 
-    protected boolean calculateLod(List<Vector3f> location, HashMap<String,UpdatedTerrainPatch> updates, LodCalculator lodCalculator) {
+    protected boolean calculateLod(List<Vector3f> location, Map<TerrainPatch,UpdatedTerrainPatch> updates, LodCalculator lodCalculator) {
 
         boolean lodChanged = false;
 
@@ -365,7 +388,12 @@ public class TerrainQuad extends Node implements Terrain {
         return lodChanged;
     }
 
-    protected synchronized void findNeighboursLod(HashMap<String,UpdatedTerrainPatch> updated) {
+    /**
+     * Sets the neighbour LOD values of every patch that has an update.
+     * Patches without an update keep their values, the ones next to a patch
+     * whose LOD changed get an update from {@link #fixEdges(Map)}.
+     */
+    protected synchronized void findNeighboursLod(Map<TerrainPatch,UpdatedTerrainPatch> updated) {
         if (children != null) {
             for (int x = children.size(); --x >= 0;) {
                 Spatial child = children.get(x);
@@ -374,71 +402,74 @@ public class TerrainQuad extends Node implements Terrain {
                 } else if (child instanceof TerrainPatch) {
 
                     TerrainPatch patch = (TerrainPatch) child;
-                    if (!patch.searchedForNeighboursAlready) {
-                        // set the references to the neighbours
-                        patch.rightNeighbour = findRightPatch(patch);
-                        patch.bottomNeighbour = findDownPatch(patch);
-                        patch.leftNeighbour = findLeftPatch(patch);
-                        patch.topNeighbour = findTopPatch(patch);
-                        patch.searchedForNeighboursAlready = true;
-                    }
+                    UpdatedTerrainPatch utp = updated.get(patch);
+                    if (utp == null)
+                        continue;
+
+                    findNeighbours(patch);
                     TerrainPatch right = patch.rightNeighbour;
                     TerrainPatch down = patch.bottomNeighbour;
                     TerrainPatch left = patch.leftNeighbour;
                     TerrainPatch top = patch.topNeighbour;
 
-                    UpdatedTerrainPatch utp = updated.get(patch.getName());
-                    if (utp == null) {
-                        utp = new UpdatedTerrainPatch(patch, patch.lod);
-                        updated.put(utp.getName(), utp);
-                    }
-
                     if (right != null) {
-                        UpdatedTerrainPatch utpR = updated.get(right.getName());
-                        if (utpR == null) {
-                            utpR = new UpdatedTerrainPatch(right);
-                            updated.put(utpR.getName(), utpR);
-                            utpR.setNewLod(right.lod);
-                        }
-                        utp.setRightLod(utpR.getNewLod());
-                        utpR.setLeftLod(utp.getNewLod());
+                        UpdatedTerrainPatch utpR = updated.get(right);
+                        if (utpR != null) {
+                            utp.setRightLod(utpR.getNewLod());
+                            utpR.setLeftLod(utp.getNewLod());
+                        } else
+                            utp.setRightLod(right.lod);
                     }
                     if (down != null) {
-                        UpdatedTerrainPatch utpD = updated.get(down.getName());
-                        if (utpD == null) {
-                            utpD = new UpdatedTerrainPatch(down);
-                            updated.put(utpD.getName(), utpD);
-                            utpD.setNewLod(down.lod);
-                        }
-                        utp.setBottomLod(utpD.getNewLod());
-                        utpD.setTopLod(utp.getNewLod());
+                        UpdatedTerrainPatch utpD = updated.get(down);
+                        if (utpD != null) {
+                            utp.setBottomLod(utpD.getNewLod());
+                            utpD.setTopLod(utp.getNewLod());
+                        } else
+                            utp.setBottomLod(down.lod);
                     }
 
                     if (left != null) {
-                        UpdatedTerrainPatch utpL = updated.get(left.getName());
-                        if (utpL == null) {
-                            utpL = new UpdatedTerrainPatch(left);
-                            updated.put(utpL.getName(), utpL);
-                            utpL.setNewLod(left.lod);
-                        }
-                        utp.setLeftLod(utpL.getNewLod());
-                        utpL.setRightLod(utp.getNewLod());
+                        UpdatedTerrainPatch utpL = updated.get(left);
+                        if (utpL != null) {
+                            utp.setLeftLod(utpL.getNewLod());
+                            utpL.setRightLod(utp.getNewLod());
+                        } else
+                            utp.setLeftLod(left.lod);
                     }
                     if (top != null) {
-                        UpdatedTerrainPatch utpT = updated.get(top.getName());
-                        if (utpT == null) {
-                            utpT = new UpdatedTerrainPatch(top);
-                            updated.put(utpT.getName(), utpT);
-                            utpT.setNewLod(top.lod);
-                        }
-                        utp.setTopLod(utpT.getNewLod());
-                        utpT.setBottomLod(utp.getNewLod());
+                        UpdatedTerrainPatch utpT = updated.get(top);
+                        if (utpT != null) {
+                            utp.setTopLod(utpT.getNewLod());
+                            utpT.setBottomLod(utp.getNewLod());
+                        } else
+                            utp.setTopLod(top.lod);
                     }
                 }
             }
         }
     }
 
+    private void findNeighbours(TerrainPatch patch) {
+        if (!patch.searchedForNeighboursAlready) {
+            // set the references to the neighbours
+            patch.rightNeighbour = findRightPatch(patch);
+            patch.bottomNeighbour = findDownPatch(patch);
+            patch.leftNeighbour = findLeftPatch(patch);
+            patch.topNeighbour = findTopPatch(patch);
+            patch.searchedForNeighboursAlready = true;
+        }
+    }
+
+    private static UpdatedTerrainPatch getUpdate(Map<TerrainPatch,UpdatedTerrainPatch> updated, TerrainPatch patch) {
+        UpdatedTerrainPatch utp = updated.get(patch);
+        if (utp == null) {
+            utp = new UpdatedTerrainPatch(patch);
+            updated.put(patch, utp);
+        }
+        return utp;
+    }
+
     /**
      * Reset the cached references of neighbours.
      * TerrainQuad caches neighbours for faster LOD checks.
@@ -462,7 +493,7 @@ public class TerrainQuad extends Node implements Terrain {
      * Find any neighbours that should have their edges seamed because another neighbour
      * changed its LOD to a greater value (less detailed)
      */
-    protected synchronized void fixEdges(HashMap<String,UpdatedTerrainPatch> updated) {
+    protected synchronized void fixEdges(Map<TerrainPatch,UpdatedTerrainPatch> updated) {
         if (children != null) {
             for (int x = children.size(); --x >= 0;) {
                 Spatial child = children.get(x);
@@ -470,58 +501,31 @@ public class TerrainQuad extends Node implements Terrain {
                     ((TerrainQuad) child).fixEdges(updated);
                 } else if (child instanceof TerrainPatch) {
                     TerrainPatch patch = (TerrainPatch) child;
-                    UpdatedTerrainPatch utp = updated.get(patch.getName());
+                    UpdatedTerrainPatch utp = updated.get(patch);
 
                     if(utp != null && utp.lodChanged()) {
-                        if (!patch.searchedForNeighboursAlready) {
-                            // set the references to the neighbours
-                            patch.rightNeighbour = findRightPatch(patch);
-                            patch.bottomNeighbour = findDownPatch(patch);
-                            patch.leftNeighbour = findLeftPatch(patch);
-                            patch.topNeighbour = findTopPatch(patch);
-                            patch.searchedForNeighboursAlready = true;
-                        }
+                        findNeighbours(patch);
                         TerrainPatch right = patch.rightNeighbour;
                         TerrainPatch down = patch.bottomNeighbour;
                         TerrainPatch top = patch.topNeighbour;
                         TerrainPatch left = patch.leftNeighbour;
                         if (right != null) {
-                            UpdatedTerrainPatch utpR = updated.get(right.getName());
-                            if (utpR == null) {
-                                utpR = new UpdatedTerrainPatch(right);
-                                updated.put(utpR.getName(), utpR);
-                                utpR.setNewLod(right.lod);
-                            }
+                            UpdatedTerrainPatch utpR = getUpdate(updated, right);
                             utpR.setLeftLod(utp.getNewLod());
                             utpR.setFixEdges(true);
                         }
                         if (down != null) {
-                            UpdatedTerrainPatch utpD = updated.get(down.getName());
-                            if (utpD == null) {
-                                utpD = new UpdatedTerrainPatch(down);
-                                updated.put(utpD.getName(), utpD);
-                                utpD.setNewLod(down.lod);
-                            }
+                            UpdatedTerrainPatch utpD = getUpdate(updated, down);
                             utpD.setTopLod(utp.getNewLod());
                             utpD.setFixEdges(true);
                         }
                         if (top != null){
-                            UpdatedTerrainPatch utpT = updated.get(top.getName());
-                            if (utpT == null) {
-                                utpT = new UpdatedTerrainPatch(top);
-                                updated.put(utpT.getName(), utpT);
-                                utpT.setNewLod(top.lod);
-                            }
+                            UpdatedTerrainPatch utpT = getUpdate(updated, top);
                             utpT.setBottomLod(utp.getNewLod());
                             utpT.setFixEdges(true);
                         }
                         if (left != null){
-                            UpdatedTerrainPatch utpL = updated.get(left.getName());
-                            if (utpL == null) {
-                                utpL = new UpdatedTerrainPatch(left);
-                                updated.put(utpL.getName(), utpL);
-                                utpL.setNewLod(left.lod);
-                            }
+                            UpdatedTerrainPatch utpL = getUpdate(updated, left);
                             utpL.setRightLod(utp.getNewLod());
                             utpL.setFixEdges(true);
                         }
@@ -531,7 +535,7 @@ public class TerrainQuad extends Node implements Terrain {
         }
     }
 
-    protected synchronized void reIndexPages(HashMap<String,UpdatedTerrainPatch> updated, boolean usesVariableLod) {
+    protected synchronized void reIndexPages(Map<TerrainPatch,UpdatedTerrainPatch> updated, boolean usesVariableLod) {
         if (children != null) {
             for (int i = children.size(); --i >= 0;) {
                 Spatial child = children.get(i);
@@ -552,18 +556,28 @@ public class TerrainQuad extends Node implements Terrain {
      *
      * @param blockSize
      *            the blocks size to test against.
-     * @param heightMap
+     * @param heightfield
      *            the height data.
      */
-    protected void split(int blockSize, float[] heightMap) {
+    protected void split(int blockSize, Heightfield heightfield) {
         if ((size >> 1) + 1 <= blockSize) {
-            createQuadPatch(heightMap);
+            createQuadPatch(heightfield);
         } else {
-            createQuad(blockSize, heightMap);
+            createQuad(blockSize, heightfield);
         }
 
     }
 
+    /**
+     * @deprecated the children now share the heights of this quad, use
+     * {@link #split(int, com.jme3.terrain.Heightfield)}
+     */
+    @Deprecated
+    protected void split(int blockSize, float[] heightMap) {
+        heightfield = new Heightfield(heightMap, size);
+        split(blockSize, heightfield);
+    }
+
     /**
      * Quadrants, world coordinates, and heightmap coordinates (Y-up):
      *
@@ -578,7 +592,7 @@ public class TerrainQuad extends Node implements Terrain {
      * The heightmap's top left (0,0) coordinate is at the bottom, -x,-z
      * coordinate of the terrain, so it grows in the positive x.z direction.
      */
-    protected void createQuad(int blockSize, float[] heightMap) {
+    protected void createQuad(int blockSize, Heightfield heightfield) {
         // create 4 terrain quads
         int quarterSize = size >> 2;
 
@@ -591,7 +605,7 @@ public class TerrainQuad extends Node implements Terrain {
         //    lodCalculator = createDefaultLodCalculator(); // set a default one
 
         // 1 upper left of heightmap, upper left quad
-        float[] heightBlock1 = createHeightSubBlock(heightMap, 0, 0, split);
+        Heightfield heightBlock1 = heightfield.view(0, 0, split);
 
         Vector3f origin1 = new Vector3f(-quarterSize * stepScale.x, 0,
                         -quarterSize * stepScale.z);
@@ -609,8 +623,7 @@ public class TerrainQuad extends Node implements Terrain {
         this.attachChild(quad1);
 
         // 2 lower left of heightmap, lower left quad
-        float[] heightBlock2 = createHeightSubBlock(heightMap, 0, split - 1,
-                        split);
+        Heightfield heightBlock2 = heightfield.view(0, split - 1, split);
 
         Vector3f origin2 = new Vector3f(-quarterSize * stepScale.x, 0,
                         quarterSize * stepScale.z);
@@ -629,8 +642,7 @@ public class TerrainQuad extends Node implements Terrain {
         this.attachChild(quad2);
 
         // 3 upper right of heightmap, upper right quad
-        float[] heightBlock3 = createHeightSubBlock(heightMap, split - 1, 0,
-                        split);
+        Heightfield heightBlock3 = heightfield.view(split - 1, 0, split);
 
         Vector3f origin3 = new Vector3f(quarterSize * stepScale.x, 0,
                         -quarterSize * stepScale.z);
@@ -649,8 +661,7 @@ public class TerrainQuad extends Node implements Terrain {
         this.attachChild(quad3);
 
         // 4 lower right of heightmap, lower right quad
-        float[] heightBlock4 = createHeightSubBlock(heightMap, split - 1,
-                        split - 1, split);
+        Heightfield heightBlock4 = heightfield.view(split - 1, split - 1, split);
 
         Vector3f origin4 = new Vector3f(quarterSize * stepScale.x, 0,
                         quarterSize * stepScale.z);
@@ -670,6 +681,16 @@ public class TerrainQuad extends Node implements Terrain {
 
     }
 
+    /**
+     * @deprecated the children now share the heights of this quad, use
+     * {@link #createQuad(int, com.jme3.terrain.Heightfield)}
+     */
+    @Deprecated
+    protected void createQuad(int blockSize, float[] heightMap) {
+        heightfield = new Heightfield(heightMap, size);
+        createQuad(blockSize, heightfield);
+    }
+
     public void generateDebugTangents(Material mat) {
         for (int x = children.size(); --x >= 0;) {
             Spatial child = children.get(x);
@@ -689,7 +710,7 @@ public class TerrainQuad extends Node implements Terrain {
     /**
      * <code>createQuadPatch</code> creates four child patches from this quad.
      */
-    protected void createQuadPatch(float[] heightMap) {
+    protected void createQuadPatch(Heightfield heightfield) {
         // create 4 terrain patches
         int quarterSize = size >> 2;
         int halfSize = size >> 1;
@@ -701,7 +722,7 @@ public class TerrainQuad extends Node implements Terrain {
         offsetAmount += quarterSize;
 
         // 1 lower left
-        float[] heightBlock1 = createHeightSubBlock(heightMap, 0, 0, split);
+        Heightfield heightBlock1 = heightfield.view(0, 0, split);
 
         Vector3f origin1 = new Vector3f(-halfSize * stepScale.x, 0, -halfSize
                         * stepScale.z);
@@ -712,7 +733,7 @@ public class TerrainQuad extends Node implements Terrain {
         tempOffset1.x += origin1.x / 2;
         tempOffset1.y += origin1.z / 2;
 
-        TerrainPatch patch1 = new TerrainPatch(getName() + "Patch1", split,
+        TerrainPatch patch1 = new TerrainPatch(getName() + "Patch1",
                         stepScale, heightBlock1, origin1, totalSize, tempOffset1,
                         offsetAmount);
         patch1.setQuadrant((short) 1);
@@ -723,8 +744,7 @@ public class TerrainQuad extends Node implements Terrain {
         //TangentBinormalGenerator.generate(patch1);
 
         // 2 upper left
-        float[] heightBlock2 = createHeightSubBlock(heightMap, 0, split - 1,
-                        split);
+        Heightfield heightBlock2 = heightfield.view(0, split - 1, split);
 
         Vector3f origin2 = new Vector3f(-halfSize * stepScale.x, 0, 0);
 
@@ -734,7 +754,7 @@ public class TerrainQuad extends Node implements Terrain {
         tempOffset2.x += origin1.x / 2;
         tempOffset2.y += quarterSize * stepScale.z;
 
-        TerrainPatch patch2 = new TerrainPatch(getName() + "Patch2", split,
+        TerrainPatch patch2 = new TerrainPatch(getName() + "Patch2",
                         stepScale, heightBlock2, origin2, totalSize, tempOffset2,
                         offsetAmount);
         patch2.setQuadrant((short) 2);
@@ -745,8 +765,7 @@ public class TerrainQuad extends Node implements Terrain {
         //TangentBinormalGenerator.generate(patch2);
 
         // 3 lower right
-        float[] heightBlock3 = createHeightSubBlock(heightMap, split - 1, 0,
-                        split);
+        Heightfield heightBlock3 = heightfield.view(split - 1, 0, split);
 
         Vector3f origin3 = new Vector3f(0, 0, -halfSize * stepScale.z);
 
@@ -756,7 +775,7 @@ public class TerrainQuad extends Node implements Terrain {
         tempOffset3.x += quarterSize * stepScale.x;
         tempOffset3.y += origin3.z / 2;
 
-        TerrainPatch patch3 = new TerrainPatch(getName() + "Patch3", split,
+        TerrainPatch patch3 = new TerrainPatch(getName() + "Patch3",
                         stepScale, heightBlock3, origin3, totalSize, tempOffset3,
                         offsetAmount);
         patch3.setQuadrant((short) 3);
@@ -767,8 +786,7 @@ public class TerrainQuad extends Node implements Terrain {
         //TangentBinormalGenerator.generate(patch3);
 
         // 4 upper right
-        float[] heightBlock4 = createHeightSubBlock(heightMap, split - 1,
-                        split - 1, split);
+        Heightfield heightBlock4 = heightfield.view(split - 1, split - 1, split);
 
         Vector3f origin4 = new Vector3f(0, 0, 0);
 
@@ -778,7 +796,7 @@ public class TerrainQuad extends Node implements Terrain {
         tempOffset4.x += quarterSize * stepScale.x;
         tempOffset4.y += quarterSize * stepScale.z;
 
-        TerrainPatch patch4 = new TerrainPatch(getName() + "Patch4", split,
+        TerrainPatch patch4 = new TerrainPatch(getName() + "Patch4",
                         stepScale, heightBlock4, origin4, totalSize, tempOffset4,
                         offsetAmount);
         patch4.setQuadrant((short) 4);
@@ -789,6 +807,21 @@ public class TerrainQuad extends Node implements Terrain {
         //TangentBinormalGenerator.generate(patch4);
     }
 
+    /**
+     * @deprecated the children now share the heights of this quad, use
+     * {@link #createQuadPatch(com.jme3.terrain.Heightfield)}
+     */
+    @Deprecated
+    protected void createQuadPatch(float[] heightMap) {
+        heightfield = new Heightfield(heightMap, size);
+        createQuadPatch(heightfield);
+    }
+
+    /**
+     * @deprecated the quads and patches no longer copy their heights, they
+     * read views of a {@link Heightfield}
+     */
+    @Deprecated
     public float[] createHeightSubBlock(float[] heightMap, int x,
                     int y, int side) {
         float[] rVal = new float[side * side];
@@ -1135,6 +1168,40 @@ public class TerrainQuad extends Node implements Terrain {
         return n1.add(n2).add(n3).add(n4).normalize();
     }
 
+    /**
+     * Creates a query for the heights and normals of many points at once.
+     * The query looks up the patches of this terrain once, and can be used
+     * from other threads while the terrain is not modified. Call this on the
+     * rendering thread.
+     * @return a new query of the current state of this terrain
+     */
+    public TerrainHeightQuery createHeightQuery() {
+        return new TerrainHeightQuery(this);
+    }
+
+    /**
+     * Get the interpolated heights of the terrain at many points at once.
+     * This is faster than calling getHeight(Vector2f) for each point.
+     * @param xz the world X and Z coordinates of the points, one pair after the other
+     * @param store the array to store the heights in, one per point (optional)
+     * @return store, or a new array. A height is NaN if its point lies outside the terrain
+     * @see #createHeightQuery() to query from other threads, or in parallel
+     */
+    public float[] getHeights(float[] xz, float[] store) {
+        return createHeightQuery().getHeights(xz, store);
+    }
+
+    /**
+     * Get the normals of the terrain at many points at once.
+     * @param xz the world X and Z coordinates of the points, one pair after the other
+     * @param store the array to store the normals in, three components per point (optional)
+     * @return store, or a new array. A normal is NaN if its point lies outside the terrain
+     * @see #createHeightQuery() to query from other threads, or in parallel
+     */
+    public float[] getNormals(float[] xz, float[] store) {
+        return createHeightQuery().getNormals(xz, store);
+    }
+
     @Override
     public void setHeight(Vector2f xz, float height) {
         List<Vector2f> coord = new ArrayList<>();
@@ -1759,6 +1826,11 @@ public class TerrainQuad extends Node implements Terrain {
         //lodCalculator = (LodCalculator) c.readSavable("lodCalculator", createDefaultLodCalculator());
         //lodCalculatorFactory = (LodCalculatorFactory) c.readSavable("lodCalculatorFactory", null);
 
+        // each patch was saved with its own copy of the heights
+        if (size == totalSize) {
+            shareHeightfield();
+        }
+
         if ( !(getParent() instanceof TerrainQuad) ) {
             BoundingBox all = new BoundingBox(getWorldTranslation(), totalSize, totalSize, totalSize);
             affectedAreaBBox = all;
@@ -1832,6 +1904,12 @@ public class TerrainQuad extends Node implements Terrain {
         // Otherwise, picker would be cloned by reference and thus "this" would be wrong
         this.picker = new BresenhamTerrainPicker(this);
 
+        // The cloned patches hold copies of their heights, share them again
+        this.heightfield = null;
+        if (size == totalSize) {
+            shareHeightfield();
+        }
+
         // neighbourFinder is also not cloned.  Maybe that's ok.
     }
 
@@ -1879,8 +1957,55 @@ public class TerrainQuad extends Node implements Terrain {
         return totalSize;
     }
 
+    /**
+     * @return the heightfield that the quads and patches of this quad read
+     * their heights from, or null if each patch holds its own copy
+     */
+    public Heightfield getHeightfield() {
+        return heightfield;
+    }
+
+    /**
+     * Moves the heights of the patches of this quad into a single
+     * heightfield that they all read and write, for a terrain whose patches
+     * each hold their own copy of the heights, such as a loaded or cloned
+     * one. Does nothing if this quad already has a heightfield.
+     */
+    protected void shareHeightfield() {
+        if (heightfield != null || children == null || children.isEmpty())
+            return;
+        setHeightfield(new Heightfield(getHeightMap(), size));
+    }
+
+    private void setHeightfield(Heightfield heightfield) {
+        this.heightfield = heightfield;
+        int split = (size + 1) >> 1;
+        for (int i = children.size(); --i >= 0;) {
+            Spatial child = children.get(i);
+            int childQuadrant;
+            if (child instanceof TerrainQuad) {
+                childQuadrant = ((TerrainQuad) child).getQuadrant();
+            } else if (child instanceof TerrainPatch) {
+                childQuadrant = ((TerrainPatch) child).getQuadrant();
+            } else {
+                continue;
+            }
+            // quadrants 3 and 4 are on the right, 2 and 4 at the bottom of the heightmap
+            int x = childQuadrant > 2 ? split - 1 : 0;
+            int z = childQuadrant % 2 == 0 ? split - 1 : 0;
+            Heightfield view = heightfield.view(x, z, split);
+            if (child instanceof TerrainQuad) {
+                ((TerrainQuad) child).setHeightfield(view);
+            } else {
+                ((TerrainPatch) child).setHeightfield(view);
+            }
+        }
+    }
+
     @Override
     public float[] getHeightMap() {
+        if (heightfield != null)
+            return heightfield.toArray(null);
 
         float[] hm = null;
         int length = ((size-1)/2)+1;
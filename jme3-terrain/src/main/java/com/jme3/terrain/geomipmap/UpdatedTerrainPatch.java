@@ -31,6 +31,7 @@
  */
 package com.jme3.terrain.geomipmap;
 
+import com.jme3.scene.VertexBuffer;
 import com.jme3.scene.VertexBuffer.Type;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
@@ -51,16 +52,26 @@ public class UpdatedTerrainPatch {
     private int previousLod;
     private int rightLod,topLod,leftLod,bottomLod;
     private Buffer newIndexBuffer;
+    private VertexBuffer newSharedIndexBuffer;
     //private boolean reIndexNeeded = false;
     private boolean fixEdges = false;
 
+    /**
+     * Starts from the current LOD of the patch and of its neighbours, so
+     * only what changes has to be set.
+     */
     public UpdatedTerrainPatch(TerrainPatch updatedPatch) {
-        this.updatedPatch = updatedPatch;
+        this(updatedPatch, updatedPatch.lod);
     }
 
     public UpdatedTerrainPatch(TerrainPatch updatedPatch, int newLod) {
         this.updatedPatch = updatedPatch;
         this.newLod = newLod;
+        this.previousLod = updatedPatch.lod;
+        this.rightLod = updatedPatch.lodRight;
+        this.topLod = updatedPatch.lodTop;
+        this.leftLod = updatedPatch.lodLeft;
+        this.bottomLod = updatedPatch.lodBottom;
     }
 
     public String getName() {
@@ -98,6 +109,16 @@ public class UpdatedTerrainPatch {
 
     protected void setNewIndexBuffer(Buffer newIndexBuffer) {
         this.newIndexBuffer = newIndexBuffer;
+        this.newSharedIndexBuffer = null;
+    }
+
+    /**
+     * Sets an index buffer that is shared with other patches, see
+     * {@link LodIndexBufferCache}.
+     */
+    protected void setNewIndexBuffer(VertexBuffer newIndexBuffer) {
+        this.newSharedIndexBuffer = newIndexBuffer;
+        this.newIndexBuffer = null;
     }
 
 
@@ -174,10 +195,12 @@ public class UpdatedTerrainPatch {
         updatedPatch.setLodTop(topLod);
         updatedPatch.setLodLeft(leftLod);
         updatedPatch.setLodBottom(bottomLod);
-        if (newIndexBuffer != null && isReIndexNeeded()) {
+        if ((newIndexBuffer != null || newSharedIndexBuffer != null) && isReIndexNeeded()) {
             updatedPatch.setPreviousLod(previousLod);
             updatedPatch.getMesh().clearBuffer(Type.Index);
-            if (newIndexBuffer instanceof IntBuffer)
+            if (newSharedIndexBuffer != null)
+                updatedPatch.getMesh().setBuffer(newSharedIndexBuffer);
+            else if (newIndexBuffer instanceof IntBuffer)
                 updatedPatch.getMesh().setBuffer(Type.Index, 3, (IntBuffer)newIndexBuffer);
             else if (newIndexBuffer instanceof ShortBuffer)
                 updatedPatch.getMesh().setBuffer(Type.Index, 3, (ShortBuffer)newIndexBuffer);
@@ -41,6 +41,7 @@ import com.jme3.terrain.geomipmap.UpdatedTerrainPatch;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Calculates the LOD of the terrain based on its distance from the
@@ -62,54 +63,78 @@ public class DistanceLodCalculator implements LodCalculator {
         this.lodMultiplier = multiplier;
     }
     
+    @Deprecated
     @Override
     public boolean calculateLod(TerrainPatch terrainPatch, List<Vector3f> locations, HashMap<String, UpdatedTerrainPatch> updates) {
         if (locations == null || locations.isEmpty())
             return false;// no camera yet
-        float distance = getCenterLocation(terrainPatch).distance(locations.get(0));
+        UpdatedTerrainPatch utp = updates.get(terrainPatch.getName());
+        if (utp == null) {
+            utp = new UpdatedTerrainPatch(terrainPatch);//save in here, do not update actual variables
+            updates.put(utp.getName(), utp);
+        }
+        return calculateLod(terrainPatch, locations.get(0), utp);
+    }
+
+    @Override
+    public boolean calculateLod(TerrainPatch terrainPatch, List<Vector3f> locations, Map<TerrainPatch, UpdatedTerrainPatch> updates) {
+        if (locations == null || locations.isEmpty())
+            return false;// no camera yet
+        UpdatedTerrainPatch utp = updates.get(terrainPatch);
+        if (utp == null) {
+            utp = new UpdatedTerrainPatch(terrainPatch);//save in here, do not update actual variables
+            updates.put(terrainPatch, utp);
+        }
+        return calculateLod(terrainPatch, locations.get(0), utp);
+    }
 
+    private boolean calculateLod(TerrainPatch terrainPatch, Vector3f location, UpdatedTerrainPatch utp) {
+        int prevLOD = terrainPatch.getLod();
         if (turnOffLod) {
             // set to full detail
-            int prevLOD = terrainPatch.getLod();
-            UpdatedTerrainPatch utp = updates.get(terrainPatch.getName());
-            if (utp == null) {
-                utp = new UpdatedTerrainPatch(terrainPatch);
-                updates.put(utp.getName(), utp);
-            }
             utp.setNewLod(0);
             utp.setPreviousLod(prevLOD);
-            //utp.setReIndexNeeded(true);
             return true;
         }
-        
-        // go through each lod level to find the one we are in
-        for (int i = 0; i <= terrainPatch.getMaxLod(); i++) {
-            if (distance < getLodDistanceThreshold() * (i + 1)*terrainPatch.getWorldScaleCached().x || i == terrainPatch.getMaxLod()) {
-                boolean reIndexNeeded = false;
-                if (i != terrainPatch.getLod()) {
-                    reIndexNeeded = true;
-                    //System.out.println("lod change: "+lod+" > "+i+"    dist: "+distance);
-                }
-                int prevLOD = terrainPatch.getLod();
-                
-                UpdatedTerrainPatch utp = updates.get(terrainPatch.getName());
-                if (utp == null) {
-                    utp = new UpdatedTerrainPatch(terrainPatch);//save in here, do not update actual variables
-                    updates.put(utp.getName(), utp);
-                }
-                utp.setNewLod(i);
-                utp.setPreviousLod(prevLOD);
-                //utp.setReIndexNeeded(reIndexNeeded);
-
-                return reIndexNeeded;
-            }
-        }
 
-        return false;
+        int lod = findLod(terrainPatch, getCenterLocation(terrainPatch).distance(location));
+        utp.setNewLod(lod);
+        utp.setPreviousLod(prevLOD);
+        return lod != prevLOD;
+    }
+
+    /**
+     * The LOD changes where the distance crosses a multiple of the threshold,
+     * so the patch keeps its LOD while the location stays within the band
+     * between the two multiples around it.
+     */
+    @Override
+    public float getLodChangeDistance(TerrainPatch terrainPatch, List<Vector3f> locations) {
+        if (turnOffLod || locations == null || locations.isEmpty())
+            return 0;
+        float distance = getCenterLocation(terrainPatch).distance(locations.get(0));
+        float threshold = getLodDistanceThreshold() * terrainPatch.getWorldScaleCached().x;
+        int lod = findLod(terrainPatch, distance);
+
+        float changeDistance = Float.MAX_VALUE;
+        if (lod > 0)
+            changeDistance = distance - threshold * lod;
+        if (lod < terrainPatch.getMaxLod())
+            changeDistance = Math.min(changeDistance, threshold * (lod + 1) - distance);
+        return Math.max(changeDistance, 0);
+    }
+
+    // go through each lod level to find the one we are in
+    private int findLod(TerrainPatch terrainPatch, float distance) {
+        for (int i = 0; i < terrainPatch.getMaxLod(); i++) {
+            if (distance < getLodDistanceThreshold() * (i + 1)*terrainPatch.getWorldScaleCached().x)
+                return i;
+        }
+        return terrainPatch.getMaxLod();
     }
 
     protected Vector3f getCenterLocation(TerrainPatch terrainPatch) {
-        Vector3f loc = terrainPatch.getWorldTranslationCached();
+        Vector3f loc = terrainPatch.getWorldTranslationCached().clone();
         loc.x += terrainPatch.getSize()*terrainPatch.getWorldScaleCached().x / 2;
         loc.z += terrainPatch.getSize()*terrainPatch.getWorldScaleCached().z / 2;
         return loc;
@@ -37,6 +37,7 @@ import com.jme3.terrain.geomipmap.TerrainPatch;
 import com.jme3.terrain.geomipmap.UpdatedTerrainPatch;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Calculate the Level of Detail of a terrain patch based on the
@@ -46,7 +47,40 @@ import java.util.List;
  */
 public interface LodCalculator extends Savable, Cloneable {
 
+    /**
+     * @deprecated use {@link #calculateLod(TerrainPatch, List, Map)}, which
+     * keys the updates by patch instead of by name
+     */
+    @Deprecated
     public boolean calculateLod(TerrainPatch terrainPatch, List<Vector3f> locations, HashMap<String,UpdatedTerrainPatch> updates);
+
+    /**
+     * Calculates the LOD of the patch and stores it in its update, adding one
+     * if there is none yet.
+     *
+     * @return true if the LOD of the patch changed
+     */
+    public default boolean calculateLod(TerrainPatch terrainPatch, List<Vector3f> locations, Map<TerrainPatch,UpdatedTerrainPatch> updates) {
+        HashMap<String,UpdatedTerrainPatch> named = new HashMap<>();
+        UpdatedTerrainPatch utp = updates.get(terrainPatch);
+        if (utp != null)
+            named.put(terrainPatch.getName(), utp);
+        boolean lodChanged = calculateLod(terrainPatch, locations, named);
+        utp = named.get(terrainPatch.getName());
+        if (utp != null)
+            updates.put(terrainPatch, utp);
+        return lodChanged;
+    }
+
+    /**
+     * Returns how far the first location can move before the LOD of the patch
+     * can change, so that a {@link com.jme3.terrain.geomipmap.TerrainLodScheduler}
+     * can skip the patch until then. Calculators that cannot tell return 0 and
+     * the patch is calculated on every update.
+     */
+    public default float getLodChangeDistance(TerrainPatch terrainPatch, List<Vector3f> locations) {
+        return 0;
+    }
     
     public LodCalculator clone();
     
@@ -41,6 +41,7 @@ import com.jme3.terrain.geomipmap.UpdatedTerrainPatch;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PerspectiveLodCalculator implements LodCalculator {
 
@@ -72,16 +73,31 @@ public class PerspectiveLodCalculator implements LodCalculator {
         return A / T;
     }
     
+    @Deprecated
     @Override
     public boolean calculateLod(TerrainPatch patch, List<Vector3f> locations, HashMap<String, UpdatedTerrainPatch> updates) {
+        UpdatedTerrainPatch utp = updates.get(patch.getName());
+        if (utp == null) {
+            utp = new UpdatedTerrainPatch(patch);//save in here, do not update actual variables
+            updates.put(utp.getName(), utp);
+        }
+        return calculateLod(patch, locations, utp);
+    }
+
+    @Override
+    public boolean calculateLod(TerrainPatch patch, List<Vector3f> locations, Map<TerrainPatch, UpdatedTerrainPatch> updates) {
+        UpdatedTerrainPatch utp = updates.get(patch);
+        if (utp == null) {
+            utp = new UpdatedTerrainPatch(patch);//save in here, do not update actual variables
+            updates.put(patch, utp);
+        }
+        return calculateLod(patch, locations, utp);
+    }
+
+    private boolean calculateLod(TerrainPatch patch, List<Vector3f> locations, UpdatedTerrainPatch utp) {
+        int prevLOD = patch.getLod();
         if (turnOffLod) {
             // set to full detail
-            int prevLOD = patch.getLod();
-            UpdatedTerrainPatch utp = updates.get(patch.getName());
-            if (utp == null) {
-                utp = new UpdatedTerrainPatch(patch);
-                updates.put(utp.getName(), utp);
-            }
             utp.setNewLod(0);
             utp.setPreviousLod(prevLOD);
             //utp.setReIndexNeeded(true);
@@ -106,14 +122,6 @@ public class PerspectiveLodCalculator implements LodCalculator {
                     reIndexNeeded = true;
 //                    System.out.println("lod change: "+lod+" > "+i+"    dist: "+distance);
                 }
-                int prevLOD = patch.getLod();
-
-                
-                UpdatedTerrainPatch utp = updates.get(patch.getName());
-                if (utp == null) {
-                    utp = new UpdatedTerrainPatch(patch);//save in here, do not update actual variables
-                    updates.put(utp.getName(), utp);
-                }
                 utp.setNewLod(i);
                 utp.setPreviousLod(prevLOD);
                 //utp.setReIndexNeeded(reIndexNeeded);
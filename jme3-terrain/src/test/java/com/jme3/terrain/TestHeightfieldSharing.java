@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jme3.terrain;
+
+import com.jme3.export.binary.BinaryExporter;
+import com.jme3.math.Vector2f;
+import com.jme3.terrain.collision.BaseAWTTest;
+import com.jme3.terrain.geomipmap.TerrainPatch;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that the quads and patches of a terrain share one heightfield.
+ */
+public class TestHeightfieldSharing extends BaseAWTTest {
+
+    private static final int SIZE = 65;
+
+    private static float[] createHeightMap() {
+        float[] heightMap = new float[SIZE * SIZE];
+        for (int i = 0; i < heightMap.length; i++) {
+            heightMap[i] = (i % SIZE) * 0.5f + (i / SIZE) * 0.25f;
+        }
+        return heightMap;
+    }
+
+    private static void assertShared(TerrainQuad terrain) {
+        Heightfield heightfield = terrain.getHeightfield();
+        Assert.assertNotNull(heightfield);
+        Assert.assertEquals(SIZE, heightfield.getSize());
+
+        List<TerrainPatch> patches = new ArrayList<>();
+        terrain.getAllTerrainPatches(patches);
+        Assert.assertEquals(16, patches.size());
+        for (TerrainPatch patch : patches) {
+            Assert.assertTrue(heightfield.isSharedWith(patch.getHeightfield()));
+        }
+    }
+
+    @Test
+    public void testPatchesShareHeights() {
+        float[] heightMap = createHeightMap();
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, SIZE, heightMap);
+
+        assertShared(terrain);
+        Assert.assertArrayEquals(heightMap, terrain.getHeightMap(), 0f);
+    }
+
+    @Test
+    public void testSetHeightOnSharedCorner() {
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, SIZE, createHeightMap());
+
+        // (16, 16) in the heightmap is a corner of four patches
+        Vector2f corner = new Vector2f(16 - SIZE / 2, 16 - SIZE / 2);
+        terrain.setHeight(corner, 10f);
+        Assert.assertEquals(10f, terrain.getHeightMap()[16 * SIZE + 16], 0f);
+
+        terrain.adjustHeight(corner, 2f);
+        Assert.assertEquals(12f, terrain.getHeightMap()[16 * SIZE + 16], 0f);
+    }
+
+    @Test
+    public void testCloneHasOwnHeightfield() {
+        float[] heightMap = createHeightMap();
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, SIZE, heightMap);
+        TerrainQuad clone = terrain.clone();
+
+        assertShared(clone);
+        Assert.assertFalse(clone.getHeightfield().isSharedWith(terrain.getHeightfield()));
+
+        clone.setHeight(new Vector2f(0, 0), 100f);
+        Assert.assertArrayEquals(heightMap, terrain.getHeightMap(), 0f);
+    }
+
+    @Test
+    public void testLoadedTerrainSharesHeights() {
+        float[] heightMap = createHeightMap();
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, SIZE, heightMap);
+        TerrainQuad loaded = BinaryExporter.saveAndLoad(getAssetManager(), terrain);
+
+        assertShared(loaded);
+        Assert.assertArrayEquals(heightMap, loaded.getHeightMap(), 0f);
+    }
+}
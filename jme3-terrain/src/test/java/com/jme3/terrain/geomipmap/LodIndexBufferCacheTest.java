@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.mesh.IndexBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that the terrain patches share their index buffers.
+ */
+public class LodIndexBufferCacheTest {
+
+    @Test
+    public void testPatchesShareIndexBuffer() {
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, 65, null);
+        List<TerrainPatch> patches = new ArrayList<>();
+        terrain.getAllTerrainPatches(patches);
+
+        VertexBuffer indices = patches.get(0).getMesh().getBuffer(Type.Index);
+        for (TerrainPatch patch : patches) {
+            Assert.assertSame(indices, patch.getMesh().getBuffer(Type.Index));
+        }
+    }
+
+    @Test
+    public void testCachedBufferMatchesGeomap() {
+        LODGeomap geomap = new LODGeomap(33, new float[33 * 33]);
+        VertexBuffer cached = LodIndexBufferCache.getIndexBuffer(geomap, 4, true, false, true, false);
+        IndexBuffer expected = geomap.writeIndexArrayLodDiff(4, true, false, true, false, 33);
+
+        Assert.assertEquals(expected.size(), cached.getData().limit());
+        IndexBuffer actual = IndexBuffer.wrapIndexBuffer(cached.getData());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), actual.get(i));
+        }
+
+        Assert.assertSame(cached, LodIndexBufferCache.getIndexBuffer(new LODGeomap(33, null), 4, true, false, true, false));
+        Assert.assertNotSame(cached, LodIndexBufferCache.getIndexBuffer(geomap, 4, true, false, false, false));
+        Assert.assertNotSame(cached, LodIndexBufferCache.getVariableIndexBuffer(geomap, 4, 8, 4, 8, 4));
+    }
+}
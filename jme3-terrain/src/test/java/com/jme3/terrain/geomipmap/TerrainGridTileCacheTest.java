@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector3f;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the memory budget and the eviction order of the terrain grid tile cache.
+ */
+public class TerrainGridTileCacheTest {
+
+    private static TerrainQuad tile() {
+        return new TerrainQuad("Tile", 17, 33, null);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        TerrainGridTileCache cache = new TerrainGridTileCache();
+        cache.put(new Vector3f(0, 0, 0), tile());
+        long tileSize = cache.getCurrentSize();
+        Assert.assertTrue(tileSize > 0);
+
+        cache.setMemoryBudget(tileSize * 2);
+        cache.put(new Vector3f(1, 0, 0), tile());
+        cache.get(new Vector3f(0, 0, 0));
+        cache.put(new Vector3f(2, 0, 0), tile());
+
+        Assert.assertEquals(2, cache.getTileCount());
+        Assert.assertTrue(cache.contains(new Vector3f(0, 0, 0)));
+        Assert.assertFalse(cache.contains(new Vector3f(1, 0, 0)));
+        Assert.assertTrue(cache.contains(new Vector3f(2, 0, 0)));
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(tileSize * 2, cache.getCurrentSize());
+    }
+
+    @Test
+    public void testKeepsPinnedTiles() {
+        TerrainGridTileCache cache = new TerrainGridTileCache();
+        cache.put(new Vector3f(0, 0, 0), tile());
+        cache.setMemoryBudget(cache.getCurrentSize());
+        cache.setPinned(Collections.singleton(new Vector3f(0, 0, 0)));
+
+        cache.put(new Vector3f(1, 0, 0), tile());
+        Assert.assertTrue(cache.contains(new Vector3f(0, 0, 0)));
+        Assert.assertFalse(cache.contains(new Vector3f(1, 0, 0)));
+
+        cache.setPinned(Collections.<Vector3f>emptySet());
+        cache.put(new Vector3f(1, 0, 0), tile());
+        Assert.assertFalse(cache.contains(new Vector3f(0, 0, 0)));
+        Assert.assertTrue(cache.contains(new Vector3f(1, 0, 0)));
+    }
+}
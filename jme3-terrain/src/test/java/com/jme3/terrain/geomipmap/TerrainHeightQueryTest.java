@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that the batch height and normal queries match the single ones.
+ */
+public class TerrainHeightQueryTest {
+
+    private static TerrainQuad createTerrain() {
+        Random random = new Random(42);
+        float[] heightMap = new float[65 * 65];
+        for (int i = 0; i < heightMap.length; i++) {
+            heightMap[i] = random.nextFloat() * 10f;
+        }
+        TerrainQuad terrain = new TerrainQuad("Terrain", 17, 65, heightMap);
+        terrain.setLocalTranslation(10f, 0f, -20f);
+        terrain.setLocalScale(2f, 0.5f, 3f);
+        terrain.updateGeometricState();
+        return terrain;
+    }
+
+    private static float[] createPoints(int count) {
+        Random random = new Random(7);
+        float[] xz = new float[count * 2];
+        for (int i = 0; i < count; i++) {
+            // some points lie outside the terrain
+            xz[i * 2] = 10f + (random.nextFloat() - 0.5f) * 140f;
+            xz[i * 2 + 1] = -20f + (random.nextFloat() - 0.5f) * 210f;
+        }
+        return xz;
+    }
+
+    @Test
+    public void testHeightsMatchGetHeight() {
+        TerrainQuad terrain = createTerrain();
+        float[] xz = createPoints(2000);
+        float[] heights = terrain.getHeights(xz, null);
+
+        int outside = 0;
+        for (int i = 0; i < heights.length; i++) {
+            float expected = terrain.getHeight(new Vector2f(xz[i * 2], xz[i * 2 + 1]));
+            Assert.assertEquals(expected, heights[i], 0f);
+            if (Float.isNaN(expected)) {
+                outside++;
+            }
+        }
+        Assert.assertTrue(outside > 0 && outside < heights.length);
+    }
+
+    @Test
+    public void testNormalsMatchGetNormal() {
+        TerrainQuad terrain = createTerrain();
+        float[] xz = createPoints(2000);
+        float[] normals = terrain.getNormals(xz, null);
+
+        for (int i = 0; i < xz.length / 2; i++) {
+            if (Float.isNaN(normals[i * 3])) {
+                continue; // getNormal fails outside the terrain
+            }
+            Vector3f expected = terrain.getNormal(new Vector2f(xz[i * 2], xz[i * 2 + 1]));
+            Assert.assertEquals(expected.x, normals[i * 3], 1e-6f);
+            Assert.assertEquals(expected.y, normals[i * 3 + 1], 1e-6f);
+            Assert.assertEquals(expected.z, normals[i * 3 + 2], 1e-6f);
+        }
+    }
+
+    @Test
+    public void testParallelQuery() {
+        TerrainQuad terrain = createTerrain();
+        TerrainHeightQuery query = terrain.createHeightQuery();
+        float[] xz = createPoints(20000);
+
+        Assert.assertArrayEquals(query.getHeights(xz, null), query.getHeights(xz, null, true), 0f);
+        Assert.assertArrayEquals(query.getNormals(xz, null), query.getNormals(xz, null, true), 0f);
+    }
+}
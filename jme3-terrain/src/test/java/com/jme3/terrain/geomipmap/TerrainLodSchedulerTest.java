@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2026 jMonkeyEngine
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'jMonkeyEngine' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector3f;
+import com.jme3.terrain.geomipmap.lodcalc.DistanceLodCalculator;
+import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that the scheduler only calculates the patches that may change and
+ * ends with the same LOD as a calculation of all patches.
+ */
+public class TerrainLodSchedulerTest {
+
+    private final TerrainQuad terrain = new TerrainQuad("Terrain", 17, 257, null);
+    private final LodCalculator lodCalculator = new DistanceLodCalculator(17, 2.7f);
+    private final TerrainLodScheduler scheduler = new TerrainLodScheduler();
+
+    private void update(Vector3f location) {
+        List<Vector3f> locations = Collections.singletonList(location);
+        Map<TerrainPatch, UpdatedTerrainPatch> updated = new IdentityHashMap<>();
+        if (scheduler.calculateLod(terrain, locations, updated, lodCalculator)) {
+            terrain.findNeighboursLod(updated);
+            terrain.fixEdges(updated);
+            terrain.reIndexPages(updated, lodCalculator.usesVariableLod());
+            for (UpdatedTerrainPatch utp : updated.values()) {
+                utp.updateAll();
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyNearbyPatchesAreCalculated() {
+        terrain.cacheTerrainTransforms();
+        update(new Vector3f(-100, 10, -100));
+        Assert.assertEquals(256, scheduler.getCalculatedCount());
+
+        update(new Vector3f(-99, 10, -100));
+        Assert.assertTrue(scheduler.getCalculatedCount() < 256);
+
+        // leaving the cell of one patch width calculates all patches again
+        update(new Vector3f(-80, 10, -100));
+        Assert.assertEquals(256, scheduler.getCalculatedCount());
+
+        scheduler.reset();
+        update(new Vector3f(-80, 10, -100));
+        Assert.assertEquals(256, scheduler.getCalculatedCount());
+    }
+
+    @Test
+    public void testLodMatchesFullCalculation() {
+        terrain.cacheTerrainTransforms();
+        Vector3f location = new Vector3f(-100, 10, -100);
+        for (int i = 0; i < 300; i++) {
+            location.addLocal(1.5f, 0, 0.75f);
+            update(location);
+        }
+
+        List<TerrainPatch> patches = new ArrayList<>();
+        terrain.getAllTerrainPatches(patches);
+        Map<TerrainPatch, UpdatedTerrainPatch> expected = new IdentityHashMap<>();
+        for (TerrainPatch patch : patches) {
+            lodCalculator.calculateLod(patch, Collections.singletonList(location), expected);
+            Assert.assertEquals(expected.get(patch).getNewLod(), patch.getLod());
+        }
+        for (TerrainPatch patch : patches) {
+            if (patch.rightNeighbour != null)
+                Assert.assertEquals(patch.rightNeighbour.getLod(), patch.getLodRight());
+            if (patch.bottomNeighbour != null)
+                Assert.assertEquals(patch.bottomNeighbour.getLod(), patch.getLodBottom());
+            if (patch.leftNeighbour != null)
+                Assert.assertEquals(patch.leftNeighbour.getLod(), patch.getLodLeft());
+            if (patch.topNeighbour != null)
+                Assert.assertEquals(patch.topNeighbour.getLod(), patch.getLodTop());
+        }
+    }
+}